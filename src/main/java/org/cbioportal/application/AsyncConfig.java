@@ -1,6 +1,7 @@
 package org.cbioportal.application;
 
 import java.util.concurrent.Executors;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
@@ -18,6 +19,23 @@ public class AsyncConfig {
   @Value("${multithread.core_pool_size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
   private int corePoolSize;
 
+  @Value(
+      "${analysis.executor.cpu.pool_size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+  private int analysisCpuPoolSize;
+
+  @Value("${analysis.executor.cpu.queue_capacity:10000}")
+  private int analysisCpuQueueCapacity;
+
+  @Value("${analysis.executor.io.pool_size:32}")
+  private int analysisIoPoolSize;
+
+  @Value("${analysis.executor.io.queue_capacity:1000}")
+  private int analysisIoQueueCapacity;
+
+  @Value(
+      "${analysis.request.max_concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+  private int analysisMaxConcurrencyPerRequest;
+
   @Bean
   @ConditionalOnProperty(
       value = "spring.threads.virtual.enabled",
@@ -37,6 +55,16 @@ public class AsyncConfig {
     return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
   }
 
+  @Bean(destroyMethod = "shutdown")
+  public AnalysisExecutors analysisExecutors() {
+    return new AnalysisExecutors(
+        analysisCpuPoolSize,
+        analysisCpuQueueCapacity,
+        analysisIoPoolSize,
+        analysisIoQueueCapacity,
+        analysisMaxConcurrencyPerRequest);
+  }
+
   @Bean
   @ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
   public TomcatProtocolHandlerCustomizer<?> protocolHandlerVirtualThreadExecutorCustomizer() {
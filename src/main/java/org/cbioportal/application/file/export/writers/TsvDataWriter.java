@@ -3,38 +3,40 @@ package org.cbioportal.application.file.export.writers;
 import com.google.common.collect.Iterables;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.SequencedMap;
 import java.util.SequencedSet;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.cbioportal.application.file.export.ExportException;
 import org.cbioportal.application.file.model.HeaderInfo;
+import org.cbioportal.application.file.model.Table;
 
-/** Writes TSV records to a writer */
+/**
+ * Writes TSV records to a writer. Each row is composed in a buffer that is reused for the next row,
+ * so writing a table does not allocate memory per row beyond the row values themselves.
+ */
 public class TsvDataWriter {
 
   public static final String COMMENT_STARTER = "#";
   private static final String TAB = "\t";
   private final Writer writer;
+  private final StringBuilder row = new StringBuilder();
+  private char[] rowChars = new char[0];
 
   public TsvDataWriter(Writer writer) {
     this.writer = writer;
   }
 
-  private static String composeRow(Iterable<String> row) {
-    return StreamSupport.stream(row.spliterator(), false)
-            .map(s -> s == null ? "" : s.replace(TAB, "\\t"))
-            .collect(Collectors.joining(TAB))
-        + "\n";
-  }
-
   public void write(Iterator<SequencedMap<String, String>> table) {
     SequencedSet<String> header = null;
     if (table instanceof HeaderInfo headerInfo) {
       header = writeHeaderInfoRows(headerInfo);
     }
-    writeRows(header, table);
+    if (table instanceof Table positionalTable && positionalTable.hasPositionalRows()) {
+      writePositionalRows(header, positionalTable);
+    } else {
+      writeRows(header, table);
+    }
   }
 
   private SequencedSet<String> writeHeaderInfoRows(HeaderInfo headerInfo) {
@@ -82,19 +84,58 @@ public class TsvDataWriter {
     }
   }
 
-  private void writeRow(Iterable<String> row) {
-    writeContent(composeRow(row));
+  // the columns of positional rows are fixed, only their number is checked
+  private void writePositionalRows(SequencedSet<String> header, Table table) {
+    while (table.hasNext()) {
+      String[] values = table.nextValues();
+      if (values.length != header.size()) {
+        throw new IllegalArgumentException(
+            "All rows must have as many values as the header: "
+                + header.size()
+                + " != "
+                + values.length);
+      }
+      writeRow(Arrays.asList(values));
+    }
+  }
+
+  private void writeRow(Iterable<String> values) {
+    row.setLength(0);
+    appendValues(values);
+    writeContent();
+  }
+
+  private void writeCommentsRow(Iterable<String> values) {
+    row.setLength(0);
+    row.append(COMMENT_STARTER);
+    appendValues(values);
+    writeContent();
   }
 
-  private void writeCommentsRow(Iterable<String> row) {
-    writeContent(COMMENT_STARTER + composeRow(row));
+  private void appendValues(Iterable<String> values) {
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        row.append(TAB);
+      }
+      first = false;
+      if (value != null) {
+        row.append(value.contains(TAB) ? value.replace(TAB, "\\t") : value);
+      }
+    }
+    row.append('\n');
   }
 
-  private void writeContent(String content) {
+  private void writeContent() {
+    int length = row.length();
+    if (rowChars.length < length) {
+      rowChars = new char[Math.max(length, 2 * rowChars.length)];
+    }
+    row.getChars(0, length, rowChars, 0);
     try {
-      writer.write(content);
+      writer.write(rowChars, 0, length);
     } catch (IOException e) {
-      throw new ExportException("Error while writing TSV data: " + content, e);
+      throw new ExportException("Error while writing TSV data: " + row, e);
     }
   }
 }
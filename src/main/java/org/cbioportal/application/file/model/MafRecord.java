@@ -2,14 +2,16 @@ package org.cbioportal.application.file.model;
 
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.SequencedMap;
 import java.util.SequencedSet;
 import java.util.function.Function;
 
 /** Represents a record in a Mutation Annotation Format (MAF) file. */
-public class MafRecord implements TableRow {
+public class MafRecord implements PositionalTableRow {
   private static final LinkedHashMap<String, Function<MafRecord, String>> MAF_ROW =
       new LinkedHashMap<>();
+  private static final List<Function<MafRecord, String>> MAF_VALUES;
 
   static {
     MAF_ROW.put("Hugo_Symbol", MafRecord::getHugoSymbol);
@@ -67,6 +69,7 @@ public class MafRecord implements TableRow {
         "n_ref_count",
         (mafRecord ->
             mafRecord.getnRefCount() == null ? null : mafRecord.getnRefCount().toString()));
+    MAF_VALUES = List.copyOf(MAF_ROW.sequencedValues());
   }
 
   /** A HUGO gene symbol. */
@@ -212,6 +215,15 @@ public class MafRecord implements TableRow {
     return row;
   }
 
+  @Override
+  public String[] toValues() {
+    String[] values = new String[MAF_VALUES.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = MAF_VALUES.get(i).apply(this);
+    }
+    return values;
+  }
+
   public String getHugoSymbol() {
     return hugoSymbol;
   }
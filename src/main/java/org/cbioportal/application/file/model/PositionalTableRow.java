@@ -0,0 +1,16 @@
+package org.cbioportal.application.file.model;
+
+/**
+ * A table row that also provides its values by position.
+ *
+ * <p>Large tables, e.g. mutations, are written from these values without building a map for each
+ * row. The columns of such a table are fixed, so they do not need to be checked row by row.
+ */
+public interface PositionalTableRow extends TableRow {
+  /**
+   * Retrieves the row values in the order of the columns of the header.
+   *
+   * @return the values of the row; an entry is null if the value is missing
+   */
+  String[] toValues();
+}
@@ -30,12 +30,18 @@ public class Table implements CloseableIterator<SequencedMap<String, String>>, H
 
   public Table(CloseableIterator<? extends TableRow> rows, SequencedSet<String> header) {
     this(rows);
-    if (this.rows.hasNext() && this.rows.peek().toRow().size() != header.size()) {
+    if (this.rows.hasNext() && rowSize(this.rows.peek()) != header.size()) {
       throw new IllegalArgumentException("Header size does not match row size");
     }
     this.header = header;
   }
 
+  private static int rowSize(TableRow row) {
+    return row instanceof PositionalTableRow positionalRow
+        ? positionalRow.toValues().length
+        : row.toRow().size();
+  }
+
   @Override
   public boolean hasNext() {
     return rows.hasNext();
@@ -46,6 +52,23 @@ public class Table implements CloseableIterator<SequencedMap<String, String>>, H
     return rows.next().toRow();
   }
 
+  /**
+   * Whether the rows can be read with {@link #nextValues()}, i.e. the table has a header and its
+   * rows provide their values by position.
+   */
+  public boolean hasPositionalRows() {
+    return header != null && rows.hasNext() && rows.peek() instanceof PositionalTableRow;
+  }
+
+  /**
+   * Returns the values of the next row in the order of the header, without building a map.
+   *
+   * @see #hasPositionalRows()
+   */
+  public String[] nextValues() {
+    return ((PositionalTableRow) rows.next()).toValues();
+  }
+
   @Override
   public Iterable<Iterable<String>> getComments() {
     return emptyList();
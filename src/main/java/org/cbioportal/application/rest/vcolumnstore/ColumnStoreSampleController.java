@@ -35,6 +35,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -111,7 +112,7 @@ public class ColumnStoreSampleController {
                   0,
                   null,
                   direction.name(),
-                  null,
+                  SecurityContextHolder.getContext().getAuthentication(),
                   AccessLevel.READ)
               .stream()
               .map(CancerStudy::getCancerStudyIdentifier)
@@ -32,8 +32,12 @@
 
 package org.cbioportal.application.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.cbioportal.application.security.util.CancerStudyExtractorUtil;
 import org.cbioportal.legacy.model.CancerStudy;
@@ -41,7 +45,9 @@ import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.SampleList;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
+import org.cbioportal.legacy.persistence.util.TableTimestampWatcher;
 import org.cbioportal.legacy.utils.security.AccessLevel;
 import org.cbioportal.legacy.web.parameter.ClinicalDataCountFilter;
 import org.cbioportal.legacy.web.parameter.DataBinCountFilter;
@@ -83,6 +89,9 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
       "Collection<MolecularProfileId>";
   private static final String TARGET_TYPE_COLLECTION_OF_GENETIC_PROFILE_IDS =
       "Collection<GeneticProfileId>";
+  private static final int MAX_CACHED_AUTHORITY_SETS = 1000;
+  // study groups are stored with the studies
+  private static final List<String> CANCER_STUDY_TABLES = List.of("cancer_study");
   private static final Logger log = LoggerFactory.getLogger(CancerStudyPermissionEvaluator.class);
 
   private final String APP_NAME;
@@ -92,6 +101,10 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
 
   private final String PUBLIC_CANCER_STUDIES_GROUP;
 
+  private final TableTimestampWatcher cancerStudyTimestampWatcher;
+
+  private volatile ReadableStudyIndex readableStudyIndex;
+
   //    @Value("${always_show_study_group:}")
   //    private void setPublicCancerStudiesGroup(String property) {
   //        PUBLIC_CANCER_STUDIES_GROUP = property;
@@ -108,11 +121,18 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
       final String appName,
       final String doFilterGroupsByAppName,
       final String alwaysShowCancerStudyGroup,
-      final CacheMapUtil cacheMapUtil) {
+      final CacheMapUtil cacheMapUtil,
+      final StaticDataTimeStampRepository staticDataTimeStampRepository,
+      final long readableStudiesCheckIntervalSeconds) {
     this.APP_NAME = appName;
     this.FILTER_GROUPS_BY_APP_NAME = doFilterGroupsByAppName;
     this.PUBLIC_CANCER_STUDIES_GROUP = alwaysShowCancerStudyGroup;
     this.cacheMapUtil = cacheMapUtil;
+    this.cancerStudyTimestampWatcher =
+        new TableTimestampWatcher(
+            staticDataTimeStampRepository,
+            CANCER_STUDY_TABLES,
+            readableStudiesCheckIntervalSeconds);
   }
 
   /**
@@ -328,6 +348,12 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
         log.debug("hasAccessToCancerStudy(), authority: " + authority);
       }
     }
+    return hasAccessToCancerStudy(
+        grantedAuthorities, stableStudyID, splitGroups(cancerStudy.getGroups()));
+  }
+
+  private boolean hasAccessToCancerStudy(
+      Set<String> grantedAuthorities, String stableStudyID, Set<String> groups) {
     // everybody has access the 'all' cancer study
     if (stableStudyID.equalsIgnoreCase(ALL_CANCER_STUDIES_ID)) {
       return true;
@@ -362,12 +388,6 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
     // check if user is in study groups
     // performance now takes precedence over group accuracy (minimal risk to caching cancer study
     // groups)
-    // need to filter out empty groups, this can cause issue if grantedAuthorities and groups both
-    // contain empty string
-    Set<String> groups =
-        Arrays.stream(cancerStudy.getGroups().split(";"))
-            .filter(g -> !g.isEmpty())
-            .collect(Collectors.toSet());
     if (!Collections.disjoint(groups, grantedAuthorities)) {
       if (log.isDebugEnabled()) {
         log.debug("hasAccessToCancerStudy(), user has access by groups return true");
@@ -393,6 +413,116 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
     return toReturn;
   }
 
+  private static Set<String> splitGroups(String groups) {
+    // need to filter out empty groups, this can cause issue if grantedAuthorities and groups both
+    // contain empty string
+    return Arrays.stream(groups.split(";")).filter(g -> !g.isEmpty()).collect(Collectors.toSet());
+  }
+
+  /**
+   * Filters the given elements down to the ones belonging to a study the user has access to. Gives
+   * the same result as applying {@link #hasPermission(Authentication, Object, Object)} to every
+   * element, but evaluates the study permissions only once per set of granted authorities and
+   * leaves a single set lookup per element.
+   *
+   * @param cancerStudyIdentifier extracts the stable cancer study id of an element
+   * @return a new list with the accessible elements, in their original order
+   */
+  public <T> List<T> filterByCancerStudyPermission(
+      Authentication authentication,
+      Collection<T> elements,
+      Function<T, String> cancerStudyIdentifier,
+      Object permission) {
+    if (AccessLevel.LIST == permission) {
+      return new ArrayList<>(elements);
+    }
+    if (authentication == null || authentication.getPrincipal() == null) {
+      return new ArrayList<>();
+    }
+
+    ReadableStudyIndex index = getReadableStudyIndex();
+    Set<String> readableStudyIds = index.getReadableStudyIds(getGrantedAuthorities(authentication));
+    List<T> result = new ArrayList<>();
+    for (T element : elements) {
+      String cancerStudyId = element == null ? null : cancerStudyIdentifier.apply(element);
+      boolean hasAccess;
+      if (cancerStudyId != null && index.cancerStudyMap.containsKey(cancerStudyId)) {
+        hasAccess = readableStudyIds.contains(cancerStudyId);
+      } else if (cancerStudyId != null && cancerStudyId.equalsIgnoreCase(ALL_CANCER_STUDIES_ID)) {
+        hasAccess = true;
+      } else {
+        // the study is not known to the cache map (yet), fall back to a full evaluation
+        hasAccess = hasPermission(authentication, element, permission);
+      }
+      if (hasAccess) {
+        result.add(element);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Drops the readable study sets, so that they are computed again from the cancer study map on the
+   * next request. To be called whenever the cache maps are reloaded.
+   */
+  public void invalidateReadableStudyIndex() {
+    readableStudyIndex = null;
+  }
+
+  private ReadableStudyIndex getReadableStudyIndex() {
+    // the readable study sets are computed from the cancer study map as it was when the study
+    // table last changed; the map itself cannot tell, since a spring managed CacheMapUtil hands
+    // out a new copy on every read
+    boolean cancerStudiesChanged = cancerStudyTimestampWatcher.hasChanged();
+    ReadableStudyIndex index = readableStudyIndex;
+    if (index == null || cancerStudiesChanged) {
+      index = new ReadableStudyIndex(cacheMapUtil.getCancerStudyMap());
+      readableStudyIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Pre-split groups of all cached cancer studies, together with the readable study ids computed
+   * so far for each distinct set of granted authorities.
+   */
+  private class ReadableStudyIndex {
+    private final Map<String, CancerStudy> cancerStudyMap;
+    private final Map<String, Set<String>> groupsByCancerStudyId = new HashMap<>();
+    private final Cache<Set<String>, Set<String>> readableStudyIdsByGrantedAuthorities =
+        CacheBuilder.newBuilder().maximumSize(MAX_CACHED_AUTHORITY_SETS).build();
+
+    private ReadableStudyIndex(Map<String, CancerStudy> cancerStudyMap) {
+      this.cancerStudyMap = cancerStudyMap;
+      cancerStudyMap.forEach(
+          (cancerStudyId, cancerStudy) ->
+              groupsByCancerStudyId.put(
+                  cancerStudyId,
+                  cancerStudy.getGroups() == null
+                      ? Collections.emptySet()
+                      : splitGroups(cancerStudy.getGroups())));
+    }
+
+    private Set<String> getReadableStudyIds(Set<String> grantedAuthorities) {
+      try {
+        return readableStudyIdsByGrantedAuthorities.get(
+            grantedAuthorities,
+            () -> {
+              Set<String> readableStudyIds = new HashSet<>();
+              groupsByCancerStudyId.forEach(
+                  (cancerStudyId, groups) -> {
+                    if (hasAccessToCancerStudy(grantedAuthorities, cancerStudyId, groups)) {
+                      readableStudyIds.add(cancerStudyId);
+                    }
+                  });
+              return readableStudyIds;
+            });
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+  }
+
   private boolean hasAccessToCancerStudy(
       Authentication authentication, String cancerStudyId, Object permission) {
     // everybody has access the 'all' cancer study
@@ -1,6 +1,7 @@
 package org.cbioportal.application.security.config;
 
 import org.cbioportal.application.security.CancerStudyPermissionEvaluator;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
@@ -22,9 +23,17 @@ public class MethodSecurityConfig {
       @Value("${app.name:}") String appName,
       @Value("${filter_groups_by_appname:true}") String doFilterGroupsByAppName,
       @Value("${always_show_study_group:}") String alwaysShowCancerStudyGroup,
-      CacheMapUtil cacheMapUtil) {
+      CacheMapUtil cacheMapUtil,
+      StaticDataTimeStampRepository staticDataTimeStampRepository,
+      @Value("${security.readable_studies.timestamp_check_interval_seconds:60}")
+          long readableStudiesCheckIntervalSeconds) {
     return new CancerStudyPermissionEvaluator(
-        appName, doFilterGroupsByAppName, alwaysShowCancerStudyGroup, cacheMapUtil);
+        appName,
+        doFilterGroupsByAppName,
+        alwaysShowCancerStudyGroup,
+        cacheMapUtil,
+        staticDataTimeStampRepository,
+        readableStudiesCheckIntervalSeconds);
   }
 
   @Bean
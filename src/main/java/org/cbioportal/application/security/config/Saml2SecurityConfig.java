@@ -50,7 +50,8 @@ public class Saml2SecurityConfig {
         .cors(Customizer.withDefaults())
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers("/api/health", "/images/**", "/js/**", "/login")
+                auth.requestMatchers(
+                    "/api/health", "/api/health/readiness", "/images/**", "/js/**", "/login")
                     .permitAll()
                     .anyRequest()
                     .authenticated())
@@ -53,7 +53,7 @@ abstract class AbstractAlterationCountByGeneUseCase {
         alterationRepository.getSampleProfileCountWithoutPanelData(
             studyViewFilterContext, alterationType.toString());
 
-    alterationCounts.parallelStream()
+    alterationCounts.stream()
         .forEach(
             alterationCountByGene -> {
               String hugoGeneSymbol = alterationCountByGene.getHugoGeneSymbol();
@@ -1,20 +1,17 @@
 package org.cbioportal.domain.alteration.usecase;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.cbioportal.domain.alteration.repository.AlterationRepository;
 import org.cbioportal.domain.cancerstudy.usecase.GetFilteredStudyIdsUseCase;
 import org.cbioportal.domain.generic_assay.usecase.GetFilteredMolecularProfilesByAlterationType;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.AlterationCountByGene;
 import org.cbioportal.legacy.model.AlterationType;
-import org.cbioportal.legacy.model.MutSig;
-import org.cbioportal.legacy.service.SignificantlyMutatedGeneService;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
-import org.cbioportal.legacy.web.parameter.Projection;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -23,18 +20,18 @@ import org.springframework.stereotype.Service;
 public class GetAlterationCountByGeneUseCase extends AbstractAlterationCountByGeneUseCase {
   private final AlterationRepository alterationRepository;
   private final GetFilteredStudyIdsUseCase getFilteredStudyIdsUseCase;
-  private final SignificantlyMutatedGeneService significantlyMutatedGeneService;
+  private final SignificantGeneQValueCache significantGeneQValueCache;
 
   public GetAlterationCountByGeneUseCase(
       AlterationRepository alterationRepository,
       GetFilteredMolecularProfilesByAlterationType getFilteredMolecularProfilesByAlterationType,
       GetFilteredStudyIdsUseCase getFilteredStudyIdsUseCase,
-      SignificantlyMutatedGeneService significantlyMutatedGeneService) {
+      SignificantGeneQValueCache significantGeneQValueCache) {
     super(alterationRepository, getFilteredMolecularProfilesByAlterationType);
 
     this.alterationRepository = alterationRepository;
     this.getFilteredStudyIdsUseCase = getFilteredStudyIdsUseCase;
-    this.significantlyMutatedGeneService = significantlyMutatedGeneService;
+    this.significantGeneQValueCache = significantGeneQValueCache;
   }
 
   /**
@@ -66,12 +63,11 @@ public class GetAlterationCountByGeneUseCase extends AbstractAlterationCountByGe
         };
 
     var combinedAlterationCountByGenes =
-        combineAlterationCountsWithConflictingHugoSymbols(alterationCountByGenes);
+        combineAlterationCountsWithConflictingHugoSymbols(
+            alterationCountByGenes, getMutSigQValues(studyViewFilterContext));
 
-    return populateAlterationCountsWithMutSigQValue(
-        populateAlterationCounts(
-            combinedAlterationCountByGenes, studyViewFilterContext, alterationType),
-        studyViewFilterContext);
+    return populateAlterationCounts(
+        combinedAlterationCountByGenes, studyViewFilterContext, alterationType);
   }
 
   /**
@@ -83,10 +79,11 @@ public class GetAlterationCountByGeneUseCase extends AbstractAlterationCountByGe
    *
    * @param alterationCounts List of AlterationCountByGene objects, potentially with duplicate gene
    *     symbols
+   * @param mutSigQValues MutSig q-values by Hugo gene symbol, set on the combined counts
    * @return List of AlterationCountByGene objects with unique gene symbols and combined counts
    */
   private List<AlterationCountByGene> combineAlterationCountsWithConflictingHugoSymbols(
-      List<AlterationCountByGene> alterationCounts) {
+      List<AlterationCountByGene> alterationCounts, Map<String, BigDecimal> mutSigQValues) {
     Map<String, AlterationCountByGene> alterationCountByGeneMap = new HashMap<>();
     for (var alterationCount : alterationCounts) {
       if (alterationCountByGeneMap.containsKey(alterationCount.getHugoGeneSymbol())) {
@@ -105,6 +102,10 @@ public class GetAlterationCountByGeneUseCase extends AbstractAlterationCountByGe
         // Combine total counts
         toUpdate.setTotalCount(toUpdate.getTotalCount() + alterationCount.getTotalCount());
       } else {
+        BigDecimal qValue = mutSigQValues.get(alterationCount.getHugoGeneSymbol());
+        if (qValue != null) {
+          alterationCount.setqValue(qValue);
+        }
         alterationCountByGeneMap.put(alterationCount.getHugoGeneSymbol(), alterationCount);
       }
     }
@@ -112,56 +113,18 @@ public class GetAlterationCountByGeneUseCase extends AbstractAlterationCountByGe
   }
 
   /**
-   * Updates alteration counts with MutSig Q-value data for significance.
+   * Retrieves the MutSig q-values of the filtered study.
    *
-   * @param alterationCountByGenes List of alteration counts to update.
    * @param studyViewFilterContext Context containing filter criteria.
-   * @return List of alteration counts updated with MutSig Q-value.
+   * @return MutSig q-values keyed by Hugo gene symbol, empty unless exactly one study is filtered.
    * @throws StudyNotFoundException if the specified study is not found.
    */
-  private List<AlterationCountByGene> populateAlterationCountsWithMutSigQValue(
-      List<AlterationCountByGene> alterationCountByGenes,
-      StudyViewFilterContext studyViewFilterContext)
-      throws StudyNotFoundException {
-    final var mutSigs = getMutSigs(studyViewFilterContext);
-    // If MutSig is not empty update Mutated Genes
-    return updateAlterationCountsWithMutSigQValue(alterationCountByGenes, mutSigs);
-  }
-
-  /**
-   * Retrieves MutSig data for significantly mutated genes in the specified studies.
-   *
-   * @param studyViewFilterContext Context containing filter criteria.
-   * @return Map of MutSig objects keyed by Hugo gene symbol.
-   * @throws StudyNotFoundException if the specified study is not found.
-   */
-  private Map<String, MutSig> getMutSigs(StudyViewFilterContext studyViewFilterContext)
+  private Map<String, BigDecimal> getMutSigQValues(StudyViewFilterContext studyViewFilterContext)
       throws StudyNotFoundException {
     var distinctStudyIds = getFilteredStudyIdsUseCase.execute(studyViewFilterContext);
-    Map<String, MutSig> mutSigs = new HashMap<>();
     if (distinctStudyIds.size() == 1) {
-      var studyId = distinctStudyIds.getFirst();
-      mutSigs =
-          significantlyMutatedGeneService
-              .getSignificantlyMutatedGenes(
-                  studyId, Projection.SUMMARY.name(), null, null, null, null)
-              .stream()
-              .collect(Collectors.toMap(MutSig::getHugoGeneSymbol, Function.identity()));
-    }
-    return mutSigs;
-  }
-
-  private List<AlterationCountByGene> updateAlterationCountsWithMutSigQValue(
-      List<AlterationCountByGene> alterationCountByGenes, Map<String, MutSig> mutSigs) {
-
-    if (!mutSigs.isEmpty()) {
-      alterationCountByGenes.parallelStream()
-          .filter(alterationCount -> mutSigs.containsKey(alterationCount.getHugoGeneSymbol()))
-          .forEach(
-              alterationCount ->
-                  alterationCount.setqValue(
-                      mutSigs.get(alterationCount.getHugoGeneSymbol()).getqValue()));
+      return significantGeneQValueCache.getMutSigQValues(distinctStudyIds.getFirst());
     }
-    return alterationCountByGenes;
+    return Map.of();
   }
 }
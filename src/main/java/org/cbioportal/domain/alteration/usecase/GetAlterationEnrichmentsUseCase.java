@@ -7,7 +7,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.cbioportal.domain.alteration.repository.AlterationRepository;
 import org.cbioportal.domain.alteration.util.AlterationEnrichmentScoreUtil;
@@ -19,10 +18,11 @@ import org.cbioportal.legacy.model.EnrichmentType;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisTaskScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 
@@ -35,12 +35,12 @@ public class GetAlterationEnrichmentsUseCase {
   private Map<String, MolecularProfile> molecularProfilesMap;
 
   private final AlterationRepository alterationRepository;
-  private final AsyncTaskExecutor threadPoolTaskExecutor;
+  private final AnalysisExecutors analysisExecutors;
 
   public GetAlterationEnrichmentsUseCase(
-      AlterationRepository alterationRepository, AsyncTaskExecutor threadPoolTaskExecutor) {
+      AlterationRepository alterationRepository, AnalysisExecutors analysisExecutors) {
     this.alterationRepository = alterationRepository;
-    this.threadPoolTaskExecutor = threadPoolTaskExecutor;
+    this.analysisExecutors = analysisExecutors;
   }
 
   public Collection<AlterationEnrichment> execute(
@@ -49,29 +49,22 @@ public class GetAlterationEnrichmentsUseCase {
       AlterationFilter alterationFilter) {
     Map<String, AlterationEnrichment> alterationEnrichmentByGene = new HashMap<>();
 
-    List<Pair<String, List<AlterationCountByGene>>> results =
-        molecularProfileCaseIdentifierByGroup.entrySet().stream()
-            .map(
-                entry ->
-                    threadPoolTaskExecutor.submit(
-                        () ->
-                            this.fetchAlterationCountByGeneByGroup(
-                                entry.getKey(),
-                                entry.getValue(),
-                                enrichmentType,
-                                alterationFilter)))
-            .map(
-                future -> {
-                  try {
-                    return future.get();
-                  } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt(); // Always good to restore interrupted flag
-                    throw new RuntimeException("Thread was interrupted", e);
-                  } catch (ExecutionException e) {
-                    throw new RuntimeException("Unexpected exception during execution", e);
-                  }
-                })
-            .toList();
+    List<Pair<String, List<AlterationCountByGene>>> results;
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      results =
+          scope.joinAll(
+              molecularProfileCaseIdentifierByGroup.entrySet().stream()
+                  .map(
+                      entry ->
+                          scope.forkIo(
+                              () ->
+                                  this.fetchAlterationCountByGeneByGroup(
+                                      entry.getKey(),
+                                      entry.getValue(),
+                                      enrichmentType,
+                                      alterationFilter)))
+                  .toList());
+    }
 
     results.forEach(
         alterationCountByGeneAndGroup -> {
@@ -1,5 +1,6 @@
 package org.cbioportal.domain.alteration.usecase;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,11 +11,9 @@ import org.cbioportal.domain.generic_assay.usecase.GetFilteredMolecularProfilesB
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.AlterationType;
 import org.cbioportal.legacy.model.CopyNumberCountByGene;
-import org.cbioportal.legacy.model.Gistic;
-import org.cbioportal.legacy.service.SignificantCopyNumberRegionService;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
-import org.cbioportal.legacy.service.util.AlterationCountServiceUtil;
-import org.cbioportal.legacy.web.parameter.Projection;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache.GisticQValues;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -24,18 +23,18 @@ public class GetCnaAlterationCountByGeneUseCase extends AbstractAlterationCountB
 
   private final AlterationRepository alterationRepository;
   private final GetFilteredStudyIdsUseCase getFilteredStudyIdsUseCase;
-  private final SignificantCopyNumberRegionService significantCopyNumberRegionService;
+  private final SignificantGeneQValueCache significantGeneQValueCache;
 
   public GetCnaAlterationCountByGeneUseCase(
       AlterationRepository alterationRepository,
       GetFilteredMolecularProfilesByAlterationType getFilteredMolecularProfilesByAlterationType,
       GetFilteredStudyIdsUseCase getFilteredStudyIdsUseCase,
-      SignificantCopyNumberRegionService significantCopyNumberRegionService) {
+      SignificantGeneQValueCache significantGeneQValueCache) {
     super(alterationRepository, getFilteredMolecularProfilesByAlterationType);
 
     this.alterationRepository = alterationRepository;
     this.getFilteredStudyIdsUseCase = getFilteredStudyIdsUseCase;
-    this.significantCopyNumberRegionService = significantCopyNumberRegionService;
+    this.significantGeneQValueCache = significantGeneQValueCache;
   }
 
   /**
@@ -50,13 +49,12 @@ public class GetCnaAlterationCountByGeneUseCase extends AbstractAlterationCountB
       throws StudyNotFoundException {
     var combinedCopyNumberCountByGene =
         combineCopyNumberCountsWithConflictingHugoSymbols(
-            alterationRepository.getCnaGenes(studyViewFilterContext));
-    return populateAlterationCountsWithCNASigQValue(
-        populateAlterationCounts(
-            combinedCopyNumberCountByGene,
-            studyViewFilterContext,
-            AlterationType.COPY_NUMBER_ALTERATION),
-        studyViewFilterContext);
+            alterationRepository.getCnaGenes(studyViewFilterContext),
+            getGisticQValues(studyViewFilterContext));
+    return populateAlterationCounts(
+        combinedCopyNumberCountByGene,
+        studyViewFilterContext,
+        AlterationType.COPY_NUMBER_ALTERATION);
   }
 
   /**
@@ -70,10 +68,11 @@ public class GetCnaAlterationCountByGeneUseCase extends AbstractAlterationCountB
    *
    * @param alterationCounts List of CopyNumberCountByGene objects, potentially with duplicate gene
    *     symbols
+   * @param gisticQValues GISTIC q-values set on the combined counts
    * @return List of AlterationCountByGene objects with unique gene symbols and combined counts
    */
   private List<CopyNumberCountByGene> combineCopyNumberCountsWithConflictingHugoSymbols(
-      List<CopyNumberCountByGene> alterationCounts) {
+      List<CopyNumberCountByGene> alterationCounts, GisticQValues gisticQValues) {
     Map<Pair<String, Integer>, CopyNumberCountByGene> alterationCountByGeneMap = new HashMap<>();
     for (var alterationCount : alterationCounts) {
       var copyNumberKey =
@@ -84,6 +83,11 @@ public class GetCnaAlterationCountByGeneUseCase extends AbstractAlterationCountB
             toUpdate.getNumberOfAlteredCases() + alterationCount.getNumberOfAlteredCases());
         toUpdate.setTotalCount(toUpdate.getTotalCount() + alterationCount.getTotalCount());
       } else {
+        BigDecimal qValue =
+            gisticQValues.get(alterationCount.getHugoGeneSymbol(), alterationCount.getAlteration());
+        if (qValue != null) {
+          alterationCount.setqValue(qValue);
+        }
         alterationCountByGeneMap.put(copyNumberKey, alterationCount);
       }
     }
@@ -91,63 +95,18 @@ public class GetCnaAlterationCountByGeneUseCase extends AbstractAlterationCountB
   }
 
   /**
-   * Updates copy number alteration counts with GISTIC significance data.
+   * Retrieves the GISTIC q-values of the filtered study.
    *
-   * @param alterationCountByGenes List of alteration counts to update.
    * @param studyViewFilterContext Context containing filter criteria.
-   * @return List of alteration counts updated with GISTIC significance data.
+   * @return GISTIC q-values, empty unless exactly one study is filtered.
    * @throws StudyNotFoundException if the specified study is not found.
    */
-  private List<CopyNumberCountByGene> populateAlterationCountsWithCNASigQValue(
-      List<CopyNumberCountByGene> alterationCountByGenes,
-      StudyViewFilterContext studyViewFilterContext)
+  private GisticQValues getGisticQValues(StudyViewFilterContext studyViewFilterContext)
       throws StudyNotFoundException {
-    final var gisticMap = getGisticMap(studyViewFilterContext);
-    return updateAlterationCountsWithCNASigQValue(alterationCountByGenes, gisticMap);
-  }
-
-  /**
-   * Retrieves GISTIC data for significant copy number alterations in the specified studies.
-   *
-   * @param studyViewFilterContext Context containing filter criteria.
-   * @return Map of GISTIC objects keyed by gene and G-score rank.
-   * @throws StudyNotFoundException if the specified study is not found.
-   */
-  private Map<Pair<String, Integer>, Gistic> getGisticMap(
-      StudyViewFilterContext studyViewFilterContext) throws StudyNotFoundException {
     var distinctStudyIds = getFilteredStudyIdsUseCase.execute(studyViewFilterContext);
-    Map<Pair<String, Integer>, Gistic> gisticMap = new HashMap<>();
     if (distinctStudyIds.size() == 1) {
-      var studyId = distinctStudyIds.getFirst();
-      List<Gistic> gisticList =
-          significantCopyNumberRegionService.getSignificantCopyNumberRegions(
-              studyId, Projection.SUMMARY.name(), null, null, null, null);
-      AlterationCountServiceUtil.setupGisticMap(gisticList, gisticMap);
-    }
-    return gisticMap;
-  }
-
-  private List<CopyNumberCountByGene> updateAlterationCountsWithCNASigQValue(
-      List<CopyNumberCountByGene> alterationCountByGenes,
-      Map<Pair<String, Integer>, Gistic> gisticMap) {
-
-    if (!gisticMap.isEmpty()) {
-      alterationCountByGenes.parallelStream()
-          .filter(
-              alterationCount ->
-                  gisticMap.containsKey(
-                      Pair.create(
-                          alterationCount.getHugoGeneSymbol(), alterationCount.getAlteration())))
-          .forEach(
-              alterationCount ->
-                  alterationCount.setqValue(
-                      gisticMap
-                          .get(
-                              Pair.create(
-                                  alterationCount.getHugoGeneSymbol(),
-                                  alterationCount.getAlteration()))
-                          .getqValue()));
+      return significantGeneQValueCache.getGisticQValues(distinctStudyIds.getFirst());
     }
-    return alterationCountByGenes;
+    return new GisticQValues(Map.of(), Map.of());
   }
 }
@@ -3,6 +3,7 @@ package org.cbioportal.domain.clinical_data.repository;
 import java.util.List;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 
 /** Repository interface for retrieving clinical data related to patients and samples. */
@@ -44,4 +45,22 @@ public interface ClinicalDataRepository {
       List<String> sampleAttributeIds,
       List<String> patientAttributeIds,
       List<String> conflictingAttributeIds);
+
+  /**
+   * Retrieves the clinical data counts of each of the given studies without any filter. The counts
+   * are precomputed when the data is imported and are summed up across studies by the caller; NA
+   * values are not counted.
+   *
+   * @param studyIds The studies to retrieve the counts for.
+   * @param sampleAttributeIds A list of sample attributes.
+   * @param patientAttributeIds A list of patient attributes.
+   * @param conflictingAttributeIds A list of attributes that are sample attributes in some studies
+   *     and patient attributes in others, counted per sample.
+   * @return A list of {@link ClinicalDataCount}, one per study, attribute and value.
+   */
+  List<ClinicalDataCount> getUnfilteredClinicalDataCounts(
+      List<String> studyIds,
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingAttributeIds);
 }
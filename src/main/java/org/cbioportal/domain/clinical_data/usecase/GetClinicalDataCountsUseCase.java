@@ -1,6 +1,9 @@
 package org.cbioportal.domain.clinical_data.usecase;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.cbioportal.domain.clinical_attributes.usecase.GetClinicalAttributesForStudiesUseCase;
 import org.cbioportal.domain.clinical_data.repository.ClinicalDataRepository;
 import org.cbioportal.domain.clinical_data.util.ClinicalAttributeUtil;
@@ -9,6 +12,7 @@ import org.cbioportal.domain.patient.usecase.GetFilteredPatientCountUseCase;
 import org.cbioportal.domain.sample.usecase.GetFilteredSamplesCountUseCase;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalAttribute;
+import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.cbioportal.legacy.service.util.StudyViewColumnarServiceUtil;
 import org.springframework.context.annotation.Profile;
@@ -79,12 +83,22 @@ public class GetClinicalDataCountsUseCase {
     List<String> patientAttributeIds = categorizedAttributeIds.patientAttributeIds();
     List<String> conflictingAttributeIds = categorizedAttributeIds.conflictingAttributeIds();
 
-    var result =
-        clinicalDataRepository.getClinicalDataCounts(
-            studyViewFilterContext,
-            sampleAttributeIds,
-            patientAttributeIds,
-            conflictingAttributeIds);
+    List<ClinicalDataCountItem> result;
+    if (studyViewFilterContext.isUnfiltered()) {
+      result =
+          getUnfilteredClinicalDataCounts(
+              studyViewFilterContext,
+              sampleAttributeIds,
+              patientAttributeIds,
+              conflictingAttributeIds);
+    } else {
+      result =
+          clinicalDataRepository.getClinicalDataCounts(
+              studyViewFilterContext,
+              sampleAttributeIds,
+              patientAttributeIds,
+              conflictingAttributeIds);
+    }
 
     // Normalize data counts so that values like TRUE, True, and true are all merged in one count
     result.forEach(
@@ -110,4 +124,74 @@ public class GetClinicalDataCountsUseCase {
 
     return StudyViewColumnarServiceUtil.mergeClinicalDataCounts(result);
   }
+
+  /**
+   * Sums up the precomputed counts of the involved studies and adds the NA counts, which gives the
+   * same counts as {@link ClinicalDataRepository#getClinicalDataCounts} for a context without
+   * filters, without counting the clinical data of every sample.
+   */
+  private List<ClinicalDataCountItem> getUnfilteredClinicalDataCounts(
+      StudyViewFilterContext studyViewFilterContext,
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingAttributeIds) {
+    List<ClinicalDataCountItem> result = new ArrayList<>();
+    if (sampleAttributeIds.isEmpty()
+        && patientAttributeIds.isEmpty()
+        && conflictingAttributeIds.isEmpty()) {
+      return result;
+    }
+
+    // attribute id -> value -> count, summed up across studies
+    Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+    for (ClinicalDataCount studyCount :
+        clinicalDataRepository.getUnfilteredClinicalDataCounts(
+            studyViewFilterContext.customDataFilterCancerStudies(),
+            sampleAttributeIds,
+            patientAttributeIds,
+            conflictingAttributeIds)) {
+      counts
+          .computeIfAbsent(studyCount.getAttributeId(), attributeId -> new LinkedHashMap<>())
+          .merge(studyCount.getValue(), studyCount.getCount(), Integer::sum);
+    }
+    if (counts.isEmpty()) {
+      return result;
+    }
+
+    // conflicting attributes are counted per sample, like sample attributes
+    int sampleCount = getFilteredSamplesCountUseCase.execute(studyViewFilterContext);
+    int patientCount =
+        counts.keySet().stream().anyMatch(patientAttributeIds::contains)
+            ? getFilteredPatientCountUseCase.execute(studyViewFilterContext)
+            : 0;
+
+    counts.forEach(
+        (attributeId, valueCounts) -> {
+          List<ClinicalDataCount> dataCounts = new ArrayList<>();
+          int sum = 0;
+          for (Map.Entry<String, Integer> valueCount : valueCounts.entrySet()) {
+            dataCounts.add(
+                createClinicalDataCount(attributeId, valueCount.getKey(), valueCount.getValue()));
+            sum += valueCount.getValue();
+          }
+          int naCount =
+              (patientAttributeIds.contains(attributeId) ? patientCount : sampleCount) - sum;
+          if (naCount > 0) {
+            dataCounts.add(createClinicalDataCount(attributeId, "NA", naCount));
+          }
+          ClinicalDataCountItem item = new ClinicalDataCountItem();
+          item.setAttributeId(attributeId);
+          item.setCounts(dataCounts);
+          result.add(item);
+        });
+    return result;
+  }
+
+  private ClinicalDataCount createClinicalDataCount(String attributeId, String value, int count) {
+    ClinicalDataCount clinicalDataCount = new ClinicalDataCount();
+    clinicalDataCount.setAttributeId(attributeId);
+    clinicalDataCount.setValue(value);
+    clinicalDataCount.setCount(count);
+    return clinicalDataCount;
+  }
 }
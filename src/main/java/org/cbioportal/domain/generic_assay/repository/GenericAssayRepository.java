@@ -1,6 +1,7 @@
 package org.cbioportal.domain.generic_assay.repository;
 
 import java.util.List;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenericAssayDataCountItem;
@@ -35,11 +36,14 @@ public interface GenericAssayRepository {
    *
    * @param studyViewFilterContext The filter criteria for the study view.
    * @param genericAssayDataBinFilters A list of bin filters to apply to the assay data.
+   * @param numericalDataBins Numerical bins whose values are merged into a single count per bin,
+   *     see {@link NumericalDataBins}. May be empty.
    * @return A list of {@link ClinicalDataCount} representing bin counts for the generic assay data.
    */
   List<ClinicalDataCount> getGenericAssayDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenericAssayDataBinFilter> genericAssayDataBinFilters);
+      List<GenericAssayDataBinFilter> genericAssayDataBinFilters,
+      List<NumericalDataBins> numericalDataBins);
 
   /**
    * Retrieves counts for generic assay data based on the study view filter context and specified
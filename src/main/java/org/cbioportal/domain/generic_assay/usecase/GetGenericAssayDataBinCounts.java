@@ -2,6 +2,7 @@ package org.cbioportal.domain.generic_assay.usecase;
 
 import java.util.List;
 import org.cbioportal.domain.generic_assay.repository.GenericAssayRepository;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.web.parameter.GenericAssayDataBinFilter;
@@ -43,7 +44,25 @@ public class GetGenericAssayDataBinCounts {
   public List<ClinicalDataCount> execute(
       StudyViewFilterContext studyViewFilterContext,
       List<GenericAssayDataBinFilter> genericAssayDataBinFilters) {
+    return execute(studyViewFilterContext, genericAssayDataBinFilters, List.of());
+  }
+
+  /**
+   * Executes the use case to retrieve binned counts of generic assay data, with the values of the
+   * given numerical bins counted by the repository.
+   *
+   * @param studyViewFilterContext the context containing study view filter criteria. Must not be
+   *     {@code null}.
+   * @param genericAssayDataBinFilters a list of filters to apply to the generic assay data for
+   *     binning. Must not be {@code null}.
+   * @param numericalDataBins numerical bins of the unfiltered data. Must not be {@code null}.
+   * @return a list of {@link ClinicalDataCount} objects with a single count per numerical bin.
+   */
+  public List<ClinicalDataCount> execute(
+      StudyViewFilterContext studyViewFilterContext,
+      List<GenericAssayDataBinFilter> genericAssayDataBinFilters,
+      List<NumericalDataBins> numericalDataBins) {
     return genericAssayRepository.getGenericAssayDataBinCounts(
-        studyViewFilterContext, genericAssayDataBinFilters);
+        studyViewFilterContext, genericAssayDataBinFilters, numericalDataBins);
   }
 }
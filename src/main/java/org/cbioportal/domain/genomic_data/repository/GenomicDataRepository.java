@@ -2,6 +2,7 @@ package org.cbioportal.domain.genomic_data.repository;
 
 import java.util.List;
 import java.util.Map;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenomicDataCount;
@@ -35,12 +36,15 @@ public interface GenomicDataRepository {
    *     {@code null}.
    * @param genomicDataBinFilters a list of filters to apply to the genomic data for binning. Must
    *     not be {@code null}.
+   * @param numericalDataBins numerical bins whose values are merged into a single count per bin,
+   *     see {@link NumericalDataBins}. May be empty.
    * @return a list of {@link ClinicalDataCount} objects representing the binned genomic data
    *     counts.
    */
   List<ClinicalDataCount> getGenomicDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenomicDataBinFilter> genomicDataBinFilters);
+      List<GenomicDataBinFilter> genomicDataBinFilters,
+      List<NumericalDataBins> numericalDataBins);
 
   /**
    * Retrieves copy number alteration (CNA) counts based on the provided study view filter context
@@ -2,6 +2,7 @@ package org.cbioportal.domain.genomic_data.usecase;
 
 import java.util.List;
 import org.cbioportal.domain.genomic_data.repository.GenomicDataRepository;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.web.parameter.GenomicDataBinFilter;
@@ -38,7 +39,23 @@ public class GetGenomicDataBinCountsUseCase {
   public List<ClinicalDataCount> execute(
       StudyViewFilterContext studyViewFilterContext,
       List<GenomicDataBinFilter> genomicDataFilters) {
+    return execute(studyViewFilterContext, genomicDataFilters, List.of());
+  }
+
+  /**
+   * Executes the use case to retrieve genomic data bin counts, with the values of the given
+   * numerical bins counted by the repository.
+   *
+   * @param studyViewFilterContext the context of the study view filter to apply
+   * @param genomicDataFilters a list of genomic data bin filters to apply
+   * @param numericalDataBins numerical bins of the unfiltered data
+   * @return a list of {@link ClinicalDataCount} with a single count per numerical bin
+   */
+  public List<ClinicalDataCount> execute(
+      StudyViewFilterContext studyViewFilterContext,
+      List<GenomicDataBinFilter> genomicDataFilters,
+      List<NumericalDataBins> numericalDataBins) {
     return genomicDataRepository.getGenomicDataBinCounts(
-        studyViewFilterContext, genomicDataFilters);
+        studyViewFilterContext, genomicDataFilters, numericalDataBins);
   }
 }
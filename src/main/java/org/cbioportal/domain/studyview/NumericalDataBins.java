@@ -0,0 +1,95 @@
+package org.cbioportal.domain.studyview;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.cbioportal.legacy.model.DataBin;
+import org.cbioportal.legacy.web.util.DataBinHelper;
+
+/**
+ * Numerical bins of a single attribute, sent along with a value count query so that the database
+ * merges all values of a bin into a single (value, count) row instead of returning every distinct
+ * value.
+ *
+ * <p>The bins are still counted by {@link org.cbioportal.legacy.web.util.DataBinner}, which
+ * compares values and bin boundaries as doubles. The database compares them as decimals, and only
+ * merges plain decimal values with at most {@value #MAX_DIGITS} digits. Such values and boundaries
+ * convert to distinct doubles in the same order, so both comparisons agree and the counts are the
+ * same as for the unmerged rows. All other values are returned as before.
+ *
+ * @param attributeId the attribute id as returned by the value count query
+ * @param bins disjoint numerical bins
+ */
+public record NumericalDataBins(String attributeId, List<Bin> bins) {
+
+  /** Number of decimal digits that survive a conversion to double and back. */
+  public static final int MAX_DIGITS = 15;
+
+  // Decimal128 with MAX_DIGITS fractional digits leaves 23 integer digits
+  private static final int MAX_INTEGER_DIGITS = 23;
+
+  /**
+   * @param start lower bound in plain notation, or null if unbounded
+   * @param end upper bound in plain notation, or null if unbounded
+   */
+  public record Bin(String start, boolean startInclusive, String end, boolean endInclusive) {}
+
+  /**
+   * @param attributeId the attribute id as returned by the value count query
+   * @param dataBins bins of the unfiltered data, non-numerical bins are ignored
+   * @return the numerical bins, or empty if there are none or the database cannot count them
+   *     exactly like the binner, i.e. a boundary has too many digits or bins overlap
+   */
+  public static Optional<NumericalDataBins> of(String attributeId, List<DataBin> dataBins) {
+    List<Range<BigDecimal>> ranges = new ArrayList<>();
+    List<Bin> bins = new ArrayList<>();
+    for (DataBin dataBin : dataBins) {
+      Range<BigDecimal> range = DataBinHelper.calcRange(dataBin);
+      if (range == null) {
+        continue;
+      }
+      BigDecimal start = range.hasLowerBound() ? range.lowerEndpoint() : null;
+      BigDecimal end = range.hasUpperBound() ? range.upperEndpoint() : null;
+      if (!isExact(start) || !isExact(end) || overlapsAny(range, ranges)) {
+        return Optional.empty();
+      }
+      ranges.add(range);
+      bins.add(
+          new Bin(
+              toPlainString(start),
+              start != null && range.lowerBoundType() == BoundType.CLOSED,
+              toPlainString(end),
+              end != null && range.upperBoundType() == BoundType.CLOSED));
+    }
+    if (bins.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new NumericalDataBins(attributeId, bins));
+  }
+
+  private static boolean isExact(BigDecimal value) {
+    if (value == null) {
+      return true;
+    }
+    BigDecimal stripped = value.stripTrailingZeros();
+    return stripped.precision() <= MAX_DIGITS
+        && stripped.scale() <= MAX_DIGITS
+        && stripped.precision() - stripped.scale() <= MAX_INTEGER_DIGITS;
+  }
+
+  private static boolean overlapsAny(Range<BigDecimal> range, List<Range<BigDecimal>> ranges) {
+    for (Range<BigDecimal> other : ranges) {
+      if (range.isConnected(other) && !range.intersection(other).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String toPlainString(BigDecimal value) {
+    return value == null ? null : value.stripTrailingZeros().toPlainString();
+  }
+}
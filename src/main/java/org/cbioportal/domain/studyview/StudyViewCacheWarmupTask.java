@@ -0,0 +1,49 @@
+package org.cbioportal.domain.studyview;
+
+import java.util.List;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
+import org.cbioportal.legacy.service.util.StudyCacheWarmupTask;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Primes the cached unfiltered study view queries of a study, so that the first visitors of the
+ * largest studies do not wait for ClickHouse. Does nothing when the ClickHouse caches are disabled.
+ */
+@Component
+@Profile("clickhouse")
+public class StudyViewCacheWarmupTask implements StudyCacheWarmupTask {
+
+  private final StudyViewService studyViewService;
+  private final CacheEnabledConfig cacheEnabledConfig;
+
+  public StudyViewCacheWarmupTask(
+      StudyViewService studyViewService, CacheEnabledConfig cacheEnabledConfig) {
+    this.studyViewService = studyViewService;
+    this.cacheEnabledConfig = cacheEnabledConfig;
+  }
+
+  @Override
+  public String getName() {
+    return "studyView";
+  }
+
+  @Override
+  public void warmUp(String studyId) throws Exception {
+    if (!cacheEnabledConfig.isEnabledClickhouse()) {
+      return;
+    }
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(List.of(studyId));
+
+    studyViewService.getFilteredSamples(studyViewFilter);
+    studyViewService.getMutatedGenes(studyViewFilter);
+    studyViewService.getCnaGenes(studyViewFilter);
+    studyViewService.getStructuralVariantGenes(studyViewFilter);
+    studyViewService.getMolecularProfileSampleCounts(studyViewFilter);
+    studyViewService.getCaseListDataCounts(studyViewFilter);
+    studyViewService.getClinicalEventTypeCounts(studyViewFilter);
+    studyViewService.getClinicalAttributesForStudies(List.of(studyId));
+  }
+}
@@ -1,5 +1,6 @@
 package org.cbioportal.domain.studyview;
 
+import java.util.Collection;
 import java.util.List;
 import org.cbioportal.legacy.model.AlterationFilter;
 import org.cbioportal.legacy.model.GeneFilter;
@@ -51,8 +52,32 @@ public record StudyViewFilterContext(
     }
   }
 
+  /**
+   * @return true if the context selects all samples of {@link #customDataFilterCancerStudies()},
+   *     i.e. no sample identifiers and none of the filters that narrow down the samples are set
+   */
+  public boolean isUnfiltered() {
+    return !isEmpty(customDataFilterCancerStudies)
+        && isEmpty(sampleIdentifiers)
+        && isEmpty(clinicalDataFilters)
+        && isEmpty(geneFilters)
+        && (sampleTreatmentFilters == null || isEmpty(sampleTreatmentFilters.getFilters()))
+        && (patientTreatmentFilters == null || isEmpty(patientTreatmentFilters.getFilters()))
+        && isEmpty(genomicProfiles)
+        && isEmpty(genomicDataFilters)
+        && isEmpty(genericAssayDataFilters)
+        && isEmpty(caseLists)
+        && isEmpty(customDataFilters)
+        && isEmpty(clinicalEventFilters)
+        && isEmpty(mutationDataFilters);
+  }
+
   public boolean isCategoricalClinicalDataFilter(ClinicalDataFilter clinicalDataFilter) {
     var filterValue = clinicalDataFilter.getValues().getFirst();
     return filterValue.getValue() != null;
   }
+
+  private static boolean isEmpty(Collection<?> collection) {
+    return collection == null || collection.isEmpty();
+  }
 }
@@ -98,6 +98,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<Sample> getFilteredSamples(StudyViewFilter studyViewFilter) {
@@ -106,6 +107,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<AlterationCountByGene> getMutatedGenes(StudyViewFilter studyViewFilter)
@@ -117,6 +119,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<CopyNumberCountByGene> getCnaGenes(StudyViewFilter studyViewFilter)
@@ -128,6 +131,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<AlterationCountByGene> getStructuralVariantGenes(StudyViewFilter studyViewFilter)
@@ -139,6 +143,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<GenomicDataCount> getMolecularProfileSampleCounts(StudyViewFilter studyViewFilter)
@@ -150,6 +155,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalEventTypeCount> getClinicalEventTypeCounts(StudyViewFilter studyViewFilter) {
@@ -158,6 +164,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public PatientTreatmentReport getPatientTreatmentReport(StudyViewFilter studyViewFilter) {
@@ -168,6 +175,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public SampleTreatmentReport getSampleTreatmentReport(
@@ -179,6 +187,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalDataCountItem> getGenomicDataBinCounts(
@@ -191,6 +200,25 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
+      condition =
+          "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
+  public List<ClinicalDataCountItem> getGenomicDataBinCounts(
+      StudyViewFilter studyViewFilter,
+      List<GenomicDataBinFilter> genomicDataBinFilters,
+      List<NumericalDataBins> numericalDataBins) {
+    return ClinicalDataCountItemUtil.generateDataCountItems(
+        genomicDataUseCases
+            .getGenomicDataBinCountsUseCase()
+            .execute(
+                buildStudyViewFilterContext(studyViewFilter),
+                genomicDataBinFilters,
+                numericalDataBins));
+  }
+
+  @Cacheable(
+      cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalDataCountItem> getGenericAssayDataBinCounts(
@@ -203,6 +231,25 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
+      condition =
+          "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
+  public List<ClinicalDataCountItem> getGenericAssayDataBinCounts(
+      StudyViewFilter studyViewFilter,
+      List<GenericAssayDataBinFilter> genericAssayDataBinFilters,
+      List<NumericalDataBins> numericalDataBins) {
+    return ClinicalDataCountItemUtil.generateDataCountItems(
+        genericAssayUseCases
+            .getGenericAssayDataBinCounts()
+            .execute(
+                buildStudyViewFilterContext(studyViewFilter),
+                genericAssayDataBinFilters,
+                numericalDataBins));
+  }
+
+  @Cacheable(
+      cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public Map<String, ClinicalDataType> getClinicalAttributeDataTypeMap(
@@ -212,6 +259,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalDataCountItem> getClinicalDataCounts(
@@ -223,6 +271,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalAttribute> getClinicalAttributesForStudies(List<String> studyIds) {
@@ -231,6 +280,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<CaseListDataCount> getCaseListDataCounts(StudyViewFilter studyViewFilter) {
@@ -240,6 +290,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalData> getPatientClinicalData(
@@ -251,6 +302,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalData> getSampleClinicalData(
@@ -262,6 +314,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<GenomicDataCountItem> getCNACountsByGeneSpecific(
@@ -273,6 +326,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<GenericAssayDataCountItem> getGenericAssayDataCounts(
@@ -284,6 +338,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<GenomicDataCountItem> getMutationCountsByGeneSpecific(
@@ -303,6 +358,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<GenomicDataCountItem> getMutationTypeCountsByGeneSpecific(
@@ -314,6 +370,7 @@ public class StudyViewService {
 
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
+      sync = true,
       condition =
           "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)")
   public List<ClinicalData> getClinicalDataForXyPlot(
@@ -3,6 +3,7 @@ package org.cbioportal.infrastructure.repository.clickhouse.clinical_data;
 import java.util.List;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 
 /**
@@ -27,6 +28,23 @@ public interface ClickhouseClinicalDataMapper {
       List<String> patientAttributeIds,
       List<String> conflictingAttributeIds);
 
+  /**
+   * Retrieves the clinical data counts of each of the given studies without any study view filter,
+   * as precomputed in the clinical_data_count_derived table. NA values are not counted.
+   *
+   * @param studyIds the studies to retrieve the counts for
+   * @param sampleAttributeIds the list of sample attribute IDs
+   * @param patientAttributeIds the list of patient attribute IDs
+   * @param conflictingAttributeIds the list of both sample and patient attribute IDs, counted per
+   *     sample
+   * @return a list of clinical data counts, one per study, attribute and value
+   */
+  List<ClinicalDataCount> getUnfilteredClinicalDataCounts(
+      List<String> studyIds,
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingAttributeIds);
+
   /**
    * Retrieves sample clinical data based on the study view filter context and attribute IDs.
    *
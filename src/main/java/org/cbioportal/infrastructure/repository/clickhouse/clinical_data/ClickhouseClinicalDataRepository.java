@@ -4,6 +4,7 @@ import java.util.List;
 import org.cbioportal.domain.clinical_data.repository.ClinicalDataRepository;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
@@ -41,4 +42,14 @@ public class ClickhouseClinicalDataRepository implements ClinicalDataRepository
     return mapper.getClinicalDataCounts(
         studyViewFilterContext, sampleAttributeIds, patientAttributeIds, conflictingAttributeIds);
   }
+
+  @Override
+  public List<ClinicalDataCount> getUnfilteredClinicalDataCounts(
+      List<String> studyIds,
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingAttributeIds) {
+    return mapper.getUnfilteredClinicalDataCounts(
+        studyIds, sampleAttributeIds, patientAttributeIds, conflictingAttributeIds);
+  }
 }
@@ -1,6 +1,7 @@
 package org.cbioportal.infrastructure.repository.clickhouse.generic_assay;
 
 import java.util.List;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenericAssayDataCountItem;
@@ -39,11 +40,13 @@ public interface ClickhouseGenericAssayMapper {
    *
    * @param studyViewFilterContext the context of the study view filter
    * @param genericAssayDataBinFilters the list of bin filters
+   * @param numericalDataBins numerical bins whose values are returned as a single row per bin
    * @return a list of generic assay data bin counts
    */
   List<ClinicalDataCount> getGenericAssayDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenericAssayDataBinFilter> genericAssayDataBinFilters);
+      List<GenericAssayDataBinFilter> genericAssayDataBinFilters,
+      List<NumericalDataBins> numericalDataBins);
 
   /**
    * Retrieves the generic assay data counts based on the study view filter context and the provided
@@ -2,6 +2,7 @@ package org.cbioportal.infrastructure.repository.clickhouse.generic_assay;
 
 import java.util.List;
 import org.cbioportal.domain.generic_assay.repository.GenericAssayRepository;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenericAssayDataCountItem;
@@ -36,8 +37,10 @@ public class ClickhouseGenericAssayRepository implements GenericAssayRepository
   @Override
   public List<ClinicalDataCount> getGenericAssayDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenericAssayDataBinFilter> genericAssayDataBinFilters) {
-    return mapper.getGenericAssayDataBinCounts(studyViewFilterContext, genericAssayDataBinFilters);
+      List<GenericAssayDataBinFilter> genericAssayDataBinFilters,
+      List<NumericalDataBins> numericalDataBins) {
+    return mapper.getGenericAssayDataBinCounts(
+        studyViewFilterContext, genericAssayDataBinFilters, numericalDataBins);
   }
 
   @Override
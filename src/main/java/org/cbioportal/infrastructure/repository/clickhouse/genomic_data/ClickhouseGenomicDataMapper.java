@@ -3,6 +3,7 @@ package org.cbioportal.infrastructure.repository.clickhouse.genomic_data;
 import java.util.List;
 import java.util.Map;
 import org.apache.ibatis.annotations.Param;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenomicDataCount;
@@ -32,11 +33,13 @@ public interface ClickhouseGenomicDataMapper {
    *
    * @param studyViewFilterContext the context of the study view filter
    * @param genomicDataBinFilters the list of genomic data bin filters
+   * @param numericalDataBins numerical bins whose values are returned as a single row per bin
    * @return a list of genomic data bin counts
    */
   List<ClinicalDataCount> getGenomicDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenomicDataBinFilter> genomicDataBinFilters);
+      List<GenomicDataBinFilter> genomicDataBinFilters,
+      List<NumericalDataBins> numericalDataBins);
 
   /**
    * Retrieves CNAs counts based on the study view filter context and genomic data filters.
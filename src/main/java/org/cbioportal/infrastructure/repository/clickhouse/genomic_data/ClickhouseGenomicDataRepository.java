@@ -3,6 +3,7 @@ package org.cbioportal.infrastructure.repository.clickhouse.genomic_data;
 import java.util.List;
 import java.util.Map;
 import org.cbioportal.domain.genomic_data.repository.GenomicDataRepository;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterContext;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.GenomicDataCount;
@@ -31,8 +32,10 @@ public class ClickhouseGenomicDataRepository implements GenomicDataRepository {
   @Override
   public List<ClinicalDataCount> getGenomicDataBinCounts(
       StudyViewFilterContext studyViewFilterContext,
-      List<GenomicDataBinFilter> genomicDataBinFilters) {
-    return mapper.getGenomicDataBinCounts(studyViewFilterContext, genomicDataBinFilters);
+      List<GenomicDataBinFilter> genomicDataBinFilters,
+      List<NumericalDataBins> numericalDataBins) {
+    return mapper.getGenomicDataBinCounts(
+        studyViewFilterContext, genomicDataBinFilters, numericalDataBins);
   }
 
   @Override
@@ -4,16 +4,12 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewService;
-import org.cbioportal.legacy.model.Binnable;
-import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataBin;
-import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.cbioportal.legacy.model.DataBin;
 import org.cbioportal.legacy.model.GenericAssayDataBin;
@@ -34,6 +30,7 @@ import org.cbioportal.legacy.web.parameter.GenomicDataBinCountFilter;
 import org.cbioportal.legacy.web.parameter.GenomicDataBinFilter;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.BinnableColumn;
 import org.cbioportal.legacy.web.util.DataBinner;
 import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +47,7 @@ import org.springframework.stereotype.Component;
 @Component
 @Profile("clickhouse")
 public class BasicDataBinner {
+
   private final StudyViewService studyViewService;
   private final DataBinner dataBinner;
   private final CustomDataFilterUtil customDataFilterUtil;
@@ -70,14 +68,6 @@ public class BasicDataBinner {
     this.studyViewFilterUtil = studyViewFilterUtil;
   }
 
-  // convert from counts to clinical data
-  private List<ClinicalData> convertCountsToData(List<ClinicalDataCount> clinicalDataCounts) {
-    return clinicalDataCounts.stream()
-        .map(NewClinicalDataBinUtil::generateClinicalDataFromClinicalDataCount)
-        .flatMap(Collection::stream)
-        .toList();
-  }
-
   @Cacheable(
       cacheResolver = "generalRepositoryCacheResolver",
       condition = "@cacheEnabledConfig.getEnabled()")
@@ -117,6 +107,8 @@ public class BasicDataBinner {
     StudyViewFilter partialFilter = new StudyViewFilter();
     partialFilter.setStudyIds(studyViewFilter.getStudyIds());
     partialFilter.setSampleIdentifiers(studyViewFilter.getSampleIdentifiers());
+    // the bin layouts of the unfiltered data are cached by study, except for custom data
+    List<String> unfilteredStudyIds = DataBinner.getUnfilteredStudyIds(partialFilter);
 
     // we need to fetch data for the partial filter in order to generate the bins for initial state
     // we use the filtered data to calculate the counts for each bin, we do not regenerate bins for
@@ -131,6 +123,7 @@ public class BasicDataBinner {
           when !customDataService.getCustomDataSessions(uniqueKeys).isEmpty() -> {
         Map<String, CustomDataSession> customDataSessions =
             customDataService.getCustomDataSessions(uniqueKeys);
+        unfilteredStudyIds = null;
         List<SampleIdentifier> unfilteredSampleIdentifiers =
             studyViewService.getFilteredSamples(partialFilter).stream()
                 .map(
@@ -167,7 +160,13 @@ public class BasicDataBinner {
                 partialFilter, genomicDataBinCountFilter.getGenomicDataBinFilters());
         filteredClinicalDataCounts =
             studyViewService.getGenomicDataBinCounts(
-                studyViewFilter, genomicDataBinCountFilter.getGenomicDataBinFilters());
+                studyViewFilter,
+                genomicDataBinCountFilter.getGenomicDataBinFilters(),
+                calculateNumericalDataBins(
+                    dataBinMethod,
+                    dataBinFilters,
+                    unfilteredClinicalDataCounts,
+                    unfilteredStudyIds));
         attributeDatatypeMap = Collections.emptyMap();
       }
       case GenericAssayDataBinCountFilter genericAssayDataBinCountFilter -> {
@@ -176,7 +175,13 @@ public class BasicDataBinner {
                 partialFilter, genericAssayDataBinCountFilter.getGenericAssayDataBinFilters());
         filteredClinicalDataCounts =
             studyViewService.getGenericAssayDataBinCounts(
-                studyViewFilter, genericAssayDataBinCountFilter.getGenericAssayDataBinFilters());
+                studyViewFilter,
+                genericAssayDataBinCountFilter.getGenericAssayDataBinFilters(),
+                calculateNumericalDataBins(
+                    dataBinMethod,
+                    dataBinFilters,
+                    unfilteredClinicalDataCounts,
+                    unfilteredStudyIds));
         attributeDatatypeMap = Collections.emptyMap();
       }
       default -> {
@@ -187,30 +192,23 @@ public class BasicDataBinner {
     }
 
     // TODO ignoring conflictingPatientAttributeIds for now
-    List<ClinicalData> unfilteredClinicalData =
-        convertCountsToData(
-            unfilteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
-    List<ClinicalData> filteredClinicalData =
-        convertCountsToData(
-            filteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
-
-    Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId =
-        unfilteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
-
-    Map<String, List<Binnable>> filteredClinicalDataByAttributeId =
-        filteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
+    Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(unfilteredClinicalDataCounts);
+    Map<String, BinnableColumn> filteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(filteredClinicalDataCounts);
 
     // TODO: need to update attributeDatatypeMap to include patient level data for Generic Assay
     // Profiles
     if (dataBinMethod == DataBinMethod.STATIC) {
-      if (!unfilteredClinicalData.isEmpty()) {
+      if (!unfilteredClinicalDataByAttributeId.isEmpty()) {
         resultDataBins =
             calculateStaticDataBins(
                 dataBinner,
                 dataBinFilters,
                 attributeDatatypeMap,
                 unfilteredClinicalDataByAttributeId,
-                filteredClinicalDataByAttributeId);
+                filteredClinicalDataByAttributeId,
+                unfilteredStudyIds);
       }
     }
     // TODO: need to update attributeDatatypeMap to include patient level data for Generic Assay
@@ -220,7 +218,7 @@ public class BasicDataBinner {
       //  we never use dynamic binning in the frontend because number of bins and the bin ranges can
       // change
       //  each time there is a new filter which makes the frontend implementation complicated
-      if (!filteredClinicalData.isEmpty()) {
+      if (!filteredClinicalDataByAttributeId.isEmpty()) {
         resultDataBins =
             calculateDynamicDataBins(
                 dataBinner,
@@ -305,12 +303,40 @@ public class BasicDataBinner {
     }
   }
 
+  // numerical bins of the unfiltered data, so that the filtered values are counted per bin by the
+  // database. the bins are calculated again (from the cache) when counting the filtered data.
+  private <S extends DataBinFilter> List<NumericalDataBins> calculateNumericalDataBins(
+      DataBinMethod dataBinMethod,
+      List<S> dataBinFilters,
+      List<ClinicalDataCountItem> unfilteredClinicalDataCounts,
+      List<String> unfilteredStudyIds) {
+    if (dataBinMethod != DataBinMethod.STATIC) {
+      return emptyList();
+    }
+    Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(unfilteredClinicalDataCounts);
+    List<NumericalDataBins> numericalDataBins = new ArrayList<>();
+    for (S dataBinFilter : dataBinFilters) {
+      String attributeId = getDataBinFilterUniqueKey(dataBinFilter);
+      BinnableColumn unfilteredClinicalData = unfilteredClinicalDataByAttributeId.get(attributeId);
+      if (unfilteredClinicalData != null) {
+        NumericalDataBins.of(
+                attributeId,
+                dataBinner.calculateUnfilteredDataBins(
+                    dataBinFilter, unfilteredClinicalData, unfilteredStudyIds))
+            .ifPresent(numericalDataBins::add);
+      }
+    }
+    return numericalDataBins;
+  }
+
   private <T extends DataBinFilter, U extends DataBin> List<U> calculateStaticDataBins(
       DataBinner dataBinner,
       List<T> dataBinFilters,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId,
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId,
+      List<String> unfilteredStudyIds) {
     List<U> result = new ArrayList<>();
 
     for (T dataBinFilter : dataBinFilters) {
@@ -322,9 +348,10 @@ public class BasicDataBinner {
                 .calculateClinicalDataBins(
                     dataBinFilter,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()),
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()),
                     unfilteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()))
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()),
+                    unfilteredStudyIds)
                 .stream()
                 .map(dataBin -> (U) transform(dataBinFilter, dataBin))
                 .toList();
@@ -340,7 +367,7 @@ public class BasicDataBinner {
       DataBinner dataBinner,
       List<T> dataBinFilters,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId) {
     List<U> result = new ArrayList<>();
 
     for (T dataBinFilter : dataBinFilters) {
@@ -352,7 +379,7 @@ public class BasicDataBinner {
                 .calculateDataBins(
                     dataBinFilter,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()))
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()))
                 .stream()
                 .map(dataBin -> (U) transform(dataBinFilter, dataBin))
                 .toList();
@@ -1,15 +1,10 @@
 package org.cbioportal.infrastructure.service;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.cbioportal.domain.studyview.StudyViewService;
-import org.cbioportal.legacy.model.Binnable;
-import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataBin;
-import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.cbioportal.legacy.web.columnar.util.NewClinicalDataBinUtil;
 import org.cbioportal.legacy.web.parameter.ClinicalDataBinCountFilter;
@@ -17,6 +12,7 @@ import org.cbioportal.legacy.web.parameter.ClinicalDataBinFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.DataBinMethod;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.BinnableColumn;
 import org.cbioportal.legacy.web.util.DataBinner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
@@ -36,13 +32,6 @@ public class ClinicalDataBinner {
     this.dataBinner = dataBinner;
   }
 
-  private List<ClinicalData> convertCountsToData(List<ClinicalDataCount> clinicalDataCounts) {
-    return clinicalDataCounts.stream()
-        .map(NewClinicalDataBinUtil::generateClinicalDataFromClinicalDataCount)
-        .flatMap(Collection::stream)
-        .toList();
-  }
-
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
       condition = "@cacheEnabledConfig.getEnabled()")
@@ -86,40 +75,33 @@ public class ClinicalDataBinner {
         studyViewService.getClinicalDataCounts(studyViewFilter, attributeIds);
 
     // TODO ignoring conflictingPatientAttributeIds for now
-    List<ClinicalData> unfilteredClinicalData =
-        convertCountsToData(
-            unfilteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
-    List<ClinicalData> filteredClinicalData =
-        convertCountsToData(
-            filteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
+    Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(unfilteredClinicalDataCounts);
+    Map<String, BinnableColumn> filteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(filteredClinicalDataCounts);
 
     Map<String, ClinicalDataType> attributeDatatypeMap =
         studyViewService.getClinicalAttributeDataTypeMap(studyViewFilter);
 
-    Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId =
-        unfilteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
-
-    Map<String, List<Binnable>> filteredClinicalDataByAttributeId =
-        filteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
-
     List<ClinicalDataBin> clinicalDataBins = Collections.emptyList();
 
     if (dataBinMethod == DataBinMethod.STATIC) {
-      if (!unfilteredClinicalData.isEmpty()) {
+      if (!unfilteredClinicalDataByAttributeId.isEmpty()) {
         clinicalDataBins =
             NewClinicalDataBinUtil.calculateStaticDataBins(
                 dataBinner,
                 attributes,
                 attributeDatatypeMap,
                 unfilteredClinicalDataByAttributeId,
-                filteredClinicalDataByAttributeId);
+                filteredClinicalDataByAttributeId,
+                DataBinner.getUnfilteredStudyIds(partialFilter));
       }
     } else { // dataBinMethod == DataBinMethod.DYNAMIC
       // TODO we should consider removing dynamic binning support
       //  we never use dynamic binning in the frontend because number of bins and the bin ranges can
       // change
       //  each time there is a new filter which makes the frontend implementation complicated
-      if (!filteredClinicalData.isEmpty()) {
+      if (!filteredClinicalDataByAttributeId.isEmpty()) {
         clinicalDataBins =
             NewClinicalDataBinUtil.calculateDynamicDataBins(
                 dataBinner, attributes, attributeDatatypeMap, filteredClinicalDataByAttributeId);
@@ -0,0 +1,26 @@
+package org.cbioportal.legacy.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class ClinicalDataCountSummary implements Serializable {
+
+  private List<ClinicalDataCount> counts;
+  private Integer patientCount;
+
+  public List<ClinicalDataCount> getCounts() {
+    return counts;
+  }
+
+  public void setCounts(List<ClinicalDataCount> counts) {
+    this.counts = counts;
+  }
+
+  public Integer getPatientCount() {
+    return patientCount;
+  }
+
+  public void setPatientCount(Integer patientCount) {
+    this.patientCount = patientCount;
+  }
+}
@@ -0,0 +1,71 @@
+package org.cbioportal.legacy.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import org.cbioportal.shared.util.IntIntHashMap;
+
+/**
+ * Parsed form of genetic_profile_samples.ORDERED_SAMPLE_LIST: the internal sample ids of a
+ * molecular profile in the order of the genetic_alteration.VALUES column, plus a reverse index from
+ * internal sample id to that position.
+ */
+public class MolecularProfileSampleIndex implements Serializable {
+
+  private final String molecularProfileId;
+  private final int[] internalSampleIds;
+  private final IntIntHashMap positionByInternalSampleId;
+
+  public MolecularProfileSampleIndex(String molecularProfileId, int[] internalSampleIds) {
+    this.molecularProfileId = molecularProfileId;
+    this.internalSampleIds = internalSampleIds;
+    this.positionByInternalSampleId = new IntIntHashMap(internalSampleIds.length);
+    for (int position = 0; position < internalSampleIds.length; position++) {
+      positionByInternalSampleId.put(internalSampleIds[position], position);
+    }
+  }
+
+  public static MolecularProfileSampleIndex of(MolecularProfileSamples molecularProfileSamples) {
+    String[] splitSampleIds = molecularProfileSamples.getSplitSampleIds();
+    int[] internalSampleIds = new int[splitSampleIds.length];
+    for (int i = 0; i < splitSampleIds.length; i++) {
+      internalSampleIds[i] = Integer.parseInt(splitSampleIds[i]);
+    }
+    return new MolecularProfileSampleIndex(
+        molecularProfileSamples.getMolecularProfileId(), internalSampleIds);
+  }
+
+  public String getMolecularProfileId() {
+    return molecularProfileId;
+  }
+
+  public int size() {
+    return internalSampleIds.length;
+  }
+
+  public int getInternalSampleId(int position) {
+    return internalSampleIds[position];
+  }
+
+  /**
+   * Looks the sample up in the reverse index, in constant time.
+   *
+   * @return position of the sample in the VALUES column, or -1 when the sample is not part of the
+   *     profile
+   */
+  public int indexOf(int internalSampleId) {
+    return positionByInternalSampleId.get(internalSampleId, -1);
+  }
+
+  public boolean contains(int internalSampleId) {
+    return indexOf(internalSampleId) >= 0;
+  }
+
+  public List<Integer> getInternalSampleIdList() {
+    List<Integer> internalSampleIdList = new ArrayList<>(internalSampleIds.length);
+    for (int internalSampleId : internalSampleIds) {
+      internalSampleIdList.add(internalSampleId);
+    }
+    return internalSampleIdList;
+  }
+}
@@ -25,10 +25,12 @@ public class CacheEnabledConfig {
   public static final String EHCACHE_DISK = "ehcache-disk";
   public static final String EHCACHE_HEAP = "ehcache-heap";
   public static final String EHCACHE_HYBRID = "ehcache-hybrid";
+  public static final String EHCACHE_OFFHEAP = "ehcache-offheap";
   public static final String REDIS = "redis";
 
   public static ArrayList<String> validCacheTypes =
-      new ArrayList<String>(Arrays.asList(EHCACHE_DISK, EHCACHE_HEAP, EHCACHE_HYBRID, REDIS));
+      new ArrayList<String>(
+          Arrays.asList(EHCACHE_DISK, EHCACHE_HEAP, EHCACHE_HYBRID, EHCACHE_OFFHEAP, REDIS));
 
   @PostConstruct
   public void init() {
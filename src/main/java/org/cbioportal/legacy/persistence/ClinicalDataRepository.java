@@ -3,6 +3,7 @@ package org.cbioportal.legacy.persistence;
 import java.util.List;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.ClinicalDataCountSummary;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -94,15 +95,22 @@ public interface ClinicalDataRepository {
   BaseMeta fetchMetaClinicalData(
       List<String> studyIds, List<String> ids, List<String> attributeIds, String clinicalDataType);
 
+  /**
+   * Counts the values of sample, patient and conflicting patient attributes of the given samples
+   * with a single query. Conflicting patient attributes are counted once per sample of each
+   * patient. NA values are left out of the counts.
+   *
+   * @return the value counts together with the number of distinct patients of the samples
+   */
   @Cacheable(
       cacheResolver = "generalRepositoryCacheResolver",
       condition = "@cacheEnabledConfig.getEnabled()")
-  List<ClinicalDataCount> fetchClinicalDataCounts(
+  ClinicalDataCountSummary fetchClinicalDataCountSummary(
       List<String> studyIds,
       List<String> sampleIds,
-      List<String> attributeIds,
-      String clinicalDataType,
-      String projection);
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingPatientAttributeIds);
 
   @Cacheable(
       cacheResolver = "generalRepositoryCacheResolver",
@@ -6,6 +6,7 @@ import java.util.Set;
 import org.cbioportal.legacy.model.GeneMolecularAlteration;
 import org.cbioportal.legacy.model.GenericAssayMolecularAlteration;
 import org.cbioportal.legacy.model.GenesetMolecularAlteration;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -22,6 +23,13 @@ public interface MolecularDataRepository {
   Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap(
       Set<String> molecularProfileIds);
 
+  // The parsed sample lists are kept in a dedicated on-heap cache, see
+  // MolecularProfileSampleIndexCache
+  MolecularProfileSampleIndex getMolecularProfileSampleIndex(String molecularProfileId);
+
+  Map<String, MolecularProfileSampleIndex> getMolecularProfileSampleIndices(
+      Set<String> molecularProfileIds);
+
   // Not caching when entrezGeneIds is null or empty because the large response size sometimes
   // crashes the cache
   @Cacheable(
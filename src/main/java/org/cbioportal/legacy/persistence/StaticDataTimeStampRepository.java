@@ -1,8 +1,12 @@
 package org.cbioportal.legacy.persistence;
 
 import java.util.List;
+import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.TableTimestampPair;
 
 public interface StaticDataTimeStampRepository {
   List<TableTimestampPair> getTimestamps(List<String> tables);
+
+  /** Studies with only their identifier and import date. */
+  List<CancerStudy> getStudyImportDates();
 }
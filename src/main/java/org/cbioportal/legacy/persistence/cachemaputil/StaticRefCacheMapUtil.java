@@ -37,9 +37,11 @@ import java.util.Map;
 import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.SampleList;
+import org.cbioportal.legacy.service.util.CacheWarmupTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
@@ -52,7 +54,7 @@ import org.springframework.stereotype.Component;
     value = "cache.cache-map-utils.spring-managed",
     havingValue = "false",
     matchIfMissing = true)
-public class StaticRefCacheMapUtil implements CacheMapUtil {
+public class StaticRefCacheMapUtil implements CacheMapUtil, CacheWarmupTask {
 
   private static final Logger LOG = LoggerFactory.getLogger(StaticRefCacheMapUtil.class);
 
@@ -65,15 +67,42 @@ public class StaticRefCacheMapUtil implements CacheMapUtil {
   // Fields are static because the proxying mechanism of the CancerStudyPermissionEvaluator
   // appears to perturb the Singleton scope of the CacheMapUtils bean. When debugging
   // two version appeared to exist in context. A mechanism with bean injection did not work here.
-  static Map<String, MolecularProfile> molecularProfileCache;
-  static Map<String, SampleList> sampleListCache;
-  static Map<String, CancerStudy> cancerStudyCache;
+  static volatile Map<String, MolecularProfile> molecularProfileCache;
+  static volatile Map<String, SampleList> sampleListCache;
+  static volatile Map<String, CancerStudy> cancerStudyCache;
+
+  @Value("${cache.warmup.enabled:false}")
+  private boolean cacheWarmupEnabled;
 
   @PostConstruct
   private void init() {
+    // with the startup warm-up the maps are built in parallel with the other caches
+    if (!cacheWarmupEnabled) {
+      initializeCacheMemory();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "authorizationCacheMaps";
+  }
+
+  @Override
+  public void warmUp() {
     initializeCacheMemory();
   }
 
+  // requests that arrive before the warm-up has built the maps build them themselves
+  private void initializeIfNeeded() {
+    if (cancerStudyCache == null) {
+      synchronized (this) {
+        if (cancerStudyCache == null) {
+          initializeCacheMemory();
+        }
+      }
+    }
+  }
+
   public synchronized void initializeCacheMemory() {
     LOG.debug("creating cache maps for authorization");
     molecularProfileCache = cacheMapBuilder.buildMolecularProfileMap();
@@ -83,16 +112,19 @@ public class StaticRefCacheMapUtil implements CacheMapUtil {
 
   @Override
   public Map<String, MolecularProfile> getMolecularProfileMap() {
+    initializeIfNeeded();
     return molecularProfileCache;
   }
 
   @Override
   public Map<String, SampleList> getSampleListMap() {
+    initializeIfNeeded();
     return sampleListCache;
   }
 
   @Override
   public Map<String, CancerStudy> getCancerStudyMap() {
+    initializeIfNeeded();
     return cancerStudyCache;
   }
 
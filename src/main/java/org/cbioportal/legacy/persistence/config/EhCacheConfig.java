@@ -1,13 +1,16 @@
 package org.cbioportal.legacy.persistence.config;
 
+import java.util.concurrent.TimeUnit;
 import org.cbioportal.legacy.persistence.util.CustomEhcachingProvider;
 import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
+import org.cbioportal.legacy.persistence.util.EnrichmentKeyGenerator;
+import org.cbioportal.legacy.persistence.util.SingleFlightCacheResolver;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.cache.interceptor.NamedCacheResolver;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,9 +19,12 @@ import org.springframework.context.annotation.Configuration;
 @EnableCaching
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap"})
 public class EhCacheConfig extends CachingConfigurerSupport {
 
+  @Value("${cache.single_flight.wait_timeout_seconds:60}")
+  private long singleFlightWaitTimeoutSeconds;
+
   @Bean
   @Override
   public CacheManager cacheManager() {
@@ -31,18 +37,29 @@ public class EhCacheConfig extends CachingConfigurerSupport {
     return new CustomKeyGenerator();
   }
 
+  @Bean
+  public KeyGenerator enrichmentKeyGenerator() {
+    return new EnrichmentKeyGenerator();
+  }
+
   @Bean
   public CustomEhcachingProvider customEhcachingProvider() {
     return new CustomEhcachingProvider();
   }
 
   @Bean
-  public NamedCacheResolver generalRepositoryCacheResolver() {
-    return new NamedCacheResolver(cacheManager(), "GeneralRepositoryCache");
+  public SingleFlightCacheResolver generalRepositoryCacheResolver() {
+    return new SingleFlightCacheResolver(
+        cacheManager(),
+        "GeneralRepositoryCache",
+        TimeUnit.SECONDS.toMillis(singleFlightWaitTimeoutSeconds));
   }
 
   @Bean
-  public NamedCacheResolver staticRepositoryCacheOneResolver() {
-    return new NamedCacheResolver(cacheManager(), "StaticRepositoryCacheOne");
+  public SingleFlightCacheResolver staticRepositoryCacheOneResolver() {
+    return new SingleFlightCacheResolver(
+        cacheManager(),
+        "StaticRepositoryCacheOne",
+        TimeUnit.SECONDS.toMillis(singleFlightWaitTimeoutSeconds));
   }
 }
@@ -1,17 +1,18 @@
 package org.cbioportal.legacy.persistence.config;
 
+import java.util.concurrent.TimeUnit;
 import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
 import org.cbioportal.legacy.persistence.util.CustomRedisCachingProvider;
+import org.cbioportal.legacy.persistence.util.EnrichmentKeyGenerator;
 import org.cbioportal.legacy.persistence.util.LoggingCacheErrorHandler;
+import org.cbioportal.legacy.persistence.util.SingleFlightCacheResolver;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.CacheErrorHandler;
-import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.cache.interceptor.NamedCacheResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -24,6 +25,9 @@ public class RedisConfig extends CachingConfigurerSupport {
   @Value("${redis.name:cbioportal}")
   private String redisName;
 
+  @Value("${cache.single_flight.wait_timeout_seconds:60}")
+  private long singleFlightWaitTimeoutSeconds;
+
   @Bean
   @Override
   public CacheManager cacheManager() {
@@ -42,18 +46,29 @@ public class RedisConfig extends CachingConfigurerSupport {
     return new CustomKeyGenerator();
   }
 
+  @Bean
+  public KeyGenerator enrichmentKeyGenerator() {
+    return new EnrichmentKeyGenerator();
+  }
+
   @Bean
   public CustomRedisCachingProvider customRedisCachingProvider() {
     return new CustomRedisCachingProvider();
   }
 
   @Bean
-  public CacheResolver generalRepositoryCacheResolver() {
-    return new NamedCacheResolver(cacheManager(), redisName + "GeneralRepositoryCache");
+  public SingleFlightCacheResolver generalRepositoryCacheResolver() {
+    return new SingleFlightCacheResolver(
+        cacheManager(),
+        redisName + "GeneralRepositoryCache",
+        TimeUnit.SECONDS.toMillis(singleFlightWaitTimeoutSeconds));
   }
 
   @Bean
-  public CacheResolver staticRepositoryCacheOneResolver() {
-    return new NamedCacheResolver(cacheManager(), redisName + "StaticRepositoryCacheOne");
+  public SingleFlightCacheResolver staticRepositoryCacheOneResolver() {
+    return new SingleFlightCacheResolver(
+        cacheManager(),
+        redisName + "StaticRepositoryCacheOne",
+        TimeUnit.SECONDS.toMillis(singleFlightWaitTimeoutSeconds));
   }
 }
@@ -53,11 +53,12 @@ public interface ClinicalDataMapper {
   BaseMeta getMetaPatientClinicalData(
       List<String> studyIds, List<String> patientIds, List<String> attributeIds);
 
-  List<ClinicalDataCount> fetchSampleClinicalDataCounts(
-      List<String> studyIds, List<String> sampleIds, List<String> attributeIds);
-
-  List<ClinicalDataCount> fetchPatientClinicalDataCounts(
-      List<String> studyIds, List<String> patientIds, List<String> attributeIds, String projection);
+  List<ClinicalDataCount> fetchClinicalDataCountsOfSamples(
+      List<String> studyIds,
+      List<String> sampleIds,
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingPatientAttributeIds);
 
   List<ClinicalData> getPatientClinicalDataDetailedToSample(
       List<String> studyIds,
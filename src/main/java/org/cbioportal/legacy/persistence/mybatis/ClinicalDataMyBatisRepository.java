@@ -6,11 +6,10 @@ import java.util.stream.Stream;
 import org.cbioportal.legacy.model.ClinicalAttribute;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataCount;
-import org.cbioportal.legacy.model.Patient;
+import org.cbioportal.legacy.model.ClinicalDataCountSummary;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalAttributeRepository;
 import org.cbioportal.legacy.persistence.ClinicalDataRepository;
-import org.cbioportal.legacy.persistence.PatientRepository;
 import org.cbioportal.legacy.persistence.PersistenceConstants;
 import org.cbioportal.legacy.persistence.mybatis.util.PaginationCalculator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +20,6 @@ import org.springframework.util.Assert;
 public class ClinicalDataMyBatisRepository implements ClinicalDataRepository {
 
   @Autowired private ClinicalDataMapper clinicalDataMapper;
-  @Autowired private PatientRepository patientRepository;
   @Autowired private ClinicalAttributeRepository clinicalAttributeRepository;
 
   @Override
@@ -283,25 +281,42 @@ public class ClinicalDataMyBatisRepository implements ClinicalDataRepository {
   }
 
   @Override
-  public List<ClinicalDataCount> fetchClinicalDataCounts(
+  public ClinicalDataCountSummary fetchClinicalDataCountSummary(
       List<String> studyIds,
       List<String> sampleIds,
-      List<String> attributeIds,
-      String clinicalDataType,
-      String projection) {
-
-    if (clinicalDataType.equals(PersistenceConstants.SAMPLE_CLINICAL_DATA_TYPE)) {
-      return clinicalDataMapper.fetchSampleClinicalDataCounts(studyIds, sampleIds, attributeIds);
-    } else {
-      List<Patient> patients = patientRepository.getPatientsOfSamples(studyIds, sampleIds);
-      List<String> patientStudyIds = new ArrayList<>();
-      patients.forEach(p -> patientStudyIds.add(p.getCancerStudyIdentifier()));
-      return clinicalDataMapper.fetchPatientClinicalDataCounts(
-          patientStudyIds,
-          patients.stream().map(Patient::getStableId).collect(Collectors.toList()),
-          attributeIds,
-          projection);
+      List<String> sampleAttributeIds,
+      List<String> patientAttributeIds,
+      List<String> conflictingPatientAttributeIds) {
+
+    ClinicalDataCountSummary clinicalDataCountSummary = new ClinicalDataCountSummary();
+    List<ClinicalDataCount> counts = new ArrayList<>();
+    int patientCount = 0;
+    if (!sampleIds.isEmpty()) {
+      for (ClinicalDataCount clinicalDataCount :
+          clinicalDataMapper.fetchClinicalDataCountsOfSamples(
+              studyIds,
+              sampleIds,
+              sampleAttributeIds,
+              patientAttributeIds,
+              conflictingPatientAttributeIds)) {
+        if (clinicalDataCount.getAttributeId() == null) {
+          // the row without attribute holds the number of distinct patients
+          patientCount = clinicalDataCount.getCount();
+        } else if (!isNA(clinicalDataCount.getValue())) {
+          counts.add(clinicalDataCount);
+        }
+      }
     }
+    clinicalDataCountSummary.setCounts(counts);
+    clinicalDataCountSummary.setPatientCount(patientCount);
+    return clinicalDataCountSummary;
+  }
+
+  private static boolean isNA(String value) {
+    return value != null
+        && (value.equalsIgnoreCase("NA")
+            || value.equalsIgnoreCase("NAN")
+            || value.equalsIgnoreCase("N/A"));
   }
 
   @Override
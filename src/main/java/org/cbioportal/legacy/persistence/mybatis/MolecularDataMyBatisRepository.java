@@ -6,8 +6,10 @@ import java.util.stream.Collectors;
 import org.cbioportal.legacy.model.GeneMolecularAlteration;
 import org.cbioportal.legacy.model.GenericAssayMolecularAlteration;
 import org.cbioportal.legacy.model.GenesetMolecularAlteration;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.cbioportal.legacy.persistence.MolecularDataRepository;
+import org.cbioportal.legacy.persistence.util.MolecularProfileSampleIndexCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +18,8 @@ public class MolecularDataMyBatisRepository implements MolecularDataRepository {
 
   @Autowired private MolecularDataMapper molecularDataMapper;
 
+  @Autowired private MolecularProfileSampleIndexCache molecularProfileSampleIndexCache;
+
   @Override
   public MolecularProfileSamples getCommaSeparatedSampleIdsOfMolecularProfile(
       String molecularProfileId) {
@@ -39,6 +43,19 @@ public class MolecularDataMyBatisRepository implements MolecularDataRepository {
             Collectors.toMap(MolecularProfileSamples::getMolecularProfileId, Function.identity()));
   }
 
+  @Override
+  public MolecularProfileSampleIndex getMolecularProfileSampleIndex(String molecularProfileId) {
+    return molecularProfileSampleIndexCache.get(
+        molecularProfileId, this::getCommaSeparatedSampleIdsOfMolecularProfile);
+  }
+
+  @Override
+  public Map<String, MolecularProfileSampleIndex> getMolecularProfileSampleIndices(
+      Set<String> molecularProfileIds) {
+    return molecularProfileSampleIndexCache.getAll(
+        molecularProfileIds, this::commaSeparatedSampleIdsOfMolecularProfilesMap);
+  }
+
   @Override
   public List<GeneMolecularAlteration> getGeneMolecularAlterations(
       String molecularProfileId, List<Integer> entrezGeneIds, String projection) {
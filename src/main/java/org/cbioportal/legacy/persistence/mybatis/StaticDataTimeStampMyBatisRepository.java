@@ -1,6 +1,7 @@
 package org.cbioportal.legacy.persistence.mybatis;
 
 import java.util.List;
+import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.TableTimestampPair;
 import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,4 +19,9 @@ public class StaticDataTimeStampMyBatisRepository implements StaticDataTimeStamp
   public List<TableTimestampPair> getTimestamps(List<String> tableNames) {
     return staticDataTimestampMapper.getTimestamps(tableNames, dbName);
   }
+
+  @Override
+  public List<CancerStudy> getStudyImportDates() {
+    return staticDataTimestampMapper.getStudyImportDates();
+  }
 }
@@ -37,10 +37,12 @@ import java.net.URL;
 import java.util.*;
 import javax.cache.CacheManager;
 import org.cbioportal.legacy.persistence.CacheEnabledConfig;
+import org.cbioportal.legacy.service.StaticDataTimestampService;
 import org.ehcache.config.CacheConfiguration;
 import org.ehcache.config.Configuration;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.config.DefaultConfiguration;
 import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
@@ -50,11 +52,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 
 public class CustomEhcachingProvider extends EhcacheCachingProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(CustomEhcachingProvider.class);
 
+  // sub directory of ehcache.persistence_path for the persistent caches of the off-heap mode
+  private static final String PERSISTENT_CACHE_DIRECTORY = "cbioportal-persistent-cache";
+
   @Value("${ehcache.xml_configuration:/ehcache.xml}")
   private String xmlConfigurationFile;
 
@@ -76,10 +82,43 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
   @Value("${ehcache.static_repository_cache_one.max_mega_bytes_local_disk:32}")
   private Integer staticRepositoryCacheOneMaxMegaBytesLocalDisk;
 
+  @Value("${ehcache.general_repository_cache.max_entries_heap:100}")
+  private Integer generalRepositoryCacheMaxEntriesHeap;
+
+  @Value("${ehcache.static_repository_cache_one.max_entries_heap:100}")
+  private Integer staticRepositoryCacheOneMaxEntriesHeap;
+
+  @Value("${ehcache.general_repository_cache.max_mega_bytes_offheap:1024}")
+  private Integer generalRepositoryCacheMaxMegaBytesOffHeap;
+
+  @Value("${ehcache.static_repository_cache_one.max_mega_bytes_offheap:16}")
+  private Integer staticRepositoryCacheOneMaxMegaBytesOffHeap;
+
+  @Value("${portal.version:}")
+  private String portalVersion;
+
+  @Value("${db.portal_db_name:}")
+  private String portalDbName;
+
   @Autowired private CacheEnabledConfig cacheEnabledConfig;
 
+  @Autowired @Lazy private StaticDataTimestampService staticDataTimestampService;
+
+  private CacheManager cacheManager;
+
+  /**
+   * Returns the same cache manager on every call. It is requested by several beans at startup, and
+   * preparing the persistent cache directory again could delete the files the manager has open.
+   */
   @Override
-  public CacheManager getCacheManager() {
+  public synchronized CacheManager getCacheManager() {
+    if (cacheManager == null || cacheManager.isClosed()) {
+      cacheManager = createCacheManager();
+    }
+    return cacheManager;
+  }
+
+  private CacheManager createCacheManager() {
 
     CacheManager toReturn = null;
     try {
@@ -96,8 +135,22 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
         ResourcePoolsBuilder staticRepositoryCacheOneResourcePoolsBuilder =
             ResourcePoolsBuilder.newResourcePoolsBuilder();
 
-        // Set up heap resources as long as not disk-only
-        if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_DISK)) {
+        // Off-heap mode: a small heap tier sized in entries, so that the heap needs no object
+        // sizing and holds only the hottest entries, in front of off-heap memory and a persistent
+        // disk tier
+        if (cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_OFFHEAP)) {
+          generalRepositoryCacheResourcePoolsBuilder =
+              generalRepositoryCacheResourcePoolsBuilder
+                  .heap(generalRepositoryCacheMaxEntriesHeap, EntryUnit.ENTRIES)
+                  .offheap(generalRepositoryCacheMaxMegaBytesOffHeap, MemoryUnit.MB)
+                  .disk(generalRepositoryCacheMaxMegaBytesLocalDisk, MemoryUnit.MB, true);
+          staticRepositoryCacheOneResourcePoolsBuilder =
+              staticRepositoryCacheOneResourcePoolsBuilder
+                  .heap(staticRepositoryCacheOneMaxEntriesHeap, EntryUnit.ENTRIES)
+                  .offheap(staticRepositoryCacheOneMaxMegaBytesOffHeap, MemoryUnit.MB)
+                  .disk(staticRepositoryCacheOneMaxMegaBytesLocalDisk, MemoryUnit.MB, true);
+        } else if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_DISK)) {
+          // Set up heap resources as long as not disk-only
           generalRepositoryCacheResourcePoolsBuilder =
               generalRepositoryCacheResourcePoolsBuilder.heap(
                   generalRepositoryCacheMaxMegaBytes, MemoryUnit.MB);
@@ -108,7 +161,8 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
         // Set up disk resources as long as not heap-only
         // will default to using /tmp -- let Ehcache throw exception if persistence path is invalid
         // (locked or otherwise)
-        if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_HEAP)) {
+        if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_HEAP)
+            && !cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_OFFHEAP)) {
           generalRepositoryCacheResourcePoolsBuilder =
               generalRepositoryCacheResourcePoolsBuilder.disk(
                   generalRepositoryCacheMaxMegaBytesLocalDisk, MemoryUnit.MB);
@@ -146,6 +200,14 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
         Configuration configuration = null;
         if (cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_HEAP)) {
           configuration = new DefaultConfiguration(caches, this.getDefaultClassLoader());
+        } else if (cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_OFFHEAP)) {
+          // the disk tier survives restarts, unless the data changed in the meantime
+          File persistenceFile = getPersistentCacheSnapshot().prepare();
+          configuration =
+              new DefaultConfiguration(
+                  caches,
+                  this.getDefaultClassLoader(),
+                  new DefaultPersistenceConfiguration(persistenceFile));
         } else { // add persistence configuration if cacheType is either disk-only or hybrid
           File persistenceFile = new File(persistencePath);
           configuration =
@@ -192,10 +254,33 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
     return toReturn;
   }
 
+  private PersistentCacheSnapshot getPersistentCacheSnapshot() {
+    Map<String, String> dataTimestamps = null;
+    Map<String, String> studyImportDates = null;
+    if (portalDbName == null || portalDbName.trim().length() == 0) {
+      LOG.warn(
+          "property db.portal_db_name is required to reuse the persistent cache after a restart,"
+              + " but is unset");
+    }
+    try {
+      // timestamps of all tables, empty without db.portal_db_name
+      dataTimestamps = staticDataTimestampService.getTimestamps(Collections.emptyList());
+      studyImportDates = staticDataTimestampService.getStudyImportDates();
+    } catch (Exception e) {
+      LOG.warn("Unable to read the data timestamps: " + e.getMessage());
+    }
+    return new PersistentCacheSnapshot(
+        new File(persistencePath, PERSISTENT_CACHE_DIRECTORY),
+        portalVersion,
+        dataTimestamps,
+        studyImportDates);
+  }
+
   public void detectCacheConfigurationErrorsAndLog() {
     String MESSAGE_PREFIX = "Errors detected during configuration of Ehcache:";
     StringBuffer messages = new StringBuffer(MESSAGE_PREFIX);
     boolean usesHeap = false;
+    boolean usesOffHeap = false;
     boolean usesDisk = false;
     switch (this.cacheType.trim().toLowerCase()) {
       case "no-cache":
@@ -210,6 +295,10 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
         usesHeap = true;
         usesDisk = true;
         break;
+      case "ehcache-offheap":
+        usesOffHeap = true;
+        usesDisk = true;
+        break;
       case "redis":
         break; // we should not be in here in this case
       default:
@@ -218,7 +307,7 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
             .append(cacheType)
             .append(") which is not a recognized value");
     }
-    if (usesDisk || usesHeap) {
+    if (usesDisk || usesHeap || usesOffHeap) {
       if (xmlConfigurationFile == null || xmlConfigurationFile.trim().length() == 0) {
         messages.append("\n  property ehcache.xml_configuration is required but is unset");
       } else {
@@ -338,6 +427,48 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
         messages.append(staticRepositoryCacheOneMaxMegaBytesLocalDisk);
       }
     }
+    if (usesOffHeap) {
+      if (generalRepositoryCacheMaxEntriesHeap == null
+          || generalRepositoryCacheMaxEntriesHeap <= 0) {
+        messages.append(
+            "\n  property ehcache.general_repository_cache.max_entries_heap must be greater than zero but is not");
+      }
+      if (staticRepositoryCacheOneMaxEntriesHeap == null
+          || staticRepositoryCacheOneMaxEntriesHeap <= 0) {
+        messages.append(
+            "\n  property ehcache.static_repository_cache_one.max_entries_heap must be greater than zero but is not");
+      }
+      if (generalRepositoryCacheMaxMegaBytesOffHeap == null
+          || generalRepositoryCacheMaxMegaBytesOffHeap <= 0) {
+        messages.append(
+            "\n  property ehcache.general_repository_cache.max_mega_bytes_offheap must be greater than zero but is not");
+      } else if (generalRepositoryCacheMaxMegaBytesLocalDisk != null
+          && generalRepositoryCacheMaxMegaBytesLocalDisk
+              <= generalRepositoryCacheMaxMegaBytesOffHeap) {
+        messages.append(
+            "\n  property ehcache.general_repository_cache.max_mega_bytes_offheap must be set to a value less than the value of ");
+        messages.append(
+            "property ehcache.general_repository_cache.max_mega_bytes_local_disk, however ");
+        messages.append(generalRepositoryCacheMaxMegaBytesOffHeap);
+        messages.append(" is not less than ");
+        messages.append(generalRepositoryCacheMaxMegaBytesLocalDisk);
+      }
+      if (staticRepositoryCacheOneMaxMegaBytesOffHeap == null
+          || staticRepositoryCacheOneMaxMegaBytesOffHeap <= 0) {
+        messages.append(
+            "\n  property ehcache.static_repository_cache_one.max_mega_bytes_offheap must be greater than zero but is not");
+      } else if (staticRepositoryCacheOneMaxMegaBytesLocalDisk != null
+          && staticRepositoryCacheOneMaxMegaBytesLocalDisk
+              <= staticRepositoryCacheOneMaxMegaBytesOffHeap) {
+        messages.append(
+            "\n  property ehcache.static_repository_cache_one.max_mega_bytes_offheap must be set to a value less than the value of ");
+        messages.append(
+            "property ehcache.static_repository_cache_one.max_mega_bytes_local_disk, however ");
+        messages.append(staticRepositoryCacheOneMaxMegaBytesOffHeap);
+        messages.append(" is not less than ");
+        messages.append(staticRepositoryCacheOneMaxMegaBytesLocalDisk);
+      }
+    }
     if (messages.length() > MESSAGE_PREFIX.length()) {
       LOG.error(messages.toString());
       LOG.error(
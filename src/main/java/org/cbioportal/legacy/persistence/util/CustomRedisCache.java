@@ -1,11 +1,13 @@
 package org.cbioportal.legacy.persistence.util;
 
 import java.io.*;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
@@ -17,10 +19,16 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
   private static final Logger LOG = LoggerFactory.getLogger(CustomRedisCache.class);
   public static final String DELIMITER = ":";
   public static final int INFINITE_TTL = -1;
+  // pub/sub channel, suffixed to the cache name, on which evicted key patterns are published
+  public static final String INVALIDATION_CHANNEL = "near-cache-invalidation";
 
   private final String name;
   private final long ttlMinutes;
   private final RedissonClient redissonClient;
+  private final RedisCacheCodec codec;
+  @Nullable private final RedisNearCache nearCache;
+  @Nullable private final RTopic invalidationTopic;
+  @Nullable private final RedisLoadingLease loadingLease;
 
   /**
    * Create a new ConcurrentMapCache with the specified name.
@@ -28,10 +36,48 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
    * @param name the name of the cache
    */
   public CustomRedisCache(String name, RedissonClient client, long ttlMinutes) {
+    this(name, client, ttlMinutes, new GzipSerializationCodec());
+  }
+
+  /**
+   * @param name the name of the cache
+   * @param codec converts the values to and from the bytes stored in Redis
+   */
+  public CustomRedisCache(
+      String name, RedissonClient client, long ttlMinutes, RedisCacheCodec codec) {
+    this(name, client, ttlMinutes, codec, null, null);
+  }
+
+  /**
+   * @param name the name of the cache
+   * @param codec converts the values to and from the bytes stored in Redis
+   * @param nearCache in-process cache in front of Redis, or null to always read from Redis
+   * @param loadingLease lease that lets only one portal instance load a missing value in {@link
+   *     #get(Object, Callable)}, or null to let every instance load it
+   */
+  public CustomRedisCache(
+      String name,
+      RedissonClient client,
+      long ttlMinutes,
+      RedisCacheCodec codec,
+      @Nullable RedisNearCache nearCache,
+      @Nullable RedisLoadingLease loadingLease) {
     super(true);
     this.name = name;
     this.redissonClient = client;
     this.ttlMinutes = ttlMinutes;
+    this.codec = codec;
+    this.nearCache = nearCache;
+    this.loadingLease = loadingLease;
+    if (nearCache != null) {
+      // evictions on any portal instance sharing this Redis invalidate the near cache
+      this.invalidationTopic =
+          client.getTopic(name + DELIMITER + INVALIDATION_CHANNEL, StringCodec.INSTANCE);
+      this.invalidationTopic.addListener(
+          String.class, (channel, pattern) -> nearCache.invalidate(pattern));
+    } else {
+      this.invalidationTopic = null;
+    }
   }
 
   @Override
@@ -43,36 +89,102 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
     return this.redissonClient;
   }
 
+  /**
+   * @return statistics of the near cache, or null if it is not enabled
+   */
+  @Nullable
+  public RedisNearCache.Statistics getNearCacheStatistics() {
+    return nearCache == null ? null : nearCache.getStatistics();
+  }
+
   @Override
   @Nullable
   protected Object lookup(Object key) {
-    Object value = this.redissonClient.getBucket(name + DELIMITER + key).get();
+    String redisKey = name + DELIMITER + key;
+    if (nearCache == null) {
+      Object value = this.redissonClient.getBucket(redisKey).get();
+      if (value != null) {
+        value = fromStoreValue(value);
+        asyncRefresh(redisKey);
+      }
+      return value;
+    }
+
+    Object value = nearCache.get(redisKey);
     if (value != null) {
-      value = fromStoreValue(value);
-      asyncRefresh(key);
+      nearCache.recordNearHit();
+      asyncRefresh(redisKey);
+      return value;
+    }
+    long generation = nearCache.getGeneration();
+    Object storeValue = this.redissonClient.getBucket(redisKey).get();
+    if (storeValue == null) {
+      nearCache.recordMiss();
+      return null;
     }
+    nearCache.recordRedisHit();
+    value = fromStoreValue(storeValue);
+    nearCache.put(redisKey, value, ((byte[]) storeValue).length, generation);
+    asyncRefresh(redisKey);
     return value;
   }
 
-  private void asyncRefresh(Object key) {
-    if (ttlMinutes != INFINITE_TTL) {
-      this.redissonClient
-          .getBucket(name + DELIMITER + key)
-          .expireAsync(ttlMinutes, TimeUnit.MINUTES);
+  private void asyncRefresh(String redisKey) {
+    if (ttlMinutes == INFINITE_TTL) {
+      return;
+    }
+    if (nearCache != null) {
+      nearCache.touch(redisKey);
+    } else {
+      this.redissonClient.getBucket(redisKey).expireAsync(ttlMinutes, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * Refreshes the expiry in Redis of the keys read since the last call in one batch. Only used with
+   * the near cache, without it the expiry is refreshed on every read.
+   */
+  public void refreshTouchedKeys() {
+    if (nearCache == null) {
+      return;
+    }
+    List<String> redisKeys = nearCache.drainTouchedKeys();
+    if (redisKeys.isEmpty()) {
+      return;
+    }
+    RBatch batch = this.redissonClient.createBatch();
+    for (String redisKey : redisKeys) {
+      batch.getBucket(redisKey).expireAsync(ttlMinutes, TimeUnit.MINUTES);
     }
+    batch.executeAsync();
+  }
+
+  /**
+   * @return statistics of the loading lease, or null if it is not enabled
+   */
+  @Nullable
+  public RedisLoadingLease.Statistics getLoadingLeaseStatistics() {
+    return loadingLease == null ? null : loadingLease.getStatistics();
   }
 
   @Override
   @Nullable
   public <T> T get(Object key, Callable<T> valueLoader) {
-    Object zippedValue = this.redissonClient.getBucket(name + DELIMITER + key).get();
-    T value = null;
-    if (zippedValue != null) {
-      value = (T) fromStoreValue(zippedValue);
-      asyncRefresh(key);
+    T value = (T) lookup(key);
+    if (value != null) {
+      return value;
     }
+    Callable<T> loadAndPut =
+        () -> {
+          T loadedValue = valueLoader.call();
+          put(key, loadedValue);
+          return loadedValue;
+        };
     try {
-      return value == null ? valueLoader.call() : value;
+      if (loadingLease == null) {
+        return loadAndPut.call();
+      }
+      return loadingLease.load(name + DELIMITER + key, () -> (T) lookup(key), loadAndPut);
     } catch (Exception ex) {
       throw new ValueRetrievalException(key, valueLoader, ex);
     }
@@ -83,12 +195,16 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
     if (value == null) {
       LOG.warn("Storing null value for key {} in cache. That's probably not great.", key);
     }
+    String redisKey = name + DELIMITER + key;
+    long generation = nearCache == null ? 0 : nearCache.getGeneration();
+    Object storeValue = toStoreValue(value);
     if (ttlMinutes == INFINITE_TTL) {
-      this.redissonClient.getBucket(name + DELIMITER + key).setAsync(toStoreValue(value));
+      this.redissonClient.getBucket(redisKey).setAsync(storeValue);
     } else {
-      this.redissonClient
-          .getBucket(name + DELIMITER + key)
-          .setAsync(toStoreValue(value), ttlMinutes, TimeUnit.MINUTES);
+      this.redissonClient.getBucket(redisKey).setAsync(storeValue, ttlMinutes, TimeUnit.MINUTES);
+    }
+    if (nearCache != null && storeValue != null) {
+      nearCache.put(redisKey, value, ((byte[]) storeValue).length, generation);
     }
   }
 
@@ -120,6 +236,8 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
               .filter(key -> key.startsWith(name))
               .filter(key -> key.matches((String) pattern))
               .toArray(String[]::new);
+      // Other instances may still hold keys in their near cache that have expired in Redis.
+      publishInvalidation((String) pattern);
       // Calling delete() with empty array causes an error in the Redisson client.
       if (keys.length > 0) return redissonClient.getKeys().delete(keys) > 0;
     } else {
@@ -132,11 +250,28 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
   @Override
   public void clear() {
     this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*");
+    publishInvalidation(".*");
   }
 
   @Override
   public boolean invalidate() {
-    return this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*") > 0;
+    boolean invalidated =
+        this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*") > 0;
+    publishInvalidation(".*");
+    return invalidated;
+  }
+
+  private void publishInvalidation(String pattern) {
+    if (nearCache == null) {
+      return;
+    }
+    // invalidate locally right away, the message reaches this instance as well
+    nearCache.invalidate(pattern);
+    try {
+      invalidationTopic.publish(pattern);
+    } catch (RuntimeException e) {
+      LOG.warn("Error publishing near cache invalidation of cache {}: ", name, e);
+    }
   }
 
   @Override
@@ -145,21 +280,8 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
       return null;
     }
 
-    ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-    ObjectOutputStream objectOut;
     try {
-      // serialize to byte array
-      objectOut = new ObjectOutputStream(byteOut);
-      objectOut.writeObject(userValue);
-      objectOut.flush();
-      byte[] uncompressedByteArray = byteOut.toByteArray();
-
-      // compress byte array
-      byteOut = new ByteArrayOutputStream(uncompressedByteArray.length);
-      GZIPOutputStream g = new GZIPOutputStream(byteOut);
-      g.write(uncompressedByteArray);
-      g.close();
-      return byteOut.toByteArray();
+      return codec.encode(userValue);
     } catch (IOException e) {
       LOG.warn("Error compressing object for cache: ", e);
       return null;
@@ -172,24 +294,8 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
       return null;
     }
 
-    byte[] bytes = (byte[]) storeValue;
-    ByteArrayInputStream byteIn = new ByteArrayInputStream(bytes);
-    ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-    GZIPInputStream gzipIn;
     try {
-      // inflate to byte array
-      gzipIn = new GZIPInputStream(byteIn);
-      byte[] buffer = new byte[1024];
-      int len;
-      while ((len = gzipIn.read(buffer)) != -1) {
-        byteOut.write(buffer, 0, len);
-      }
-      byte[] unzippedBytes = byteOut.toByteArray();
-
-      // deserialize byte array to object
-      byteIn = new ByteArrayInputStream(unzippedBytes);
-      ObjectInputStream oi = new ObjectInputStream(byteIn);
-      return oi.readObject();
+      return codec.decode((byte[]) storeValue);
     } catch (IOException | ClassNotFoundException e) {
       LOG.warn("Error inflating object from cache: ", e);
       return null;
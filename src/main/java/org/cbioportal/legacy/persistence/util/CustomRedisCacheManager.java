@@ -4,18 +4,68 @@ import jakarta.validation.constraints.NotNull;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
 public class CustomRedisCacheManager implements CacheManager {
+  private static final Logger LOG = LoggerFactory.getLogger(CustomRedisCacheManager.class);
+
   private final ConcurrentMap<String, CustomRedisCache> caches = new ConcurrentHashMap<>();
   private final RedissonClient client;
   private final long ttlInMins;
+  private final RedisCacheCodec codec;
+  private final RedisNearCache.Settings nearCacheSettings;
+  private final RedisLoadingLease.Settings loadingLeaseSettings;
 
   public CustomRedisCacheManager(RedissonClient client, long ttlInMins) {
+    this(client, ttlInMins, new GzipSerializationCodec());
+  }
+
+  /**
+   * @param codec converts the cached values to and from the bytes stored in Redis
+   */
+  public CustomRedisCacheManager(RedissonClient client, long ttlInMins, RedisCacheCodec codec) {
+    this(client, ttlInMins, codec, null, null);
+  }
+
+  /**
+   * @param codec converts the cached values to and from the bytes stored in Redis
+   * @param nearCacheSettings settings of the in-process cache in front of each Redis cache, or null
+   *     to always read from Redis
+   * @param loadingLeaseSettings settings of the lease that lets only one portal instance load a
+   *     missing value, or null to let every instance load it
+   */
+  public CustomRedisCacheManager(
+      RedissonClient client,
+      long ttlInMins,
+      RedisCacheCodec codec,
+      RedisNearCache.Settings nearCacheSettings,
+      RedisLoadingLease.Settings loadingLeaseSettings) {
     this.client = client;
     this.ttlInMins = ttlInMins;
+    this.codec = codec;
+    this.nearCacheSettings = nearCacheSettings;
+    this.loadingLeaseSettings = loadingLeaseSettings;
+    if (nearCacheSettings != null) {
+      ScheduledExecutorService executor =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "redis-near-cache-ttl-refresh");
+                thread.setDaemon(true);
+                return thread;
+              });
+      executor.scheduleWithFixedDelay(
+          this::refreshTouchedKeys,
+          nearCacheSettings.ttlRefreshIntervalSeconds(),
+          nearCacheSettings.ttlRefreshIntervalSeconds(),
+          TimeUnit.SECONDS);
+    }
   }
 
   /**
@@ -43,7 +93,28 @@ public class CustomRedisCacheManager implements CacheManager {
   public Cache getCache(String name, boolean expires) {
     long clientTTLInMinutes = expires ? ttlInMins : CustomRedisCache.INFINITE_TTL;
     return caches.computeIfAbsent(
-        name, k -> new CustomRedisCache(name, client, clientTTLInMinutes));
+        name,
+        k ->
+            new CustomRedisCache(
+                name,
+                client,
+                clientTTLInMinutes,
+                codec,
+                nearCacheSettings == null ? null : new RedisNearCache(nearCacheSettings),
+                loadingLeaseSettings == null
+                    ? null
+                    : new RedisLoadingLease(client, loadingLeaseSettings)));
+  }
+
+  private void refreshTouchedKeys() {
+    for (CustomRedisCache cache : caches.values()) {
+      try {
+        cache.refreshTouchedKeys();
+      } catch (RuntimeException e) {
+        // keep the schedule running, the keys are read again from Redis once they have expired
+        LOG.warn("Error refreshing the expiry of keys in cache {}: ", cache.getName(), e);
+      }
+    }
   }
 
   /**
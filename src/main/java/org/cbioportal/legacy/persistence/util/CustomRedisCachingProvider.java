@@ -66,6 +66,39 @@ public class CustomRedisCachingProvider {
   @Value("${redis.clear_on_startup:true}")
   private boolean clearOnStartup;
 
+  @Value("${redis.codec:gzip}")
+  private String codec;
+
+  @Value("${redis.compression_threshold_bytes:1024}")
+  private Integer compressionThresholdBytes;
+
+  @Value("${redis.compression_level:1}")
+  private Integer compressionLevel;
+
+  @Value("${redis.near_cache.enabled:false}")
+  private boolean nearCacheEnabled;
+
+  @Value("${redis.near_cache.max_mega_bytes:256}")
+  private Long nearCacheMaxMegaBytes;
+
+  @Value("${redis.near_cache.max_entry_kilo_bytes:1024}")
+  private Long nearCacheMaxEntryKiloBytes;
+
+  @Value("${redis.near_cache.expire_after_write_seconds:300}")
+  private Long nearCacheExpireAfterWriteSeconds;
+
+  @Value("${redis.near_cache.ttl_refresh_interval_seconds:60}")
+  private Long nearCacheTtlRefreshIntervalSeconds;
+
+  @Value("${redis.loading_lease.enabled:false}")
+  private boolean loadingLeaseEnabled;
+
+  @Value("${redis.loading_lease.lease_seconds:120}")
+  private Long loadingLeaseSeconds;
+
+  @Value("${redis.loading_lease.poll_interval_millis:200}")
+  private Long loadingLeasePollIntervalMillis;
+
   public RedissonClient getRedissonClient() {
     if (leaderAddress == null || "".equals(leaderAddress)) {
       return null;
@@ -87,7 +120,13 @@ public class CustomRedisCachingProvider {
   }
 
   public CacheManager getCacheManager(RedissonClient redissonClient) {
-    CustomRedisCacheManager manager = new CustomRedisCacheManager(redissonClient, expiryMins);
+    CustomRedisCacheManager manager =
+        new CustomRedisCacheManager(
+            redissonClient,
+            expiryMins,
+            getCodec(),
+            getNearCacheSettings(),
+            getLoadingLeaseSettings());
 
     if (clearOnStartup) {
       Cache generalCache = manager.getCache(redisName + "GeneralRepositoryCache");
@@ -102,4 +141,52 @@ public class CustomRedisCachingProvider {
     }
     return manager;
   }
+
+  private RedisNearCache.Settings getNearCacheSettings() {
+    if (!nearCacheEnabled) {
+      return null;
+    }
+    if (nearCacheMaxMegaBytes <= 0
+        || nearCacheMaxEntryKiloBytes <= 0
+        || nearCacheExpireAfterWriteSeconds <= 0
+        || nearCacheTtlRefreshIntervalSeconds <= 0) {
+      throw new IllegalArgumentException(
+          "The redis.near_cache sizes and intervals must be greater than zero.");
+    }
+    LOG.info(
+        "Using a near cache of "
+            + nearCacheMaxMegaBytes
+            + " MB per cache in front of Redis, entries expire after "
+            + nearCacheExpireAfterWriteSeconds
+            + " seconds");
+    return new RedisNearCache.Settings(
+        nearCacheMaxMegaBytes * 1024 * 1024,
+        nearCacheMaxEntryKiloBytes * 1024,
+        nearCacheExpireAfterWriteSeconds,
+        nearCacheTtlRefreshIntervalSeconds);
+  }
+
+  private RedisLoadingLease.Settings getLoadingLeaseSettings() {
+    if (!loadingLeaseEnabled) {
+      return null;
+    }
+    if (loadingLeaseSeconds <= 0 || loadingLeasePollIntervalMillis <= 0) {
+      throw new IllegalArgumentException(
+          "redis.loading_lease.lease_seconds and redis.loading_lease.poll_interval_millis must be greater than zero.");
+    }
+    return new RedisLoadingLease.Settings(loadingLeaseSeconds, loadingLeasePollIntervalMillis);
+  }
+
+  private RedisCacheCodec getCodec() {
+    if ("deflate".equalsIgnoreCase(codec)) {
+      return new DeflateSerializationCodec(compressionThresholdBytes, compressionLevel);
+    }
+    if ("smile".equalsIgnoreCase(codec)) {
+      return new SmileSerializationCodec();
+    }
+    if (!"gzip".equalsIgnoreCase(codec)) {
+      LOG.warn("Unknown redis.codec '" + codec + "', using 'gzip'");
+    }
+    return new GzipSerializationCodec();
+  }
 }
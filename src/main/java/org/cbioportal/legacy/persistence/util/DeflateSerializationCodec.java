@@ -0,0 +1,85 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Java serialization, compressed with a fast deflate level when the value is larger than a
+ * threshold. Compared to {@link GzipSerializationCodec}, large values have about the same size and
+ * are encoded faster, and small values are stored as is, as compressing them costs more time than
+ * it saves on the network.
+ *
+ * <p>Values start with a format byte and a compression byte. Values in the format of {@link
+ * GzipSerializationCodec}, written before this codec was introduced, are still read.
+ */
+public class DeflateSerializationCodec implements RedisCacheCodec {
+
+  // never the first byte of the gzip magic number
+  static final byte FORMAT = 1;
+  static final byte UNCOMPRESSED = 0;
+  static final byte DEFLATED = 1;
+  private static final int HEADER_LENGTH = 2;
+
+  private final int compressionThresholdBytes;
+  private final int compressionLevel;
+  private final GzipSerializationCodec legacyCodec = new GzipSerializationCodec();
+
+  /**
+   * @param compressionThresholdBytes values with a larger serialized size are compressed
+   * @param compressionLevel deflate level, from 1 (fastest) to 9 (smallest)
+   */
+  public DeflateSerializationCodec(int compressionThresholdBytes, int compressionLevel) {
+    this.compressionThresholdBytes = compressionThresholdBytes;
+    this.compressionLevel = compressionLevel;
+  }
+
+  @Override
+  public byte[] encode(Object value) throws IOException {
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    serialized.write(FORMAT);
+    serialized.write(UNCOMPRESSED);
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(serialized)) {
+      objectOut.writeObject(value);
+    }
+    byte[] bytes = serialized.toByteArray();
+    if (bytes.length - HEADER_LENGTH <= compressionThresholdBytes) {
+      return bytes;
+    }
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+    compressed.write(FORMAT);
+    compressed.write(DEFLATED);
+    Deflater deflater = new Deflater(compressionLevel);
+    try (OutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater, 8192)) {
+      deflaterOut.write(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+    } finally {
+      deflater.end();
+    }
+    return compressed.toByteArray();
+  }
+
+  @Override
+  public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+    if (GzipSerializationCodec.isGzip(bytes)) {
+      return legacyCodec.decode(bytes);
+    }
+    if (bytes.length < HEADER_LENGTH || bytes[0] != FORMAT) {
+      throw new IOException("Unknown format of cached value");
+    }
+    InputStream in = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+    if (bytes[1] == DEFLATED) {
+      in = new InflaterInputStream(in);
+    }
+    try (ObjectInputStream objectIn = new ObjectInputStream(in)) {
+      return objectIn.readObject();
+    }
+  }
+}
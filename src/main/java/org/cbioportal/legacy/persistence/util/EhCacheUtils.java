@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
 @Component
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap"})
 public class EhCacheUtils implements CacheUtils {
 
   @Autowired private CustomEhcachingProvider customEhcachingProvider;
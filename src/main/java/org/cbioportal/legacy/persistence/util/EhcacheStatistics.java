@@ -33,9 +33,12 @@
 package org.cbioportal.legacy.persistence.util;
 
 import jakarta.annotation.PostConstruct;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
 import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
 import org.ehcache.core.statistics.*;
 import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,7 +47,7 @@ import org.springframework.stereotype.Component;
 @Component
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap"})
 public class EhcacheStatistics {
 
   private static String TIER_NOT_IN_USE = "Tier not in use";
@@ -54,6 +57,9 @@ public class EhcacheStatistics {
 
   @Autowired private CustomEhcachingProvider customEhcachingProvider;
 
+  @Autowired(required = false)
+  private List<SingleFlightCacheResolver> singleFlightCacheResolvers;
+
   private javax.cache.CacheManager cacheManager;
   private DefaultStatisticsService statisticsService;
 
@@ -83,16 +89,44 @@ public class EhcacheStatistics {
           "Occupied (heap): "
               + getOccupiedBytes(cacheName, "OnHeap", ResourceType.Core.HEAP)
               + "\n");
+      builder.append(
+          "Allocated (offheap): " + getAllocatedBytes(cacheName, ResourceType.Core.OFFHEAP) + "\n");
+      builder.append(
+          "Occupied (offheap): "
+              + getOccupiedBytes(cacheName, "OffHeap", ResourceType.Core.OFFHEAP)
+              + "\n");
       builder.append(
           "Allocated (disk): " + getAllocatedBytes(cacheName, ResourceType.Core.DISK) + "\n");
       builder.append(
           "Occupied (disk): " + getOccupiedBytes(cacheName, "Disk", ResourceType.Core.DISK) + "\n");
+      CacheStatistics cacheStatistics = statisticsService.getCacheStatistics(cacheName);
+      builder.append("Hits: " + cacheStatistics.getCacheHits() + "\n");
+      builder.append("Misses: " + cacheStatistics.getCacheMisses() + "\n");
+      builder.append(
+          "Hit ratio: " + String.format("%.01f", cacheStatistics.getCacheHitPercentage()) + "%\n");
+      SingleFlightCache.Statistics singleFlightStatistics = getSingleFlightStatistics(cacheName);
+      if (singleFlightStatistics != null) {
+        builder.append("Loads: " + singleFlightStatistics.loads() + "\n");
+        builder.append("Coalesced loads: " + singleFlightStatistics.coalesced() + "\n");
+        builder.append("Coalescing timeouts: " + singleFlightStatistics.timeouts() + "\n");
+      }
       builder.append("\n");
     }
     builder.append("CACHE_STATISTICS END\n");
     return builder.toString();
   }
 
+  private SingleFlightCache.Statistics getSingleFlightStatistics(String cacheName) {
+    if (singleFlightCacheResolvers == null) {
+      return null;
+    }
+    return singleFlightCacheResolvers.stream()
+        .map(resolver -> resolver.getStatistics().get(cacheName))
+        .filter(Objects::nonNull)
+        .findFirst()
+        .orElse(null);
+  }
+
   private String getAllocatedBytes(String cacheName, ResourceType.Core resourceType) {
     try {
       org.ehcache.Cache ehcache = getEhcache(cacheName);
@@ -106,6 +140,15 @@ public class EhcacheStatistics {
     try {
       CacheStatistics cacheStatistics = statisticsService.getCacheStatistics(cacheName);
       Map<String, TierStatistics> tierStatistics = cacheStatistics.getTierStatistics();
+      if (getEhcache(cacheName)
+              .getRuntimeConfiguration()
+              .getResourcePools()
+              .getPoolForResource(resourceType)
+              .getUnit()
+          instanceof EntryUnit) {
+        // tiers sized in entries do not measure their size
+        return tierStatistics.get(tier).getMappings() + " entries";
+      }
       long occupiedBytes = tierStatistics.get(tier).getOccupiedByteSize();
       return scaleOccupiedBytes(cacheName, occupiedBytes, resourceType);
     } catch (NullPointerException e) {
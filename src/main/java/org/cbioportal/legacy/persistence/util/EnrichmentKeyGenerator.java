@@ -0,0 +1,66 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.model.util.Select;
+
+/**
+ * Key generator for enrichment results. Enrichments are computed from groups of cases, and the
+ * same comparison is sent with the cases of a group in any order, e.g. when a saved comparison
+ * session is reopened. The cases of each group are therefore sorted by their JSON representation
+ * before the key is built by {@link CustomKeyGenerator}. Groups, attributes and other collections
+ * keep their order, since it is the order of the results. Large keys are hashed and prefixed with
+ * the study ids they contain, so the results are evicted together with the other caches of a
+ * study.
+ */
+public class EnrichmentKeyGenerator extends CustomKeyGenerator {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  @Override
+  public Object generate(Object target, Method method, Object... params) {
+    return super.generate(
+        target, method, Arrays.stream(params).map(this::canonicalize).toArray());
+  }
+
+  private Object canonicalize(Object param) {
+    if (param instanceof Map<?, ?> map) {
+      Map<Object, Object> canonicalMap = new LinkedHashMap<>();
+      map.forEach((key, value) -> canonicalMap.put(key, canonicalize(value)));
+      return canonicalMap;
+    }
+    if (param instanceof Collection<?> collection && !(param instanceof Select)) {
+      if (isCaseSet(collection)) {
+        return collection.stream().map(this::write).sorted().collect(Collectors.toList());
+      }
+      return collection.stream().map(this::canonicalize).collect(Collectors.toList());
+    }
+    return param;
+  }
+
+  // the order of the cases in a group does not change the result
+  private boolean isCaseSet(Collection<?> collection) {
+    return !collection.isEmpty()
+        && collection.stream()
+            .allMatch(
+                element ->
+                    element instanceof MolecularProfileCaseIdentifier
+                        || element instanceof Sample);
+  }
+
+  private String write(Object element) {
+    try {
+      return mapper.writeValueAsString(element);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Could not serialize enrichment parameter", e);
+    }
+  }
+}
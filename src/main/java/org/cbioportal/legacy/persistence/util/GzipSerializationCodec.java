@@ -0,0 +1,47 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** Java serialization compressed with gzip, the original format of the Redis cache values. */
+public class GzipSerializationCodec implements RedisCacheCodec {
+
+  /**
+   * @return true if the bytes start with the gzip magic number, i.e. were written by this codec
+   */
+  public static boolean isGzip(byte[] bytes) {
+    return bytes.length >= 2
+        && bytes[0] == (byte) GZIPInputStream.GZIP_MAGIC
+        && bytes[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+  }
+
+  @Override
+  public byte[] encode(Object value) throws IOException {
+    // serialize to byte array
+    ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+    ObjectOutputStream objectOut = new ObjectOutputStream(byteOut);
+    objectOut.writeObject(value);
+    objectOut.flush();
+    byte[] uncompressedByteArray = byteOut.toByteArray();
+
+    // compress byte array
+    byteOut = new ByteArrayOutputStream(uncompressedByteArray.length);
+    GZIPOutputStream g = new GZIPOutputStream(byteOut);
+    g.write(uncompressedByteArray);
+    g.close();
+    return byteOut.toByteArray();
+  }
+
+  @Override
+  public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream objectIn =
+        new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+      return objectIn.readObject();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
+import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Long-lived in-memory cache of parsed ORDERED_SAMPLE_LIST values. Parsing the comma separated
+ * list of a large profile costs more than the query itself, so the parsed index is kept on heap
+ * instead of going through the serializing repository caches.
+ *
+ * <p>The cache is bounded by the total number of samples it holds. Entries are dropped when the
+ * import timestamps of genetic_profile or genetic_profile_samples change, see {@link
+ * TableTimestampWatcher}.
+ */
+@Component
+public class MolecularProfileSampleIndexCache {
+
+  private static final List<String> TABLES =
+      Arrays.asList("genetic_profile_samples", "genetic_profile");
+
+  private final Cache<String, Optional<MolecularProfileSampleIndex>> cache;
+  private final TableTimestampWatcher timestampWatcher;
+
+  public MolecularProfileSampleIndexCache(
+      StaticDataTimeStampRepository staticDataTimeStampRepository,
+      @Value("${molecular_profile_sample_index.cache.max_samples:2000000}") long maxSamples,
+      @Value("${molecular_profile_sample_index.cache.expire_after_write_mins:1440}")
+          long expireAfterWriteMinutes,
+      @Value("${molecular_profile_sample_index.cache.timestamp_check_interval_seconds:60}")
+          long timestampCheckIntervalSeconds) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSamples)
+            .<String, Optional<MolecularProfileSampleIndex>>weigher(
+                (molecularProfileId, sampleIndex) ->
+                    1 + sampleIndex.map(MolecularProfileSampleIndex::size).orElse(0))
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+    this.timestampWatcher =
+        new TableTimestampWatcher(
+            staticDataTimeStampRepository, TABLES, timestampCheckIntervalSeconds);
+  }
+
+  /**
+   * @return the sample index of the profile, or null when the profile has no ORDERED_SAMPLE_LIST
+   */
+  public MolecularProfileSampleIndex get(
+      String molecularProfileId, Function<String, MolecularProfileSamples> loader) {
+    invalidateIfStale();
+    try {
+      return cache
+          .get(
+              molecularProfileId,
+              () ->
+                  Optional.ofNullable(loader.apply(molecularProfileId))
+                      .map(MolecularProfileSampleIndex::of))
+          .orElse(null);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public Map<String, MolecularProfileSampleIndex> getAll(
+      Set<String> molecularProfileIds,
+      Function<Set<String>, Map<String, MolecularProfileSamples>> loader) {
+    invalidateIfStale();
+    Map<String, MolecularProfileSampleIndex> result = new HashMap<>();
+    Set<String> missingMolecularProfileIds = new HashSet<>();
+    for (String molecularProfileId : molecularProfileIds) {
+      Optional<MolecularProfileSampleIndex> sampleIndex = cache.getIfPresent(molecularProfileId);
+      if (sampleIndex == null) {
+        missingMolecularProfileIds.add(molecularProfileId);
+      } else {
+        sampleIndex.ifPresent(index -> result.put(molecularProfileId, index));
+      }
+    }
+    if (!missingMolecularProfileIds.isEmpty()) {
+      Map<String, MolecularProfileSamples> loaded = loader.apply(missingMolecularProfileIds);
+      for (String molecularProfileId : missingMolecularProfileIds) {
+        Optional<MolecularProfileSampleIndex> sampleIndex =
+            Optional.ofNullable(loaded.get(molecularProfileId))
+                .map(MolecularProfileSampleIndex::of);
+        cache.put(molecularProfileId, sampleIndex);
+        sampleIndex.ifPresent(index -> result.put(molecularProfileId, index));
+      }
+    }
+    return result;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private void invalidateIfStale() {
+    if (timestampWatcher.hasChanged()) {
+      cache.invalidateAll();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Directory of a persistent cache that is only reused across restarts while it was written for the
+ * same data. The directory holds a marker with the snapshot version, made of the portal version, a
+ * digest of the update timestamps of the database tables and a digest of the import dates of the
+ * studies. When the marker is missing or has a different version, e.g. because a study was imported
+ * while the portal was down, the directory is emptied before the cache manager opens it.
+ *
+ * <p>The table timestamps are read from information_schema, which requires db.portal_db_name, and
+ * MySQL does not keep the update time of InnoDB tables across its restarts. The study import dates
+ * are persistent and change with every study import, so both are part of the version.
+ */
+public class PersistentCacheSnapshot {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PersistentCacheSnapshot.class);
+
+  // increment when the layout of the persisted entries changes
+  static final int FORMAT_VERSION = 1;
+  static final String MARKER_FILE = "snapshot.properties";
+  private static final String VERSION_PROPERTY = "version";
+
+  private final File directory;
+  private final String version;
+
+  /**
+   * @param directory the directory of the persistent cache
+   * @param portalVersion the portal version, as the cached classes may change between versions
+   * @param dataTimestamps update timestamps by table name, or null if they are unknown; the
+   *     snapshot is then discarded, as it is when they are empty because they could not be read
+   * @param studyImportDates import dates by cancer study identifier, or null if they are unknown;
+   *     the snapshot is then discarded
+   */
+  public PersistentCacheSnapshot(
+      File directory,
+      String portalVersion,
+      Map<String, String> dataTimestamps,
+      Map<String, String> studyImportDates) {
+    this.directory = directory;
+    this.version =
+        dataTimestamps == null || dataTimestamps.isEmpty() || studyImportDates == null
+            ? null
+            : FORMAT_VERSION
+                + ":"
+                + portalVersion
+                + ":"
+                + digest(dataTimestamps)
+                + ":"
+                + digest(studyImportDates);
+  }
+
+  /**
+   * Empties the directory unless it holds a snapshot of the same version, and marks it with the
+   * current version. Must be called only before a cache manager has opened the directory.
+   *
+   * @return the directory to pass to the cache manager
+   */
+  public File prepare() throws IOException {
+    if (version != null && version.equals(readVersion())) {
+      LOG.info("Reusing persistent cache in " + directory);
+      return directory;
+    }
+    LOG.info(
+        "Discarding persistent cache in "
+            + directory
+            + (version == null ? ", the data timestamps are unknown" : ", the data has changed"));
+    FileSystemUtils.deleteRecursively(directory);
+    Files.createDirectories(directory.toPath());
+    if (version != null) {
+      Properties marker = new Properties();
+      marker.setProperty(VERSION_PROPERTY, version);
+      try (OutputStream out = Files.newOutputStream(new File(directory, MARKER_FILE).toPath())) {
+        marker.store(out, "persistent cache snapshot");
+      }
+    }
+    return directory;
+  }
+
+  private String readVersion() {
+    File markerFile = new File(directory, MARKER_FILE);
+    if (!markerFile.isFile()) {
+      return null;
+    }
+    Properties marker = new Properties();
+    try (InputStream in = Files.newInputStream(markerFile.toPath())) {
+      marker.load(in);
+    } catch (IOException e) {
+      LOG.warn("Unable to read " + markerFile + ": " + e.getMessage());
+      return null;
+    }
+    return marker.getProperty(VERSION_PROPERTY);
+  }
+
+  private static String digest(Map<String, String> values) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      new TreeMap<>(values)
+          .forEach(
+              (key, value) ->
+                  messageDigest.update(
+                      (key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8)));
+      return HexFormat.of().formatHex(messageDigest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.IOException;
+
+/** Converts the values of a {@link CustomRedisCache} to and from the bytes stored in Redis. */
+public interface RedisCacheCodec {
+
+  byte[] encode(Object value) throws IOException;
+
+  Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+}
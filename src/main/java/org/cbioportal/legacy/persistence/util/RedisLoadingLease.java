@@ -0,0 +1,125 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lease in Redis that lets only one portal instance load a missing value of a {@link
+ * CustomRedisCache}. The instance that takes the lease loads and stores the value; the others poll
+ * the cache until the value is there, the lease is released, or it has expired, e.g. because the
+ * instance holding it went down. In the latter two cases they load the value themselves.
+ *
+ * <p>Each lease holds a token unique to the load that took it, so that an instance whose load
+ * outlasted the lease does not release the lease another instance has taken since.
+ */
+public class RedisLoadingLease {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RedisLoadingLease.class);
+
+  // leases are kept outside of the key space of the caches, so that they are not listed or evicted
+  // with the cached values
+  public static final String KEY_PREFIX = "lease" + CustomRedisCache.DELIMITER;
+
+  // deletes the lease only if it still holds the token of this instance; once it has expired it may
+  // have been taken by another instance
+  static final String RELEASE_SCRIPT =
+      "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+          + "else return 0 end";
+
+  private final RedissonClient redissonClient;
+  private final long leaseMillis;
+  private final long pollIntervalMillis;
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+
+  public RedisLoadingLease(RedissonClient redissonClient, Settings settings) {
+    this.redissonClient = redissonClient;
+    this.leaseMillis = TimeUnit.SECONDS.toMillis(settings.leaseSeconds());
+    this.pollIntervalMillis = settings.pollIntervalMillis();
+  }
+
+  /**
+   * @param redisKey key of the missing value
+   * @param lookup reads the value from the cache, null if it is not there
+   * @param loader loads and stores the value
+   */
+  public <T> T load(String redisKey, Supplier<T> lookup, Callable<T> loader) throws Exception {
+    String leaseKey = KEY_PREFIX + redisKey;
+    RBucket<String> lease = redissonClient.getBucket(leaseKey, StringCodec.INSTANCE);
+    String token = UUID.randomUUID().toString();
+    if (lease.trySet(token, leaseMillis, TimeUnit.MILLISECONDS)) {
+      acquired.increment();
+      try {
+        return loader.call();
+      } finally {
+        release(leaseKey, token);
+      }
+    }
+
+    long deadline = System.currentTimeMillis() + leaseMillis;
+    while (System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(pollIntervalMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return loader.call();
+      }
+      T value = lookup.get();
+      if (value != null) {
+        coalesced.increment();
+        return value;
+      }
+      if (!lease.isExists()) {
+        // the value may have been stored right before the lease was released
+        value = lookup.get();
+        if (value != null) {
+          coalesced.increment();
+          return value;
+        }
+        return loader.call();
+      }
+    }
+    timeouts.increment();
+    LOG.warn("Lease on key {} was not released in time, loading the value again", redisKey);
+    return loader.call();
+  }
+
+  private void release(String leaseKey, String token) {
+    redissonClient
+        .getScript(StringCodec.INSTANCE)
+        .evalAsync(
+            RScript.Mode.READ_WRITE,
+            RELEASE_SCRIPT,
+            RScript.ReturnType.INTEGER,
+            List.of(leaseKey),
+            token);
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(acquired.sum(), coalesced.sum(), timeouts.sum());
+  }
+
+  /**
+   * @param leaseSeconds time after which a lease expires, and the longest time other instances wait
+   * @param pollIntervalMillis interval in which waiting instances check for the value
+   */
+  public record Settings(long leaseSeconds, long pollIntervalMillis) {}
+
+  /**
+   * @param acquired values loaded by this instance under a lease
+   * @param coalesced requests that received the value loaded by another instance
+   * @param timeouts requests that stopped waiting for another instance and loaded the value again
+   */
+  public record Statistics(long acquired, long coalesced, long timeouts) {}
+}
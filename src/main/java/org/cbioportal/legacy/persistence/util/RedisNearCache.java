@@ -0,0 +1,165 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process copy of the most recently read values of a {@link CustomRedisCache}, so that hits on
+ * popular keys do not need a round trip to Redis. Entries are keyed by their Redis key and weighed
+ * by the size of the value as stored in Redis. Values larger than the configured entry size are
+ * only kept in Redis, so that a single large result does not push out many small ones.
+ *
+ * <p>Entries are dropped when keys are evicted on any portal instance, see {@link
+ * CustomRedisCache#evictIfPresent(Object)}, and after a fixed time, which bounds how long an entry
+ * can be stale if an invalidation message is missed, e.g. while reconnecting to Redis.
+ *
+ * <p>Keys read from the near cache are not read from Redis, so their expiry in Redis is refreshed
+ * in batches, see {@link #drainTouchedKeys()}.
+ */
+public class RedisNearCache {
+
+  private final Cache<String, Entry> entries;
+  private final long maxEntryBytes;
+  // incremented by every invalidation, so that values read from Redis before an invalidation are
+  // not kept afterwards
+  private final AtomicLong generation = new AtomicLong();
+  private final Set<String> touchedKeys = ConcurrentHashMap.newKeySet();
+  private final LongAdder nearHits = new LongAdder();
+  private final LongAdder redisHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public RedisNearCache(Settings settings) {
+    this.entries =
+        CacheBuilder.newBuilder()
+            .maximumWeight(settings.maxBytes())
+            .<String, Entry>weigher((key, entry) -> entry.storedBytes())
+            .expireAfterWrite(settings.expireAfterWriteSeconds(), TimeUnit.SECONDS)
+            .build();
+    this.maxEntryBytes = settings.maxEntryBytes();
+  }
+
+  /**
+   * @return the value, or null if it is not in the near cache
+   */
+  public Object get(String redisKey) {
+    Entry entry = entries.getIfPresent(redisKey);
+    return entry == null ? null : entry.value();
+  }
+
+  /**
+   * @return the current generation, to pass to {@link #put} for a value about to be read
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * @param storedBytes size of the value as stored in Redis
+   * @param readGeneration generation before the value was read; the value is not kept if the cache
+   *     was invalidated in the meantime
+   */
+  public void put(String redisKey, Object value, int storedBytes, long readGeneration) {
+    if (value == null || storedBytes > maxEntryBytes || readGeneration != generation.get()) {
+      entries.invalidate(redisKey);
+      return;
+    }
+    entries.put(redisKey, new Entry(value, storedBytes));
+    if (readGeneration != generation.get()) {
+      entries.invalidate(redisKey);
+    }
+  }
+
+  /**
+   * @param pattern regular expression matched against the Redis keys
+   */
+  public void invalidate(String pattern) {
+    generation.incrementAndGet();
+    entries.asMap().keySet().removeIf(key -> key.matches(pattern));
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    entries.invalidateAll();
+  }
+
+  /** Marks a key as read, so that its expiry in Redis is refreshed with the next batch. */
+  public void touch(String redisKey) {
+    touchedKeys.add(redisKey);
+  }
+
+  /**
+   * @return the keys read since the last call
+   */
+  public List<String> drainTouchedKeys() {
+    List<String> keys = new ArrayList<>();
+    for (Iterator<String> iterator = touchedKeys.iterator(); iterator.hasNext(); ) {
+      keys.add(iterator.next());
+      iterator.remove();
+    }
+    return keys;
+  }
+
+  public void recordNearHit() {
+    nearHits.increment();
+  }
+
+  public void recordRedisHit() {
+    redisHits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(entries.size(), nearHits.sum(), redisHits.sum(), misses.sum());
+  }
+
+  private record Entry(Object value, int storedBytes) {}
+
+  /**
+   * @param maxBytes total size of the values, as stored in Redis, kept per cache
+   * @param maxEntryBytes values larger than this are not kept
+   * @param expireAfterWriteSeconds time after which an entry is read from Redis again
+   * @param ttlRefreshIntervalSeconds interval of the batched expiry refresh in Redis
+   */
+  public record Settings(
+      long maxBytes,
+      long maxEntryBytes,
+      long expireAfterWriteSeconds,
+      long ttlRefreshIntervalSeconds) {}
+
+  /** Counts of the reads since startup; Redis hits are reads that missed the near cache. */
+  public record Statistics(long entries, long nearHits, long redisHits, long misses) {
+
+    public long requests() {
+      return nearHits + redisHits + misses;
+    }
+
+    /**
+     * @return percentage of the reads served by the near cache
+     */
+    public double nearHitPercentage() {
+      return percentage(nearHits, requests());
+    }
+
+    /**
+     * @return percentage of the reads not served by the near cache that were found in Redis
+     */
+    public double redisHitPercentage() {
+      return percentage(redisHits, redisHits + misses);
+    }
+
+    private static double percentage(long count, long total) {
+      return total == 0 ? 0 : 100.0 * count / total;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache that loads a missing value only once when it is requested by several threads at the same
+ * time. Spring calls {@link #get(Object, Callable)} for cached methods with {@code sync = true};
+ * the first thread runs the method and the other threads asking for the same key wait for its
+ * result instead of running the method as well. This prevents a burst of identical database
+ * queries when a popular entry has expired or the caches have been cleared.
+ *
+ * <p>Threads wait for at most the configured timeout and then run the method themselves. All other
+ * operations are passed on to the wrapped cache.
+ */
+public class SingleFlightCache implements Cache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SingleFlightCache.class);
+
+  private final Cache delegate;
+  private final long waitTimeoutMillis;
+  private final ConcurrentMap<Object, CompletableFuture<Object>> loading =
+      new ConcurrentHashMap<>();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  /**
+   * @param waitTimeoutMillis time a thread waits for a value loaded by another thread
+   */
+  public SingleFlightCache(Cache delegate, long waitTimeoutMillis) {
+    this.delegate = delegate;
+    this.waitTimeoutMillis = waitTimeoutMillis;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(Object key, @Nullable Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> inFlight = loading.putIfAbsent(key, future);
+    if (inFlight != null) {
+      return (T) await(key, inFlight, valueLoader);
+    }
+    try {
+      // the previous load may have stored the value and finished after the lookup above
+      cached = delegate.get(key);
+      if (cached != null) {
+        future.complete(cached.get());
+        return (T) cached.get();
+      }
+      loads.increment();
+      Object value = load(key, valueLoader);
+      future.complete(value);
+      return (T) value;
+    } catch (RuntimeException | Error e) {
+      // the waiting threads fail the same way
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, future);
+    }
+  }
+
+  private Object await(Object key, CompletableFuture<Object> inFlight, Callable<?> valueLoader) {
+    waiting.incrementAndGet();
+    try {
+      Object value = inFlight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+      coalesced.increment();
+      return value;
+    } catch (TimeoutException e) {
+      timeouts.increment();
+      LOG.warn(
+          "Value for key {} in cache {} is still loading after {} ms, loading it again",
+          key,
+          getName(),
+          waitTimeoutMillis);
+      return load(key, valueLoader);
+    } catch (ExecutionException e) {
+      coalesced.increment();
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new ValueRetrievalException(key, valueLoader, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ValueRetrievalException(key, valueLoader, e);
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private Object load(Object key, Callable<?> valueLoader) {
+    if (delegate instanceof CustomRedisCache) {
+      // the Redis cache stores the value itself and may coordinate with other portal instances
+      return delegate.get(key, valueLoader);
+    }
+    Object value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+    delegate.put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(Object key, @Nullable Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    return delegate.invalidate();
+  }
+
+  /**
+   * @return number of threads currently waiting for a value loaded by another thread
+   */
+  int getWaitingCount() {
+    return waiting.get();
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(loads.sum(), coalesced.sum(), timeouts.sum());
+  }
+
+  /**
+   * @param loads values loaded by the first thread asking for them
+   * @param coalesced requests that received the value loaded by another thread
+   * @param timeouts requests that stopped waiting for another thread and loaded the value again
+   */
+  public record Statistics(long loads, long coalesced, long timeouts) {}
+}
@@ -0,0 +1,48 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.NamedCacheResolver;
+
+/**
+ * Resolves a named cache wrapped in a {@link SingleFlightCache}, so that cached methods with {@code
+ * sync = true} load a missing value only once when it is requested concurrently.
+ */
+public class SingleFlightCacheResolver extends NamedCacheResolver {
+
+  private final ConcurrentMap<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+  private final long waitTimeoutMillis;
+
+  /**
+   * @param waitTimeoutMillis time a thread waits for a value loaded by another thread
+   */
+  public SingleFlightCacheResolver(
+      CacheManager cacheManager, String cacheName, long waitTimeoutMillis) {
+    super(cacheManager, cacheName);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+  }
+
+  @Override
+  public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+    return super.resolveCaches(context).stream()
+        .map(
+            cache ->
+                caches.computeIfAbsent(
+                    cache.getName(), name -> new SingleFlightCache(cache, waitTimeoutMillis)))
+        .toList();
+  }
+
+  /**
+   * @return statistics of the concurrent loads by cache name
+   */
+  public Map<String, SingleFlightCache.Statistics> getStatistics() {
+    return caches.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getStatistics()));
+  }
+}
@@ -0,0 +1,164 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Jackson Smile, a binary form of JSON, without compression. Smile writes a property name or a
+ * short string that repeats within a value, such as the class and field names of a list of model
+ * objects, once and refers back to it afterwards, which takes the place of compression for the
+ * large lists of study view results.
+ *
+ * <p>Fields are written with the class of each value, so values are read back with the classes
+ * they were written with, as with Java serialization. Values that cannot be read back that way are
+ * stored with {@link GzipSerializationCodec} instead: collections and maps of other than the
+ * common {@code java.util} classes, maps with keys that are not strings (Smile keys are strings)
+ * and values Jackson cannot write.
+ *
+ * <p>Values start with a format byte. Values in the format of {@link GzipSerializationCodec},
+ * written before this codec was enabled or by the fallback, are still read.
+ */
+public class SmileSerializationCodec implements RedisCacheCodec {
+
+  // neither the first byte of the gzip magic number nor the format of DeflateSerializationCodec
+  static final byte FORMAT = 2;
+
+  private static final Set<Class<?>> SUPPORTED_CONTAINERS =
+      Set.of(
+          ArrayList.class,
+          LinkedList.class,
+          HashSet.class,
+          LinkedHashSet.class,
+          TreeSet.class,
+          HashMap.class,
+          LinkedHashMap.class,
+          TreeMap.class);
+
+  // read back as the same classes without a type id
+  private static final Set<Class<?>> NATURAL_TYPES =
+      Set.of(String.class, Boolean.class, Integer.class, Double.class);
+
+  private final ObjectWriter writer;
+  private final ObjectReader reader;
+  private final GzipSerializationCodec legacyCodec = new GzipSerializationCodec();
+
+  public SmileSerializationCodec() {
+    SmileFactory smileFactory =
+        SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+    ObjectMapper mapper = new ObjectMapper(smileFactory);
+    // the fields, as with Java serialization, not the getters and setters
+    mapper.setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.NONE);
+    mapper.setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE);
+    mapper.setVisibility(PropertyAccessor.SETTER, JsonAutoDetect.Visibility.NONE);
+    mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    mapper.setDefaultTyping(
+        new TypedValues(createTypeValidator())
+            .init(JsonTypeInfo.Id.CLASS, null)
+            .inclusion(JsonTypeInfo.As.WRAPPER_ARRAY));
+    this.writer = mapper.writerFor(Object.class);
+    this.reader = mapper.readerFor(Object.class);
+  }
+
+  @Override
+  public byte[] encode(Object value) throws IOException {
+    if (!isSupported(value)) {
+      return legacyCodec.encode(value);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(FORMAT);
+    try {
+      writer.writeValue(out, value);
+    } catch (IOException e) {
+      return legacyCodec.encode(value);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+    if (GzipSerializationCodec.isGzip(bytes)) {
+      return legacyCodec.decode(bytes);
+    }
+    if (bytes.length < 1 || bytes[0] != FORMAT) {
+      throw new IOException("Unknown format of cached value");
+    }
+    return reader.readValue(bytes, 1, bytes.length - 1);
+  }
+
+  // the containers of the value, not the fields of the objects in them, whose declared types tell
+  // Jackson how to read them
+  static boolean isSupported(Object value) {
+    if (value instanceof Map<?, ?> map) {
+      if (!SUPPORTED_CONTAINERS.contains(map.getClass())) {
+        return false;
+      }
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!(entry.getKey() instanceof String) || !isSupported(entry.getValue())) {
+          return false;
+        }
+      }
+    } else if (value instanceof Collection<?> collection) {
+      if (!SUPPORTED_CONTAINERS.contains(collection.getClass())) {
+        return false;
+      }
+      for (Object element : collection) {
+        if (!isSupported(element)) {
+          return false;
+        }
+      }
+    } else if (value instanceof Object[] array) {
+      for (Object element : array) {
+        if (!isSupported(element)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static PolymorphicTypeValidator createTypeValidator() {
+    return BasicPolymorphicTypeValidator.builder()
+        .allowIfSubType("org.cbioportal.")
+        .allowIfSubType("java.")
+        .allowIfSubTypeIsArray()
+        .build();
+  }
+
+  // writes the class of every value that would not be read back as the same class without it,
+  // e.g. a Long or an enum in a list
+  private static class TypedValues extends ObjectMapper.DefaultTypeResolverBuilder {
+
+    TypedValues(PolymorphicTypeValidator typeValidator) {
+      super(ObjectMapper.DefaultTyping.NON_FINAL, typeValidator);
+    }
+
+    @Override
+    public boolean useForType(JavaType type) {
+      return !type.isPrimitive() && !NATURAL_TYPES.contains(type.getRawClass());
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.TableTimestampPair;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the import timestamps of a few tables, for in-memory caches that have to be dropped when
+ * a study is imported. The timestamps are read at most once per configured interval.
+ *
+ * <p>If no timestamps can be read, e.g. because {@code db.portal_db_name} is not set or InnoDB has
+ * not recorded an update since the database was restarted, the import dates of the studies in
+ * {@code cancer_study} are watched instead.
+ */
+public class TableTimestampWatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TableTimestampWatcher.class);
+
+  private final StaticDataTimeStampRepository staticDataTimeStampRepository;
+  private final List<String> tables;
+  private final long checkIntervalMillis;
+  private final Object lock = new Object();
+  private volatile long nextCheck;
+  private Map<String, String> timestamps;
+  private boolean usingImportDates;
+
+  public TableTimestampWatcher(
+      StaticDataTimeStampRepository staticDataTimeStampRepository,
+      List<String> tables,
+      long checkIntervalSeconds) {
+    this.staticDataTimeStampRepository = staticDataTimeStampRepository;
+    this.tables = tables;
+    this.checkIntervalMillis = TimeUnit.SECONDS.toMillis(checkIntervalSeconds);
+  }
+
+  /**
+   * @return true if the timestamps have changed since the previous check, false on the first check
+   *     and while the interval has not passed
+   */
+  public boolean hasChanged() {
+    long now = System.currentTimeMillis();
+    if (now < nextCheck) {
+      return false;
+    }
+    synchronized (lock) {
+      if (now < nextCheck) {
+        return false;
+      }
+      Map<String, String> currentTimestamps = readTimestamps();
+      boolean changed = timestamps != null && !timestamps.equals(currentTimestamps);
+      timestamps = currentTimestamps;
+      nextCheck = now + checkIntervalMillis;
+      return changed;
+    }
+  }
+
+  private Map<String, String> readTimestamps() {
+    Map<String, String> tableTimestamps =
+        staticDataTimeStampRepository.getTimestamps(tables).stream()
+            .filter(pair -> pair.getUpdateTime() != null)
+            .collect(
+                Collectors.toMap(
+                    TableTimestampPair::getTableName,
+                    TableTimestampPair::getUpdateTime,
+                    (first, second) -> first));
+    if (!tableTimestamps.isEmpty()) {
+      usingImportDates = false;
+      return tableTimestamps;
+    }
+    if (!usingImportDates) {
+      LOG.warn(
+          "No update times of the tables {} available, watching the study import dates instead",
+          tables);
+      usingImportDates = true;
+    }
+    return staticDataTimeStampRepository.getStudyImportDates().stream()
+        .collect(
+            Collectors.toMap(
+                CancerStudy::getCancerStudyIdentifier,
+                cancerStudy -> String.valueOf(cancerStudy.getImportDate()),
+                (first, second) -> first));
+  }
+}
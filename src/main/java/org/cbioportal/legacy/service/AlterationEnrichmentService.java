@@ -7,9 +7,14 @@ import org.cbioportal.legacy.model.AlterationFilter;
 import org.cbioportal.legacy.model.EnrichmentType;
 import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.springframework.cache.annotation.Cacheable;
 
 public interface AlterationEnrichmentService {
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   List<AlterationEnrichment> getAlterationEnrichments(
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
       EnrichmentType enrichmentType,
@@ -0,0 +1,8 @@
+package org.cbioportal.legacy.service;
+
+import org.cbioportal.legacy.service.util.CacheWarmupStatus;
+
+public interface CacheWarmupService {
+
+  CacheWarmupStatus getStatus();
+}
@@ -9,27 +9,44 @@ import org.cbioportal.legacy.model.GenericAssayEnrichment;
 import org.cbioportal.legacy.model.GenomicEnrichment;
 import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.springframework.cache.annotation.Cacheable;
 
 public interface ExpressionEnrichmentService {
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   List<GenomicEnrichment> getGenomicEnrichments(
       String molecularProfileId,
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
       EnrichmentType enrichmentType)
       throws MolecularProfileNotFoundException;
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   List<GenericAssayEnrichment> getGenericAssayNumericalEnrichments(
       String molecularProfileId,
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
       EnrichmentType enrichmentType)
       throws MolecularProfileNotFoundException;
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   List<GenericAssayBinaryEnrichment> getGenericAssayBinaryEnrichments(
       String molecularProfileId,
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
       EnrichmentType enrichmentType)
       throws MolecularProfileNotFoundException;
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   List<GenericAssayCategoricalEnrichment> getGenericAssayCategoricalEnrichments(
       String molecularProfileId,
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
@@ -4,4 +4,10 @@ import org.cbioportal.legacy.service.impl.ServerStatusServiceImpl.ServerStatusMe
 
 public interface ServerStatusService {
   ServerStatusMessage getServerStatus();
+
+  /**
+   * @return UP once the startup cache warm-up has finished, WARMING_UP before; leaves out the
+   *     per-task details, which can name studies
+   */
+  ServerStatusMessage getReadiness();
 }
@@ -8,4 +8,10 @@ public interface StaticDataTimestampService {
   Map<String, String> getTimestamps(List<String> tables);
 
   Map<String, Date> getTimestampsAsDates(List<String> tables);
+
+  /**
+   * @return import date by cancer study identifier; unlike the table timestamps, these are kept
+   *     across database restarts
+   */
+  Map<String, String> getStudyImportDates();
 }
@@ -1,50 +1,75 @@
 package org.cbioportal.legacy.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache.StudySampleLists;
 import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
+import org.cbioportal.legacy.service.util.VirtualStudySampleCache;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.VirtualStudy;
 import org.cbioportal.legacy.web.parameter.VirtualStudyData;
 import org.cbioportal.legacy.web.parameter.VirtualStudySamples;
 import org.cbioportal.legacy.web.util.StudyViewFilterApplier;
+import org.cbioportal.shared.util.IntBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class VirtualStudyService {
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualStudyService.class);
+  private static final ObjectMapper DEFINITION_MAPPER = new ObjectMapper();
+
   private final SessionServiceRequestHandler sessionServiceRequestHandler;
   private final StudyViewFilterApplier studyViewFilterApplier;
+  private final VirtualStudySampleCache virtualStudySampleCache;
 
   public VirtualStudyService(
       SessionServiceRequestHandler sessionServiceRequestHandler,
-      StudyViewFilterApplier studyViewFilterApplier) {
+      StudyViewFilterApplier studyViewFilterApplier,
+      VirtualStudySampleCache virtualStudySampleCache) {
     this.sessionServiceRequestHandler = sessionServiceRequestHandler;
     this.studyViewFilterApplier = studyViewFilterApplier;
+    this.virtualStudySampleCache = virtualStudySampleCache;
   }
 
   public VirtualStudy getVirtualStudy(String id) {
     VirtualStudy virtualStudy = sessionServiceRequestHandler.getVirtualStudyById(id);
     VirtualStudyData virtualStudyData = virtualStudy.getData();
     if (Boolean.TRUE.equals(virtualStudyData.getDynamic())) {
-      populateVirtualStudySamples(virtualStudyData);
+      populateVirtualStudySamples(virtualStudy.getId(), virtualStudyData);
     }
     return virtualStudy;
   }
 
   public Optional<VirtualStudy> getVirtualStudyByIdIfExists(String id) {
-    return sessionServiceRequestHandler
-        .getVirtualStudyByIdIfExists(id)
-        .map(
-            virtualStudy -> {
-              VirtualStudyData virtualStudyData = virtualStudy.getData();
-              if (Boolean.TRUE.equals(virtualStudyData.getDynamic())) {
-                populateVirtualStudySamples(virtualStudyData);
-              }
-              return virtualStudy;
-            });
+    return getVirtualStudies(List.of(id)).stream().findFirst();
+  }
+
+  /**
+   * Gets virtual studies by id with as few session service requests as possible
+   *
+   * @param ids - ids of the virtual studies
+   * @return virtual studies in the order of the ids, ids that do not exist are left out
+   */
+  public List<VirtualStudy> getVirtualStudies(Collection<String> ids) {
+    List<VirtualStudy> virtualStudies = sessionServiceRequestHandler.getVirtualStudiesByIds(ids);
+    for (VirtualStudy virtualStudy : virtualStudies) {
+      VirtualStudyData virtualStudyData = virtualStudy.getData();
+      if (Boolean.TRUE.equals(virtualStudyData.getDynamic())) {
+        populateVirtualStudySamples(virtualStudy.getId(), virtualStudyData);
+      }
+    }
+    return virtualStudies;
   }
 
   public List<VirtualStudy> getUserVirtualStudies(String user) {
@@ -53,7 +78,7 @@ public class VirtualStudyService {
     for (VirtualStudy virtualStudy : virtualStudies) {
       VirtualStudyData virtualStudyData = virtualStudy.getData();
       if (Boolean.TRUE.equals(virtualStudyData.getDynamic())) {
-        populateVirtualStudySamples(virtualStudyData);
+        populateVirtualStudySamples(virtualStudy.getId(), virtualStudyData);
       }
     }
     return virtualStudies;
@@ -66,29 +91,91 @@ public class VirtualStudyService {
    * then updates the virtualStudyData to reflect these fresh results. This ensures that the virtual
    * study contains the latest sample IDs.
    *
+   * <p>The result of the query is cached as internal sample ids per study, see {@link
+   * VirtualStudySampleCache}. They are mapped back to sample ids through the cached samples of the
+   * studies, so a cache hit does not need the database.
+   *
+   * @param virtualStudyId
    * @param virtualStudyData
    */
-  private void populateVirtualStudySamples(VirtualStudyData virtualStudyData) {
-    List<SampleIdentifier> sampleIdentifiers =
-        studyViewFilterApplier.apply(virtualStudyData.getStudyViewFilter());
-    Set<VirtualStudySamples> virtualStudySamples = extractVirtualStudySamples(sampleIdentifiers);
-    virtualStudyData.setStudies(virtualStudySamples);
+  private void populateVirtualStudySamples(
+      String virtualStudyId, VirtualStudyData virtualStudyData) {
+    Map<String, IntBitmap> sampleInternalIdsByStudyId;
+    String definition = serializeDefinition(virtualStudyData);
+    if (virtualStudyId == null || definition == null) {
+      sampleInternalIdsByStudyId = resolveSampleInternalIds(virtualStudyData);
+    } else {
+      sampleInternalIdsByStudyId =
+          virtualStudySampleCache.get(
+              virtualStudyId, definition, () -> resolveSampleInternalIds(virtualStudyData));
+    }
+    virtualStudyData.setStudies(extractVirtualStudySamples(sampleInternalIdsByStudyId));
+  }
+
+  private Map<String, IntBitmap> resolveSampleInternalIds(VirtualStudyData virtualStudyData) {
+    Map<String, Set<String>> sampleIdsByStudyId =
+        groupSampleIdsByStudyId(
+            studyViewFilterApplier.apply(virtualStudyData.getStudyViewFilter()));
+    if (sampleIdsByStudyId.isEmpty()) {
+      return new HashMap<>();
+    }
+
+    Map<String, StudySampleLists> sampleListsByStudy =
+        studyViewFilterApplier.getSampleListsByStudy(new ArrayList<>(sampleIdsByStudyId.keySet()));
+    Map<String, IntBitmap> result = new HashMap<>();
+    sampleIdsByStudyId.forEach(
+        (studyId, sampleIds) -> {
+          StudySampleLists studySampleLists = sampleListsByStudy.get(studyId);
+          if (studySampleLists != null) {
+            result.put(
+                studyId,
+                IntBitmap.of(
+                    sampleIds.stream()
+                        .map(studySampleLists::getSampleInternalId)
+                        .filter(internalId -> internalId != null)
+                        .mapToInt(Integer::intValue)
+                        .toArray()));
+          }
+        });
+    return result;
+  }
+
+  private String serializeDefinition(VirtualStudyData virtualStudyData) {
+    try {
+      return DEFINITION_MAPPER.writeValueAsString(virtualStudyData.getStudyViewFilter());
+    } catch (JsonProcessingException e) {
+      LOG.warn("Could not serialize the filter of a dynamic virtual study", e);
+      return null;
+    }
   }
 
   /**
-   * Transforms list of sample identifiers to set of virtual study samples
+   * Transforms internal sample ids by study id to set of virtual study samples
    *
-   * @param sampleIdentifiers
+   * @param sampleInternalIdsByStudyId
    */
   private Set<VirtualStudySamples> extractVirtualStudySamples(
-      List<SampleIdentifier> sampleIdentifiers) {
-    Map<String, Set<String>> sampleIdsByStudyId = groupSampleIdsByStudyId(sampleIdentifiers);
-    return sampleIdsByStudyId.entrySet().stream()
+      Map<String, IntBitmap> sampleInternalIdsByStudyId) {
+    if (sampleInternalIdsByStudyId.isEmpty()) {
+      return new HashSet<>();
+    }
+    Map<String, StudySampleLists> sampleListsByStudy =
+        studyViewFilterApplier.getSampleListsByStudy(
+            new ArrayList<>(sampleInternalIdsByStudyId.keySet()));
+    return sampleInternalIdsByStudyId.entrySet().stream()
         .map(
             entry -> {
+              StudySampleLists studySampleLists = sampleListsByStudy.get(entry.getKey());
+              Set<String> sampleIds = new HashSet<>();
+              for (int internalId : entry.getValue().toArray()) {
+                String sampleId = studySampleLists.getSampleId(internalId);
+                if (sampleId != null) {
+                  sampleIds.add(sampleId);
+                }
+              }
               VirtualStudySamples vss = new VirtualStudySamples();
               vss.setId(entry.getKey());
-              vss.setSamples(entry.getValue());
+              vss.setSamples(sampleIds);
               return vss;
             })
         .collect(Collectors.toSet());
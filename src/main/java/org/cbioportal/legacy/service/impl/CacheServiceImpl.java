@@ -5,12 +5,18 @@ import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.cbioportal.application.security.CancerStudyPermissionEvaluator;
 import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
 import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
 import org.cbioportal.legacy.persistence.util.CacheUtils;
+import org.cbioportal.legacy.persistence.util.MolecularProfileSampleIndexCache;
 import org.cbioportal.legacy.service.CacheService;
 import org.cbioportal.legacy.service.exception.CacheOperationException;
+import org.cbioportal.legacy.service.util.ClinicalTableSortOrderCache;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache;
+import org.cbioportal.legacy.service.util.VirtualStudySampleCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
@@ -25,12 +31,26 @@ public class CacheServiceImpl implements CacheService {
 
   @Autowired private CacheMapUtil cacheMapUtil;
 
+  // The CancerStudyPermissionEvaluator bean does not exist on portals w/o user-authentication
+  @Autowired(required = false)
+  private CancerStudyPermissionEvaluator cancerStudyPermissionEvaluator;
+
   // When caching is disabled there is no CacheUtils bean.
   @Autowired(required = false)
   private CacheUtils cacheUtils;
 
   @Autowired private StudyRepository studyRepository;
 
+  @Autowired private MolecularProfileSampleIndexCache molecularProfileSampleIndexCache;
+
+  @Autowired private ClinicalTableSortOrderCache clinicalTableSortOrderCache;
+
+  @Autowired private VirtualStudySampleCache virtualStudySampleCache;
+
+  @Autowired private SampleListMembershipCache sampleListMembershipCache;
+
+  @Autowired private SignificantGeneQValueCache significantGeneQValueCache;
+
   @Override
   public void clearCaches(boolean clearSpringManagedCache) throws CacheOperationException {
 
@@ -44,6 +64,18 @@ public class CacheServiceImpl implements CacheService {
     if (cacheMapUtil instanceof StaticRefCacheMapUtil) {
       ((StaticRefCacheMapUtil) cacheMapUtil).initializeCacheMemory();
     }
+    // The readable studies per set of groups are computed from the reloaded cancer study map.
+    if (cancerStudyPermissionEvaluator != null) {
+      cancerStudyPermissionEvaluator.invalidateReadableStudyIndex();
+    }
+
+    // Parsed sample lists of molecular profiles, clinical table sort orders, resolved virtual study
+    // members and sample list memberships are kept outside of the Spring-managed caches.
+    molecularProfileSampleIndexCache.invalidateAll();
+    clinicalTableSortOrderCache.invalidateAll();
+    virtualStudySampleCache.invalidateAll();
+    sampleListMembershipCache.invalidateAll();
+    significantGeneQValueCache.invalidateAll();
 
     // Note: DAO classes in package org.mskcc.cbio.portal.dao do have their own
     // caching strategy. Since these classes are only used by the deprecated old
@@ -70,6 +102,18 @@ public class CacheServiceImpl implements CacheService {
     if (cacheMapUtil instanceof StaticRefCacheMapUtil) {
       ((StaticRefCacheMapUtil) cacheMapUtil).initializeCacheMemory();
     }
+    // The readable studies per set of groups are computed from the reloaded cancer study map.
+    if (cancerStudyPermissionEvaluator != null) {
+      cancerStudyPermissionEvaluator.invalidateReadableStudyIndex();
+    }
+
+    // Parsed sample lists of molecular profiles, clinical table sort orders, resolved virtual study
+    // members and sample list memberships are kept outside of the Spring-managed caches.
+    molecularProfileSampleIndexCache.invalidateAll();
+    clinicalTableSortOrderCache.invalidateAll();
+    virtualStudySampleCache.invalidateAll();
+    sampleListMembershipCache.invalidate(studyId);
+    significantGeneQValueCache.invalidate(studyId);
   }
 
   private void attemptEvictSpringManagedCache(String pattern) throws CacheOperationException {
@@ -18,7 +18,7 @@ import org.springframework.stereotype.Service;
 @Service
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap"})
 public class CacheStatisticsServiceImpl implements CacheStatisticsService {
 
   @Autowired private CustomEhcachingProvider customEhcachingProvider;
@@ -0,0 +1,194 @@
+package org.cbioportal.legacy.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.persistence.StudyRepository;
+import org.cbioportal.legacy.service.CacheWarmupService;
+import org.cbioportal.legacy.service.GeneMemoizerService;
+import org.cbioportal.legacy.service.ReferenceGenomeGeneService;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus.State;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus.TaskStatus;
+import org.cbioportal.legacy.service.util.CacheWarmupTask;
+import org.cbioportal.legacy.service.util.StudyCacheWarmupTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills the static reference caches in parallel once the application has started, instead of one
+ * after the other during context startup or on the first request. Next to the registered {@link
+ * CacheWarmupTask}s, the genes of the reference genomes used by the studies are memoized and the
+ * {@link StudyCacheWarmupTask}s are run for the studies with the most samples.
+ */
+@Service
+public class CacheWarmupServiceImpl implements CacheWarmupService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CacheWarmupServiceImpl.class);
+
+  @Value("${cache.warmup.enabled:false}")
+  private boolean enabled;
+
+  @Value("${cache.warmup.threads:4}")
+  private int threads;
+
+  @Value("${cache.warmup.top_studies:0}")
+  private int topStudies;
+
+  @Autowired(required = false)
+  private List<CacheWarmupTask> cacheWarmupTasks = new ArrayList<>();
+
+  @Autowired(required = false)
+  private List<StudyCacheWarmupTask> studyCacheWarmupTasks = new ArrayList<>();
+
+  @Autowired private StudyRepository studyRepository;
+  @Autowired private GeneMemoizerService geneMemoizerService;
+  @Autowired private ReferenceGenomeGeneService referenceGenomeGeneService;
+
+  private final List<TaskProgress> tasks = new CopyOnWriteArrayList<>();
+  private volatile boolean done;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startWarmup() {
+    if (enabled) {
+      Thread thread = new Thread(this::warmUp, "cache-warmup");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  @Override
+  public CacheWarmupStatus getStatus() {
+    return new CacheWarmupStatus(
+        !enabled || done, tasks.stream().map(TaskProgress::toStatus).collect(Collectors.toList()));
+  }
+
+  void warmUp() {
+    long start = System.currentTimeMillis();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new WarmupThreadFactory());
+    try {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (CacheWarmupTask task : cacheWarmupTasks) {
+        futures.add(submit(executor, task.getName(), task::warmUp));
+      }
+
+      List<CancerStudy> studies =
+          studyRepository.getAllStudies(null, "SUMMARY", null, null, null, null);
+      studies.stream()
+          .map(CancerStudy::getReferenceGenome)
+          .filter(Objects::nonNull)
+          .distinct()
+          .forEach(
+              genomeName ->
+                  futures.add(
+                      submit(
+                          executor,
+                          "referenceGenomeGenes[" + genomeName + "]",
+                          () -> memoizeReferenceGenomeGenes(genomeName))));
+
+      List<String> largestStudyIds =
+          studies.stream()
+              .sorted(
+                  Comparator.comparing(
+                          (CancerStudy study) ->
+                              Objects.requireNonNullElse(study.getAllSampleCount(), 0))
+                      .reversed())
+              .limit(topStudies)
+              .map(CancerStudy::getCancerStudyIdentifier)
+              .collect(Collectors.toList());
+      for (StudyCacheWarmupTask task : studyCacheWarmupTasks) {
+        for (String studyId : largestStudyIds) {
+          futures.add(
+              submit(
+                  executor, task.getName() + "[" + studyId + "]", () -> task.warmUp(studyId)));
+        }
+      }
+
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    } catch (RuntimeException e) {
+      LOG.warn("Cache warm-up failed, remaining caches are loaded on first use", e);
+    } finally {
+      executor.shutdown();
+      done = true;
+    }
+    LOG.info("Cache warm-up finished in {} ms", System.currentTimeMillis() - start);
+  }
+
+  private void memoizeReferenceGenomeGenes(String genomeName) {
+    if (geneMemoizerService.fetchGenes(genomeName) == null) {
+      geneMemoizerService.cacheGenes(
+          referenceGenomeGeneService.fetchAllReferenceGenomeGenes(genomeName), genomeName);
+    }
+  }
+
+  private CompletableFuture<Void> submit(
+      ExecutorService executor, String name, WarmupAction action) {
+    TaskProgress progress = new TaskProgress(name);
+    tasks.add(progress);
+    return CompletableFuture.runAsync(
+        () -> {
+          progress.state = State.RUNNING;
+          long start = System.currentTimeMillis();
+          State state;
+          try {
+            action.run();
+            state = State.DONE;
+          } catch (Exception e) {
+            progress.error = e.getMessage();
+            state = State.FAILED;
+            LOG.warn("Cache warm-up of {} failed, it is loaded on first use", name, e);
+          }
+          progress.loadTimeMillis = System.currentTimeMillis() - start;
+          progress.state = state;
+          LOG.info("Cache warm-up of {} took {} ms", name, progress.loadTimeMillis);
+        },
+        executor);
+  }
+
+  @FunctionalInterface
+  private interface WarmupAction {
+    void run() throws Exception;
+  }
+
+  private static final class TaskProgress {
+
+    private final String name;
+    private volatile State state = State.PENDING;
+    private volatile long loadTimeMillis;
+    private volatile String error;
+
+    private TaskProgress(String name) {
+      this.name = name;
+    }
+
+    private TaskStatus toStatus() {
+      return new TaskStatus(name, state, loadTimeMillis, error);
+    }
+  }
+
+  private static final class WarmupThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "cache-warmup-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -1,6 +1,5 @@
 package org.cbioportal.legacy.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.cbioportal.legacy.model.ClinicalAttribute;
 import org.cbioportal.legacy.model.ClinicalAttributeCount;
@@ -10,9 +9,8 @@ import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.ClinicalAttributeNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,23 +19,17 @@ public class ClinicalAttributeServiceImpl implements ClinicalAttributeService {
   @Autowired private ClinicalAttributeRepository clinicalAttributeRepository;
   @Autowired private StudyService studyService;
 
-  @Value("${authenticate:false}")
-  private String AUTHENTICATE;
+  @Autowired private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Override
-  @PostFilter(
-      "hasPermission(filterObject.cancerStudyIdentifier, 'CancerStudyId', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
   public List<ClinicalAttribute> getAllClinicalAttributes(
       String projection, Integer pageSize, Integer pageNumber, String sortBy, String direction) {
 
     List<ClinicalAttribute> clinicalAttributes =
         clinicalAttributeRepository.getAllClinicalAttributes(
             projection, pageSize, pageNumber, sortBy, direction);
-    // copy the list before returning so @PostFilter doesn't taint the list stored in the
-    // persistence layer cache
-    return (AUTHENTICATE.equals("false"))
-        ? clinicalAttributes
-        : new ArrayList<ClinicalAttribute>(clinicalAttributes);
+    return cancerStudyPermissionFilter.filterReadable(
+        clinicalAttributes, ClinicalAttribute::getCancerStudyIdentifier);
   }
 
   @Override
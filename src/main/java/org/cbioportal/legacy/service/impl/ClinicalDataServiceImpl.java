@@ -11,7 +11,7 @@ import org.cbioportal.legacy.model.ClinicalAttribute;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
-import org.cbioportal.legacy.model.Patient;
+import org.cbioportal.legacy.model.ClinicalDataCountSummary;
 import org.cbioportal.legacy.model.SampleClinicalDataCollection;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalDataRepository;
@@ -25,6 +25,7 @@ import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.SampleNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
+import org.cbioportal.legacy.service.util.ClinicalTableSortOrderCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -37,6 +38,7 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
   @Autowired private SampleService sampleService;
   @Autowired private ClinicalAttributeService clinicalAttributeService;
   @Autowired private ClinicalAttributeUtil clinicalAttributeUtil;
+  @Autowired private ClinicalTableSortOrderCache clinicalTableSortOrderCache;
 
   @Override
   public List<ClinicalData> getAllClinicalDataOfSampleInStudy(
@@ -197,45 +199,23 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
         patientAttributeIds,
         conflictingPatientAttributeIds);
 
-    List<ClinicalDataCount> clinicalDataCounts = new ArrayList<ClinicalDataCount>();
-    if (!sampleAttributeIds.isEmpty()) {
-      clinicalDataCounts.addAll(
-          clinicalDataRepository.fetchClinicalDataCounts(
-              studyIds, sampleIds, sampleAttributeIds, "SAMPLE", "SUMMARY"));
-    }
-
-    if (!patientAttributeIds.isEmpty()) {
-      clinicalDataCounts.addAll(
-          clinicalDataRepository.fetchClinicalDataCounts(
-              studyIds, sampleIds, patientAttributeIds, "PATIENT", "SUMMARY"));
-    }
-
-    if (!conflictingPatientAttributeIds.isEmpty()) {
-      clinicalDataCounts.addAll(
-          clinicalDataRepository.fetchClinicalDataCounts(
-              studyIds, sampleIds, conflictingPatientAttributeIds, "PATIENT", "DETAILED"));
-    }
-
-    sampleAttributeIds.addAll(conflictingPatientAttributeIds);
+    // value counts and the number of patients of the samples come from a single query
+    ClinicalDataCountSummary clinicalDataCountSummary =
+        clinicalDataRepository.fetchClinicalDataCountSummary(
+            studyIds,
+            sampleIds,
+            sampleAttributeIds,
+            patientAttributeIds,
+            conflictingPatientAttributeIds);
+    int patientCount = clinicalDataCountSummary.getPatientCount();
 
-    clinicalDataCounts =
-        clinicalDataCounts.stream()
-            .filter(
-                c ->
-                    !c.getValue().toUpperCase().equals("NA")
-                        && !c.getValue().toUpperCase().equals("NAN")
-                        && !c.getValue().toUpperCase().equals("N/A"))
-            .collect(Collectors.toList());
+    Set<String> sampleLevelAttributeIds = new HashSet<>(sampleAttributeIds);
+    sampleLevelAttributeIds.addAll(conflictingPatientAttributeIds);
 
     Map<String, List<ClinicalDataCount>> clinicalDataCountMap =
-        clinicalDataCounts.stream()
+        clinicalDataCountSummary.getCounts().stream()
             .collect(Collectors.groupingBy(ClinicalDataCount::getAttributeId));
 
-    List<Patient> patients = new ArrayList<Patient>();
-    if (!patientAttributeIds.isEmpty()) {
-      patients.addAll(patientService.getPatientsOfSamples(studyIds, sampleIds));
-    }
-
     HashSet<String> uniqueAttributeIds = new HashSet<>(attributeIds);
 
     return uniqueAttributeIds.stream()
@@ -269,10 +249,10 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
                 totalCount = counts.stream().mapToInt(ClinicalDataCount::getCount).sum();
               }
 
-              if (sampleAttributeIds.contains(attributeId)) {
+              if (sampleLevelAttributeIds.contains(attributeId)) {
                 naCount = sampleIds.size() - totalCount;
               } else {
-                naCount = patients.size() - totalCount;
+                naCount = patientCount - totalCount;
               }
 
               if (naCount > 0) {
@@ -311,13 +291,20 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
       return new ImmutablePair<>(SampleClinicalDataCollection.builder().build(), 0);
     }
 
-    // Request un-paginated data.
-    List<Integer> allSampleInternalIds =
-        clinicalDataRepository.getVisibleSampleInternalIdsForClinicalTable(
-            studyIds, sampleIds, null, null, searchTerm, sortBy, direction);
+    // Request un-paginated data, sorted once per table and reused for the following pages.
+    int[] allSampleInternalIds =
+        clinicalTableSortOrderCache.get(
+            studyIds,
+            sampleIds,
+            searchTerm,
+            sortBy,
+            direction,
+            () ->
+                clinicalDataRepository.getVisibleSampleInternalIdsForClinicalTable(
+                    studyIds, sampleIds, null, null, searchTerm, sortBy, direction));
     Integer offset = PaginationCalculator.offset(pageSize, pageNumber);
 
-    if (allSampleInternalIds.isEmpty() || offset >= allSampleInternalIds.size()) {
+    if (allSampleInternalIds.length == 0 || offset >= allSampleInternalIds.length) {
       return new ImmutablePair<>(SampleClinicalDataCollection.builder().build(), 0);
     }
 
@@ -325,29 +312,40 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
   }
 
   private ImmutablePair<SampleClinicalDataCollection, Integer> buildSampleClinicalDataCollection(
-      List<Integer> allSampleInternalIds, Integer offset, Integer pageSize) {
+      int[] allSampleInternalIds, Integer offset, Integer pageSize) {
 
     // Apply pagination to the sampleId list.
-    Integer toIndex = PaginationCalculator.lastIndex(offset, pageSize, allSampleInternalIds.size());
-    List<Integer> visibleSampleInternalIds = allSampleInternalIds.subList(offset, toIndex);
+    Integer toIndex = PaginationCalculator.lastIndex(offset, pageSize, allSampleInternalIds.length);
+    List<Integer> visibleSampleInternalIds =
+        Arrays.stream(allSampleInternalIds, offset, toIndex).boxed().collect(Collectors.toList());
 
     List<ClinicalData> sampleClinicalData =
         clinicalDataRepository.getSampleClinicalDataBySampleInternalIds(visibleSampleInternalIds);
     List<ClinicalData> patientClinicalData =
         clinicalDataRepository.getPatientClinicalDataBySampleInternalIds(visibleSampleInternalIds);
 
-    // Merge sample and patient level clinical data and key by unique sample-key.
+    // Merge sample and patient level clinical data and key by unique sample-key. The key is
+    // computed once per sample rather than once per clinical datum.
+    Map<String, Map<String, List<ClinicalData>>> clinicalDataByStudyAndSample = new HashMap<>();
+    Stream.concat(sampleClinicalData.stream(), patientClinicalData.stream())
+        .forEach(
+            clinicalDatum ->
+                clinicalDataByStudyAndSample
+                    .computeIfAbsent(clinicalDatum.getStudyId(), k -> new HashMap<>())
+                    .computeIfAbsent(clinicalDatum.getSampleId(), k -> new ArrayList<>())
+                    .add(clinicalDatum));
+    Map<String, List<ClinicalData>> clinicalDataByUniqueSampleKey = new HashMap<>();
+    clinicalDataByStudyAndSample.forEach(
+        (studyId, clinicalDataBySample) ->
+            clinicalDataBySample.forEach(
+                (sampleId, clinicalData) ->
+                    clinicalDataByUniqueSampleKey.put(
+                        calculateBase64(sampleId, studyId), clinicalData)));
     SampleClinicalDataCollection sampleClinicalDataCollection =
         SampleClinicalDataCollection.builder()
-            .withByUniqueSampleKey(
-                Stream.concat(sampleClinicalData.stream(), patientClinicalData.stream())
-                    .collect(
-                        Collectors.groupingBy(
-                            clinicalDatum ->
-                                calculateBase64(
-                                    clinicalDatum.getSampleId(), clinicalDatum.getStudyId()))))
+            .withByUniqueSampleKey(clinicalDataByUniqueSampleKey)
             .build();
 
-    return new ImmutablePair<>(sampleClinicalDataCollection, allSampleInternalIds.size());
+    return new ImmutablePair<>(sampleClinicalDataCollection, allSampleInternalIds.length);
   }
 }
@@ -2,7 +2,7 @@ package org.cbioportal.legacy.service.impl;
 
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.cbioportal.legacy.model.CoExpression;
@@ -10,20 +10,21 @@ import org.cbioportal.legacy.model.EntityType;
 import org.cbioportal.legacy.model.MolecularAlteration;
 import org.cbioportal.legacy.model.MolecularData;
 import org.cbioportal.legacy.model.MolecularProfile;
-import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.Sample;
-import org.cbioportal.legacy.persistence.MolecularDataRepository;
 import org.cbioportal.legacy.persistence.SampleListRepository;
 import org.cbioportal.legacy.service.CoExpressionService;
 import org.cbioportal.legacy.service.GenesetDataService;
 import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.service.MolecularProfileService;
-import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.exception.GeneNotFoundException;
 import org.cbioportal.legacy.service.exception.GenesetNotFoundException;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.cbioportal.legacy.service.exception.SampleListNotFoundException;
 import org.cbioportal.legacy.service.util.CoExpressionAsyncMethods;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisTaskScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,8 +37,8 @@ public class CoExpressionServiceImpl implements CoExpressionService {
   @Autowired private GenesetDataService genesetDataService;
   @Autowired private MolecularProfileService molecularProfileService;
   @Autowired private SampleListRepository sampleListRepository;
-  @Autowired private MolecularDataRepository molecularDataRepository;
-  @Autowired private SampleService sampleService;
+  @Autowired private MolecularProfileResolutionContext molecularProfileResolutionContext;
+  @Autowired private AnalysisExecutors analysisExecutors;
 
   @Override
   // transaction needs to be setup here in order to return Iterable from molecularDataService in
@@ -157,17 +158,8 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     // of the genetic_alteration table is a comma separated list of scalar values.
     // Each value in this list is associated with a sample at the same position found in
     // the genetic_profile_samples.ORDERED_SAMPLE_LIST column.
-    MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile =
-        molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfileId);
-    List<Integer> internalSampleIds =
-        Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt)
-            .boxed()
-            .collect(Collectors.toList());
-    Map<Integer, Integer> internalSampleIdToIndexMap = new HashMap<>();
-    for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-      internalSampleIdToIndexMap.put(internalSampleIds.get(lc), lc);
-    }
+    MolecularProfileSampleIndex sampleIndex =
+        molecularProfileResolutionContext.getSampleIndex(molecularProfileId);
 
     // These next few lines build a list of Sample from the sampleIds method parameter (the user
     // query).
@@ -176,10 +168,11 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     // only used to quickly identify if a sample in the molecular profile is part of the user query
     // - see below).
     MolecularProfile molecularProfile =
-        molecularProfileService.getMolecularProfile(molecularProfileId);
+        molecularProfileResolutionContext.getMolecularProfile(molecularProfileId);
     List<String> studyIds = new ArrayList<>();
     sampleIds.forEach(s -> studyIds.add(molecularProfile.getCancerStudyIdentifier()));
-    List<Sample> samples = sampleService.fetchSamples(studyIds, sampleIds, "ID");
+    List<Sample> samples =
+        molecularProfileResolutionContext.fetchSamples(studyIds, sampleIds, "ID");
     Map<Integer, Integer> selectedSampleIdsMap = new HashMap<>();
     for (int lc = 0; lc < samples.size(); lc++) {
       selectedSampleIdsMap.put(samples.get(lc).getInternalId(), lc);
@@ -189,9 +182,9 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     // column by iterating over all the samples in the molecular profile (method parameter)
     // and selecting only samples that are included in the user query.
     Set<Integer> includedIndexes = new HashSet<>();
-    for (Integer internalSampleId : internalSampleIds) {
-      if (selectedSampleIdsMap.containsKey(internalSampleId)) {
-        includedIndexes.add(internalSampleIdToIndexMap.get(internalSampleId));
+    for (int index = 0; index < sampleIndex.size(); index++) {
+      if (selectedSampleIdsMap.containsKey(sampleIndex.getInternalSampleId(index))) {
+        includedIndexes.add(index);
       }
     }
 
@@ -214,26 +207,29 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     // If the MolecularAlteration is for the query gene/geneset, skip it.  Otherwise,
     // filter out genetic_alteration values from genetic_alteration.VALUES
     // by considering oly the indices of the samples in the user query.
-    List<CompletableFuture<CoExpression>> returnFutures = new ArrayList<>();
-    for (MolecularAlteration ma : maItr) {
-      String entityId = ma.getStableId();
-      if (entityId.equals(queryGeneticEntityId)) {
-        continue;
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      List<Future<CoExpression>> returnFutures = new ArrayList<>();
+      for (MolecularAlteration ma : maItr) {
+        String entityId = ma.getStableId();
+        if (entityId.equals(queryGeneticEntityId)) {
+          continue;
+        }
+        List<String> internalValues = new ArrayList<>(Arrays.asList(ma.getSplitValues()));
+        List<String> values =
+            includedIndexes.stream()
+                .map(index -> internalValues.get(index))
+                .collect(Collectors.toList());
+
+        returnFutures.add(
+            scope.forkCpu(
+                () ->
+                    asyncMethods.computeCoExpression(
+                        entityId, values, includedQueryValues, threshold)));
       }
-      List<String> internalValues = new ArrayList<>(Arrays.asList(ma.getSplitValues()));
-      List<String> values =
-          includedIndexes.stream()
-              .map(index -> internalValues.get(index))
-              .collect(Collectors.toList());
-
-      CompletableFuture<CoExpression> future =
-          asyncMethods.computeCoExpression(entityId, values, includedQueryValues, threshold);
-      returnFutures.add(future);
+      return scope.joinAll(returnFutures).stream()
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
     }
-    return returnFutures.stream()
-        .map(CompletableFuture::join)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
   }
 
   @Override
@@ -311,33 +307,35 @@ public class CoExpressionServiceImpl implements CoExpressionService {
       }
     }
 
-    List<CompletableFuture<CoExpression>> returnFutures = new ArrayList<>();
-
     Map<String, ? extends MolecularData> dataMapA =
         finalMolecularDataListA.stream()
             .collect(Collectors.toMap(MolecularData::getSampleId, Function.identity()));
 
-    for (Entry<String, List<MolecularData>> entry : molecularDataMapB.entrySet()) {
-      List<String> valuesA = new ArrayList<>();
-      List<String> valuesB = new ArrayList<>();
-
-      entry.getValue().stream()
-          .forEach(
-              molecularData -> {
-                if (dataMapA.containsKey(molecularData.getSampleId())) {
-                  valuesA.add(molecularData.getValue());
-                  valuesB.add(dataMapA.get(molecularData.getSampleId()).getValue());
-                }
-              });
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      List<Future<CoExpression>> returnFutures = new ArrayList<>();
+      for (Entry<String, List<MolecularData>> entry : molecularDataMapB.entrySet()) {
+        List<String> valuesA = new ArrayList<>();
+        List<String> valuesB = new ArrayList<>();
+
+        entry.getValue().stream()
+            .forEach(
+                molecularData -> {
+                  if (dataMapA.containsKey(molecularData.getSampleId())) {
+                    valuesA.add(molecularData.getValue());
+                    valuesB.add(dataMapA.get(molecularData.getSampleId()).getValue());
+                  }
+                });
+
+        returnFutures.add(
+            scope.forkCpu(
+                () ->
+                    asyncMethods.computeCoExpression(
+                        entry.getKey(), valuesA, valuesB, threshold)));
+      }
 
-      CompletableFuture<CoExpression> future =
-          asyncMethods.computeCoExpression(entry.getKey(), valuesA, valuesB, threshold);
-      returnFutures.add(future);
+      return scope.joinAll(returnFutures).stream()
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
     }
-
-    return returnFutures.stream()
-        .map(CompletableFuture::join)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
   }
 }
@@ -1,14 +1,17 @@
 package org.cbioportal.legacy.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.cbioportal.legacy.service.CustomDataService;
 import org.cbioportal.legacy.service.util.CustomDataSession;
 import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
 import org.cbioportal.legacy.utils.removeme.Session;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisTaskScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +21,8 @@ public class CustomDataServiceImpl implements CustomDataService {
 
   @Autowired private ObjectMapper sessionServiceObjectMapper;
 
+  @Autowired private AnalysisExecutors analysisExecutors;
+
   /**
    * Retrieve CustomDataSession from session service for custom data attributes.
    *
@@ -26,33 +31,35 @@ public class CustomDataServiceImpl implements CustomDataService {
    */
   @Override
   public Map<String, CustomDataSession> getCustomDataSessions(List<String> customAttributeIds) {
-    Map<String, CompletableFuture<CustomDataSession>> postFuturesMap =
-        customAttributeIds.stream()
-            .collect(
-                Collectors.toMap(
-                    attributeId -> attributeId,
-                    attributeId ->
-                        CompletableFuture.supplyAsync(
-                            () -> {
-                              try {
-                                String customDataSessionJson =
-                                    sessionServiceRequestHandler.getSessionDataJson(
-                                        Session.SessionType.custom_data, attributeId);
-                                return sessionServiceObjectMapper.readValue(
-                                    customDataSessionJson, CustomDataSession.class);
-                              } catch (Exception e) {
-                                return null;
-                              }
-                            })));
-
-    CompletableFuture.allOf(
-            postFuturesMap.values().toArray(new CompletableFuture[postFuturesMap.size()]))
-        .join();
+    Map<String, CustomDataSession> customDataSessions = new HashMap<>();
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      Map<String, Future<CustomDataSession>> postFuturesMap =
+          customAttributeIds.stream()
+              .collect(
+                  Collectors.toMap(
+                      attributeId -> attributeId,
+                      attributeId ->
+                          scope.forkIo(
+                              () -> {
+                                try {
+                                  String customDataSessionJson =
+                                      sessionServiceRequestHandler.getSessionDataJson(
+                                          Session.SessionType.custom_data, attributeId);
+                                  return sessionServiceObjectMapper.readValue(
+                                      customDataSessionJson, CustomDataSession.class);
+                                } catch (Exception e) {
+                                  return null;
+                                }
+                              })));
 
-    Map<String, CustomDataSession> customDataSessions =
-        postFuturesMap.entrySet().stream()
-            .filter(entry -> entry.getValue().join() != null)
-            .collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue().join()));
+      postFuturesMap.forEach(
+          (attributeId, future) -> {
+            CustomDataSession customDataSession = scope.join(future);
+            if (customDataSession != null) {
+              customDataSessions.put(attributeId, customDataSession);
+            }
+          });
+    }
 
     return customDataSessions;
   }
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Service;
 @Service
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap"})
 public class EhcacheStatisticsServiceImpl extends CacheStatisticsServiceImpl {
 
   @Autowired public EhcacheStatistics ehcacheStatistics;
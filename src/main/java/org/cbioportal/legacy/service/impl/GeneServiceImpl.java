@@ -4,7 +4,6 @@ import static java.util.stream.Collectors.*;
 
 import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -15,23 +14,58 @@ import org.cbioportal.legacy.persistence.GeneRepository;
 import org.cbioportal.legacy.service.GeneService;
 import org.cbioportal.legacy.service.exception.GeneNotFoundException;
 import org.cbioportal.legacy.service.exception.GeneWithMultipleEntrezIdsException;
+import org.cbioportal.legacy.service.util.CacheWarmupTask;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-public class GeneServiceImpl implements GeneService {
+public class GeneServiceImpl implements GeneService, CacheWarmupTask {
 
   public static final String ENTREZ_GENE_ID_GENE_ID_TYPE = "ENTREZ_GENE_ID";
 
   @Autowired private GeneRepository geneRepository;
 
-  private Map<Integer, List<String>> geneAliasMap = new HashMap<>();
+  @Value("${cache.warmup.enabled:false}")
+  private boolean cacheWarmupEnabled;
+
+  private volatile Map<Integer, List<String>> geneAliasMap;
 
   @PostConstruct
   public void init() {
+    // with the startup warm-up the genes are loaded in parallel with the other caches
+    if (!cacheWarmupEnabled) {
+      warmUp();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "genes";
+  }
+
+  @Override
+  public void warmUp() {
     // query all genes so they would be cached
     getAllGenes(null, null, "SUMMARY", null, null, null, null);
 
+    initializeGeneAliasMap();
+  }
+
+  // requests that arrive before the warm-up has loaded the aliases, or after it failed, load them
+  // themselves
+  private Map<Integer, List<String>> getGeneAliasMap() {
+    if (geneAliasMap == null) {
+      synchronized (this) {
+        if (geneAliasMap == null) {
+          initializeGeneAliasMap();
+        }
+      }
+    }
+    return geneAliasMap;
+  }
+
+  private synchronized void initializeGeneAliasMap() {
     geneAliasMap =
         geneRepository.getAllAliases().stream()
             .collect(
@@ -172,7 +206,7 @@ public class GeneServiceImpl implements GeneService {
     List<Gene> matchingGenes = new ArrayList<>();
 
     List<String> matchingEntrezGeneIds = new ArrayList<>();
-    for (Map.Entry<Integer, List<String>> entry : geneAliasMap.entrySet()) {
+    for (Map.Entry<Integer, List<String>> entry : getGeneAliasMap().entrySet()) {
       if (entry.getValue().contains(keyword.toLowerCase())) {
         matchingEntrezGeneIds.add(String.valueOf(entry.getKey()));
       }
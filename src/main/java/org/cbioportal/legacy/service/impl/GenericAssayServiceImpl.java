@@ -8,7 +8,7 @@ import org.cbioportal.legacy.model.GenericAssayData;
 import org.cbioportal.legacy.model.GenericAssayMolecularAlteration;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfile.MolecularAlterationType;
-import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.meta.GenericAssayMeta;
 import org.cbioportal.legacy.persistence.GenericAssayRepository;
@@ -110,34 +110,18 @@ public class GenericAssayServiceImpl implements GenericAssayService {
 
     SortedSet<String> distinctMolecularProfileIds = new TreeSet<>(molecularProfileIds);
 
-    Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap =
-        molecularDataRepository.commaSeparatedSampleIdsOfMolecularProfilesMap(
-            distinctMolecularProfileIds);
+    Map<String, MolecularProfileSampleIndex> sampleIndexMap =
+        molecularDataRepository.getMolecularProfileSampleIndices(distinctMolecularProfileIds);
 
-    Map<String, Map<Integer, Integer>> internalSampleIdsMap = new HashMap<>();
     List<Integer> allInternalSampleIds = new ArrayList<>();
 
     for (String molecularProfileId : distinctMolecularProfileIds) {
-      List<Integer> internalSampleIds =
-          Arrays.stream(
-                  Optional.ofNullable(
-                          commaSeparatedSampleIdsOfMolecularProfilesMap.get(molecularProfileId))
-                      .orElseThrow(
-                          () ->
-                              new IllegalArgumentException(
-                                  "Sample IDs for MolecularProfileId "
-                                      + molecularProfileId
-                                      + " are null."))
-                      .getSplitSampleIds())
-              .mapToInt(Integer::parseInt)
-              .boxed()
-              .collect(Collectors.toList());
-      HashMap<Integer, Integer> molecularProfileSampleMap = new HashMap<Integer, Integer>();
-      for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-        molecularProfileSampleMap.put(internalSampleIds.get(lc), lc);
+      MolecularProfileSampleIndex sampleIndex = sampleIndexMap.get(molecularProfileId);
+      if (sampleIndex == null) {
+        throw new IllegalArgumentException(
+            "Sample IDs for MolecularProfileId " + molecularProfileId + " are null.");
       }
-      internalSampleIdsMap.put(molecularProfileId, molecularProfileSampleMap);
-      allInternalSampleIds.addAll(internalSampleIds);
+      allInternalSampleIds.addAll(sampleIndex.getInternalSampleIdList());
     }
 
     List<MolecularProfile> molecularProfiles = new ArrayList<>();
@@ -152,16 +136,6 @@ public class GenericAssayServiceImpl implements GenericAssayService {
     List<Sample> samples;
     if (sampleIds == null) {
       samples = sampleService.getSamplesByInternalIds(allInternalSampleIds);
-      for (String molecularProfileId : distinctMolecularProfileIds) {
-        if (internalSampleIdsMap.get(molecularProfileId) == null) {
-          throw new IllegalArgumentException(
-              "InternalSampleIdsMap for MolecularProfileId " + molecularProfileId + " is null.");
-        }
-        internalSampleIdsMap
-            .get(molecularProfileId)
-            .keySet()
-            .forEach(s -> molecularProfiles.add(molecularProfileMapById.get(molecularProfileId)));
-      }
     } else {
       for (String molecularProfileId : molecularProfileIds) {
         MolecularProfile molecularProfile = molecularProfileMapById.get(molecularProfileId);
@@ -197,7 +171,8 @@ public class GenericAssayServiceImpl implements GenericAssayService {
       }
       for (MolecularProfile molecularProfile : studyMolecularProfiles) {
         String molecularProfileId = molecularProfile.getStableId();
-        if (internalSampleIdsMap.get(molecularProfileId) == null) {
+        MolecularProfileSampleIndex sampleIndex = sampleIndexMap.get(molecularProfileId);
+        if (sampleIndex == null) {
           throw new IllegalArgumentException(
               "InternalSampleIdsMap for MolecularProfileId " + molecularProfileId + " is null.");
         }
@@ -205,9 +180,8 @@ public class GenericAssayServiceImpl implements GenericAssayService {
           throw new IllegalArgumentException(
               "InternalId for Sample " + sample.getInternalId() + " is null.");
         }
-        Integer indexOfSampleId =
-            internalSampleIdsMap.get(molecularProfileId).get(sample.getInternalId());
-        if (indexOfSampleId != null && molecularAlterationsMap.containsKey(molecularProfileId)) {
+        int indexOfSampleId = sampleIndex.indexOf(sample.getInternalId());
+        if (indexOfSampleId != -1 && molecularAlterationsMap.containsKey(molecularProfileId)) {
           for (GenericAssayMolecularAlteration molecularAlteration :
               molecularAlterationsMap.get(molecularProfileId)) {
             GenericAssayData molecularData = new GenericAssayData();
@@ -12,7 +12,7 @@ import org.cbioportal.legacy.model.GeneMolecularAlteration;
 import org.cbioportal.legacy.model.GeneMolecularData;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfile.MolecularAlterationType;
-import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.DiscreteCopyNumberRepository;
@@ -22,6 +22,7 @@ import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -34,6 +35,7 @@ public class MolecularDataServiceImpl implements MolecularDataService {
   @Autowired private MolecularProfileService molecularProfileService;
   @Autowired private SampleListRepository sampleListRepository;
   @Autowired private DiscreteCopyNumberRepository discreteCopyNumberRepository;
+  @Autowired private MolecularProfileResolutionContext molecularProfileResolutionContext;
 
   @Override
   public List<GeneMolecularData> getMolecularData(
@@ -73,30 +75,23 @@ public class MolecularDataServiceImpl implements MolecularDataService {
     validateMolecularProfile(molecularProfileId);
     List<GeneMolecularData> molecularDataList = new ArrayList<>();
 
-    MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile =
-        molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfileId);
-    if (commaSeparatedSampleIdsOfMolecularProfile == null) {
+    MolecularProfileSampleIndex sampleIndex =
+        molecularProfileResolutionContext.getSampleIndex(molecularProfileId);
+    if (sampleIndex == null) {
       return molecularDataList;
     }
-    List<Integer> internalSampleIds =
-        Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt)
-            .boxed()
-            .collect(Collectors.toList());
-    Map<Integer, Integer> internalSampleIdsMap = new HashMap<>();
-    for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-      internalSampleIdsMap.put(internalSampleIds.get(lc), lc);
-    }
 
     List<Sample> samples;
     if (sampleIds == null) {
-      samples = sampleService.getSamplesByInternalIds(internalSampleIds);
+      samples =
+          molecularProfileResolutionContext.getSamplesByInternalIds(
+              sampleIndex.getInternalSampleIdList());
     } else {
       MolecularProfile molecularProfile =
-          molecularProfileService.getMolecularProfile(molecularProfileId);
+          molecularProfileResolutionContext.getMolecularProfile(molecularProfileId);
       List<String> studyIds = new ArrayList<>();
       sampleIds.forEach(s -> studyIds.add(molecularProfile.getCancerStudyIdentifier()));
-      samples = sampleService.fetchSamples(studyIds, sampleIds, "ID");
+      samples = molecularProfileResolutionContext.fetchSamples(studyIds, sampleIds, "ID");
     }
 
     List<GeneMolecularAlteration> molecularAlterations =
@@ -104,8 +99,8 @@ public class MolecularDataServiceImpl implements MolecularDataService {
             molecularProfileId, entrezGeneIds, projection);
 
     for (Sample sample : samples) {
-      Integer indexOfSampleId = internalSampleIdsMap.get(sample.getInternalId());
-      if (indexOfSampleId != null) {
+      int indexOfSampleId = sampleIndex.indexOf(sample.getInternalId());
+      if (indexOfSampleId >= 0) {
         for (GeneMolecularAlteration molecularAlteration : molecularAlterations) {
           GeneMolecularData molecularData = new GeneMolecularData();
           molecularData.setMolecularProfileId(molecularProfileId);
@@ -150,13 +145,13 @@ public class MolecularDataServiceImpl implements MolecularDataService {
   @Override
   public Integer getNumberOfSamplesInMolecularProfile(String molecularProfileId) {
 
-    MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile =
-        molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfileId);
-    if (commaSeparatedSampleIdsOfMolecularProfile == null) {
+    MolecularProfileSampleIndex sampleIndex =
+        molecularProfileResolutionContext.getSampleIndex(molecularProfileId);
+    if (sampleIndex == null) {
       return null;
     }
 
-    return commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds().length;
+    return sampleIndex.size();
   }
 
   @Override
@@ -169,31 +164,15 @@ public class MolecularDataServiceImpl implements MolecularDataService {
     List<GeneMolecularData> molecularDataList = new ArrayList<>();
     SortedSet<String> distinctMolecularProfileIds = new TreeSet<>(molecularProfileIds);
 
-    Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap =
-        molecularDataRepository.commaSeparatedSampleIdsOfMolecularProfilesMap(
-            distinctMolecularProfileIds);
-    if (commaSeparatedSampleIdsOfMolecularProfilesMap.size() == 0) {
+    Map<String, MolecularProfileSampleIndex> sampleIndexMap =
+        molecularDataRepository.getMolecularProfileSampleIndices(distinctMolecularProfileIds);
+    if (sampleIndexMap.size() == 0) {
       return molecularDataList;
     }
 
-    Map<String, Map<Integer, Integer>> internalSampleIdsMap = new HashMap<>();
     List<Integer> allInternalSampleIds = new ArrayList<>();
-
-    for (String molecularProfileId : distinctMolecularProfileIds) {
-      List<Integer> internalSampleIds =
-          Arrays.stream(
-                  commaSeparatedSampleIdsOfMolecularProfilesMap
-                      .get(molecularProfileId)
-                      .getSplitSampleIds())
-              .mapToInt(Integer::parseInt)
-              .boxed()
-              .collect(Collectors.toList());
-      HashMap<Integer, Integer> molecularProfileSampleMap = new HashMap<Integer, Integer>();
-      for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-        molecularProfileSampleMap.put(internalSampleIds.get(lc), lc);
-      }
-      internalSampleIdsMap.put(molecularProfileId, molecularProfileSampleMap);
-      allInternalSampleIds.addAll(internalSampleIds);
+    for (MolecularProfileSampleIndex sampleIndex : sampleIndexMap.values()) {
+      allInternalSampleIds.addAll(sampleIndex.getInternalSampleIdList());
     }
 
     List<MolecularProfile> molecularProfiles = new ArrayList<>();
@@ -208,12 +187,6 @@ public class MolecularDataServiceImpl implements MolecularDataService {
     List<Sample> samples;
     if (sampleIds == null) {
       samples = sampleService.getSamplesByInternalIds(allInternalSampleIds);
-      for (String molecularProfileId : distinctMolecularProfileIds) {
-        internalSampleIdsMap
-            .get(molecularProfileId)
-            .keySet()
-            .forEach(s -> molecularProfiles.add(molecularProfileMapById.get(molecularProfileId)));
-      }
     } else {
       for (String molecularProfileId : molecularProfileIds) {
         molecularProfiles.add(molecularProfileMapById.get(molecularProfileId));
@@ -245,9 +218,10 @@ public class MolecularDataServiceImpl implements MolecularDataService {
       for (MolecularProfile molecularProfile :
           molecularProfileMapByStudyId.get(sample.getCancerStudyIdentifier())) {
         String molecularProfileId = molecularProfile.getStableId();
-        Integer indexOfSampleId =
-            internalSampleIdsMap.get(molecularProfileId).get(sample.getInternalId());
-        if (indexOfSampleId != null && molecularAlterationsMap.containsKey(molecularProfileId)) {
+        MolecularProfileSampleIndex sampleIndex = sampleIndexMap.get(molecularProfileId);
+        int indexOfSampleId =
+            sampleIndex == null ? -1 : sampleIndex.indexOf(sample.getInternalId());
+        if (indexOfSampleId != -1 && molecularAlterationsMap.containsKey(molecularProfileId)) {
           for (GeneMolecularAlteration molecularAlteration :
               molecularAlterationsMap.get(molecularProfileId)) {
             GeneMolecularData molecularData = new GeneMolecularData();
@@ -320,7 +294,7 @@ public class MolecularDataServiceImpl implements MolecularDataService {
       throws MolecularProfileNotFoundException {
 
     MolecularProfile molecularProfile =
-        molecularProfileService.getMolecularProfile(molecularProfileId);
+        molecularProfileResolutionContext.getMolecularProfile(molecularProfileId);
 
     if (molecularProfile
             .getMolecularAlterationType()
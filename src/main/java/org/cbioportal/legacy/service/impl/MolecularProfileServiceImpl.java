@@ -1,6 +1,5 @@
 package org.cbioportal.legacy.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -13,11 +12,10 @@ import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -27,23 +25,17 @@ public class MolecularProfileServiceImpl implements MolecularProfileService {
   @Autowired private StudyService studyService;
   @Autowired private MolecularProfileUtil molecularProfileUtil;
 
-  @Value("${authenticate:false}")
-  private String AUTHENTICATE;
+  @Autowired private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Override
-  @PostFilter(
-      "hasPermission(filterObject, T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
   public List<MolecularProfile> getAllMolecularProfiles(
       String projection, Integer pageSize, Integer pageNumber, String sortBy, String direction) {
 
     List<MolecularProfile> molecularProfiles =
         molecularProfileRepository.getAllMolecularProfiles(
             projection, pageSize, pageNumber, sortBy, direction);
-    // copy the list before returning so @PostFilter doesn't taint the list stored in the
-    // persistence layer cache
-    return (AUTHENTICATE.equals("false"))
-        ? molecularProfiles
-        : new ArrayList<MolecularProfile>(molecularProfiles);
+    return cancerStudyPermissionFilter.filterReadable(
+        molecularProfiles, MolecularProfile::getCancerStudyIdentifier);
   }
 
   @Override
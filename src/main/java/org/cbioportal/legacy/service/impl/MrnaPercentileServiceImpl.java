@@ -12,9 +12,9 @@ import org.cbioportal.legacy.model.GeneMolecularData;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MrnaPercentile;
 import org.cbioportal.legacy.service.MolecularDataService;
-import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.MrnaPercentileService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -22,7 +22,7 @@ import org.springframework.stereotype.Service;
 public class MrnaPercentileServiceImpl implements MrnaPercentileService {
 
   @Autowired private MolecularDataService molecularDataService;
-  @Autowired private MolecularProfileService molecularProfileService;
+  @Autowired private MolecularProfileResolutionContext molecularProfileResolutionContext;
 
   private NaturalRanking naturalRanking =
       new NaturalRanking(NaNStrategy.REMOVED, TiesStrategy.MAXIMUM);
@@ -81,7 +81,7 @@ public class MrnaPercentileServiceImpl implements MrnaPercentileService {
       throws MolecularProfileNotFoundException {
 
     MolecularProfile molecularProfile =
-        molecularProfileService.getMolecularProfile(molecularProfileId);
+        molecularProfileResolutionContext.getMolecularProfile(molecularProfileId);
 
     if (!molecularProfile
         .getMolecularAlterationType()
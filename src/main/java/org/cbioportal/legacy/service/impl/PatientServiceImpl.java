@@ -1,6 +1,5 @@
 package org.cbioportal.legacy.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.meta.BaseMeta;
@@ -9,9 +8,8 @@ import org.cbioportal.legacy.service.PatientService;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,12 +18,9 @@ public class PatientServiceImpl implements PatientService {
   @Autowired private PatientRepository patientRepository;
   @Autowired private StudyService studyService;
 
-  @Value("${authenticate:false}")
-  private String AUTHENTICATE;
+  @Autowired private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Override
-  @PostFilter(
-      "hasPermission(filterObject, T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
   public List<Patient> getAllPatients(
       String keyword,
       String projection,
@@ -37,9 +32,7 @@ public class PatientServiceImpl implements PatientService {
     List<Patient> patients =
         patientRepository.getAllPatients(
             keyword, projection, pageSize, pageNumber, sortBy, direction);
-    // copy the list before returning so @PostFilter doesn't taint the list stored in the
-    // persistence layer cache
-    return (AUTHENTICATE.equals("false")) ? patients : new ArrayList<Patient>(patients);
+    return cancerStudyPermissionFilter.filterReadable(patients, Patient::getCancerStudyIdentifier);
   }
 
   @Override
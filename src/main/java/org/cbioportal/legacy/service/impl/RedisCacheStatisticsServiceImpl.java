@@ -3,10 +3,15 @@ package org.cbioportal.legacy.service.impl;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
 import org.cbioportal.legacy.persistence.util.CustomRedisCache;
+import org.cbioportal.legacy.persistence.util.RedisLoadingLease;
+import org.cbioportal.legacy.persistence.util.RedisNearCache;
+import org.cbioportal.legacy.persistence.util.SingleFlightCache;
+import org.cbioportal.legacy.persistence.util.SingleFlightCacheResolver;
 import org.cbioportal.legacy.service.CacheStatisticsService;
 import org.cbioportal.legacy.service.exception.CacheNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +29,9 @@ public class RedisCacheStatisticsServiceImpl implements CacheStatisticsService {
 
   @Autowired public CacheManager cacheManager;
 
+  @Autowired(required = false)
+  private List<SingleFlightCacheResolver> singleFlightCacheResolvers;
+
   @Value("${cache.statistics_endpoint_enabled:false}")
   public boolean cacheStatisticsEndpointEnabled;
 
@@ -91,6 +99,63 @@ public class RedisCacheStatisticsServiceImpl implements CacheStatisticsService {
 
   @Override
   public String getCacheStatistics() {
-    throw new UnsupportedOperationException("Requested API is not implemented yet");
+    checkIfCacheStatisticsEndpointEnabled();
+    StringBuilder builder = new StringBuilder();
+    builder.append("\n\nCACHE_STATISTICS START\n\n");
+    for (String cacheName : cacheManager.getCacheNames()) {
+      builder.append("Cache: " + cacheName + "\n");
+      Cache cache = cacheManager.getCache(cacheName);
+      RedisNearCache.Statistics statistics =
+          cache instanceof CustomRedisCache redisCache
+              ? redisCache.getNearCacheStatistics()
+              : null;
+      if (statistics == null) {
+        // without the near cache reads are not counted
+        builder.append("Near cache: not in use\n");
+      } else {
+        builder.append("Near cache entries: " + statistics.entries() + "\n");
+        builder.append("Near cache hits: " + statistics.nearHits() + "\n");
+        builder.append("Redis hits: " + statistics.redisHits() + "\n");
+        builder.append("Misses: " + statistics.misses() + "\n");
+        builder.append(
+            "Near cache hit ratio: "
+                + String.format("%.01f", statistics.nearHitPercentage())
+                + "%\n");
+        builder.append(
+            "Redis hit ratio (of near cache misses): "
+                + String.format("%.01f", statistics.redisHitPercentage())
+                + "%\n");
+      }
+      SingleFlightCache.Statistics singleFlightStatistics = getSingleFlightStatistics(cacheName);
+      if (singleFlightStatistics != null) {
+        builder.append("Loads: " + singleFlightStatistics.loads() + "\n");
+        builder.append("Coalesced loads: " + singleFlightStatistics.coalesced() + "\n");
+        builder.append("Coalescing timeouts: " + singleFlightStatistics.timeouts() + "\n");
+      }
+      RedisLoadingLease.Statistics leaseStatistics =
+          cache instanceof CustomRedisCache redisCache
+              ? redisCache.getLoadingLeaseStatistics()
+              : null;
+      if (leaseStatistics != null) {
+        builder.append("Loads under lease: " + leaseStatistics.acquired() + "\n");
+        builder.append(
+            "Loads coalesced across instances: " + leaseStatistics.coalesced() + "\n");
+        builder.append("Lease timeouts: " + leaseStatistics.timeouts() + "\n");
+      }
+      builder.append("\n");
+    }
+    builder.append("CACHE_STATISTICS END\n");
+    return builder.toString();
+  }
+
+  private SingleFlightCache.Statistics getSingleFlightStatistics(String cacheName) {
+    if (singleFlightCacheResolvers == null) {
+      return null;
+    }
+    return singleFlightCacheResolvers.stream()
+        .map(resolver -> resolver.getStatistics().get(cacheName))
+        .filter(Objects::nonNull)
+        .findFirst()
+        .orElse(null);
   }
 }
@@ -1,6 +1,5 @@
 package org.cbioportal.legacy.service.impl;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,9 +11,8 @@ import org.cbioportal.legacy.service.SampleListService;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.SampleListNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,23 +21,19 @@ public class SampleListServiceImpl implements SampleListService {
   @Autowired private SampleListRepository sampleListRepository;
   @Autowired private StudyService studyService;
 
-  @Value("${authenticate:false}")
-  private String AUTHENTICATE;
+  @Autowired private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Override
-  @PostFilter(
-      "hasPermission(filterObject, T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
   public List<SampleList> getAllSampleLists(
       String projection, Integer pageSize, Integer pageNumber, String sortBy, String direction) {
 
     List<SampleList> sampleListsFromRepo =
         sampleListRepository.getAllSampleLists(projection, pageSize, pageNumber, sortBy, direction);
-    // copy the list before returning so @PostFilter doesn't taint the list stored in the
-    // persistence layer cache
+    // the filtered list is a copy on authenticated portals, so that adding sample ids doesn't taint
+    // the list stored in the persistence layer cache
     List<SampleList> sampleLists =
-        (AUTHENTICATE.equals("false"))
-            ? sampleListsFromRepo
-            : new ArrayList<SampleList>(sampleListsFromRepo);
+        cancerStudyPermissionFilter.filterReadable(
+            sampleListsFromRepo, SampleList::getCancerStudyIdentifier);
 
     if (projection.equals("DETAILED")) {
       addSampleIds(sampleLists);
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.List;
 import org.cbioportal.legacy.model.TypeOfCancer;
 import org.cbioportal.legacy.persistence.CancerTypeRepository;
+import org.cbioportal.legacy.service.CacheWarmupService;
 import org.cbioportal.legacy.service.ServerStatusService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,12 +14,17 @@ public class ServerStatusServiceImpl implements ServerStatusService {
 
   public static final String MESSAGE_RUNNING = "UP";
   public static final String MESSAGE_DOWN = "DOWN";
+  public static final String MESSAGE_WARMING_UP = "WARMING_UP";
 
   private static final ServerStatusMessage objRunning = new ServerStatusMessage(MESSAGE_RUNNING);
   private static final ServerStatusMessage objDown = new ServerStatusMessage(MESSAGE_DOWN);
+  private static final ServerStatusMessage objWarmingUp =
+      new ServerStatusMessage(MESSAGE_WARMING_UP);
 
   @Autowired private CancerTypeRepository cancerTypeRepository;
 
+  @Autowired private CacheWarmupService cacheWarmupService;
+
   @Override
   public ServerStatusMessage getServerStatus() {
     List<TypeOfCancer> allCancerTypes =
@@ -29,6 +35,11 @@ public class ServerStatusServiceImpl implements ServerStatusService {
     return objDown;
   }
 
+  @Override
+  public ServerStatusMessage getReadiness() {
+    return cacheWarmupService.getStatus().ready() ? objRunning : objWarmingUp;
+  }
+
   public static final class ServerStatusMessage implements Serializable {
 
     private static final long serialVersionUID = 1L;
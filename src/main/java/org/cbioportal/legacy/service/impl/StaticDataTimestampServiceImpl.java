@@ -6,6 +6,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.TableTimestampPair;
 import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.cbioportal.legacy.service.StaticDataTimestampService;
@@ -33,6 +34,15 @@ public class StaticDataTimestampServiceImpl implements StaticDataTimestampServic
                 TableTimestampPair::getTableName, (pair) -> toDate(pair.getUpdateTime())));
   }
 
+  @Override
+  public Map<String, String> getStudyImportDates() {
+    return staticDataTimeStampRepository.getStudyImportDates().stream()
+        .collect(
+            Collectors.toMap(
+                CancerStudy::getCancerStudyIdentifier,
+                cancerStudy -> String.valueOf(cancerStudy.getImportDate())));
+  }
+
   private Date toDate(String date) {
     try {
       return new SimpleDateFormat("yyyy-MM-dd hh:mm:ss.sss").parse(date);
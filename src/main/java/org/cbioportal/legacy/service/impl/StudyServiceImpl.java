@@ -14,9 +14,9 @@ import org.cbioportal.legacy.service.CancerTypeService;
 import org.cbioportal.legacy.service.ReadPermissionService;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.cbioportal.legacy.utils.security.AccessLevel;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -30,8 +30,9 @@ public class StudyServiceImpl implements StudyService {
 
   @Autowired private ReadPermissionService readPermissionService;
 
+  @Autowired private CancerStudyPermissionFilter cancerStudyPermissionFilter;
+
   @Override
-  @PostFilter("hasPermission(filterObject,#accessLevel)")
   public List<CancerStudy> getAllStudies(
       String keyword,
       String projection,
@@ -42,6 +43,22 @@ public class StudyServiceImpl implements StudyService {
       Authentication authentication,
       AccessLevel accessLevel) {
 
+    List<CancerStudy> studies =
+        findAllStudies(
+            keyword, projection, pageSize, pageNumber, sortBy, direction, authentication);
+    return cancerStudyPermissionFilter.filter(
+        authentication, studies, CancerStudy::getCancerStudyIdentifier, accessLevel);
+  }
+
+  private List<CancerStudy> findAllStudies(
+      String keyword,
+      String projection,
+      Integer pageSize,
+      Integer pageNumber,
+      String sortBy,
+      String direction,
+      Authentication authentication) {
+
     List<CancerStudy> allStudies =
         studyRepository.getAllStudies(keyword, projection, pageSize, pageNumber, sortBy, direction);
     Map<String, CancerStudy> sortedAllStudiesByCancerStudyIdentifier =
@@ -64,7 +81,7 @@ public class StudyServiceImpl implements StudyService {
     }
 
     // For authenticated portals it is essential to make a new list, such
-    // that @PostFilter does not taint the list stored in the mybatis
+    // that callers do not taint the list stored in the mybatis
     // second-level cache. When making changes to this make sure to copy the
     // allStudies list at least for the AUTHENTICATE.equals("true") case
     List<CancerStudy> returnedStudyObjects =
@@ -84,7 +101,7 @@ public class StudyServiceImpl implements StudyService {
     } else {
       BaseMeta baseMeta = new BaseMeta();
       baseMeta.setTotalCount(
-          getAllStudies(keyword, "SUMMARY", null, null, null, null, null, AccessLevel.READ).size());
+          findAllStudies(keyword, "SUMMARY", null, null, null, null, null).size());
       return baseMeta;
     }
   }
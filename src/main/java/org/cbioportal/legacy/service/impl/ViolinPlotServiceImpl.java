@@ -5,9 +5,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.math3.analysis.function.Gaussian;
@@ -19,6 +21,9 @@ import org.cbioportal.legacy.model.ClinicalViolinPlotIndividualPoint;
 import org.cbioportal.legacy.model.ClinicalViolinPlotRowData;
 import org.cbioportal.legacy.service.ViolinPlotService;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisTaskScope;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +33,8 @@ public class ViolinPlotServiceImpl implements ViolinPlotService {
   //  violin, because it doesn't make sense.
   static final int SHOW_ONLY_POINTS_THRESHOLD = 7;
 
+  @Autowired private AnalysisExecutors analysisExecutors;
+
   @Cacheable(
       cacheResolver = "staticRepositoryCacheOneResolver",
       condition =
@@ -182,67 +189,76 @@ public class ViolinPlotServiceImpl implements ViolinPlotService {
     }
     double sigma = sigmaMultiplier.doubleValue() * stepSize;
     List<ClinicalViolinPlotRowData> rows = result.getRows();
-    nonOutliers.forEach(
-        (category, data) -> {
-          ClinicalViolinPlotRowData row = new ClinicalViolinPlotRowData();
-          row.setCategory(category);
-          row.setNumSamples(
-              countFilteredSamples(samplesForSampleCountsIds, data, outliers.get(category)));
-          row.setBoxData(boxData.get(category).limitWhiskers(result));
+    Map<ClinicalViolinPlotRowData, Future<List<Double>>> curveDataFutures =
+        new IdentityHashMap<>();
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      nonOutliers.forEach(
+          (category, data) -> {
+            ClinicalViolinPlotRowData row = new ClinicalViolinPlotRowData();
+            row.setCategory(category);
+            row.setNumSamples(
+                countFilteredSamples(samplesForSampleCountsIds, data, outliers.get(category)));
+            row.setBoxData(boxData.get(category).limitWhiskers(result));
 
-          List<ClinicalData> _individualPoints = new ArrayList<>();
+            List<ClinicalData> _individualPoints = new ArrayList<>();
 
-          if (data.size() + outliers.get(category).size() <= SHOW_ONLY_POINTS_THRESHOLD) {
-            // show only individual points when data is small
-            row.setCurveData(new ArrayList<>());
-            _individualPoints.addAll(data);
-            _individualPoints.addAll(outliers.get(category));
-          } else {
-            // build violin only based on non-outliers
-            List<Gaussian> gaussians = new ArrayList<>();
-            for (ClinicalData d : data) {
-              Double value =
-                  useLogScale
-                      ? ViolinPlotServiceImpl.logScale(Double.parseDouble(d.getAttrValue()))
-                      : Double.parseDouble(d.getAttrValue());
-              gaussians.add(new Gaussian(value, sigma));
-            }
+            if (data.size() + outliers.get(category).size() <= SHOW_ONLY_POINTS_THRESHOLD) {
+              // show only individual points when data is small
+              row.setCurveData(new ArrayList<>());
+              _individualPoints.addAll(data);
+              _individualPoints.addAll(outliers.get(category));
+            } else {
+              // build violin only based on non-outliers
+              List<Gaussian> gaussians = new ArrayList<>();
+              for (ClinicalData d : data) {
+                Double value =
+                    useLogScale
+                        ? ViolinPlotServiceImpl.logScale(Double.parseDouble(d.getAttrValue()))
+                        : Double.parseDouble(d.getAttrValue());
+                gaussians.add(new Gaussian(value, sigma));
+              }
 
-            row.setCurveData(
-                curvePoints.parallelStream()
-                    .map(
-                        p -> {
-                          BigDecimal sum = new BigDecimal(0);
-                          for (Gaussian g : gaussians) {
-                            sum = sum.add(BigDecimal.valueOf(g.value(p)));
-                          }
-                          return sum.doubleValue();
-                        })
-                    .collect(Collectors.toList()));
+              curveDataFutures.put(
+                  row, scope.forkCpu(() -> computeCurveData(curvePoints, gaussians)));
 
-            // render outliers as individual points
-            _individualPoints = outliers.get(category);
-          }
+              // render outliers as individual points
+              _individualPoints = outliers.get(category);
+            }
 
-          List<ClinicalViolinPlotIndividualPoint> individualPoints = new ArrayList<>();
-          for (ClinicalData d : _individualPoints) {
-            ClinicalViolinPlotIndividualPoint p = new ClinicalViolinPlotIndividualPoint();
-            p.setSampleId(d.getSampleId());
-            p.setStudyId(d.getStudyId());
-            p.setValue(
-                useLogScale
-                    ? ViolinPlotServiceImpl.logScale(Double.parseDouble(d.getAttrValue()))
-                    : Double.parseDouble(d.getAttrValue()));
-            individualPoints.add(p);
-          }
-          row.setIndividualPoints(individualPoints);
-          rows.add(row);
-        });
+            List<ClinicalViolinPlotIndividualPoint> individualPoints = new ArrayList<>();
+            for (ClinicalData d : _individualPoints) {
+              ClinicalViolinPlotIndividualPoint p = new ClinicalViolinPlotIndividualPoint();
+              p.setSampleId(d.getSampleId());
+              p.setStudyId(d.getStudyId());
+              p.setValue(
+                  useLogScale
+                      ? ViolinPlotServiceImpl.logScale(Double.parseDouble(d.getAttrValue()))
+                      : Double.parseDouble(d.getAttrValue()));
+              individualPoints.add(p);
+            }
+            row.setIndividualPoints(individualPoints);
+            rows.add(row);
+          });
+      curveDataFutures.forEach((row, future) -> row.setCurveData(scope.join(future)));
+    }
 
     // put everything into bins and then do one gaussian per bin, weighted by bin size
     return result;
   }
 
+  private static List<Double> computeCurveData(List<Double> curvePoints, List<Gaussian> gaussians) {
+    return curvePoints.stream()
+        .map(
+            p -> {
+              BigDecimal sum = new BigDecimal(0);
+              for (Gaussian g : gaussians) {
+                sum = sum.add(BigDecimal.valueOf(g.value(p)));
+              }
+              return sum.doubleValue();
+            })
+        .collect(Collectors.toList());
+  }
+
   @SafeVarargs
   private static int countFilteredSamples(
       Set<Integer> filteredSampleIds, List<ClinicalData>... dataLists) {
@@ -39,7 +39,7 @@ public class AlterationCountServiceUtil {
       List<AlterationCountByGene> alterationCountByGenes, Map<String, MutSig> mutSigs) {
 
     if (!mutSigs.isEmpty()) {
-      alterationCountByGenes.parallelStream()
+      alterationCountByGenes.stream()
           .filter(alterationCount -> mutSigs.containsKey(alterationCount.getHugoGeneSymbol()))
           .forEach(
               alterationCount ->
@@ -54,7 +54,7 @@ public class AlterationCountServiceUtil {
       Map<Pair<String, Integer>, Gistic> gisticMap) {
 
     if (!gisticMap.isEmpty()) {
-      alterationCountByGenes.parallelStream()
+      alterationCountByGenes.stream()
           .filter(
               alterationCount ->
                   gisticMap.containsKey(
@@ -0,0 +1,24 @@
+package org.cbioportal.legacy.service.util;
+
+import java.util.List;
+
+/**
+ * Point-in-time snapshot of the startup cache warm-up.
+ *
+ * @param ready whether all warm-up tasks have finished, always true when the warm-up is disabled
+ */
+public record CacheWarmupStatus(boolean ready, List<TaskStatus> tasks) {
+
+  public enum State {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+  }
+
+  /**
+   * @param loadTimeMillis time spent in the task, 0 until it has finished
+   * @param error message of the exception a failed task ended with
+   */
+  public record TaskStatus(String name, State state, long loadTimeMillis, String error) {}
+}
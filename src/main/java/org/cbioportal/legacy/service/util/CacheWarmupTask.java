@@ -0,0 +1,14 @@
+package org.cbioportal.legacy.service.util;
+
+/**
+ * A cache that is filled by the startup warm-up when {@code cache.warmup.enabled} is set. Tasks run
+ * in parallel once the application has started; until all of them are done the readiness endpoint
+ * reports the node as not ready.
+ */
+public interface CacheWarmupTask {
+
+  /** Name used in the warm-up log and status. */
+  String getName();
+
+  void warmUp() throws Exception;
+}
@@ -0,0 +1,53 @@
+package org.cbioportal.legacy.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.cbioportal.application.security.CancerStudyPermissionEvaluator;
+import org.cbioportal.legacy.utils.security.AccessLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filters lists read from the persistence layer down to the elements of studies the user has
+ * access to. The returned list never is the list stored in the persistence layer cache on
+ * authenticated portals, so callers can modify it.
+ */
+@Component
+public class CancerStudyPermissionFilter {
+
+  // The CancerStudyPermissionEvaluator bean does not exist on portals w/o user-authentication
+  @Autowired(required = false)
+  private CancerStudyPermissionEvaluator cancerStudyPermissionEvaluator;
+
+  @Value("${authenticate:false}")
+  private String AUTHENTICATE;
+
+  /** Keeps the elements the user of the current request can read. */
+  public <T> List<T> filterReadable(List<T> elements, Function<T, String> cancerStudyIdentifier) {
+    return filter(
+        SecurityContextHolder.getContext().getAuthentication(),
+        elements,
+        cancerStudyIdentifier,
+        AccessLevel.READ);
+  }
+
+  /** Keeps the elements the given user has the given permission on. */
+  public <T> List<T> filter(
+      Authentication authentication,
+      List<T> elements,
+      Function<T, String> cancerStudyIdentifier,
+      Object permission) {
+    if (cancerStudyPermissionEvaluator != null) {
+      // filtering returns a new list
+      return cancerStudyPermissionEvaluator.filterByCancerStudyPermission(
+          authentication, elements, cancerStudyIdentifier, permission);
+    }
+    // copy the list before returning so callers don't taint the list stored in the persistence
+    // layer cache
+    return (AUTHENTICATE.equals("false")) ? elements : new ArrayList<T>(elements);
+  }
+}
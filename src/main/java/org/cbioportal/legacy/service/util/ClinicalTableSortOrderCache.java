@@ -0,0 +1,93 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.cbioportal.legacy.persistence.util.TableTimestampWatcher;
+import org.cbioportal.shared.util.ContentDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the sorted sample internal ids of recently viewed study view clinical data tables. Paging
+ * through a table only slices the cached order instead of sorting the whole cohort again for every
+ * page.
+ *
+ * <p>The cache is bounded by the total number of sample ids it holds. Entries are dropped when the
+ * import timestamps of the sample or clinical data tables change, see {@link
+ * TableTimestampWatcher}, and expire shortly after they were written.
+ */
+@Component
+public class ClinicalTableSortOrderCache {
+
+  private static final List<String> TABLES =
+      Arrays.asList("sample", "patient", "clinical_sample", "clinical_patient");
+
+  private final Cache<SortOrderKey, int[]> cache;
+  private final TableTimestampWatcher timestampWatcher;
+
+  public ClinicalTableSortOrderCache(
+      StaticDataTimeStampRepository staticDataTimeStampRepository,
+      @Value("${clinical_table.sort_order_cache.max_sample_ids:5000000}") long maxSampleIds,
+      @Value("${clinical_table.sort_order_cache.expire_after_write_mins:10}")
+          long expireAfterWriteMinutes,
+      @Value("${clinical_table.sort_order_cache.timestamp_check_interval_seconds:60}")
+          long timestampCheckIntervalSeconds) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSampleIds)
+            .<SortOrderKey, int[]>weigher((key, sampleInternalIds) -> 1 + sampleInternalIds.length)
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+    this.timestampWatcher =
+        new TableTimestampWatcher(
+            staticDataTimeStampRepository, TABLES, timestampCheckIntervalSeconds);
+  }
+
+  public int[] get(
+      List<String> studyIds,
+      List<String> sampleIds,
+      String searchTerm,
+      String sortBy,
+      String direction,
+      Supplier<List<Integer>> loader) {
+    if (timestampWatcher.hasChanged()) {
+      cache.invalidateAll();
+    }
+    try {
+      return cache.get(
+          SortOrderKey.of(studyIds, sampleIds, searchTerm, sortBy, direction),
+          () -> loader.get().stream().mapToInt(Integer::intValue).toArray());
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * The sample filter is reduced to a SHA-256 digest, so that large cohorts do not stay referenced
+   * by the cache keys.
+   */
+  private record SortOrderKey(
+      HashCode filterDigest, String searchTerm, String sortBy, String direction) {
+
+    static SortOrderKey of(
+        List<String> studyIds,
+        List<String> sampleIds,
+        String searchTerm,
+        String sortBy,
+        String direction) {
+      return new SortOrderKey(
+          ContentDigest.ofSequences(studyIds, sampleIds), searchTerm, sortBy, direction);
+    }
+  }
+}
@@ -4,20 +4,22 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.stat.correlation.SpearmansCorrelation;
 import org.cbioportal.legacy.model.CoExpression;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+/**
+ * Computes a single co-expression. Callers fan these computations out on the analysis CPU pool
+ * (see {@link org.cbioportal.shared.concurrent.AnalysisExecutors}). Returns null if there are too
+ * few values or the correlation is below the threshold.
+ */
 @Component
 public class CoExpressionAsyncMethods {
 
-  @Async
-  public CompletableFuture<CoExpression> computeCoExpression(
+  public CoExpression computeCoExpression(
       String entityId, List<String> valuesA, List<String> valuesB, Double threshold) {
 
     List<String> valuesACopy = new ArrayList<>(valuesA);
@@ -57,6 +59,6 @@ public class CoExpressionAsyncMethods {
     RealMatrix resultMatrix = spearmansCorrelation.getRankCorrelation().getCorrelationPValues();
     coExpression.setpValue(BigDecimal.valueOf(resultMatrix.getEntry(0, 1)));
 
-    return CompletableFuture.supplyAsync(() -> coExpression);
+    return coExpression;
   }
 }
@@ -8,9 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.math3.stat.StatUtils;
@@ -30,9 +28,8 @@ import org.cbioportal.legacy.model.GroupStatistics;
 import org.cbioportal.legacy.model.MolecularAlteration;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
-import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.Sample;
-import org.cbioportal.legacy.persistence.MolecularDataRepository;
 import org.cbioportal.legacy.service.SampleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -41,7 +38,7 @@ import org.springframework.stereotype.Component;
 public class ExpressionEnrichmentUtil {
 
   @Autowired private SampleService sampleService;
-  @Autowired private MolecularDataRepository molecularDataRepository;
+  @Autowired private MolecularProfileResolutionContext molecularProfileResolutionContext;
 
   private static final double LOG2 = Math.log(2);
   private static final String RNA_SEQ = "rna_seq";
@@ -57,29 +54,25 @@ public class ExpressionEnrichmentUtil {
       Iterable<T> maItr) {
     List<S> expressionEnrichments = new ArrayList<>();
 
-    Map<String, List<Integer>> groupIndicesMap =
-        getGroupIndicesMap(molecularProfileCaseSets, enrichmentType, molecularProfile);
+    GroupIndices groupIndices =
+        getGroupIndices(molecularProfileCaseSets, enrichmentType, molecularProfile);
+    boolean rnaSeq = molecularProfile.getStableId().contains(RNA_SEQ);
     for (MolecularAlteration ma : maItr) {
       List<GroupStatistics> groupsStatistics = new ArrayList<GroupStatistics>();
       // used for p-value calculation
       List<double[]> groupedValues = new ArrayList<double[]>();
+      String[] splitValues = ma.getSplitValues();
 
-      for (Entry<String, List<Integer>> group : groupIndicesMap.entrySet()) {
+      for (int group = 0; group < groupIndices.names().length; group++) {
 
         // get expression values to all the indices in the group
-        List<String> molecularDataValues =
-            group.getValue().stream()
-                .map(sampleIndex -> ma.getSplitValues()[sampleIndex])
-                .filter(a -> NumberUtils.isNumber(a))
-                .collect(Collectors.toList());
+        double[] values = getNumericValues(splitValues, groupIndices.positions()[group], rnaSeq);
 
         // ignore group if there are less than 2 values
-        if (molecularDataValues.size() < 2) {
+        if (values.length < 2) {
           continue;
         }
 
-        double[] values = getAlterationValues(molecularDataValues, molecularProfile.getStableId());
-
         GroupStatistics groupStatistics = new GroupStatistics();
         double alteredMean = StatUtils.mean(values);
         double alteredStandardDeviation = calculateStandardDeviation(values);
@@ -90,7 +83,7 @@ public class ExpressionEnrichmentUtil {
         }
 
         groupedValues.add(values);
-        groupStatistics.setName(group.getKey());
+        groupStatistics.setName(groupIndices.names()[group]);
         groupStatistics.setMeanExpression(BigDecimal.valueOf(alteredMean));
         groupStatistics.setStandardDeviation(BigDecimal.valueOf(alteredStandardDeviation));
         groupsStatistics.add(groupStatistics);
@@ -129,31 +122,31 @@ public class ExpressionEnrichmentUtil {
 
     List<S> expressionEnrichments = new ArrayList<>();
     Map<String, Map<String, Integer>> groupCategoryStatistics = new HashMap<>();
-    Map<String, List<Integer>> groupIndicesMap =
-        getGroupIndicesMap(molecularProfileCaseSets, enrichmentType, molecularProfile);
+    GroupIndices groupIndices =
+        getGroupIndices(molecularProfileCaseSets, enrichmentType, molecularProfile);
 
     for (MolecularAlteration ma : maItr) {
       List<GroupStatistics> groupsStatistics = new ArrayList<GroupStatistics>();
-      for (Entry<String, List<Integer>> group : groupIndicesMap.entrySet()) {
-        // Get the corresponding split values for the group
-        List<String> groupValues =
-            group.getValue().stream()
-                .map(sampleIndex -> ma.getSplitValues()[sampleIndex])
-                .collect(Collectors.toList());
-        // Group and count the split values
-        Map<String, Integer> groupedSplitValues =
-            groupValues.stream()
-                .collect(Collectors.toMap(Function.identity(), v -> 1, Integer::sum));
+      String[] splitValues = ma.getSplitValues();
+      for (int group = 0; group < groupIndices.names().length; group++) {
+        int[] positions = groupIndices.positions()[group];
 
         // ignore group if there are less than 2 values
-        if (groupValues.size() < 2) {
+        if (positions.length < 2) {
           continue;
         }
 
+        // Group and count the split values of the group
+        Map<String, Integer> groupedSplitValues = new HashMap<>();
+        for (int position : positions) {
+          groupedSplitValues.merge(splitValues[position], 1, Integer::sum);
+        }
+
+        String groupName = groupIndices.names()[group];
         GroupStatistics groupStatistics = new GroupStatistics();
-        groupStatistics.setName(group.getKey());
+        groupStatistics.setName(groupName);
         groupsStatistics.add(groupStatistics);
-        groupCategoryStatistics.put(group.getKey(), groupedSplitValues);
+        groupCategoryStatistics.put(groupName, groupedSplitValues);
       }
 
       // calculate p-value and add enrichment if atleast 2 groups have data
@@ -195,43 +188,30 @@ public class ExpressionEnrichmentUtil {
           Iterable<T> maItr) {
     List<S> expressionEnrichments = new ArrayList<>();
 
-    Map<String, List<Integer>> groupIndicesMap =
-        getGroupIndicesMap(molecularProfileCaseSets, enrichmentType, molecularProfile);
+    GroupIndices groupIndices =
+        getGroupIndices(molecularProfileCaseSets, enrichmentType, molecularProfile);
+    boolean rnaSeq = molecularProfile.getStableId().contains(RNA_SEQ);
 
     for (MolecularAlteration ma : maItr) {
       List<GenericAssayCountSummary> genericAssayCountSummaries = new ArrayList<>();
       List<GroupStatistics> groupsStatistics = new ArrayList<GroupStatistics>();
       // used for p-value calculation
       List<double[]> groupedValues = new ArrayList<double[]>();
+      String[] splitValues = ma.getSplitValues();
 
-      for (Entry<String, List<Integer>> group : groupIndicesMap.entrySet()) {
+      for (int group = 0; group < groupIndices.names().length; group++) {
         GenericAssayCountSummary genericAssayCountSummary = new GenericAssayCountSummary();
-        genericAssayCountSummary.setName(group.getKey());
+        genericAssayCountSummary.setName(groupIndices.names()[group]);
 
         // get expression values to all the indices in the group, filter NA and map binary values
-        List<String> molecularDataValues =
-            group.getValue().stream()
-                .map(sampleIndex -> ma.getSplitValues()[sampleIndex])
-                .filter(StringUtils::isNotEmpty)
-                .map(
-                    a -> {
-                      if (posTypeList.contains(a)) {
-                        return ALTERED;
-                      } else if (negTypeList.contains(a)) {
-                        return UNALTERED;
-                      } else {
-                        return a;
-                      }
-                    })
-                .collect(Collectors.toList());
+        double[] values = getBinaryValues(splitValues, groupIndices.positions()[group], rnaSeq);
 
         // ignore group if there are less than 2 values
-        if (molecularDataValues.size() < 2) {
+        if (values.length < 2) {
           continue;
         }
-        genericAssayCountSummary.setTotalCount(molecularDataValues.size());
+        genericAssayCountSummary.setTotalCount(values.length);
 
-        double[] values = getAlterationValues(molecularDataValues, molecularProfile.getStableId());
         genericAssayCountSummary.setCount(
             (int) Arrays.stream(values).filter(num -> num == 1).count());
         GroupStatistics groupStatistics = new GroupStatistics();
@@ -244,7 +224,7 @@ public class ExpressionEnrichmentUtil {
         }
 
         groupedValues.add(values);
-        groupStatistics.setName(group.getKey());
+        groupStatistics.setName(groupIndices.names()[group]);
         groupStatistics.setMeanExpression(BigDecimal.valueOf(alteredMean));
         groupStatistics.setStandardDeviation(BigDecimal.valueOf(alteredStandardDeviation));
         groupsStatistics.add(groupStatistics);
@@ -273,21 +253,45 @@ public class ExpressionEnrichmentUtil {
     return expressionEnrichments;
   }
 
-  private double[] getAlterationValues(
-      List<String> molecularDataValues, String molecularProfileId) {
-
-    if (molecularProfileId.contains(RNA_SEQ)) {
-      return molecularDataValues.stream()
-          .mapToDouble(
-              d -> {
-                double datum = Double.parseDouble(d);
-                // reset to 0 if there are any negative values and then do log1p
-                return Math.log1p(datum < 0 ? 0 : datum) / LOG2;
-              })
-          .toArray();
-    } else {
-      return molecularDataValues.stream().mapToDouble(g -> Double.parseDouble(g)).toArray();
+  // numeric values at the given positions, in the order of the positions
+  static double[] getNumericValues(String[] splitValues, int[] positions, boolean rnaSeq) {
+    double[] values = new double[positions.length];
+    int count = 0;
+    for (int position : positions) {
+      String value = splitValues[position];
+      if (NumberUtils.isNumber(value)) {
+        values[count++] = getAlterationValue(value, rnaSeq);
+      }
+    }
+    return count == values.length ? values : Arrays.copyOf(values, count);
+  }
+
+  // non empty values at the given positions, with true/yes mapped to 1 and false/no to 0
+  static double[] getBinaryValues(String[] splitValues, int[] positions, boolean rnaSeq) {
+    double[] values = new double[positions.length];
+    int count = 0;
+    for (int position : positions) {
+      String value = splitValues[position];
+      if (StringUtils.isEmpty(value)) {
+        continue;
+      }
+      if (posTypeList.contains(value)) {
+        value = ALTERED;
+      } else if (negTypeList.contains(value)) {
+        value = UNALTERED;
+      }
+      values[count++] = getAlterationValue(value, rnaSeq);
     }
+    return count == values.length ? values : Arrays.copyOf(values, count);
+  }
+
+  private static double getAlterationValue(String value, boolean rnaSeq) {
+    double datum = Double.parseDouble(value);
+    if (rnaSeq) {
+      // reset to 0 if there are any negative values and then do log1p
+      return Math.log1p(datum < 0 ? 0 : datum) / LOG2;
+    }
+    return datum;
   }
 
   private long[][] getCategoricalValues(Map<String, Map<String, Integer>> groupCategoryStatistics) {
@@ -347,70 +351,84 @@ public class ExpressionEnrichmentUtil {
    * separated list of scalar values. Each value in this list is associated with a sample at the
    * same position found in the genetic_profile_samples.ORDERED_SAMPLE_LIST column.
    *
+   * <p>The positions are resolved once per request, so that the values of every gene are grouped
+   * by walking plain int arrays. Overlapping groups simply share positions.
+   *
    * @param molecularProfileCaseSets
    * @param enrichmentType
    * @param molecularProfile
    * @return
    */
-  private Map<String, List<Integer>> getGroupIndicesMap(
+  private GroupIndices getGroupIndices(
       Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets,
       EnrichmentType enrichmentType,
       MolecularProfile molecularProfile) {
 
-    MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile =
-        molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(
-            molecularProfile.getStableId());
-
-    List<Integer> internalSampleIds =
-        Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt)
-            .boxed()
-            .collect(Collectors.toList());
-
-    Map<Integer, Integer> internalSampleIdToIndexMap =
-        IntStream.range(0, internalSampleIds.size())
-            .boxed()
-            .collect(Collectors.toMap(internalSampleIds::get, Function.identity()));
+    MolecularProfileSampleIndex sampleIndex =
+        molecularProfileResolutionContext.getSampleIndex(molecularProfile.getStableId());
 
     Map<String, List<Integer>> selectedCaseIdToInternalIdsMap =
         getCaseIdToInternalIdsMap(molecularProfileCaseSets, enrichmentType, molecularProfile);
 
     // this block map caseIds(sampleIds or patientids) to sampleIndices which
     // represents the position fount in the
-    // genetic_profile_samples.ORDERED_SAMPLE_LIST column
-    Map<String, List<Integer>> groupIndicesMap =
-        molecularProfileCaseSets.entrySet().stream()
-            .collect(
-                Collectors.toMap(
-                    entity -> entity.getKey(),
-                    entity -> {
-                      List<Integer> sampleIndices = new ArrayList<>();
-                      entity
-                          .getValue()
-                          .forEach(
-                              molecularProfileCaseIdentifier -> {
-                                // consider only valid samples
-                                if (selectedCaseIdToInternalIdsMap.containsKey(
-                                    molecularProfileCaseIdentifier.getCaseId())) {
-                                  List<Integer> sampleInternalIds =
-                                      selectedCaseIdToInternalIdsMap.get(
-                                          molecularProfileCaseIdentifier.getCaseId());
-
-                                  // only consider samples which are profiled for the give molecular
-                                  // profile id
-                                  sampleInternalIds.forEach(
-                                      sampleInternalId -> {
-                                        if (internalSampleIdToIndexMap.containsKey(
-                                            sampleInternalId)) {
-                                          sampleIndices.add(
-                                              internalSampleIdToIndexMap.get(sampleInternalId));
-                                        }
-                                      });
-                                }
-                              });
-                      return sampleIndices;
-                    }));
-    return groupIndicesMap;
+    // genetic_profile_samples.ORDERED_SAMPLE_LIST column. Every case is looked up once in the
+    // reverse index of the profile, cases in several groups share the resolved positions
+    Map<String, int[]> positionsByCaseId =
+        getPositionsByCaseId(selectedCaseIdToInternalIdsMap, sampleIndex);
+    Map<String, int[]> groupIndicesMap = new HashMap<>();
+    molecularProfileCaseSets.forEach(
+        (groupName, molecularProfileCaseIdentifiers) -> {
+          int[] sampleIndices = new int[molecularProfileCaseIdentifiers.size()];
+          int count = 0;
+          for (MolecularProfileCaseIdentifier molecularProfileCaseIdentifier :
+              molecularProfileCaseIdentifiers) {
+            // consider only valid samples which are profiled for the given molecular profile id
+            int[] positions = positionsByCaseId.get(molecularProfileCaseIdentifier.getCaseId());
+            if (positions == null) {
+              continue;
+            }
+            if (count + positions.length > sampleIndices.length) {
+              // a patient can have more than one sample
+              sampleIndices =
+                  Arrays.copyOf(sampleIndices, Math.max(count * 2, count + positions.length));
+            }
+            System.arraycopy(positions, 0, sampleIndices, count, positions.length);
+            count += positions.length;
+          }
+          groupIndicesMap.put(groupName, Arrays.copyOf(sampleIndices, count));
+        });
+
+    String[] names = new String[groupIndicesMap.size()];
+    int[][] positions = new int[groupIndicesMap.size()][];
+    int group = 0;
+    for (Entry<String, int[]> entry : groupIndicesMap.entrySet()) {
+      names[group] = entry.getKey();
+      positions[group++] = entry.getValue();
+    }
+    return new GroupIndices(names, positions);
+  }
+
+  // positions of the profiled samples of each case in the VALUES column
+  private Map<String, int[]> getPositionsByCaseId(
+      Map<String, List<Integer>> caseIdToInternalIdsMap, MolecularProfileSampleIndex sampleIndex) {
+    Map<String, int[]> positionsByCaseId = new HashMap<>(caseIdToInternalIdsMap.size() * 2);
+    caseIdToInternalIdsMap.forEach(
+        (caseId, internalIds) -> {
+          int[] positions = new int[internalIds.size()];
+          int count = 0;
+          for (int internalId : internalIds) {
+            int position = sampleIndex.indexOf(internalId);
+            if (position >= 0) {
+              positions[count++] = position;
+            }
+          }
+          if (count > 0) {
+            positionsByCaseId.put(
+                caseId, count == positions.length ? positions : Arrays.copyOf(positions, count));
+          }
+        });
+    return positionsByCaseId;
   }
 
   private Map<String, List<Integer>> getCaseIdToInternalIdsMap(
@@ -450,10 +468,17 @@ public class ExpressionEnrichmentUtil {
                       studyIds.add(molecularProfile.getCancerStudyIdentifier());
                     });
               });
-      List<Sample> samples = sampleService.fetchSamples(studyIds, sampleIds, "ID");
+      List<Sample> samples =
+          molecularProfileResolutionContext.fetchSamples(studyIds, sampleIds, "ID");
 
       return samples.stream()
           .collect(Collectors.toMap(Sample::getStableId, x -> Arrays.asList(x.getInternalId())));
     }
   }
+
+  /**
+   * Groups of an enrichment request, with the positions of the samples of each group in the
+   * genetic_alteration.VALUES column.
+   */
+  private record GroupIndices(String[] names, int[][] positions) {}
 }
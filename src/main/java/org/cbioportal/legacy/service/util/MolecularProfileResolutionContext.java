@@ -0,0 +1,123 @@
+package org.cbioportal.legacy.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.persistence.MolecularDataRepository;
+import org.cbioportal.legacy.service.MolecularProfileService;
+import org.cbioportal.legacy.service.SampleService;
+import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves molecular profiles, their ordered sample lists and samples once per HTTP request. A
+ * single molecular data or enrichment request asks for the same profile and samples from several
+ * services; the first lookup hits the database (or the repository cache) and every later lookup in
+ * the same request is served from memory.
+ *
+ * <p>The memo lives in the current request's attributes. Outside of a request (e.g. on worker
+ * threads or in batch jobs) every call goes straight to the underlying service.
+ */
+@Component
+public class MolecularProfileResolutionContext {
+
+  private static final String REQUEST_ATTRIBUTE =
+      MolecularProfileResolutionContext.class.getName() + ".MEMO";
+
+  @Autowired private MolecularProfileService molecularProfileService;
+  @Autowired private SampleService sampleService;
+  @Autowired private MolecularDataRepository molecularDataRepository;
+
+  public MolecularProfile getMolecularProfile(String molecularProfileId)
+      throws MolecularProfileNotFoundException {
+    Memo memo = getMemo();
+    if (memo == null) {
+      return molecularProfileService.getMolecularProfile(molecularProfileId);
+    }
+    MolecularProfile molecularProfile = memo.molecularProfiles.get(molecularProfileId);
+    if (molecularProfile == null) {
+      molecularProfile = molecularProfileService.getMolecularProfile(molecularProfileId);
+      memo.molecularProfiles.put(molecularProfileId, molecularProfile);
+    }
+    return molecularProfile;
+  }
+
+  /**
+   * @return the parsed ORDERED_SAMPLE_LIST of the profile, or null when the profile has no samples
+   */
+  public MolecularProfileSampleIndex getSampleIndex(String molecularProfileId) {
+    Memo memo = getMemo();
+    if (memo == null) {
+      return loadSampleIndex(molecularProfileId);
+    }
+    return memo.sampleIndices
+        .computeIfAbsent(
+            molecularProfileId, id -> Optional.ofNullable(loadSampleIndex(molecularProfileId)))
+        .orElse(null);
+  }
+
+  public List<Sample> fetchSamples(
+      List<String> studyIds, List<String> sampleIds, String projection) {
+    Memo memo = getMemo();
+    if (memo == null) {
+      return sampleService.fetchSamples(studyIds, sampleIds, projection);
+    }
+    // hand out copies so that callers modifying the result do not corrupt the memo
+    return new ArrayList<>(
+        memo.samples.computeIfAbsent(
+            new SampleQuery(studyIds, sampleIds, projection),
+            query -> sampleService.fetchSamples(studyIds, sampleIds, projection)));
+  }
+
+  public List<Sample> getSamplesByInternalIds(List<Integer> internalIds) {
+    Memo memo = getMemo();
+    if (memo == null) {
+      return sampleService.getSamplesByInternalIds(internalIds);
+    }
+    return new ArrayList<>(
+        memo.samples.computeIfAbsent(
+            new SampleQuery(null, internalIds, null),
+            query -> sampleService.getSamplesByInternalIds(internalIds)));
+  }
+
+  private MolecularProfileSampleIndex loadSampleIndex(String molecularProfileId) {
+    return molecularDataRepository.getMolecularProfileSampleIndex(molecularProfileId);
+  }
+
+  private Memo getMemo() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return null;
+    }
+    Memo memo =
+        (Memo) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (memo == null) {
+      memo = new Memo();
+      requestAttributes.setAttribute(REQUEST_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+    }
+    return memo;
+  }
+
+  private static class Memo {
+    private final Map<String, MolecularProfile> molecularProfiles = new ConcurrentHashMap<>();
+    private final Map<String, Optional<MolecularProfileSampleIndex>> sampleIndices =
+        new ConcurrentHashMap<>();
+    private final Map<SampleQuery, List<Sample>> samples = new ConcurrentHashMap<>();
+  }
+
+  private record SampleQuery(List<String> studyIds, List<?> ids, String projection) {
+    SampleQuery {
+      // callers may reuse their lists, so the key holds its own copies
+      studyIds = studyIds == null ? null : new ArrayList<>(studyIds);
+      ids = ids == null ? null : new ArrayList<>(ids);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.model.SampleList;
+import org.cbioportal.shared.util.IntBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the members of the sample lists of a study as {@link IntBitmap}s of internal sample ids,
+ * keyed by sample list type (the stable id without the study id prefix). Case list and genomic
+ * profile filters of the study view combine these sets instead of expanding every sample list
+ * into sample identifiers for each request. The members of dynamic virtual studies are mapped
+ * between sample ids and internal ids through the same entries.
+ *
+ * <p>The cache is bounded by the total number of samples of the cached studies. Entries are
+ * dropped for a study when its caches are cleared after an import.
+ */
+@Component
+public class SampleListMembershipCache {
+
+  private final Cache<String, StudySampleLists> cache;
+
+  public SampleListMembershipCache(
+      @Value("${sample_list_membership.cache.max_samples:5000000}") long maxSamples,
+      @Value("${sample_list_membership.cache.expire_after_write_mins:1440}")
+          long expireAfterWriteMinutes) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSamples)
+            .<String, StudySampleLists>weigher(
+                (studyId, studySampleLists) -> 1 + studySampleLists.size())
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+  }
+
+  /**
+   * @param loader loads the sample lists of the studies that are not cached yet, see {@link
+   *     StudySampleLists#byStudy}
+   */
+  public Map<String, StudySampleLists> getAll(
+      Collection<String> studyIds,
+      Function<List<String>, Map<String, StudySampleLists>> loader) {
+    Map<String, StudySampleLists> result = new HashMap<>();
+    Set<String> missingStudyIds = new LinkedHashSet<>();
+    for (String studyId : studyIds) {
+      StudySampleLists studySampleLists = cache.getIfPresent(studyId);
+      if (studySampleLists == null) {
+        missingStudyIds.add(studyId);
+      } else {
+        result.put(studyId, studySampleLists);
+      }
+    }
+    if (!missingStudyIds.isEmpty()) {
+      Map<String, StudySampleLists> loaded = loader.apply(List.copyOf(missingStudyIds));
+      for (String studyId : missingStudyIds) {
+        StudySampleLists studySampleLists =
+            loaded.getOrDefault(studyId, StudySampleLists.EMPTY);
+        cache.put(studyId, studySampleLists);
+        result.put(studyId, studySampleLists);
+      }
+    }
+    return result;
+  }
+
+  public void invalidate(String studyId) {
+    cache.invalidate(studyId);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public static final class StudySampleLists {
+
+    private static final StudySampleLists EMPTY = new StudySampleLists(Map.of(), Map.of());
+
+    private final Map<String, Integer> sampleInternalIds;
+    private final Map<Integer, String> sampleIds;
+    private final Map<String, IntBitmap> sampleListsByType;
+
+    private StudySampleLists(
+        Map<String, Integer> sampleInternalIds, Map<String, IntBitmap> sampleListsByType) {
+      this.sampleInternalIds = sampleInternalIds;
+      this.sampleIds = new HashMap<>();
+      sampleInternalIds.forEach((sampleId, internalId) -> sampleIds.put(internalId, sampleId));
+      this.sampleListsByType = sampleListsByType;
+    }
+
+    /**
+     * @param samples samples of the studies, at least with their internal and stable ids
+     * @param sampleLists detailed sample lists of the studies
+     */
+    public static Map<String, StudySampleLists> byStudy(
+        List<Sample> samples, List<SampleList> sampleLists) {
+      Map<String, Map<String, Integer>> sampleInternalIdsByStudy = new HashMap<>();
+      for (Sample sample : samples) {
+        sampleInternalIdsByStudy
+            .computeIfAbsent(sample.getCancerStudyIdentifier(), studyId -> new HashMap<>())
+            .put(sample.getStableId(), sample.getInternalId());
+      }
+
+      Map<String, Map<String, IntBitmap>> sampleListsByStudy = new HashMap<>();
+      for (SampleList sampleList : sampleLists) {
+        String studyId = sampleList.getCancerStudyIdentifier();
+        Map<String, Integer> sampleInternalIds =
+            sampleInternalIdsByStudy.getOrDefault(studyId, Map.of());
+        int[] members =
+            sampleList.getSampleIds().stream()
+                .map(sampleInternalIds::get)
+                .filter(internalId -> internalId != null)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        sampleListsByStudy
+            .computeIfAbsent(studyId, id -> new HashMap<>())
+            .put(sampleList.getStableId().replace(studyId + "_", ""), IntBitmap.of(members));
+      }
+
+      Map<String, StudySampleLists> result = new HashMap<>();
+      sampleInternalIdsByStudy.forEach(
+          (studyId, sampleInternalIds) ->
+              result.put(
+                  studyId,
+                  new StudySampleLists(
+                      sampleInternalIds, sampleListsByStudy.getOrDefault(studyId, Map.of()))));
+      return result;
+    }
+
+    /**
+     * @return the internal id of the sample, or null when the study has no such sample
+     */
+    public Integer getSampleInternalId(String sampleId) {
+      return sampleInternalIds.get(sampleId);
+    }
+
+    /**
+     * @return the sample id of the internal sample id, or null when the study has no such sample
+     */
+    public String getSampleId(int sampleInternalId) {
+      return sampleIds.get(sampleInternalId);
+    }
+
+    /**
+     * @return the internal sample ids of the sample list, empty when the study has no such list
+     */
+    public IntBitmap getSampleList(String sampleListType) {
+      return sampleListsByType.getOrDefault(sampleListType, IntBitmap.empty());
+    }
+
+    private int size() {
+      return sampleInternalIds.size();
+    }
+  }
+}
@@ -2,15 +2,31 @@ package org.cbioportal.legacy.service.util;
 
 import static org.cbioportal.legacy.utils.removeme.Session.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.mongodb.BasicDBObject;
-import java.io.IOException;
+import jakarta.annotation.PostConstruct;
 import java.io.Serializable;
+import java.net.http.HttpClient;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
@@ -29,12 +45,20 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+/**
+ * Client of the session service. All requests go through one pooled HTTP client, and their
+ * latencies are recorded per operation (see {@link #getStatistics()}).
+ *
+ * <p>Virtual studies looked up by id are kept for a short time. Updates made through this handler
+ * evict the updated study right away; changes made by other portal instances show up once the
+ * entry expires.
+ */
 @Component
 public class SessionServiceRequestHandler {
 
@@ -43,6 +67,23 @@ public class SessionServiceRequestHandler {
   private static final String QUERY_OPERATOR_ALL = "$all";
   private static final String QUERY_OPERATOR_SIZE = "$size";
   private static final String QUERY_OPERATOR_AND = "$and";
+  private static final String QUERY_OPERATOR_IN = "$in";
+
+  private static final ObjectMapper VIRTUAL_STUDY_MAPPER = new ObjectMapper();
+
+  // one client for all requests, so that connections to the session service are reused
+  private final ClientHttpRequestFactory requestFactory =
+      new JdkClientHttpRequestFactory(
+          HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build());
+
+  private final RestTemplate restTemplate = new RestTemplate(requestFactory);
+
+  private final Map<String, OperationLatency> latencies = new ConcurrentHashMap<>();
+
+  // keyed by id, empty when the session service does not know the id
+  private Cache<String, Optional<VirtualStudy>> virtualStudyCache;
+
+  private String authHeader;
 
   @Value("${session.service.url:}")
   private String sessionServiceURL;
@@ -53,6 +94,27 @@ public class SessionServiceRequestHandler {
   @Value("${session.service.password:}")
   private String sessionServicePassword;
 
+  @Value("${session.service.virtual_study_cache.expire_after_write_secs:60}")
+  private long virtualStudyCacheExpireAfterWriteSeconds;
+
+  @Value("${session.service.virtual_study_cache.max_size:10000}")
+  private long virtualStudyCacheMaxSize;
+
+  @PostConstruct
+  public void init() {
+    virtualStudyCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(virtualStudyCacheMaxSize)
+            .expireAfterWrite(virtualStudyCacheExpireAfterWriteSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    if (isBasicAuthEnabled()) {
+      String auth = sessionServiceUser + ":" + sessionServicePassword;
+      byte[] encodedAuth = Base64.encodeBase64(auth.getBytes(Charset.forName("US-ASCII")));
+      authHeader = "Basic " + new String(encodedAuth);
+    }
+  }
+
   private Boolean isBasicAuthEnabled() {
     return isSessionServiceEnabled()
         && sessionServicePassword != null
@@ -67,10 +129,7 @@ public class SessionServiceRequestHandler {
 
     return new HttpHeaders() {
       {
-        if (isBasicAuthEnabled()) {
-          String auth = sessionServiceUser + ":" + sessionServicePassword;
-          byte[] encodedAuth = Base64.encodeBase64(auth.getBytes(Charset.forName("US-ASCII")));
-          String authHeader = "Basic " + new String(encodedAuth);
+        if (authHeader != null) {
           set("Authorization", authHeader);
         }
         set("Content-Type", "application/json");
@@ -80,8 +139,6 @@ public class SessionServiceRequestHandler {
 
   public String getSessionDataJson(SessionType type, String id) throws Exception {
 
-    RestTemplate restTemplate = new RestTemplate();
-
     String url =
         UriComponentsBuilder.fromUriString(sessionServiceURL)
             .pathSegment(type.name())
@@ -92,7 +149,9 @@ public class SessionServiceRequestHandler {
     // add basic authentication in header
     HttpEntity<String> headers = new HttpEntity<>(getHttpHeaders());
     ResponseEntity<String> responseEntity =
-        restTemplate.exchange(url, HttpMethod.GET, headers, String.class);
+        timed(
+            "getSessionDataJson",
+            () -> restTemplate.exchange(url, HttpMethod.GET, headers, String.class));
 
     return responseEntity.getBody();
   }
@@ -105,6 +164,11 @@ public class SessionServiceRequestHandler {
    */
   public VirtualStudy getVirtualStudyById(String id) {
 
+    Optional<VirtualStudy> cached = virtualStudyCache.getIfPresent(id);
+    if (cached != null && cached.isPresent()) {
+      return copyOf(cached.get());
+    }
+
     String url =
         UriComponentsBuilder.fromUriString(sessionServiceURL)
             .pathSegment("virtual_study")
@@ -113,8 +177,11 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<VirtualStudy> responseEntity =
-        new RestTemplate()
-            .exchange(url, HttpMethod.GET, new HttpEntity<>(getHttpHeaders()), VirtualStudy.class);
+        timed(
+            "getVirtualStudyById",
+            () ->
+                restTemplate.exchange(
+                    url, HttpMethod.GET, new HttpEntity<>(getHttpHeaders()), VirtualStudy.class));
     HttpStatusCode statusCode = responseEntity.getStatusCode();
     VirtualStudy virtualStudy = responseEntity.getBody();
     if (!statusCode.is2xxSuccessful() || virtualStudy == null) {
@@ -125,7 +192,53 @@ public class SessionServiceRequestHandler {
           virtualStudy);
       throw new IllegalStateException("The downstream server response is not successful");
     }
-    return responseEntity.getBody();
+    cacheVirtualStudy(virtualStudy);
+    return virtualStudy;
+  }
+
+  /**
+   * Gets virtual studies by id. Studies that are not cached are fetched with a single query.
+   *
+   * @param ids - ids of the virtual studies to read
+   * @return virtual studies in the order of the ids, ids that do not exist are left out
+   */
+  public List<VirtualStudy> getVirtualStudiesByIds(Collection<String> ids) {
+    Map<String, Optional<VirtualStudy>> virtualStudiesById = new LinkedHashMap<>();
+    List<String> missingIds = new ArrayList<>();
+    for (String id : new LinkedHashSet<>(ids)) {
+      Optional<VirtualStudy> cached = virtualStudyCache.getIfPresent(id);
+      if (cached == null) {
+        missingIds.add(id);
+        virtualStudiesById.put(id, null);
+      } else {
+        virtualStudiesById.put(id, cached.map(this::copyOf));
+      }
+    }
+
+    if (!missingIds.isEmpty()) {
+      BasicDBObject queryDBObject =
+          new BasicDBObject("_id", new BasicDBObject(QUERY_OPERATOR_IN, missingIds));
+      List<VirtualStudy> fetched = fetchVirtualStudies(queryDBObject, "getVirtualStudiesByIds");
+      for (VirtualStudy virtualStudy : fetched) {
+        if (virtualStudiesById.containsKey(virtualStudy.getId())) {
+          cacheVirtualStudy(virtualStudy);
+          virtualStudiesById.put(virtualStudy.getId(), Optional.of(virtualStudy));
+        }
+      }
+      // ids the query did not match do not exist, they are remembered as missing
+      for (String id : missingIds) {
+        if (virtualStudiesById.get(id) == null) {
+          virtualStudyCache.put(id, Optional.empty());
+          virtualStudiesById.put(id, Optional.empty());
+        }
+      }
+    }
+
+    List<VirtualStudy> virtualStudies = new ArrayList<>();
+    for (Optional<VirtualStudy> virtualStudy : virtualStudiesById.values()) {
+      virtualStudy.ifPresent(virtualStudies::add);
+    }
+    return virtualStudies;
   }
 
   /**
@@ -139,6 +252,13 @@ public class SessionServiceRequestHandler {
     basicDBObject.put(
         "data.users", Pattern.compile(Pattern.quote(username), Pattern.CASE_INSENSITIVE));
 
+    List<VirtualStudy> virtualStudies =
+        fetchVirtualStudies(basicDBObject, "getVirtualStudiesAccessibleToUser");
+    virtualStudies.forEach(this::cacheVirtualStudy);
+    return virtualStudies;
+  }
+
+  private List<VirtualStudy> fetchVirtualStudies(BasicDBObject queryDBObject, String operation) {
     String url =
         UriComponentsBuilder.fromUriString(sessionServiceURL)
             .pathSegment("virtual_study")
@@ -148,12 +268,14 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<List<VirtualStudy>> responseEntity =
-        new RestTemplate()
-            .exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<>(basicDBObject.toString(), getHttpHeaders()),
-                new ParameterizedTypeReference<>() {});
+        timed(
+            operation,
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(queryDBObject.toString(), getHttpHeaders()),
+                    new ParameterizedTypeReference<List<VirtualStudy>>() {}));
 
     return responseEntity.getBody();
   }
@@ -173,14 +295,20 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<VirtualStudy> responseEntity =
-        new RestTemplate()
-            .exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<>(virtualStudyData, getHttpHeaders()),
-                new ParameterizedTypeReference<>() {});
+        timed(
+            "createVirtualStudy",
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(virtualStudyData, getHttpHeaders()),
+                    new ParameterizedTypeReference<VirtualStudy>() {}));
 
-    return responseEntity.getBody();
+    VirtualStudy virtualStudy = responseEntity.getBody();
+    if (virtualStudy != null && virtualStudy.getId() != null) {
+      virtualStudyCache.invalidate(virtualStudy.getId());
+    }
+    return virtualStudy;
   }
 
   /**
@@ -209,7 +337,16 @@ public class SessionServiceRequestHandler {
             .build()
             .toUriString();
 
-    new RestTemplate().put(url, new HttpEntity<>(virtualStudy.getData(), getHttpHeaders()));
+    try {
+      timed(
+          "updateVirtualStudy",
+          () -> {
+            restTemplate.put(url, new HttpEntity<>(virtualStudy.getData(), getHttpHeaders()));
+            return null;
+          });
+    } finally {
+      virtualStudyCache.invalidate(virtualStudy.getId());
+    }
   }
 
   private List<PageSettings> getPageSettingsForUser(
@@ -236,12 +373,14 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<List<PageSettings>> responseEntity =
-        new RestTemplate()
-            .exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<String>(queryDBObject.toString(), getHttpHeaders()),
-                new ParameterizedTypeReference<List<PageSettings>>() {});
+        timed(
+            "getPageSettingsForUser",
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<String>(queryDBObject.toString(), getHttpHeaders()),
+                    new ParameterizedTypeReference<List<PageSettings>>() {}));
 
     return responseEntity.getBody();
   }
@@ -260,8 +399,6 @@ public class SessionServiceRequestHandler {
 
     BasicDBObject queryDBObject = new BasicDBObject(QUERY_OPERATOR_AND, basicDBObjects);
 
-    RestTemplate restTemplate = new RestTemplate();
-
     HttpEntity<String> httpEntity = new HttpEntity<>(queryDBObject.toString(), getHttpHeaders());
 
     String url =
@@ -273,11 +410,14 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<List<VirtualStudy>> responseEntity =
-        restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            httpEntity,
-            new ParameterizedTypeReference<List<VirtualStudy>>() {});
+        timed(
+            "getVirtualStudiesForUser",
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    httpEntity,
+                    new ParameterizedTypeReference<List<VirtualStudy>>() {}));
 
     return responseEntity.getBody();
   }
@@ -287,8 +427,6 @@ public class SessionServiceRequestHandler {
     basicDBObject.put(
         "data.users", Pattern.compile(Pattern.quote(username), Pattern.CASE_INSENSITIVE));
 
-    RestTemplate restTemplate = new RestTemplate();
-
     HttpEntity<String> httpEntity = new HttpEntity<>(basicDBObject.toString(), getHttpHeaders());
 
     String url =
@@ -300,11 +438,14 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<List<CustomGeneList>> responseEntity =
-        restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            httpEntity,
-            new ParameterizedTypeReference<List<CustomGeneList>>() {});
+        timed(
+            "getCustomGeneListsForUser",
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    httpEntity,
+                    new ParameterizedTypeReference<List<CustomGeneList>>() {}));
 
     return responseEntity.getBody();
   }
@@ -322,8 +463,6 @@ public class SessionServiceRequestHandler {
 
     BasicDBObject queryDBObject = new BasicDBObject(QUERY_OPERATOR_AND, basicDBObjects);
 
-    RestTemplate restTemplate = new RestTemplate();
-
     HttpEntity<String> httpEntity = new HttpEntity<>(queryDBObject.toString(), getHttpHeaders());
 
     String url =
@@ -335,18 +474,20 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<List<CustomDataSession>> responseEntity =
-        restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            httpEntity,
-            new ParameterizedTypeReference<List<CustomDataSession>>() {});
+        timed(
+            "getCustomDataSessionForUser",
+            () ->
+                restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    httpEntity,
+                    new ParameterizedTypeReference<List<CustomDataSession>>() {}));
 
     return responseEntity.getBody();
   }
 
   public <T extends Serializable> ResponseEntity<Session> createSession(
       SessionType type, T payload) {
-    RestTemplate restTemplate = new RestTemplate();
     HttpEntity<?> httpEntity = new HttpEntity<>(payload, getHttpHeaders());
 
     String url =
@@ -356,13 +497,19 @@ public class SessionServiceRequestHandler {
             .toUriString();
 
     ResponseEntity<Session> responseEntity =
-        restTemplate.exchange(url, HttpMethod.POST, httpEntity, Session.class);
+        timed(
+            "createSession",
+            () -> restTemplate.exchange(url, HttpMethod.POST, httpEntity, Session.class));
+    if (type == SessionType.virtual_study
+        && responseEntity.getBody() != null
+        && responseEntity.getBody().getId() != null) {
+      virtualStudyCache.invalidate(responseEntity.getBody().getId());
+    }
 
     return new ResponseEntity<>(responseEntity.getBody(), responseEntity.getStatusCode());
   }
 
   public <T extends Serializable> void updateUsers(SessionType type, String id, T payload) {
-    RestTemplate restTemplate = new RestTemplate();
     HttpEntity<?> httpEntity = new HttpEntity<>(payload, getHttpHeaders());
 
     String url =
@@ -372,11 +519,21 @@ public class SessionServiceRequestHandler {
             .build()
             .toUriString();
 
-    restTemplate.put(url, httpEntity);
+    try {
+      timed(
+          "updateUsers",
+          () -> {
+            restTemplate.put(url, httpEntity);
+            return null;
+          });
+    } finally {
+      if (type == SessionType.virtual_study) {
+        virtualStudyCache.invalidate(id);
+      }
+    }
   }
 
   public void updatePageSettings(SessionType type, String id, PageSettingsData body) {
-    RestTemplate restTemplate = new RestTemplate();
     HttpEntity<Object> httpEntity = new HttpEntity<>(body, getHttpHeaders());
 
     String url =
@@ -386,7 +543,12 @@ public class SessionServiceRequestHandler {
             .build()
             .toUriString();
 
-    restTemplate.put(url, httpEntity);
+    timed(
+        "updatePageSettings",
+        () -> {
+          restTemplate.put(url, httpEntity);
+          return null;
+        });
   }
 
   public PageSettings getRecentlyUpdatePageSettings(
@@ -401,35 +563,76 @@ public class SessionServiceRequestHandler {
   }
 
   /**
-   * Gets virtual study by id if exists
+   * Gets virtual study by id if exists, through the same cache and query as {@link
+   * #getVirtualStudiesByIds(Collection)}
    *
    * @param id - id of the virtual study to read
    * @return virtual study or empty if not found
    */
   public Optional<VirtualStudy> getVirtualStudyByIdIfExists(String id) {
-    RestTemplate restTemplate = new RestTemplate();
-    restTemplate.setErrorHandler(
-        new DefaultResponseErrorHandler() {
-          @Override
-          public boolean hasError(ClientHttpResponse response) throws IOException {
-            return response.getStatusCode().is5xxServerError();
-          }
-        });
+    return getVirtualStudiesByIds(List.of(id)).stream().findFirst();
+  }
 
-    String url =
-        UriComponentsBuilder.fromUriString(sessionServiceURL)
-            .pathSegment("virtual_study")
-            .pathSegment(id)
-            .build()
-            .toUriString();
+  public SessionServiceStatistics getStatistics() {
+    List<SessionServiceStatistics.OperationStatistics> operations = new ArrayList<>();
+    latencies.forEach((operation, latency) -> operations.add(latency.getStatistics(operation)));
+    operations.sort(Comparator.comparing(SessionServiceStatistics.OperationStatistics::operation));
+    CacheStats cacheStats = virtualStudyCache.stats();
+    return new SessionServiceStatistics(
+        operations, virtualStudyCache.size(), cacheStats.hitCount(), cacheStats.missCount());
+  }
 
-    ResponseEntity<VirtualStudy> responseEntity =
-        restTemplate.exchange(
-            url, HttpMethod.GET, new HttpEntity<>(getHttpHeaders()), VirtualStudy.class);
-    return responseEntity.getStatusCode().is4xxClientError()
-            || responseEntity.getBody() == null
-            || responseEntity.getBody().getId() == null
-        ? Optional.empty()
-        : Optional.ofNullable(responseEntity.getBody());
+  private void cacheVirtualStudy(VirtualStudy virtualStudy) {
+    virtualStudyCache.put(virtualStudy.getId(), Optional.of(copyOf(virtualStudy)));
+  }
+
+  /** Callers modify the virtual studies they get, so the cache only hands out copies. */
+  private VirtualStudy copyOf(VirtualStudy virtualStudy) {
+    try {
+      return VIRTUAL_STUDY_MAPPER.readValue(
+          VIRTUAL_STUDY_MAPPER.writeValueAsString(virtualStudy), VirtualStudy.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not copy virtual study " + virtualStudy.getId(), e);
+    }
+  }
+
+  private <T> T timed(String operation, Supplier<T> request) {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      T result = request.get();
+      failed = false;
+      return result;
+    } finally {
+      latencies
+          .computeIfAbsent(operation, key -> new OperationLatency())
+          .record(System.nanoTime() - start, failed);
+    }
+  }
+
+  private static class OperationLatency {
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos, boolean failed) {
+      requestCount.increment();
+      if (failed) {
+        errorCount.increment();
+      }
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    SessionServiceStatistics.OperationStatistics getStatistics(String operation) {
+      long requests = requestCount.sum();
+      return new SessionServiceStatistics.OperationStatistics(
+          operation,
+          requests,
+          errorCount.sum(),
+          requests == 0 ? 0 : totalNanos.sum() / 1e6 / requests,
+          maxNanos.get() / 1e6);
+    }
   }
 }
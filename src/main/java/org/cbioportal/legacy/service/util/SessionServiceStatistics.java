@@ -0,0 +1,26 @@
+package org.cbioportal.legacy.service.util;
+
+import java.util.List;
+
+/**
+ * Point-in-time snapshot of the requests made by {@link SessionServiceRequestHandler}.
+ *
+ * @param virtualStudyCacheHitCount number of virtual study lookups answered without a request to
+ *     the session service
+ */
+public record SessionServiceStatistics(
+    List<OperationStatistics> operations,
+    long virtualStudyCacheSize,
+    long virtualStudyCacheHitCount,
+    long virtualStudyCacheMissCount) {
+
+  /**
+   * @param errorCount number of requests that failed with an exception
+   */
+  public record OperationStatistics(
+      String operation,
+      long requestCount,
+      long errorCount,
+      double meanLatencyMillis,
+      double maxLatencyMillis) {}
+}
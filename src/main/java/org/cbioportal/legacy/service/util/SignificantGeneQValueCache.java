@@ -0,0 +1,172 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.cbioportal.legacy.model.Gistic;
+import org.cbioportal.legacy.model.GisticToGene;
+import org.cbioportal.legacy.model.MutSig;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.cbioportal.legacy.persistence.util.TableTimestampWatcher;
+import org.cbioportal.legacy.service.SignificantCopyNumberRegionService;
+import org.cbioportal.legacy.service.SignificantlyMutatedGeneService;
+import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.web.parameter.Projection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Q-values of the significantly mutated genes (MutSig) and of the genes in significant copy number
+ * regions (GISTIC) of a study, keyed by Hugo gene symbol. The study view gene tables annotate their
+ * rows with these values on every request, while they only change when a study is imported, so
+ * only the q-values are kept per study instead of loading the MutSig and GISTIC records each time.
+ *
+ * <p>The cache is bounded by the total number of genes it holds. Entries are dropped for a study
+ * when its caches are cleared after an import, and for all studies when the import timestamps of
+ * the mut_sig or gistic tables change, see {@link TableTimestampWatcher}.
+ */
+@Component
+public class SignificantGeneQValueCache {
+
+  private static final List<String> TABLES = Arrays.asList("mut_sig", "gistic", "gistic_to_gene");
+
+  private final SignificantlyMutatedGeneService significantlyMutatedGeneService;
+  private final SignificantCopyNumberRegionService significantCopyNumberRegionService;
+
+  private final Cache<String, Map<String, BigDecimal>> mutSigQValues;
+  private final Cache<String, GisticQValues> gisticQValues;
+  private final TableTimestampWatcher timestampWatcher;
+
+  public SignificantGeneQValueCache(
+      SignificantlyMutatedGeneService significantlyMutatedGeneService,
+      SignificantCopyNumberRegionService significantCopyNumberRegionService,
+      StaticDataTimeStampRepository staticDataTimeStampRepository,
+      @Value("${significant_gene.cache.max_genes:1000000}") long maxGenes,
+      @Value("${significant_gene.cache.expire_after_write_mins:1440}")
+          long expireAfterWriteMinutes,
+      @Value("${significant_gene.cache.timestamp_check_interval_seconds:60}")
+          long timestampCheckIntervalSeconds) {
+    this.significantlyMutatedGeneService = significantlyMutatedGeneService;
+    this.significantCopyNumberRegionService = significantCopyNumberRegionService;
+    this.mutSigQValues =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxGenes / 2)
+            .<String, Map<String, BigDecimal>>weigher((studyId, qValues) -> 1 + qValues.size())
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+    this.gisticQValues =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxGenes / 2)
+            .<String, GisticQValues>weigher((studyId, qValues) -> 1 + qValues.size())
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+    this.timestampWatcher =
+        new TableTimestampWatcher(
+            staticDataTimeStampRepository, TABLES, timestampCheckIntervalSeconds);
+  }
+
+  /**
+   * @return MutSig q-values of the study by Hugo gene symbol, empty if the study has no MutSig data
+   */
+  public Map<String, BigDecimal> getMutSigQValues(String studyId) throws StudyNotFoundException {
+    return get(mutSigQValues, studyId, () -> loadMutSigQValues(studyId));
+  }
+
+  /**
+   * @return GISTIC q-values of the study, empty if the study has no GISTIC data
+   */
+  public GisticQValues getGisticQValues(String studyId) throws StudyNotFoundException {
+    return get(gisticQValues, studyId, () -> loadGisticQValues(studyId));
+  }
+
+  public void invalidate(String studyId) {
+    mutSigQValues.invalidate(studyId);
+    gisticQValues.invalidate(studyId);
+  }
+
+  public void invalidateAll() {
+    mutSigQValues.invalidateAll();
+    gisticQValues.invalidateAll();
+  }
+
+  private <V> V get(Cache<String, V> cache, String studyId, Callable<V> loader)
+      throws StudyNotFoundException {
+    invalidateIfStale();
+    try {
+      return cache.get(studyId, loader);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof StudyNotFoundException studyNotFoundException) {
+        throw studyNotFoundException;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private Map<String, BigDecimal> loadMutSigQValues(String studyId)
+      throws StudyNotFoundException {
+    Map<String, BigDecimal> qValues = new HashMap<>();
+    for (MutSig mutSig :
+        significantlyMutatedGeneService.getSignificantlyMutatedGenes(
+            studyId, Projection.SUMMARY.name(), null, null, null, null)) {
+      if (mutSig.getqValue() != null) {
+        qValues.put(mutSig.getHugoGeneSymbol(), mutSig.getqValue());
+      }
+    }
+    return qValues;
+  }
+
+  private GisticQValues loadGisticQValues(String studyId) throws StudyNotFoundException {
+    Map<String, BigDecimal> amplified = new HashMap<>();
+    Map<String, BigDecimal> deleted = new HashMap<>();
+    for (Gistic gistic :
+        significantCopyNumberRegionService.getSignificantCopyNumberRegions(
+            studyId, Projection.SUMMARY.name(), null, null, null, null)) {
+      Map<String, BigDecimal> qValues = gistic.getAmp() ? amplified : deleted;
+      for (GisticToGene gene : gistic.getGenes()) {
+        // a gene can be in several regions, the lowest q-value is used
+        qValues.merge(gene.getHugoGeneSymbol(), gistic.getqValue(), BigDecimal::min);
+      }
+    }
+    return new GisticQValues(amplified, deleted);
+  }
+
+  private void invalidateIfStale() {
+    if (timestampWatcher.hasChanged()) {
+      invalidateAll();
+    }
+  }
+
+  /** GISTIC q-values of amplified and deleted genes, by Hugo gene symbol. */
+  public record GisticQValues(Map<String, BigDecimal> amplified, Map<String, BigDecimal> deleted) {
+
+    /**
+     * @param alteration 2 for amplifications, -2 for deep deletions
+     * @return the q-value, or null if the gene is not in a significant region of this kind
+     */
+    public BigDecimal get(String hugoGeneSymbol, Integer alteration) {
+      if (alteration == null) {
+        return null;
+      }
+      return switch (alteration) {
+        case 2 -> amplified.get(hugoGeneSymbol);
+        case -2 -> deleted.get(hugoGeneSymbol);
+        default -> null;
+      };
+    }
+
+    public boolean isEmpty() {
+      return amplified.isEmpty() && deleted.isEmpty();
+    }
+
+    private int size() {
+      return amplified.size() + deleted.size();
+    }
+  }
+}
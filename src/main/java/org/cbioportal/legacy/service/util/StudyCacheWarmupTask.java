@@ -0,0 +1,13 @@
+package org.cbioportal.legacy.service.util;
+
+/**
+ * A per study cache that is primed by the startup warm-up for each of the largest {@code
+ * cache.warmup.top_studies} studies, see {@link CacheWarmupTask}.
+ */
+public interface StudyCacheWarmupTask {
+
+  /** Name used in the warm-up log and status, followed by the study id. */
+  String getName();
+
+  void warmUp(String studyId) throws Exception;
+}
@@ -0,0 +1,77 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.cbioportal.shared.util.IntBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the resolved members of dynamic virtual studies as {@link IntBitmap}s of internal sample
+ * ids by study id. Resolving a dynamic virtual study runs all filters of its study view filter,
+ * which is only repeated once the definition changes, the entry expires or the caches are cleared
+ * after an import. The internal ids are mapped back to sample ids by the reader, see {@link
+ * SampleListMembershipCache}.
+ *
+ * <p>The cache is bounded by the approximate memory held by the keys and bitmaps.
+ */
+@Component
+public class VirtualStudySampleCache {
+
+  // approximate size of a String object without its characters
+  private static final int STRING_OVERHEAD_BYTES = 40;
+
+  private final Cache<MembershipKey, Map<String, IntBitmap>> cache;
+
+  public VirtualStudySampleCache(
+      @Value("${virtual_study.sample_cache.max_bytes:100000000}") long maxBytes,
+      @Value("${virtual_study.sample_cache.expire_after_write_mins:60}")
+          long expireAfterWriteMinutes) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .<MembershipKey, Map<String, IntBitmap>>weigher(
+                (key, sampleInternalIdsByStudy) ->
+                    (int) Math.min(Integer.MAX_VALUE, sizeInBytes(key, sampleInternalIdsByStudy)))
+            .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+            .build();
+  }
+
+  /**
+   * @param definition serialized definition the members are resolved from
+   * @param loader resolves the internal sample ids of the members by study id
+   * @return unmodifiable internal sample ids by study id
+   */
+  public Map<String, IntBitmap> get(
+      String virtualStudyId, String definition, Supplier<Map<String, IntBitmap>> loader) {
+    try {
+      return cache.get(
+          new MembershipKey(virtualStudyId, definition), () -> Map.copyOf(loader.get()));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static long sizeInBytes(
+      MembershipKey key, Map<String, IntBitmap> sampleInternalIdsByStudy) {
+    long size = sizeInBytes(key.virtualStudyId()) + sizeInBytes(key.definition());
+    for (Map.Entry<String, IntBitmap> entry : sampleInternalIdsByStudy.entrySet()) {
+      size += sizeInBytes(entry.getKey()) + entry.getValue().sizeInBytes();
+    }
+    return size;
+  }
+
+  private static long sizeInBytes(String value) {
+    return STRING_OVERHEAD_BYTES + 2L * value.length();
+  }
+
+  private record MembershipKey(String virtualStudyId, String definition) {}
+}
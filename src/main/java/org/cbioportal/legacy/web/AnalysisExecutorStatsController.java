@@ -0,0 +1,48 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.shared.concurrent.AnalysisExecutorStatistics;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@Tag(name = "AnalysisExecutorStats", description = " ")
+@Hidden
+@ConditionalOnProperty(name = "analysis.statistics_endpoint_enabled", havingValue = "true")
+public class AnalysisExecutorStatsController {
+
+  @Autowired private AnalysisExecutors analysisExecutors;
+
+  @RequestMapping(
+      value = "/api/analysisExecutorStatistics",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(description = "Get queue depth and saturation of the analysis thread pools")
+  @ApiResponse(
+      responseCode = "200",
+      description = "OK",
+      content =
+          @Content(
+              array =
+                  @ArraySchema(
+                      schema = @Schema(implementation = AnalysisExecutorStatistics.class))))
+  public ResponseEntity<List<AnalysisExecutorStatistics>> getAnalysisExecutorStatistics() {
+    return new ResponseEntity<>(analysisExecutors.getStatistics(), HttpStatus.OK);
+  }
+}
@@ -28,7 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
 @Hidden
 @ConditionalOnProperty(
     name = "persistence.cache_type",
-    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "redis"})
+    havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid", "ehcache-offheap", "redis"})
 public class CacheStatsController {
 
   @Autowired public CacheStatisticsService cacheStatisticsService;
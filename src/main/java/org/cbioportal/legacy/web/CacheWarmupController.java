@@ -0,0 +1,42 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cbioportal.legacy.service.CacheWarmupService;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus;
+import org.cbioportal.legacy.web.config.annotation.InternalApi;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@InternalApi
+@Tag(name = "Cache")
+public class CacheWarmupController {
+
+  @Autowired private CacheWarmupService cacheWarmupService;
+
+  // unlike /api/health/readiness this requires authentication on authenticated portals, since the
+  // task names contain study ids and failed tasks report their exception messages
+  @RequestMapping(
+      value = "/api/health/readiness/details",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(description = "Get the status of each task of the startup cache warm-up")
+  @ApiResponse(
+      responseCode = "200",
+      description = "OK",
+      content = @Content(schema = @Schema(implementation = CacheWarmupStatus.class)))
+  public ResponseEntity<CacheWarmupStatus> getCacheWarmupStatus() {
+    return new ResponseEntity<>(cacheWarmupService.getStatus(), HttpStatus.OK);
+  }
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.cbioportal.legacy.service.ServerStatusService;
+import org.cbioportal.legacy.service.impl.ServerStatusServiceImpl;
 import org.cbioportal.legacy.service.impl.ServerStatusServiceImpl.ServerStatusMessage;
 import org.cbioportal.legacy.web.config.annotation.PublicApi;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,4 +38,24 @@ public class ServerStatusController {
   public ResponseEntity<ServerStatusMessage> getServerStatus() {
     return new ResponseEntity<>(serverStatusService.getServerStatus(), HttpStatus.OK);
   }
+
+  @RequestMapping(
+      value = "/api/health/readiness",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      description =
+          "Get whether the startup cache warm-up has finished, responds with 503 until it has")
+  @ApiResponse(
+      responseCode = "200",
+      description = "OK",
+      content = @Content(schema = @Schema(implementation = ServerStatusMessage.class)))
+  public ResponseEntity<ServerStatusMessage> getReadiness() {
+    ServerStatusMessage readiness = serverStatusService.getReadiness();
+    return new ResponseEntity<>(
+        readiness,
+        ServerStatusServiceImpl.MESSAGE_RUNNING.equals(readiness.getStatus())
+            ? HttpStatus.OK
+            : HttpStatus.SERVICE_UNAVAILABLE);
+  }
 }
@@ -178,12 +178,13 @@ public class SessionServiceController {
       @PathVariable Session.SessionType type, @PathVariable String id) {
 
     try {
+      if (type == Session.SessionType.virtual_study) {
+        // read through the virtual study cache instead of fetching the raw json as well
+        return new ResponseEntity<>(virtualStudyService.getVirtualStudy(id), HttpStatus.OK);
+      }
       String sessionDataJson = sessionServiceRequestHandler.getSessionDataJson(type, id);
       Session session;
       switch (type) {
-        case virtual_study:
-          session = virtualStudyService.getVirtualStudy(id);
-          break;
         case settings:
           session = sessionServiceObjectMapper.readValue(sessionDataJson, PageSettings.class);
           break;
@@ -226,6 +227,26 @@ public class SessionServiceController {
     return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
+  @RequestMapping(value = "/virtual_study/fetch", method = RequestMethod.POST)
+  @ApiResponse(
+      responseCode = "200",
+      description = "OK",
+      content =
+          @Content(array = @ArraySchema(schema = @Schema(implementation = VirtualStudy.class))))
+  public ResponseEntity<List<VirtualStudy>> fetchVirtualStudies(
+      @Size(min = 1, max = PagingConstants.MAX_PAGE_SIZE) @RequestBody List<String> ids) {
+
+    if (sessionServiceRequestHandler.isSessionServiceEnabled()) {
+      try {
+        return new ResponseEntity<>(virtualStudyService.getVirtualStudies(ids), HttpStatus.OK);
+      } catch (Exception exception) {
+        LOG.error("Error occurred", exception);
+        return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+    return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @RequestMapping(value = "/{type}", method = RequestMethod.POST)
   @ApiResponse(
       responseCode = "200",
@@ -0,0 +1,42 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
+import org.cbioportal.legacy.service.util.SessionServiceStatistics;
+import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@Tag(name = "SessionServiceStats", description = " ")
+@Hidden
+@ConditionalOnProperty(name = "session.service.statistics_endpoint_enabled", havingValue = "true")
+public class SessionServiceStatsController {
+
+  @Autowired private SessionServiceRequestHandler sessionServiceRequestHandler;
+
+  @RequestMapping(
+      value = "/api/sessionServiceStatistics",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(description = "Get session service request latencies and virtual study cache hits")
+  @ApiResponse(
+      responseCode = "200",
+      description = "OK",
+      content = @Content(schema = @Schema(implementation = SessionServiceStatistics.class)))
+  public ResponseEntity<SessionServiceStatistics> getSessionServiceStatistics() {
+    return new ResponseEntity<>(sessionServiceRequestHandler.getStatistics(), HttpStatus.OK);
+  }
+}
@@ -1,14 +1,9 @@
 package org.cbioportal.legacy.web.columnar;
 
-import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import org.cbioportal.legacy.model.Binnable;
-import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataBin;
-import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.cbioportal.legacy.model.DataBin;
 import org.cbioportal.legacy.model.GenericAssayDataBin;
@@ -31,6 +26,7 @@ import org.cbioportal.legacy.web.parameter.GenomicDataBinCountFilter;
 import org.cbioportal.legacy.web.parameter.GenomicDataBinFilter;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.BinnableColumn;
 import org.cbioportal.legacy.web.util.DataBinner;
 import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +42,7 @@ import org.springframework.stereotype.Component;
 @Deprecated(forRemoval = true)
 @ConditionalOnProperty(name = "clickhouse_mode", havingValue = "test")
 public class BasicDataBinner {
+
   private final StudyViewColumnarService studyViewColumnarService;
   private final DataBinner dataBinner;
   private final CustomDataFilterUtil customDataFilterUtil;
@@ -66,14 +63,6 @@ public class BasicDataBinner {
     this.studyViewFilterUtil = studyViewFilterUtil;
   }
 
-  // convert from counts to clinical data
-  private List<ClinicalData> convertCountsToData(List<ClinicalDataCount> clinicalDataCounts) {
-    return clinicalDataCounts.stream()
-        .map(NewClinicalDataBinUtil::generateClinicalDataFromClinicalDataCount)
-        .flatMap(Collection::stream)
-        .toList();
-  }
-
   @Cacheable(
       cacheResolver = "generalRepositoryCacheResolver",
       condition = "@cacheEnabledConfig.getEnabled()")
@@ -113,6 +102,8 @@ public class BasicDataBinner {
     StudyViewFilter partialFilter = new StudyViewFilter();
     partialFilter.setStudyIds(studyViewFilter.getStudyIds());
     partialFilter.setSampleIdentifiers(studyViewFilter.getSampleIdentifiers());
+    // the bin layouts of the unfiltered data are cached by study, except for custom data
+    List<String> unfilteredStudyIds = DataBinner.getUnfilteredStudyIds(partialFilter);
 
     // we need to fetch data for the partial filter in order to generate the bins for initial state
     // we use the filtered data to calculate the counts for each bin, we do not regenerate bins for
@@ -127,6 +118,7 @@ public class BasicDataBinner {
           when !customDataService.getCustomDataSessions(uniqueKeys).isEmpty() -> {
         Map<String, CustomDataSession> customDataSessions =
             customDataService.getCustomDataSessions(uniqueKeys);
+        unfilteredStudyIds = null;
         List<SampleIdentifier> unfilteredSampleIdentifiers =
             studyViewColumnarService.getFilteredSamples(partialFilter).stream()
                 .map(
@@ -184,30 +176,23 @@ public class BasicDataBinner {
     }
 
     // TODO ignoring conflictingPatientAttributeIds for now
-    List<ClinicalData> unfilteredClinicalData =
-        convertCountsToData(
-            unfilteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
-    List<ClinicalData> filteredClinicalData =
-        convertCountsToData(
-            filteredClinicalDataCounts.stream().flatMap(c -> c.getCounts().stream()).toList());
-
-    Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId =
-        unfilteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
-
-    Map<String, List<Binnable>> filteredClinicalDataByAttributeId =
-        filteredClinicalData.stream().collect(Collectors.groupingBy(Binnable::getAttrId));
+    Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(unfilteredClinicalDataCounts);
+    Map<String, BinnableColumn> filteredClinicalDataByAttributeId =
+        NewClinicalDataBinUtil.toBinnableColumnsByAttributeId(filteredClinicalDataCounts);
 
     // TODO: need to update attributeDatatypeMap to include patient level data for Generic Assay
     // Profiles
     if (dataBinMethod == DataBinMethod.STATIC) {
-      if (!unfilteredClinicalData.isEmpty()) {
+      if (!unfilteredClinicalDataByAttributeId.isEmpty()) {
         resultDataBins =
             calculateStaticDataBins(
                 dataBinner,
                 dataBinFilters,
                 attributeDatatypeMap,
                 unfilteredClinicalDataByAttributeId,
-                filteredClinicalDataByAttributeId);
+                filteredClinicalDataByAttributeId,
+                unfilteredStudyIds);
       }
     }
     // TODO: need to update attributeDatatypeMap to include patient level data for Generic Assay
@@ -217,7 +202,7 @@ public class BasicDataBinner {
       //  we never use dynamic binning in the frontend because number of bins and the bin ranges can
       // change
       //  each time there is a new filter which makes the frontend implementation complicated
-      if (!filteredClinicalData.isEmpty()) {
+      if (!filteredClinicalDataByAttributeId.isEmpty()) {
         resultDataBins =
             calculateDynamicDataBins(
                 dataBinner,
@@ -306,8 +291,9 @@ public class BasicDataBinner {
       DataBinner dataBinner,
       List<T> dataBinFilters,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId,
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId,
+      List<String> unfilteredStudyIds) {
     List<U> result = new ArrayList<>();
 
     for (T dataBinFilter : dataBinFilters) {
@@ -319,9 +305,10 @@ public class BasicDataBinner {
                 .calculateClinicalDataBins(
                     dataBinFilter,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()),
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()),
                     unfilteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()))
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()),
+                    unfilteredStudyIds)
                 .stream()
                 .map(dataBin -> (U) transform(dataBinFilter, dataBin))
                 .toList();
@@ -337,7 +324,7 @@ public class BasicDataBinner {
       DataBinner dataBinner,
       List<T> dataBinFilters,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId) {
     List<U> result = new ArrayList<>();
 
     for (T dataBinFilter : dataBinFilters) {
@@ -349,7 +336,7 @@ public class BasicDataBinner {
                 .calculateDataBins(
                     dataBinFilter,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        getDataBinFilterUniqueKey(dataBinFilter), emptyList()))
+                        getDataBinFilterUniqueKey(dataBinFilter), BinnableColumn.empty()))
                 .stream()
                 .map(dataBin -> (U) transform(dataBinFilter, dataBin))
                 .toList();
@@ -1,25 +1,25 @@
 package org.cbioportal.legacy.web.columnar.util;
 
-import static java.util.Collections.emptyList;
-
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.cbioportal.legacy.model.Binnable;
-import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataBin;
 import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.ClinicalDataCountItem;
 import org.cbioportal.legacy.model.DataBin;
 import org.cbioportal.legacy.service.util.CustomDataSession;
 import org.cbioportal.legacy.web.parameter.ClinicalDataBinCountFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataBinFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.BinnableColumn;
 import org.cbioportal.legacy.web.util.DataBinner;
 
 @Deprecated(forRemoval = true)
 public class NewClinicalDataBinUtil {
+
   public static StudyViewFilter removeSelfFromFilter(
       ClinicalDataBinCountFilter dataBinCountFilter) {
     List<ClinicalDataBinFilter> attributes = dataBinCountFilter.getAttributes();
@@ -89,8 +89,9 @@ public class NewClinicalDataBinUtil {
       DataBinner dataBinner,
       List<ClinicalDataBinFilter> attributes,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> unfilteredClinicalDataByAttributeId,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> unfilteredClinicalDataByAttributeId,
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId,
+      List<String> unfilteredStudyIds) {
     List<ClinicalDataBin> clinicalDataBins = new ArrayList<>();
 
     for (ClinicalDataBinFilter attribute : attributes) {
@@ -100,9 +101,10 @@ public class NewClinicalDataBinUtil {
                 .calculateClinicalDataBins(
                     attribute,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        attribute.getAttributeId(), emptyList()),
+                        attribute.getAttributeId(), BinnableColumn.empty()),
                     unfilteredClinicalDataByAttributeId.getOrDefault(
-                        attribute.getAttributeId(), emptyList()))
+                        attribute.getAttributeId(), BinnableColumn.empty()),
+                    unfilteredStudyIds)
                 .stream()
                 .map(dataBin -> dataBinToClinicalDataBin(attribute, dataBin))
                 .toList();
@@ -118,7 +120,7 @@ public class NewClinicalDataBinUtil {
       DataBinner dataBinner,
       List<ClinicalDataBinFilter> attributes,
       Map<String, ClinicalDataType> attributeDatatypeMap,
-      Map<String, List<Binnable>> filteredClinicalDataByAttributeId) {
+      Map<String, BinnableColumn> filteredClinicalDataByAttributeId) {
     List<ClinicalDataBin> clinicalDataBins = new ArrayList<>();
 
     for (ClinicalDataBinFilter attribute : attributes) {
@@ -130,7 +132,7 @@ public class NewClinicalDataBinUtil {
                 .calculateDataBins(
                     attribute,
                     filteredClinicalDataByAttributeId.getOrDefault(
-                        attribute.getAttributeId(), emptyList()))
+                        attribute.getAttributeId(), BinnableColumn.empty()))
                 .stream()
                 .map(dataBin -> dataBinToClinicalDataBin(attribute, dataBin))
                 .toList();
@@ -142,32 +144,36 @@ public class NewClinicalDataBinUtil {
   }
 
   /**
-   * Generate a list of ClinicalData from the given data count instance. Size of the generated list
-   * is equal to 'dataCount.count', and each ClinicalData in the list contains the same value
-   * 'dataCount.value'
+   * Group the given data counts by attribute id into columns that can be binned directly.
    *
    * <p>This method improves the performance of the data binning because it allows us to fetch only
    * the clinical data counts data which is a lot more compact and faster to generated than the
    * actual clinical data. We only need the attribute id and the value of the clinical data to
-   * generate data bins. Constructing the clinical data in memory by using clinical data counts
-   * significantly improves the performance, and it also allows us to use the exact same SQL used by
-   * the clinical data counts endpoint.
+   * generate data bins. Each value is kept once together with its count, so the bins are
+   * calculated without creating a ClinicalData instance per sample or patient, and it also allows
+   * us to use the exact same SQL used by the clinical data counts endpoint.
    *
-   * @param dataCount ClinicalDataCount instance containing the count and the value
-   * @return a list of ClinicalData with size 'dataCount.count' and value 'dataCount.value'
+   * @param dataCountItems ClinicalDataCountItem instances containing the counts and the values
+   * @return a column per attribute id, attributes without any data are left out
    */
-  public static List<ClinicalData> generateClinicalDataFromClinicalDataCount(
-      ClinicalDataCount dataCount) {
-    List<ClinicalData> data = new ArrayList<>(dataCount.getCount());
-
-    for (int i = 0; i < dataCount.getCount(); i++) {
-      ClinicalData d = new ClinicalData();
-      d.setAttrId(dataCount.getAttributeId());
-      d.setAttrValue(dataCount.getValue());
-      data.add(d);
+  public static Map<String, BinnableColumn> toBinnableColumnsByAttributeId(
+      List<ClinicalDataCountItem> dataCountItems) {
+    Map<String, List<ClinicalDataCount>> dataCountsByAttributeId = new LinkedHashMap<>();
+
+    for (ClinicalDataCountItem dataCountItem : dataCountItems) {
+      for (ClinicalDataCount dataCount : dataCountItem.getCounts()) {
+        if (dataCount.getCount() > 0) {
+          dataCountsByAttributeId
+              .computeIfAbsent(dataCount.getAttributeId(), key -> new ArrayList<>())
+              .add(dataCount);
+        }
+      }
     }
 
-    return data;
+    Map<String, BinnableColumn> columns = new LinkedHashMap<>();
+    dataCountsByAttributeId.forEach(
+        (attributeId, dataCounts) -> columns.put(attributeId, BinnableColumn.ofCounts(dataCounts)));
+    return columns;
   }
 
   public static ClinicalDataType getDataType(Map.Entry<String, CustomDataSession> entry) {
@@ -0,0 +1,335 @@
+package org.cbioportal.legacy.web.util;
+
+import com.google.common.collect.Range;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+
+/**
+ * Attribute values of a single binnable attribute, classified and parsed once. Numerical values are
+ * kept as doubles, and every value carries a type flag telling whether it is numerical, a special
+ * value (like "&gt;80" or "&lt;=18"), NA or non-numerical.
+ *
+ * <p>BigDecimal instances are only created on demand for the parts of the binning pipeline that
+ * need exact bin boundaries.
+ *
+ * <p>A column can also be built from aggregated (value, count) rows, see {@link #ofCounts}. Each
+ * distinct value is then stored once with its count as weight, and all counts and numerical values
+ * are the same as for the expanded data.
+ */
+public class BinnableColumn {
+
+  private static final byte NUMERICAL = 0;
+  private static final byte GREATER_THAN = 1;
+  private static final byte GREATER_THAN_OR_EQUAL = 2;
+  private static final byte LESS_THAN = 3;
+  private static final byte LESS_THAN_OR_EQUAL = 4;
+  private static final byte NA = 5;
+  private static final byte NON_NUMERICAL = 6;
+  // values like "10PY" after an operator, or numbers surrounded by whitespace
+  private static final byte INVALID = 7;
+
+  private static final String[] OPERATORS = {null, ">", ">=", "<", "<="};
+
+  private static final BinnableColumn EMPTY = ofCounts(Collections.emptyList());
+
+  private final String[] rawValues;
+  private final byte[] types;
+  private final double[] values;
+  // number of occurrences of each value, null when every value occurs once
+  private final int[] weights;
+  private final int numericalCount;
+
+  private List<BigDecimal> numericalValues;
+  private double[] sortedNumericalValues;
+
+  private BinnableColumn(String[] rawValues, byte[] types, double[] values, int[] weights) {
+    this.rawValues = rawValues;
+    this.types = types;
+    this.values = values;
+    this.weights = weights;
+    int count = 0;
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == NUMERICAL) {
+        count += weight(i);
+      }
+    }
+    this.numericalCount = count;
+  }
+
+  public static BinnableColumn of(List<Binnable> clinicalData) {
+    int size = clinicalData.size();
+    String[] rawValues = new String[size];
+    byte[] types = new byte[size];
+    double[] values = new double[size];
+
+    for (int i = 0; i < size; i++) {
+      String value = clinicalData.get(i).getAttrValue();
+      rawValues[i] = value;
+      classify(value, i, types, values);
+    }
+
+    return new BinnableColumn(rawValues, types, values, null);
+  }
+
+  /**
+   * @param dataCounts value counts of a single attribute
+   * @return a column that behaves like a column of the values repeated by their counts
+   */
+  public static BinnableColumn ofCounts(List<ClinicalDataCount> dataCounts) {
+    int size = dataCounts.size();
+    String[] rawValues = new String[size];
+    byte[] types = new byte[size];
+    double[] values = new double[size];
+    int[] weights = new int[size];
+
+    for (int i = 0; i < size; i++) {
+      ClinicalDataCount dataCount = dataCounts.get(i);
+      rawValues[i] = dataCount.getValue();
+      weights[i] = Math.max(0, dataCount.getCount());
+      classify(rawValues[i], i, types, values);
+    }
+
+    return new BinnableColumn(rawValues, types, values, weights);
+  }
+
+  /** A column without values, for attributes that have no data in the cohort. */
+  public static BinnableColumn empty() {
+    return EMPTY;
+  }
+
+  private static void classify(String value, int i, byte[] types, double[] values) {
+    values[i] = Double.NaN;
+
+    if (value == null) {
+      types[i] = INVALID;
+    } else if (NumberUtils.isCreatable(value)) {
+      types[i] = NUMERICAL;
+      values[i] = Double.parseDouble(value);
+    } else {
+      byte operator = parseOperator(value);
+      String stripped = DataBinHelper.stripOperator(value);
+
+      if (operator != NUMERICAL && NumberUtils.isCreatable(stripped)) {
+        types[i] = operator;
+      } else if (DataBinHelper.isNA(value)) {
+        types[i] = NA;
+      } else if (!NumberUtils.isCreatable(stripped)) {
+        types[i] = NON_NUMERICAL;
+      } else {
+        types[i] = INVALID;
+      }
+    }
+  }
+
+  private int weight(int i) {
+    return weights == null ? 1 : weights[i];
+  }
+
+  private static byte parseOperator(String value) {
+    String trimmed = value.trim();
+    if (trimmed.startsWith(">=")) {
+      return GREATER_THAN_OR_EQUAL;
+    } else if (trimmed.startsWith("<=")) {
+      return LESS_THAN_OR_EQUAL;
+    } else if (trimmed.startsWith(">")) {
+      return GREATER_THAN;
+    } else if (trimmed.startsWith("<")) {
+      return LESS_THAN;
+    }
+    return NUMERICAL;
+  }
+
+  /** Number of values, counting each value as often as it occurs. */
+  public int size() {
+    if (weights == null) {
+      return types.length;
+    }
+    int size = 0;
+    for (int weight : weights) {
+      size += weight;
+    }
+    return size;
+  }
+
+  /**
+   * Numerical values in input order. For a column built from value counts the values are returned
+   * in ascending order as {@link SortedValueCounts}, without repeating them.
+   */
+  public List<BigDecimal> getNumericalValues() {
+    if (numericalValues == null) {
+      if (weights == null) {
+        List<BigDecimal> result = new ArrayList<>(numericalCount);
+        for (int i = 0; i < types.length; i++) {
+          if (types[i] == NUMERICAL) {
+            result.add(new BigDecimal(rawValues[i]));
+          }
+        }
+        numericalValues = Collections.unmodifiableList(result);
+      } else {
+        List<BigDecimal> distinctValues = new ArrayList<>();
+        int[] counts = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+          if (types[i] == NUMERICAL) {
+            counts[distinctValues.size()] = weights[i];
+            distinctValues.add(new BigDecimal(rawValues[i]));
+          }
+        }
+        numericalValues = SortedValueCounts.of(distinctValues, counts);
+      }
+    }
+    return numericalValues;
+  }
+
+  /** Numerical values in ascending order. */
+  public double[] getSortedNumericalValues() {
+    if (sortedNumericalValues == null) {
+      double[] result = new double[numericalCount];
+      int index = 0;
+      for (int i = 0; i < types.length; i++) {
+        if (types[i] == NUMERICAL) {
+          for (int n = weight(i); n > 0; n--) {
+            result[index++] = values[i];
+          }
+        }
+      }
+      Arrays.sort(result);
+      sortedNumericalValues = result;
+    }
+    return sortedNumericalValues;
+  }
+
+  /** Number of numerical values within the range, bounds are compared as doubles. */
+  public int countNumericalInRange(Range<BigDecimal> range) {
+    if (weights == null) {
+      return DataBinHelper.countInRange(getSortedNumericalValues(), range);
+    }
+    return ((SortedValueCounts) getNumericalValues()).countInRange(range);
+  }
+
+  /**
+   * @param operator one of "&gt;", "&gt;=", "&lt;" or "&lt;="
+   * @return numbers of the special values with exactly the given operator
+   */
+  public List<BigDecimal> getSpecialValues(String operator) {
+    byte type = (byte) Arrays.asList(OPERATORS).indexOf(operator);
+    List<BigDecimal> result = new ArrayList<>();
+    for (int i = 0; i < types.length; i++) {
+      if (type > NUMERICAL && types[i] == type) {
+        BigDecimal value = new BigDecimal(DataBinHelper.stripOperator(rawValues[i]));
+        for (int n = weight(i); n > 0; n--) {
+          result.add(value);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Special values as open ranges, "&gt;=" and "&lt;=" are treated as "&gt;" and "&lt;". */
+  public List<Range<BigDecimal>> getSpecialRanges() {
+    List<Range<BigDecimal>> result = new ArrayList<>();
+    for (int i = 0; i < types.length; i++) {
+      if (isSpecial(i)) {
+        Range<BigDecimal> range = getSpecialRange(i);
+        for (int n = weight(i); n > 0; n--) {
+          result.add(range);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Number of special values whose range is enclosed by the given range. */
+  public int countSpecialRangesWithin(Range<BigDecimal> range) {
+    int count = 0;
+    for (int i = 0; i < types.length; i++) {
+      if (isSpecial(i) && range.encloses(getSpecialRange(i))) {
+        count += weight(i);
+      }
+    }
+    return count;
+  }
+
+  private boolean isSpecial(int i) {
+    return types[i] >= GREATER_THAN && types[i] <= LESS_THAN_OR_EQUAL;
+  }
+
+  private Range<BigDecimal> getSpecialRange(int i) {
+    return DataBinHelper.calcRange(
+        OPERATORS[types[i]].substring(0, 1),
+        new BigDecimal(DataBinHelper.stripOperator(rawValues[i])));
+  }
+
+  /** Values that are neither numerical, special nor NA, as they appear in the data. */
+  public List<String> getNonNumericalValues() {
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == NON_NUMERICAL) {
+        for (int n = weight(i); n > 0; n--) {
+          result.add(rawValues[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Number of occurrences of each non-numerical value, in the order they first appear. */
+  public Map<String, Integer> getNonNumericalValueCounts() {
+    Map<String, Integer> result = new LinkedHashMap<>();
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == NON_NUMERICAL && weight(i) > 0) {
+        result.merge(rawValues[i], weight(i), Integer::sum);
+      }
+    }
+    return result;
+  }
+
+  /** Number of values marked as "NA", "NAN" or "N/A". */
+  public long countNAs() {
+    long count = 0;
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == NA) {
+        count += weight(i);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @param lowerBound inclusive lower bound, or null
+   * @param upperBound inclusive upper bound, or null
+   * @return a column with only the numerical values within the bounds
+   */
+  public BinnableColumn filterNumerical(BigDecimal lowerBound, BigDecimal upperBound) {
+    double lower = lowerBound == null ? Double.NEGATIVE_INFINITY : lowerBound.doubleValue();
+    double upper = upperBound == null ? Double.POSITIVE_INFINITY : upperBound.doubleValue();
+
+    int size = 0;
+    String[] filteredRawValues = new String[types.length];
+    double[] filteredValues = new double[types.length];
+    int[] filteredWeights = weights == null ? null : new int[types.length];
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == NUMERICAL && values[i] >= lower && values[i] <= upper) {
+        filteredRawValues[size] = rawValues[i];
+        filteredValues[size] = values[i];
+        if (filteredWeights != null) {
+          filteredWeights[size] = weights[i];
+        }
+        size++;
+      }
+    }
+
+    return new BinnableColumn(
+        Arrays.copyOf(filteredRawValues, size),
+        new byte[size],
+        Arrays.copyOf(filteredValues, size),
+        filteredWeights == null ? null : Arrays.copyOf(filteredWeights, size));
+  }
+}
@@ -73,7 +73,8 @@ public class ClinicalDataBinUtil {
         clinicalAttributes,
         binningIds,
         unfilteredSamples,
-        unfilteredData);
+        unfilteredData,
+        DataBinner.getUnfilteredStudyIds(studyViewFilter));
   }
 
   public List<ClinicalDataBin> fetchCustomDataBinCounts(
@@ -105,7 +106,9 @@ public class ClinicalDataBinUtil {
         customDataAttributes,
         unfilteredIds,
         unfilteredSamples,
-        unfilteredData);
+        unfilteredData,
+        // custom data is not part of the studies
+        null);
   }
 
   private List<ClinicalDataBin> createBins(
@@ -116,7 +119,8 @@ public class ClinicalDataBinUtil {
       List<ClinicalAttribute> clinicalAttributes,
       BinningIds unfilteredIds,
       List<SampleIdentifier> unfilteredSampleIds,
-      BinningData<Binnable> unfilteredData) {
+      BinningData<Binnable> unfilteredData,
+      List<String> unfilteredStudyIds) {
     List<SampleIdentifier> filteredSampleIds =
         filterSampleIds(studyViewFilter, unfilteredSampleIds);
 
@@ -145,7 +149,8 @@ public class ClinicalDataBinUtil {
           unfilteredIds.getUniqueSampleKeys(),
           unfilteredIds.getUniquePatientKeys(),
           filteredIds.getUniqueSampleKeys(),
-          filteredIds.getUniquePatientKeys());
+          filteredIds.getUniquePatientKeys(),
+          unfilteredStudyIds);
     } else { // dataBinMethod == DataBinMethod.DYNAMIC
       if (filteredClinicalData.isEmpty()) {
         return emptyList();
@@ -290,7 +295,8 @@ public class ClinicalDataBinUtil {
       List<String> unfilteredUniqueSampleKeys,
       List<String> unfilteredUniquePatientKeys,
       List<String> filteredUniqueSampleKeys,
-      List<String> filteredUniquePatientKeys) {
+      List<String> filteredUniquePatientKeys,
+      List<String> unfilteredStudyIds) {
     List<ClinicalDataBin> clinicalDataBins = new ArrayList<>();
 
     for (ClinicalDataBinFilter attribute : attributes) {
@@ -315,7 +321,8 @@ public class ClinicalDataBinUtil {
                     unfilteredClinicalDataByAttributeId.getOrDefault(
                         attribute.getAttributeId(), emptyList()),
                     filteredIds,
-                    unfilteredIds)
+                    unfilteredIds,
+                    unfilteredStudyIds)
                 .stream()
                 .map(dataBin -> NewClinicalDataBinUtil.dataBinToClinicalDataBin(attribute, dataBin))
                 .toList();
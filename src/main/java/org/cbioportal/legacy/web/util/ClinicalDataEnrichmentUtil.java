@@ -1,17 +1,11 @@
 package org.cbioportal.legacy.web.util;
 
-import com.datumbox.framework.common.dataobjects.AssociativeArray;
-import com.datumbox.framework.common.dataobjects.DataTable2D;
-import com.datumbox.framework.common.dataobjects.FlatDataCollection;
-import com.datumbox.framework.common.dataobjects.TransposeDataCollection;
 import com.datumbox.framework.core.statistics.distributions.ContinuousDistributions;
-import com.datumbox.framework.core.statistics.nonparametrics.independentsamples.Chisquare;
-import com.datumbox.framework.core.statistics.nonparametrics.independentsamples.KruskalWallis;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.function.Supplier;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.cbioportal.legacy.model.ClinicalAttribute;
 import org.cbioportal.legacy.model.ClinicalData;
@@ -22,8 +16,11 @@ import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.service.ClinicalDataService;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisTaskScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 /**
@@ -34,13 +31,17 @@ public class ClinicalDataEnrichmentUtil {
 
   @Autowired private ClinicalDataService clinicalDataService;
   @Autowired private ClinicalAttributeUtil clinicalAttributeUtil;
+  @Autowired private AnalysisExecutors analysisExecutors;
 
   @Value("${comparison.categorical_na_values:NA}")
   private String ComparisonCategoricalNaValuesString;
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   public List<ClinicalDataEnrichment> createEnrichmentsForNumericData(
       List<ClinicalAttribute> attributes, List<List<Sample>> groupedSamples) {
-    List<ClinicalDataEnrichment> clinicalEnrichments = new ArrayList<ClinicalDataEnrichment>();
 
     List<ClinicalAttribute> filteredAttributes =
         attributes.stream()
@@ -70,35 +71,23 @@ public class ClinicalDataEnrichmentUtil {
                         groupSamples))
             .collect(Collectors.toList());
 
-    filteredAttributes.forEach(
+    return evaluateInParallel(
+        filteredAttributes,
         clinicalAttribute -> {
           String attributeId = clinicalAttribute.getAttrId();
-          TransposeDataCollection transposeDataCollection = new TransposeDataCollection();
-          int index = 0;
-          for (Map<String, List<Double>> entry : dataByGroupAndByAttribute) {
-            if (entry.containsKey(attributeId)) {
-              Collection<Object> values =
-                  entry.get(attributeId).stream().collect(Collectors.toList());
-              // add only groups having values
-              if (values.size() > 0) {
-                transposeDataCollection.put(index++, new FlatDataCollection(values));
-              }
-            }
-          }
-
-          Supplier<Stream<Double>> valuesStreamSupplier =
-              () ->
-                  transposeDataCollection.values().stream()
-                      .flatMap(Collection::stream)
-                      .map(x -> (Double) x);
-
-          List<Double> distinctValues =
-              valuesStreamSupplier.get().distinct().collect(Collectors.toList());
+          // add only groups having values
+          double[][] valuesByGroup =
+              dataByGroupAndByAttribute.stream()
+                  .map(entry -> entry.getOrDefault(attributeId, Collections.emptyList()))
+                  .filter(values -> !values.isEmpty())
+                  .map(values -> values.stream().mapToDouble(Double::doubleValue).toArray())
+                  .toArray(double[][]::new);
 
           // perform test only if there are more than one group and
           // there are atleast two distinct values
-          if (transposeDataCollection.keySet().size() > 1 && distinctValues.size() > 1) {
-            double pValue = KruskalWallis.getPvalue(transposeDataCollection);
+          if (valuesByGroup.length > 1 && hasDistinctValues(valuesByGroup)) {
+            double score = ContingencyTableStatistics.kruskalWallisScore(valuesByGroup);
+            double pValue = ContingencyTableStatistics.pValue(score, valuesByGroup.length - 1);
             if (!Double.isNaN(pValue)) { // this happens when all the values are zero
               ClinicalDataEnrichment clinicalEnrichment = new ClinicalDataEnrichment();
               clinicalEnrichment.setClinicalAttribute(clinicalAttribute);
@@ -106,18 +95,21 @@ public class ClinicalDataEnrichmentUtil {
               clinicalEnrichment.setScore(
                   BigDecimal.valueOf(
                       ContinuousDistributions.chisquareInverseCdf(
-                          pValue, transposeDataCollection.keySet().size() - 1)));
+                          pValue, valuesByGroup.length - 1)));
               clinicalEnrichment.setMethod(testName);
-              clinicalEnrichments.add(clinicalEnrichment);
+              return clinicalEnrichment;
             }
           }
+          return null;
         });
-    return clinicalEnrichments;
   }
 
+  @Cacheable(
+      cacheResolver = "generalRepositoryCacheResolver",
+      keyGenerator = "enrichmentKeyGenerator",
+      condition = "@cacheEnabledConfig.getEnabled()")
   public List<ClinicalDataEnrichment> createEnrichmentsForCategoricalData(
       List<ClinicalAttribute> attributes, List<List<Sample>> groupedSamples) {
-    List<ClinicalDataEnrichment> clinicalEnrichments = new ArrayList<ClinicalDataEnrichment>();
 
     List<ClinicalAttribute> filteredAttributes =
         attributes.stream()
@@ -133,67 +125,91 @@ public class ClinicalDataEnrichmentUtil {
             .map(groupSamples -> getClinicalDataCounts(filteredAttributeIds, groupSamples))
             .collect(Collectors.toList());
 
-    filteredAttributes.forEach(
+    return evaluateInParallel(
+        filteredAttributes,
         clinicalAttribute -> {
           String attributeId = clinicalAttribute.getAttrId();
 
           // get counts for all categories in all group for a given attribute
-          List<Map<String, Integer>> categoryCountsByGroup =
+          List<List<ClinicalDataCount>> categoryCountsByGroup =
               dataCountsByGroupAndByAttribute.stream()
                   .map(
-                      e -> {
-                        if (e.containsKey(attributeId)) {
-                          return e.get(attributeId).getCounts().stream()
-                              .collect(
-                                  Collectors.toMap(
-                                      ClinicalDataCount::getValue, ClinicalDataCount::getCount));
-                        }
-                        return new HashMap<String, Integer>();
-                      })
+                      e ->
+                          e.containsKey(attributeId)
+                              ? e.get(attributeId).getCounts()
+                              : Collections.<ClinicalDataCount>emptyList())
                   .collect(Collectors.toList());
 
+          // categories are numbered in hash set order, which keeps the order in which the
+          // chi-squared terms are summed up the same as before
           Set<String> allPossibleCategories =
               categoryCountsByGroup.stream()
-                  .flatMap(x -> x.keySet().stream())
+                  .flatMap(counts -> counts.stream().map(ClinicalDataCount::getValue))
                   .collect(Collectors.toSet());
+          Map<String, Integer> categoryIndexes = new HashMap<>();
+          for (String category : allPossibleCategories) {
+            categoryIndexes.put(category, categoryIndexes.size());
+          }
 
           if (allPossibleCategories.size() > 1) {
-            DataTable2D dataTable = new DataTable2D();
-            int groupIndex = 0;
-            for (Map<String, Integer> groupCategoryCounts : categoryCountsByGroup) {
-              Map<String, Integer> allCategoryCounts =
-                  allPossibleCategories.stream()
-                      .collect(
-                          Collectors.toMap(
-                              category -> category,
-                              category -> {
-                                return groupCategoryCounts.containsKey(category)
-                                    ? groupCategoryCounts.get(category)
-                                    : 0;
-                              }));
-
-              // filter group if all the categories values are 0
-              if (isValidGroupdData(new ArrayList<>(allCategoryCounts.values()))) {
-                AssociativeArray categoryCounts = new AssociativeArray();
-                categoryCounts.putAll(allCategoryCounts);
-                dataTable.put(groupIndex++, categoryCounts);
-              }
-            }
-
-            if (dataTable.size() > 1 && dataTable.isValid()) {
-              double pValue = Chisquare.getPvalue(dataTable);
+            // filter group if all the categories values are 0
+            int[][] counts =
+                categoryCountsByGroup.stream()
+                    .map(
+                        groupCategoryCounts -> {
+                          int[] groupCounts = new int[categoryIndexes.size()];
+                          for (ClinicalDataCount count : groupCategoryCounts) {
+                            groupCounts[categoryIndexes.get(count.getValue())] = count.getCount();
+                          }
+                          return groupCounts;
+                        })
+                    .filter(groupCounts -> Arrays.stream(groupCounts).anyMatch(count -> count != 0))
+                    .toArray(int[][]::new);
+
+            if (counts.length > 1) {
+              double score = ContingencyTableStatistics.chiSquareScore(counts);
+              double pValue =
+                  ContingencyTableStatistics.pValue(
+                      score, (counts.length - 1) * (allPossibleCategories.size() - 1));
               ClinicalDataEnrichment clinicalEnrichment = new ClinicalDataEnrichment();
               clinicalEnrichment.setClinicalAttribute(clinicalAttribute);
               clinicalEnrichment.setpValue(BigDecimal.valueOf(pValue));
-              clinicalEnrichment.setScore(
-                  BigDecimal.valueOf((Double) Chisquare.getScoreValue(dataTable)));
+              clinicalEnrichment.setScore(BigDecimal.valueOf(score));
               clinicalEnrichment.setMethod("Chi-squared Test");
-              clinicalEnrichments.add(clinicalEnrichment);
+              return clinicalEnrichment;
             }
           }
+          return null;
         });
+  }
 
-    return clinicalEnrichments;
+  /**
+   * Runs the test of each attribute as a separate task; attributes without a result are left out.
+   */
+  private List<ClinicalDataEnrichment> evaluateInParallel(
+      List<ClinicalAttribute> attributes,
+      Function<ClinicalAttribute, ClinicalDataEnrichment> test) {
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      List<Future<ClinicalDataEnrichment>> futures = new ArrayList<>();
+      for (ClinicalAttribute attribute : attributes) {
+        futures.add(scope.forkCpu(() -> test.apply(attribute)));
+      }
+      return scope.joinAll(futures).stream()
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private boolean hasDistinctValues(double[][] valuesByGroup) {
+    double first = valuesByGroup[0][0];
+    for (double[] values : valuesByGroup) {
+      for (double value : values) {
+        if (Double.compare(value, first) != 0) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   /**
@@ -305,11 +321,4 @@ public class ClinicalDataEnrichmentUtil {
                 clinicalDataCountItem -> clinicalDataCountItem.getAttributeId(),
                 clinicalDataCountItem -> clinicalDataCountItem));
   }
-
-  // For categorical values, group data is valid if all the values are not 0
-  private boolean isValidGroupdData(List<Integer> values) {
-    return values.stream()
-        .map(value -> (value == 0 ? false : true))
-        .reduce(false, (value1, value2) -> value1 || value2);
-  }
 }
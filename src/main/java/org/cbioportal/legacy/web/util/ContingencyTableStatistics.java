@@ -0,0 +1,126 @@
+package org.cbioportal.legacy.web.util;
+
+import com.datumbox.framework.core.statistics.distributions.ContinuousDistributions;
+import java.util.Arrays;
+
+/**
+ * Chi-squared and Kruskal-Wallis tests on primitive arrays, used for clinical data enrichments.
+ * The statistics are computed the same way as by the datumbox Chisquare and KruskalWallis tests,
+ * without boxing every count and value into their associative arrays.
+ */
+public final class ContingencyTableStatistics {
+
+  private ContingencyTableStatistics() {}
+
+  /**
+   * Pearson's chi-squared statistic of a contingency table, without continuity correction.
+   *
+   * @param counts counts by row (group) and column (category); all rows have the same length
+   */
+  public static double chiSquareScore(int[][] counts) {
+    int columnCount = counts[0].length;
+    double[] rowSums = new double[counts.length];
+    double[] columnSums = new double[columnCount];
+    double total = 0;
+    for (int row = 0; row < counts.length; row++) {
+      for (int column = 0; column < columnCount; column++) {
+        rowSums[row] += counts[row][column];
+        columnSums[column] += counts[row][column];
+        total += counts[row][column];
+      }
+    }
+
+    double score = 0;
+    for (int row = 0; row < counts.length; row++) {
+      for (int column = 0; column < columnCount; column++) {
+        double expected = rowSums[row] * columnSums[column] / total;
+        if (expected == 0) {
+          continue;
+        }
+        double difference = counts[row][column] - expected;
+        score += difference * difference / expected;
+      }
+    }
+    return score;
+  }
+
+  /**
+   * Kruskal-Wallis H statistic, corrected for ties. All values are sorted once and ranked by
+   * binary search; tied values get their average rank.
+   *
+   * @param valuesByGroup values of each group, every group has at least one value
+   * @return H, or NaN when all values are equal
+   */
+  public static double kruskalWallisScore(double[][] valuesByGroup) {
+    int n = 0;
+    for (double[] values : valuesByGroup) {
+      n += values.length;
+    }
+    double[] sortedValues = new double[n];
+    int offset = 0;
+    for (double[] values : valuesByGroup) {
+      System.arraycopy(values, 0, sortedValues, offset, values.length);
+      offset += values.length;
+    }
+    Arrays.sort(sortedValues);
+
+    double tieSum = 0;
+    int start = 0;
+    while (start < n) {
+      int end = upperBound(sortedValues, start, sortedValues[start]);
+      double ties = end - start;
+      tieSum += ties * ties * ties - ties;
+      start = end;
+    }
+
+    double sum = 0;
+    for (double[] values : valuesByGroup) {
+      double rankSum = 0;
+      for (double value : values) {
+        int first = lowerBound(sortedValues, value);
+        int last = upperBound(sortedValues, first, value);
+        // ranks are 1-based, ties share the average of their positions
+        rankSum += (first + 1 + last) / 2.0;
+      }
+      sum += rankSum * rankSum / values.length;
+    }
+    double h = 12.0 / (n * (n + 1.0)) * sum - 3.0 * (n + 1.0);
+    double tieCorrection = 1.0 - tieSum / ((double) n * n * n - n);
+    return h / tieCorrection;
+  }
+
+  // index of the first element that is not less than value
+  private static int lowerBound(double[] sorted, double value) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Double.compare(sorted[middle], value) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  // index of the first element from start on that is greater than value
+  private static int upperBound(double[] sorted, int start, double value) {
+    int low = start;
+    int high = sorted.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Double.compare(sorted[middle], value) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Upper tail probability of the chi-squared distribution. */
+  public static double pValue(double score, int degreesOfFreedom) {
+    return 1.0 - ContinuousDistributions.chisquareCdf(score, degreesOfFreedom);
+  }
+}
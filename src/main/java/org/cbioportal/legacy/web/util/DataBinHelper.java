@@ -1,9 +1,11 @@
 package org.cbioportal.legacy.web.util;
 
+import com.google.common.collect.BoundType;
 import com.google.common.collect.Range;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
@@ -156,9 +158,7 @@ public class DataBinHelper {
         // filter out max and try again
         iqr =
             calcInterquartileRangeApproximation(
-                sortedValues.stream()
-                    .filter(d -> d.compareTo(max) < 0)
-                    .collect(Collectors.toList()));
+                sortedValues.subList(0, indexOfFirst(sortedValues, max, false)));
       }
 
       // if range is still empty use the original q1 and q3 values
@@ -302,15 +302,27 @@ public class DataBinHelper {
     Map<Range<BigDecimal>, DataBin> rangeMap =
         dataBins.stream().collect(Collectors.toMap(DataBinHelper::calcRange, b -> b));
 
-    // TODO complexity here is O(n x m), find a better way to do this
-    for (Range<BigDecimal> range : rangeMap.keySet()) {
-      for (BigDecimal value : values) {
-        // check if the value falls within the data bin range
-        if (range != null && range.contains(value)) {
+    if (values instanceof SortedValueCounts valueCounts) {
+      for (Range<BigDecimal> range : rangeMap.keySet()) {
+        if (range != null) {
           DataBin dataBin = rangeMap.get(range);
-          dataBin.setCount(dataBin.getCount() + 1);
+          dataBin.setCount(dataBin.getCount() + valueCounts.countInRange(range));
         }
       }
+      return;
+    }
+
+    double[] sortedValues = new double[values.size()];
+    for (int i = 0; i < sortedValues.length; i++) {
+      sortedValues[i] = values.get(i).doubleValue();
+    }
+    Arrays.sort(sortedValues);
+
+    for (Range<BigDecimal> range : rangeMap.keySet()) {
+      if (range != null) {
+        DataBin dataBin = rangeMap.get(range);
+        dataBin.setCount(dataBin.getCount() + countInRange(sortedValues, range));
+      }
     }
   }
 
@@ -328,6 +340,70 @@ public class DataBinHelper {
     return calcRange(dataBin.getStart(), startInclusive, dataBin.getEnd(), endInclusive);
   }
 
+  /**
+   * Counts the values within the given range.
+   *
+   * @param sortedValues values in ascending order
+   */
+  public static int countInRange(double[] sortedValues, Range<BigDecimal> range) {
+    int from = 0;
+    int to = sortedValues.length;
+
+    if (range.hasLowerBound()) {
+      from =
+          indexOfFirst(
+              sortedValues,
+              range.lowerEndpoint().doubleValue(),
+              range.lowerBoundType() == BoundType.OPEN);
+    }
+    if (range.hasUpperBound()) {
+      to =
+          indexOfFirst(
+              sortedValues,
+              range.upperEndpoint().doubleValue(),
+              range.upperBoundType() == BoundType.CLOSED);
+    }
+
+    return Math.max(0, to - from);
+  }
+
+  /**
+   * @return index of the first value greater than (or equal to, if not strict) the given key, or
+   *     the length of the array if there is no such value
+   */
+  private static int indexOfFirst(double[] sortedValues, double key, boolean strict) {
+    int low = 0;
+    int high = sortedValues.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedValues[mid] < key || (strict && sortedValues[mid] == key)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @return index of the first value greater than (or equal to, if not strict) the given key, or
+   *     the size of the list if there is no such value
+   */
+  public static int indexOfFirst(List<BigDecimal> sortedValues, BigDecimal key, boolean strict) {
+    int low = 0;
+    int high = sortedValues.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int comparison = sortedValues.get(mid).compareTo(key);
+      if (comparison < 0 || (strict && comparison == 0)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
   public static Range<BigDecimal> calcRange(String operator, BigDecimal value) {
     boolean startInclusive = ">=".equals(operator);
     BigDecimal start = operator.contains(">") ? value : null;
@@ -419,6 +495,10 @@ public class DataBinHelper {
       DataBin numericalBin, List<BigDecimal> numericalValues) {
     Range<BigDecimal> range = calcRange(numericalBin);
 
+    if (numericalValues instanceof SortedValueCounts valueCounts) {
+      numericalValues = valueCounts.distinctValues();
+    }
+
     return numericalValues.stream().filter(range::contains).collect(Collectors.toSet());
   }
 
@@ -520,11 +600,21 @@ public class DataBinHelper {
     return bins;
   }
 
-  private BigDecimal min(List<BigDecimal> numericalValues) {
-    return numericalValues.size() > 0 ? Collections.min(numericalValues) : null;
+  public static BigDecimal min(List<BigDecimal> numericalValues) {
+    if (numericalValues.isEmpty()) {
+      return null;
+    }
+    return numericalValues instanceof SortedValueCounts
+        ? numericalValues.get(0)
+        : Collections.min(numericalValues);
   }
 
-  private BigDecimal max(List<BigDecimal> numericalValues) {
-    return numericalValues.size() > 0 ? Collections.max(numericalValues) : null;
+  public static BigDecimal max(List<BigDecimal> numericalValues) {
+    if (numericalValues.isEmpty()) {
+      return null;
+    }
+    return numericalValues instanceof SortedValueCounts valueCounts
+        ? valueCounts.max()
+        : Collections.max(numericalValues);
   }
 }
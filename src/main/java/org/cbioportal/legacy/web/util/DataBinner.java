@@ -1,29 +1,83 @@
 package org.cbioportal.legacy.web.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Range;
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.cbioportal.legacy.model.Binnable;
 import org.cbioportal.legacy.model.DataBin;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.cbioportal.legacy.persistence.util.TableTimestampWatcher;
 import org.cbioportal.legacy.web.parameter.BinsGeneratorConfig;
 import org.cbioportal.legacy.web.parameter.ClinicalDataBinFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.DataBinFilter;
+import org.cbioportal.legacy.web.parameter.GenericAssayDataBinFilter;
+import org.cbioportal.legacy.web.parameter.GenomicDataBinFilter;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DataBinner {
   private static final Integer DEFAULT_DISTINCT_VALUE_THRESHOLD = 10;
+  private static final int UNFILTERED_BIN_LAYOUT_CACHE_SIZE = 5000;
+  // tables of the binned clinical, genomic and generic assay data
+  private static final List<String> BINNED_DATA_TABLES =
+      Arrays.asList(
+          "clinical_sample", "clinical_patient", "sample", "genetic_alteration", "genetic_profile");
+
+  // Bin layouts of the unfiltered data of a set of studies only depend on the bin settings, so they
+  // are computed once and reused until the data of the studies is imported again.
+  private final Cache<BinLayoutKey, List<DataBin>> unfilteredBinLayouts =
+      CacheBuilder.newBuilder()
+          .maximumSize(UNFILTERED_BIN_LAYOUT_CACHE_SIZE)
+          .expireAfterAccess(1, TimeUnit.HOURS)
+          .build();
 
   @Autowired private DiscreteDataBinner discreteDataBinner;
   @Autowired private LinearDataBinner linearDataBinner;
   @Autowired private ScientificSmallDataBinner scientificSmallDataBinner;
   @Autowired private LogScaleDataBinner logScaleDataBinner;
 
+  // not available in contexts without a database, the layouts then only expire
+  @Autowired(required = false)
+  private StaticDataTimeStampRepository staticDataTimeStampRepository;
+
+  @Value("${data_binner.bin_layout_cache.timestamp_check_interval_seconds:60}")
+  private long timestampCheckIntervalSeconds;
+
+  private TableTimestampWatcher timestampWatcher;
+
+  @PostConstruct
+  void initTimestampWatcher() {
+    if (staticDataTimeStampRepository != null) {
+      timestampWatcher =
+          new TableTimestampWatcher(
+              staticDataTimeStampRepository, BINNED_DATA_TABLES, timestampCheckIntervalSeconds);
+    }
+  }
+
+  /**
+   * @return the studies of the filter if the unfiltered data of a chart is all data of these
+   *     studies, so that its bin layouts can be cached, otherwise null
+   */
+  public static List<String> getUnfilteredStudyIds(StudyViewFilter studyViewFilter) {
+    if (studyViewFilter == null
+        || studyViewFilter.getStudyIds() == null
+        || studyViewFilter.getStudyIds().isEmpty()
+        || (studyViewFilter.getSampleIdentifiers() != null
+            && !studyViewFilter.getSampleIdentifiers().isEmpty())) {
+      return null;
+    }
+    return studyViewFilter.getStudyIds();
+  }
+
   /**
    * This method should only be invoked by legacy endpoints because it requires sample/patient ids.
    *
@@ -37,9 +91,38 @@ public class DataBinner {
       List<Binnable> unfilteredClinicalData,
       List<String> filteredIds,
       List<String> unfilteredIds) {
+    return calculateClinicalDataBins(
+        dataBinFilter,
+        clinicalDataType,
+        filteredClinicalData,
+        unfilteredClinicalData,
+        filteredIds,
+        unfilteredIds,
+        null);
+  }
+
+  /**
+   * This method should only be invoked by legacy endpoints because it requires sample/patient ids.
+   *
+   * @param unfilteredStudyIds see {@link #getUnfilteredStudyIds(StudyViewFilter)}
+   * @deprecated
+   */
+  @Deprecated
+  public <T extends DataBinFilter> List<DataBin> calculateClinicalDataBins(
+      T dataBinFilter,
+      ClinicalDataType clinicalDataType,
+      List<Binnable> filteredClinicalData,
+      List<Binnable> unfilteredClinicalData,
+      List<String> filteredIds,
+      List<String> unfilteredIds,
+      Collection<String> unfilteredStudyIds) {
     // calculate data bins for unfiltered clinical data
     List<DataBin> dataBins =
-        calculateDataBins(dataBinFilter, clinicalDataType, unfilteredClinicalData, unfilteredIds);
+        calculateUnfilteredDataBins(
+            dataBinFilter,
+            BinnableColumn.of(unfilteredClinicalData),
+            calcNaDataBin(unfilteredClinicalData, clinicalDataType, unfilteredIds),
+            unfilteredStudyIds);
 
     // recount
     return recalcBinCount(dataBins, clinicalDataType, filteredClinicalData, filteredIds);
@@ -47,15 +130,38 @@ public class DataBinner {
 
   public <T extends DataBinFilter> List<DataBin> calculateClinicalDataBins(
       T dataBinFilter, List<Binnable> filteredClinicalData, List<Binnable> unfilteredClinicalData) {
+    return calculateClinicalDataBins(
+        dataBinFilter,
+        BinnableColumn.of(filteredClinicalData),
+        BinnableColumn.of(unfilteredClinicalData));
+  }
+
+  public <T extends DataBinFilter> List<DataBin> calculateClinicalDataBins(
+      T dataBinFilter,
+      BinnableColumn filteredClinicalData,
+      BinnableColumn unfilteredClinicalData) {
+    return calculateClinicalDataBins(
+        dataBinFilter, filteredClinicalData, unfilteredClinicalData, null);
+  }
+
+  /**
+   * @param unfilteredStudyIds see {@link #getUnfilteredStudyIds(StudyViewFilter)}
+   */
+  public <T extends DataBinFilter> List<DataBin> calculateClinicalDataBins(
+      T dataBinFilter,
+      BinnableColumn filteredClinicalData,
+      BinnableColumn unfilteredClinicalData,
+      Collection<String> unfilteredStudyIds) {
     // calculate data bins for unfiltered clinical data
     // we need this additional calculation to know the bins generated for the initial state.
     // this allows us to keep the number of bins and bin ranges consistent.
     // we only want to update the counts for each bin, we don't want to regenerate the bins for the
     // filtered data.
-    List<DataBin> dataBins = calculateDataBins(dataBinFilter, unfilteredClinicalData);
+    List<DataBin> dataBins =
+        calculateUnfilteredDataBins(dataBinFilter, unfilteredClinicalData, unfilteredStudyIds);
 
     // recount
-    return recalcBinCount(dataBins, filteredClinicalData, countNAs(filteredClinicalData));
+    return recalcBinCount(dataBins, filteredClinicalData, filteredClinicalData.countNAs());
   }
 
   /**
@@ -75,12 +181,14 @@ public class DataBinner {
 
   public List<DataBin> recalcBinCount(
       List<DataBin> dataBins, List<Binnable> clinicalData, Long naCount) {
-    List<BigDecimal> numericalValues =
-        clinicalData == null ? Collections.emptyList() : filterNumericalValues(clinicalData);
-    List<String> nonNumericalValues =
-        clinicalData == null ? Collections.emptyList() : filterNonNumericalValues(clinicalData);
-    List<Range<BigDecimal>> ranges =
-        clinicalData == null ? Collections.emptyList() : filterSpecialRanges(clinicalData);
+    return recalcBinCount(
+        dataBins, clinicalData == null ? null : BinnableColumn.of(clinicalData), naCount);
+  }
+
+  public List<DataBin> recalcBinCount(
+      List<DataBin> dataBins, BinnableColumn clinicalData, Long naCount) {
+    Map<String, Integer> nonNumericalValueCounts =
+        clinicalData == null ? Collections.emptyMap() : clinicalData.getNonNumericalValueCounts();
 
     for (DataBin dataBin : dataBins) {
       // reset count
@@ -90,21 +198,16 @@ public class DataBinner {
       Range<BigDecimal> range = DataBinHelper.calcRange(dataBin);
 
       if (range != null) {
-        for (BigDecimal value : numericalValues) {
-          if (range.contains(value)) {
-            dataBin.setCount(dataBin.getCount() + 1);
-          }
-        }
-
-        for (Range<BigDecimal> r : ranges) {
-          if (range.encloses(r)) {
-            dataBin.setCount(dataBin.getCount() + 1);
-          }
+        if (clinicalData != null) {
+          // values are sorted, so each bin is counted with two binary searches
+          dataBin.setCount(
+              clinicalData.countNumericalInRange(range)
+                  + clinicalData.countSpecialRangesWithin(range));
         }
       } else { // if no range then it means non numerical data bin
-        for (String value : nonNumericalValues) {
-          if (value.equalsIgnoreCase(dataBin.getSpecialValue())) {
-            dataBin.setCount(dataBin.getCount() + 1);
+        for (Map.Entry<String, Integer> entry : nonNumericalValueCounts.entrySet()) {
+          if (entry.getKey().equalsIgnoreCase(dataBin.getSpecialValue())) {
+            dataBin.setCount(dataBin.getCount() + entry.getValue());
           }
         }
       }
@@ -116,6 +219,68 @@ public class DataBinner {
     return dataBins;
   }
 
+  /**
+   * Bins of the unfiltered data as used by {@link #calculateClinicalDataBins(DataBinFilter,
+   * BinnableColumn, BinnableColumn, Collection)}, before they are counted for the filtered data.
+   *
+   * @param unfilteredStudyIds see {@link #getUnfilteredStudyIds(StudyViewFilter)}
+   */
+  public <T extends DataBinFilter> List<DataBin> calculateUnfilteredDataBins(
+      T dataBinFilter,
+      BinnableColumn unfilteredClinicalData,
+      Collection<String> unfilteredStudyIds) {
+    return calculateUnfilteredDataBins(
+        dataBinFilter,
+        unfilteredClinicalData,
+        calcNaDataBin(unfilteredClinicalData),
+        unfilteredStudyIds);
+  }
+
+  /**
+   * Same as {@link #calculateDataBins(DataBinFilter, List, DataBin, Integer)} with the default
+   * threshold. If the unfiltered data is all data of a set of studies, the resulting layout is
+   * cached by the studies, the binned data and the bin settings, and kept until the data tables
+   * change, see {@link TableTimestampWatcher}. Callers get their own copy of the bins since the
+   * counts are overwritten by {@link #recalcBinCount(List, BinnableColumn, Long)}.
+   */
+  private <T extends DataBinFilter> List<DataBin> calculateUnfilteredDataBins(
+      T dataBinFilter,
+      BinnableColumn unfilteredClinicalData,
+      DataBin naDataBin,
+      Collection<String> unfilteredStudyIds) {
+    if (unfilteredStudyIds == null) {
+      return calculateDataBins(
+          dataBinFilter, unfilteredClinicalData, naDataBin, DEFAULT_DISTINCT_VALUE_THRESHOLD);
+    }
+    if (timestampWatcher != null && timestampWatcher.hasChanged()) {
+      unfilteredBinLayouts.invalidateAll();
+    }
+    BinLayoutKey key =
+        BinLayoutKey.of(dataBinFilter, DEFAULT_DISTINCT_VALUE_THRESHOLD, unfilteredStudyIds);
+    List<DataBin> dataBins = unfilteredBinLayouts.getIfPresent(key);
+    if (dataBins == null) {
+      dataBins =
+          calculateDataBins(
+              dataBinFilter, unfilteredClinicalData, naDataBin, DEFAULT_DISTINCT_VALUE_THRESHOLD);
+      unfilteredBinLayouts.put(key, copyDataBins(dataBins));
+      return dataBins;
+    }
+    return copyDataBins(dataBins);
+  }
+
+  private List<DataBin> copyDataBins(List<DataBin> dataBins) {
+    List<DataBin> copies = new ArrayList<>(dataBins.size());
+    for (DataBin dataBin : dataBins) {
+      DataBin copy = new DataBin();
+      copy.setSpecialValue(dataBin.getSpecialValue());
+      copy.setStart(dataBin.getStart());
+      copy.setEnd(dataBin.getEnd());
+      copy.setCount(dataBin.getCount());
+      copies.add(copy);
+    }
+    return copies;
+  }
+
   /**
    * This method should only be invoked by legacy endpoints because it requires sample/patient ids.
    *
@@ -136,6 +301,15 @@ public class DataBinner {
     return calculateDataBins(dataBinFilter, clinicalData, DEFAULT_DISTINCT_VALUE_THRESHOLD);
   }
 
+  public <T extends DataBinFilter> List<DataBin> calculateDataBins(
+      T dataBinFilter, BinnableColumn clinicalData) {
+    return calculateDataBins(
+        dataBinFilter,
+        clinicalData,
+        calcNaDataBin(clinicalData),
+        DEFAULT_DISTINCT_VALUE_THRESHOLD);
+  }
+
   public <T extends DataBinFilter> List<DataBin> calculateDataBins(
       T dataBinFilter, List<Binnable> clinicalData, Integer distinctValueThreshold) {
     DataBin naDataBin = calcNaDataBin(clinicalData);
@@ -165,6 +339,15 @@ public class DataBinner {
       List<Binnable> clinicalData,
       DataBin naDataBin,
       Integer distinctValueThreshold) {
+    return calculateDataBins(
+        dataBinFilter, BinnableColumn.of(clinicalData), naDataBin, distinctValueThreshold);
+  }
+
+  public <T extends DataBinFilter> List<DataBin> calculateDataBins(
+      T dataBinFilter,
+      BinnableColumn clinicalData,
+      DataBin naDataBin,
+      Integer distinctValueThreshold) {
     boolean numericalOnly = false;
 
     Range<BigDecimal> range =
@@ -172,22 +355,20 @@ public class DataBinner {
             ? Range.all()
             : DataBinHelper.calcRange(dataBinFilter.getStart(), true, dataBinFilter.getEnd(), true);
 
-    if (range.hasUpperBound()) {
-      clinicalData = filterSmallerThanUpperBound(clinicalData, range.upperEndpoint());
-      numericalOnly = true;
-    }
-
-    if (range.hasLowerBound()) {
-      clinicalData = filterBiggerThanLowerBound(clinicalData, range.lowerEndpoint());
+    if (range.hasUpperBound() || range.hasLowerBound()) {
+      clinicalData =
+          clinicalData.filterNumerical(
+              range.hasLowerBound() ? range.lowerEndpoint() : null,
+              range.hasUpperBound() ? range.upperEndpoint() : null);
       numericalOnly = true;
     }
 
     DataBin upperOutlierBin = calcUpperOutlierBin(clinicalData);
     DataBin lowerOutlierBin = calcLowerOutlierBin(clinicalData);
     Collection<DataBin> numericalBins =
-        calcNumericalClinicalDataBins(
+        calcNumericalDataBins(
             dataBinFilter,
-            clinicalData,
+            clinicalData.getNumericalValues(),
             dataBinFilter.getCustomBins(),
             dataBinFilter.getBinMethod(),
             dataBinFilter.getBinsGeneratorConfig(),
@@ -215,12 +396,12 @@ public class DataBinner {
     // convert interval bins to distinct (single value) bins in these cases
     dataBins =
         DataBinHelper.convertToDistinctBins(
-            dataBins, filterNumericalValues(clinicalData), filterSpecialRanges(clinicalData));
+            dataBins, clinicalData.getNumericalValues(), clinicalData.getSpecialRanges());
 
     if (!numericalOnly) {
       // add non numerical and NA data bins
 
-      dataBins.addAll(calcNonNumericalClinicalDataBins(clinicalData));
+      dataBins.addAll(calcNonNumericalDataBins(clinicalData.getNonNumericalValueCounts()));
 
       if (!naDataBin.getCount().equals(0)) {
         dataBins.add(naDataBin);
@@ -231,21 +412,7 @@ public class DataBinner {
   }
 
   public List<Range<BigDecimal>> filterSpecialRanges(List<Binnable> clinicalData) {
-    return clinicalData.stream()
-        .map(Binnable::getAttrValue)
-        .filter(
-            s ->
-                (s.contains(">") || s.contains("<"))
-                    &&
-                    // ignore any invalid values such as >10PY, <20%, etc.
-                    NumberUtils.isCreatable(DataBinHelper.stripOperator(s)))
-        .map(
-            v ->
-                DataBinHelper.calcRange(
-                    // only use "<" or ">" to make sure that we only generate open ranges
-                    DataBinHelper.extractOperator(v).substring(0, 1),
-                    new BigDecimal(DataBinHelper.stripOperator(v))))
-        .collect(Collectors.toList());
+    return BinnableColumn.of(clinicalData).getSpecialRanges();
   }
 
   public Collection<DataBin> calcNonNumericalClinicalDataBins(List<Binnable> clinicalData) {
@@ -254,17 +421,27 @@ public class DataBinner {
 
   public List<String> filterNonNumericalValues(List<Binnable> clinicalData) {
     // filter out numerical values and 'NA's
-    return clinicalData.stream()
-        .map(Binnable::getAttrValue)
-        .filter(
-            s -> !NumberUtils.isCreatable(DataBinHelper.stripOperator(s)) && !DataBinHelper.isNA(s))
-        .collect(Collectors.toList());
+    return BinnableColumn.of(clinicalData).getNonNumericalValues();
   }
 
   public Collection<DataBin> calcNonNumericalDataBins(List<String> nonNumericalValues) {
+    Map<String, Integer> valueCounts = new LinkedHashMap<>();
+    for (String value : nonNumericalValues) {
+      valueCounts.merge(value, 1, Integer::sum);
+    }
+    return calcNonNumericalDataBins(valueCounts);
+  }
+
+  /**
+   * @param nonNumericalValueCounts number of occurrences of each value, in the order the values
+   *     first appear
+   */
+  private Collection<DataBin> calcNonNumericalDataBins(
+      Map<String, Integer> nonNumericalValueCounts) {
     Map<String, DataBin> map = new LinkedHashMap<>();
 
-    for (String value : nonNumericalValues) {
+    for (Map.Entry<String, Integer> entry : nonNumericalValueCounts.entrySet()) {
+      String value = entry.getKey();
       DataBin dataBin =
           map.computeIfAbsent(
               value.trim().toUpperCase(),
@@ -275,7 +452,7 @@ public class DataBinner {
                 return bin;
               });
 
-      dataBin.setCount(dataBin.getCount() + 1);
+      dataBin.setCount(dataBin.getCount() + entry.getValue());
     }
 
     return map.values();
@@ -305,10 +482,7 @@ public class DataBinner {
 
   public List<BigDecimal> filterNumericalValues(List<Binnable> clinicalData) {
     // filter out invalid values
-    return clinicalData.stream()
-        .filter(c -> NumberUtils.isCreatable(c.getAttrValue()))
-        .map(c -> new BigDecimal(c.getAttrValue()))
-        .collect(Collectors.toList());
+    return new ArrayList<>(BinnableColumn.of(clinicalData).getNumericalValues());
   }
 
   public <T extends DataBinFilter> Collection<DataBin> calcNumericalDataBins(
@@ -322,40 +496,34 @@ public class DataBinner {
       Boolean disableLogScale,
       Integer distinctValueThreshold) {
 
-    Predicate<BigDecimal> isLowerOutlier =
-        d ->
-            (lowerOutlierBin != null
-                && lowerOutlierBin.getEnd() != null
-                && (lowerOutlierBin.getSpecialValue() != null
-                        && lowerOutlierBin.getSpecialValue().contains("=")
-                    ? d.compareTo(lowerOutlierBin.getEnd()) != 1
-                    : d.compareTo(lowerOutlierBin.getEnd()) == -1));
-
-    Predicate<BigDecimal> isUpperOutlier =
-        d ->
-            (upperOutlierBin != null
-                && upperOutlierBin.getStart() != null
-                && (upperOutlierBin.getSpecialValue() != null
-                        && upperOutlierBin.getSpecialValue().contains("=")
-                    ? d.compareTo(upperOutlierBin.getStart()) != -1
-                    : d.compareTo(upperOutlierBin.getStart()) == 1));
-
-    Predicate<BigDecimal> isNotOutlier = d -> !isUpperOutlier.test(d) && !isLowerOutlier.test(d);
-
-    List<BigDecimal> sortedNumericalValues = new ArrayList<>(numericalValues);
-    Collections.sort(sortedNumericalValues);
+    // value counts are already sorted and are never expanded, every other list is sorted here
+    List<BigDecimal> sortedNumericalValues;
+    if (numericalValues instanceof SortedValueCounts) {
+      sortedNumericalValues = numericalValues;
+    } else {
+      sortedNumericalValues = new ArrayList<>(numericalValues);
+      Collections.sort(sortedNumericalValues);
+    }
 
     Range<BigDecimal> boxRange = DataBinHelper.calcBoxRange(sortedNumericalValues);
 
-    // remove initial outliers
+    // remove initial outliers, they are a prefix and a suffix of the sorted values
+    int lowerOutlierCount = countLowerOutliers(sortedNumericalValues, lowerOutlierBin);
+    int upperOutlierStart = indexOfUpperOutliers(sortedNumericalValues, upperOutlierBin);
     List<BigDecimal> withoutOutliers =
-        sortedNumericalValues.stream().filter(isNotOutlier).collect(Collectors.toList());
+        sortedNumericalValues.subList(
+            lowerOutlierCount, Math.max(lowerOutlierCount, upperOutlierStart));
+    Set<BigDecimal> uniqueValues;
+    if (withoutOutliers instanceof SortedValueCounts valueCounts) {
+      uniqueValues = new LinkedHashSet<>(valueCounts.distinctValues());
+    } else {
+      withoutOutliers = new ArrayList<>(withoutOutliers);
+      uniqueValues = new LinkedHashSet<>(withoutOutliers);
+    }
 
     // calculate data bins for the rest of the values
     List<DataBin> dataBins = null;
 
-    Set<BigDecimal> uniqueValues = new LinkedHashSet<>(withoutOutliers);
-
     if (0 < uniqueValues.size() && uniqueValues.size() <= distinctValueThreshold) {
       // No data intervals when the number of distinct values less than or equal to the threshold.
       // In this case, number of bins = number of distinct data values
@@ -486,18 +654,17 @@ public class DataBinner {
       }
     }
 
-    // update upper and lower outlier counts
-    List<BigDecimal> upperOutliers =
-        sortedNumericalValues.stream().filter(isUpperOutlier).collect(Collectors.toList());
-    List<BigDecimal> lowerOutliers =
-        sortedNumericalValues.stream().filter(isLowerOutlier).collect(Collectors.toList());
+    // update upper and lower outlier counts (the limits may have been adjusted above)
+    int upperOutlierCount =
+        sortedNumericalValues.size() - indexOfUpperOutliers(sortedNumericalValues, upperOutlierBin);
+    lowerOutlierCount = countLowerOutliers(sortedNumericalValues, lowerOutlierBin);
 
-    if (upperOutliers.size() > 0) {
-      upperOutlierBin.setCount(upperOutlierBin.getCount() + upperOutliers.size());
+    if (upperOutlierCount > 0) {
+      upperOutlierBin.setCount(upperOutlierBin.getCount() + upperOutlierCount);
     }
 
-    if (lowerOutliers.size() > 0) {
-      lowerOutlierBin.setCount(lowerOutlierBin.getCount() + lowerOutliers.size());
+    if (lowerOutlierCount > 0) {
+      lowerOutlierBin.setCount(lowerOutlierBin.getCount() + lowerOutlierCount);
     }
 
     if (dataBins == null) {
@@ -507,46 +674,34 @@ public class DataBinner {
     return dataBins;
   }
 
-  public List<BigDecimal> doubleValuesForSpecialOutliers(
-      List<Binnable> clinicalData, String operator) {
-    return (
-    // find the ones starting with the operator
-    clinicalData.stream()
-        .filter(c -> c.getAttrValue().trim().startsWith(operator))
-        // strip the operator
-        .map(c -> c.getAttrValue().trim().substring(operator.length()))
-        // filter out invalid values
-        .filter(NumberUtils::isCreatable)
-        // parse the numerical value as a BigDecimal instance
-        .map(integer -> new BigDecimal(integer))
-        // collect as list
-        .collect(Collectors.toList()));
-  }
-
-  public List<Binnable> filterSmallerThanUpperBound(List<Binnable> clinicalData, BigDecimal value) {
-    return (clinicalData.stream()
-        .filter(
-            c ->
-                NumberUtils.isCreatable(c.getAttrValue())
-                    && new BigDecimal(c.getAttrValue()).compareTo(value) != 1)
-        .collect(Collectors.toList()));
-  }
-
-  public List<Binnable> filterBiggerThanLowerBound(List<Binnable> clinicalData, BigDecimal value) {
-    return (clinicalData.stream()
-        .filter(
-            c ->
-                NumberUtils.isCreatable(c.getAttrValue())
-                    && new BigDecimal(c.getAttrValue()).compareTo(value) != -1)
-        // collect as list
-        .collect(Collectors.toList()));
+  private static int countLowerOutliers(List<BigDecimal> sortedValues, DataBin lowerOutlierBin) {
+    if (lowerOutlierBin == null || lowerOutlierBin.getEnd() == null) {
+      return 0;
+    }
+    boolean inclusive =
+        lowerOutlierBin.getSpecialValue() != null
+            && lowerOutlierBin.getSpecialValue().contains("=");
+    return DataBinHelper.indexOfFirst(sortedValues, lowerOutlierBin.getEnd(), inclusive);
+  }
+
+  private static int indexOfUpperOutliers(List<BigDecimal> sortedValues, DataBin upperOutlierBin) {
+    if (upperOutlierBin == null || upperOutlierBin.getStart() == null) {
+      return sortedValues.size();
+    }
+    boolean inclusive =
+        upperOutlierBin.getSpecialValue() != null
+            && upperOutlierBin.getSpecialValue().contains("=");
+    return DataBinHelper.indexOfFirst(sortedValues, upperOutlierBin.getStart(), !inclusive);
   }
 
   public DataBin calcUpperOutlierBin(List<Binnable> clinicalData) {
+    return calcUpperOutlierBin(BinnableColumn.of(clinicalData));
+  }
+
+  public DataBin calcUpperOutlierBin(BinnableColumn clinicalData) {
     DataBin dataBin =
         DataBinHelper.calcUpperOutlierBin(
-            doubleValuesForSpecialOutliers(clinicalData, ">="),
-            doubleValuesForSpecialOutliers(clinicalData, ">"));
+            clinicalData.getSpecialValues(">="), clinicalData.getSpecialValues(">"));
 
     // for consistency always set operator to ">"
     dataBin.setSpecialValue(">");
@@ -555,10 +710,13 @@ public class DataBinner {
   }
 
   public DataBin calcLowerOutlierBin(List<Binnable> clinicalData) {
+    return calcLowerOutlierBin(BinnableColumn.of(clinicalData));
+  }
+
+  public DataBin calcLowerOutlierBin(BinnableColumn clinicalData) {
     DataBin dataBin =
         DataBinHelper.calcLowerOutlierBin(
-            doubleValuesForSpecialOutliers(clinicalData, "<="),
-            doubleValuesForSpecialOutliers(clinicalData, "<"));
+            clinicalData.getSpecialValues("<="), clinicalData.getSpecialValues("<"));
 
     // for consistency always set operator to "<="
     dataBin.setSpecialValue("<=");
@@ -635,6 +793,13 @@ public class DataBinner {
     return bin;
   }
 
+  public DataBin calcNaDataBin(BinnableColumn clinicalData) {
+    DataBin bin = initNaDataBin();
+    bin.setCount((int) clinicalData.countNAs());
+
+    return bin;
+  }
+
   public DataBin initNaDataBin() {
     DataBin bin = new DataBin();
     bin.setSpecialValue("NA");
@@ -690,4 +855,58 @@ public class DataBinner {
             ? clinicalData.getPatientId()
             : clinicalData.getSampleId());
   }
+
+  /**
+   * Identifies the bin layout of the unfiltered data of a set of studies: the studies, the binned
+   * attribute, gene or generic assay entity, and all bin settings that influence the layout.
+   */
+  private record BinLayoutKey(
+      Set<String> studyIds,
+      String dataType,
+      String attributeId,
+      DataBinFilter.BinMethod binMethod,
+      List<BigDecimal> customBins,
+      BigDecimal binSize,
+      BigDecimal anchorValue,
+      BigDecimal start,
+      BigDecimal end,
+      Boolean disableLogScale,
+      Integer distinctValueThreshold) {
+
+    static BinLayoutKey of(
+        DataBinFilter dataBinFilter,
+        Integer distinctValueThreshold,
+        Collection<String> studyIds) {
+      BinsGeneratorConfig binsGeneratorConfig = dataBinFilter.getBinsGeneratorConfig();
+      return new BinLayoutKey(
+          new TreeSet<>(studyIds),
+          dataBinFilter.getClass().getSimpleName(),
+          getAttributeId(dataBinFilter),
+          dataBinFilter.getBinMethod(),
+          dataBinFilter.getCustomBins() == null
+              ? null
+              : new ArrayList<>(dataBinFilter.getCustomBins()),
+          binsGeneratorConfig == null ? null : binsGeneratorConfig.getBinSize(),
+          binsGeneratorConfig == null ? null : binsGeneratorConfig.getAnchorValue(),
+          dataBinFilter.getStart(),
+          dataBinFilter.getEnd(),
+          dataBinFilter.getDisableLogScale(),
+          distinctValueThreshold);
+    }
+
+    private static String getAttributeId(DataBinFilter dataBinFilter) {
+      if (dataBinFilter instanceof ClinicalDataBinFilter clinicalDataBinFilter) {
+        return clinicalDataBinFilter.getAttributeId();
+      } else if (dataBinFilter instanceof GenomicDataBinFilter genomicDataBinFilter) {
+        return genomicDataBinFilter.getHugoGeneSymbol()
+            + ":"
+            + genomicDataBinFilter.getProfileType();
+      } else if (dataBinFilter instanceof GenericAssayDataBinFilter genericAssayDataBinFilter) {
+        return genericAssayDataBinFilter.getStableId()
+            + ":"
+            + genericAssayDataBinFilter.getProfileType();
+      }
+      return null;
+    }
+  }
 }
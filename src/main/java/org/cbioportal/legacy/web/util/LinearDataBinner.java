@@ -4,7 +4,6 @@ import com.google.common.collect.Range;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,9 +34,13 @@ public class LinearDataBinner {
       BigDecimal upperOutlier,
       Optional<String> attributeId) {
     BigDecimal min =
-        lowerOutlier == null ? Collections.min(values) : Collections.min(values).max(lowerOutlier);
+        lowerOutlier == null
+            ? DataBinHelper.min(values)
+            : DataBinHelper.min(values).max(lowerOutlier);
     BigDecimal max =
-        upperOutlier == null ? Collections.max(values) : Collections.max(values).min(upperOutlier);
+        upperOutlier == null
+            ? DataBinHelper.max(values)
+            : DataBinHelper.max(values).min(upperOutlier);
 
     List<DataBin> dataBins = initDataBins(areAllIntegers, min, max, lowerOutlier, upperOutlier);
 
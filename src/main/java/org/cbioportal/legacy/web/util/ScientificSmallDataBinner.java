@@ -17,13 +17,7 @@ public class ScientificSmallDataBinner {
       List<BigDecimal> valuesWithoutOutliers,
       BigDecimal lowerOutlier,
       BigDecimal upperOutlier) {
-    List<BigDecimal> exponents =
-        sortedNumericalValues.stream()
-            .map(d -> BigDecimal.valueOf(DataBinHelper.calcExponent(d)))
-            .filter(d -> d.compareTo(new BigDecimal("0")) != 0)
-            .collect(Collectors.toList());
-
-    Collections.sort(exponents);
+    List<BigDecimal> exponents = calcNonZeroExponents(sortedNumericalValues);
 
     Range<BigDecimal> exponentBoxRange = DataBinHelper.calcBoxRange(exponents);
 
@@ -72,4 +66,32 @@ public class ScientificSmallDataBinner {
 
     return DataBinHelper.initDataBins(valuesWithoutOutliers, intervals, lowerOutlier, upperOutlier);
   }
+
+  private List<BigDecimal> calcNonZeroExponents(List<BigDecimal> sortedNumericalValues) {
+    if (sortedNumericalValues instanceof SortedValueCounts valueCounts) {
+      // one exponent per distinct value, weighted by the number of occurrences of the value
+      List<BigDecimal> exponents = new ArrayList<>();
+      List<Integer> counts = new ArrayList<>();
+      valueCounts.forEachDistinctValue(
+          (value, count) -> {
+            Integer exponent = DataBinHelper.calcExponent(value);
+            if (exponent != 0) {
+              exponents.add(BigDecimal.valueOf(exponent));
+              counts.add(count);
+            }
+          });
+      return SortedValueCounts.of(
+          exponents, counts.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    List<BigDecimal> exponents =
+        sortedNumericalValues.stream()
+            .map(d -> BigDecimal.valueOf(DataBinHelper.calcExponent(d)))
+            .filter(d -> d.compareTo(new BigDecimal("0")) != 0)
+            .collect(Collectors.toList());
+
+    Collections.sort(exponents);
+
+    return exponents;
+  }
 }
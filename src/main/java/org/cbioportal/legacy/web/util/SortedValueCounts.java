@@ -0,0 +1,189 @@
+package org.cbioportal.legacy.web.util;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Sorted numerical values stored as distinct values with their number of occurrences, e.g. the
+ * (value, count) rows returned by ClickHouse. The list behaves like the expanded sorted list, so
+ * the index based quantile and outlier calculations of the binners work unchanged, while counting
+ * bins and collecting distinct values only touch the distinct values.
+ *
+ * <p>Values that compare equal but have a different scale (like "2" and "2.0") are kept as separate
+ * runs, in the order they were given, which is the order a stable sort of the expanded values
+ * produces.
+ */
+public final class SortedValueCounts extends AbstractList<BigDecimal> implements RandomAccess {
+
+  private final BigDecimal[] values;
+  private final double[] doubleValues;
+  // ends[i] is the (exclusive) index in the expanded list where the run of values[i] ends
+  private final int[] ends;
+  private final int from;
+  private final int to;
+
+  private SortedValueCounts(
+      BigDecimal[] values, double[] doubleValues, int[] ends, int from, int to) {
+    this.values = values;
+    this.doubleValues = doubleValues;
+    this.ends = ends;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * @param values values in any order
+   * @param counts number of occurrences of each value, values with a count of 0 are ignored
+   */
+  public static SortedValueCounts of(List<BigDecimal> values, int[] counts) {
+    Integer[] order = new Integer[values.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    // stable, so equal values keep their order
+    Arrays.sort(order, Comparator.comparing(values::get));
+
+    BigDecimal[] sortedValues = new BigDecimal[order.length];
+    double[] doubleValues = new double[order.length];
+    int[] ends = new int[order.length];
+    int runs = 0;
+    int size = 0;
+    for (int index : order) {
+      if (counts[index] <= 0) {
+        continue;
+      }
+      size += counts[index];
+      if (runs > 0 && sortedValues[runs - 1].equals(values.get(index))) {
+        ends[runs - 1] = size;
+      } else {
+        sortedValues[runs] = values.get(index);
+        doubleValues[runs] = sortedValues[runs].doubleValue();
+        ends[runs] = size;
+        runs++;
+      }
+    }
+    return new SortedValueCounts(
+        Arrays.copyOf(sortedValues, runs),
+        Arrays.copyOf(doubleValues, runs),
+        Arrays.copyOf(ends, runs),
+        0,
+        size);
+  }
+
+  @Override
+  public BigDecimal get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return values[runOf(from + index)];
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+
+  @Override
+  public SortedValueCounts subList(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(fromIndex + ", " + toIndex);
+    }
+    return new SortedValueCounts(values, doubleValues, ends, from + fromIndex, from + toIndex);
+  }
+
+  /** Each value once, in ascending order. */
+  public List<BigDecimal> distinctValues() {
+    if (size() == 0) {
+      return List.of();
+    }
+    return Arrays.asList(values).subList(runOf(from), runOf(to - 1) + 1);
+  }
+
+  /** Passes each value once, in ascending order, with its number of occurrences. */
+  public void forEachDistinctValue(ObjIntConsumer<BigDecimal> action) {
+    if (size() == 0) {
+      return;
+    }
+    for (int run = runOf(from), last = runOf(to - 1); run <= last; run++) {
+      action.accept(values[run], expandedStart(run + 1) - expandedStart(run));
+    }
+  }
+
+  /** Same as {@link java.util.Collections#max}: the first of the largest values. */
+  public BigDecimal max() {
+    int run = runOf(to - 1);
+    int firstRun = runOf(from);
+    while (run > firstRun && values[run - 1].compareTo(values[run]) == 0) {
+      run--;
+    }
+    return values[run];
+  }
+
+  /**
+   * Same as {@link DataBinHelper#countInRange(double[], Range)} on the expanded values: the bounds
+   * are compared as doubles.
+   */
+  public int countInRange(Range<BigDecimal> range) {
+    int first = runOf(from);
+    int last = size() == 0 ? first : runOf(to - 1) + 1;
+    int lower = first;
+    int upper = last;
+    if (range.hasLowerBound()) {
+      lower =
+          indexOfFirst(
+              first,
+              last,
+              range.lowerEndpoint().doubleValue(),
+              range.lowerBoundType() == BoundType.OPEN);
+    }
+    if (range.hasUpperBound()) {
+      upper =
+          indexOfFirst(
+              first,
+              last,
+              range.upperEndpoint().doubleValue(),
+              range.upperBoundType() == BoundType.CLOSED);
+    }
+    return Math.max(0, expandedStart(upper) - expandedStart(lower));
+  }
+
+  // index in the expanded list where the given run starts, clipped to this slice
+  private int expandedStart(int run) {
+    int start = run == 0 ? 0 : ends[run - 1];
+    return Math.min(Math.max(start, from), to);
+  }
+
+  // run containing the given index of the expanded list
+  private int runOf(int index) {
+    int low = 0;
+    int high = ends.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ends[mid] <= index) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int indexOfFirst(int low, int high, double key, boolean strict) {
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (doubleValues[mid] < key || (strict && doubleValues[mid] == key)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -34,8 +34,8 @@ import org.cbioportal.legacy.model.Mutation;
 import org.cbioportal.legacy.model.MutationFilterOption;
 import org.cbioportal.legacy.model.NamespaceData;
 import org.cbioportal.legacy.model.Sample;
-import org.cbioportal.legacy.model.SampleList;
 import org.cbioportal.legacy.model.UniqueKeyBase;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
 import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.DiscreteCopyNumberService;
 import org.cbioportal.legacy.service.GenePanelService;
@@ -50,6 +50,9 @@ import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.StructuralVariantService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache.StudySampleLists;
+import org.cbioportal.legacy.service.util.StudyCacheWarmupTask;
 import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.DataBinCountFilter;
@@ -72,13 +75,14 @@ import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.cbioportal.legacy.web.util.appliers.StudyViewSubFilterApplier;
+import org.cbioportal.shared.util.IntBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 @Component
-public class StudyViewFilterApplier {
+public class StudyViewFilterApplier implements StudyCacheWarmupTask {
   @Autowired private ApplicationContext applicationContext;
 
   private StudyViewFilterApplier instance;
@@ -106,6 +110,8 @@ public class StudyViewFilterApplier {
   @Autowired private DataBinner dataBinner;
   @Autowired private StructuralVariantService structuralVariantService;
   @Autowired private MolecularProfileUtil molecularProfileUtil;
+  @Autowired private SampleListMembershipCache sampleListMembershipCache;
+  @Autowired private CacheEnabledConfig cacheEnabledConfig;
 
   private StudyViewFilterApplier getInstance() {
     if (Objects.isNull(instance)) {
@@ -123,12 +129,33 @@ public class StudyViewFilterApplier {
         }
       };
 
+  @Override
+  public String getName() {
+    return "studyViewFilter";
+  }
+
+  /**
+   * Loads the sample list members of a study and, when the repository caches are enabled, the
+   * samples of its unfiltered study view.
+   */
+  @Override
+  public void warmUp(String studyId) {
+    getSampleListsByStudy(Collections.singletonList(studyId));
+    if (cacheEnabledConfig.isEnabled()) {
+      StudyViewFilter studyViewFilter = new StudyViewFilter();
+      studyViewFilter.setStudyIds(Collections.singletonList(studyId));
+      apply(studyViewFilter);
+    }
+  }
+
   public List<SampleIdentifier> apply(StudyViewFilter studyViewFilter) {
     return this.getInstance().cachedApply(studyViewFilter);
   }
 
+  // concurrent requests for the same filter wait for the first one instead of applying it as well
   @Cacheable(
       cacheResolver = "generalRepositoryCacheResolver",
+      sync = true,
       condition = "@cacheEnabledConfig.getEnabled()")
   public List<SampleIdentifier> cachedApply(StudyViewFilter studyViewFilter) {
     return this.apply(studyViewFilter, false);
@@ -362,6 +389,9 @@ public class StudyViewFilterApplier {
           genePanelService.fetchGenePanelDataInMultipleMolecularProfiles(
               molecularProfileSampleIdentifiers);
 
+      Map<String, StudySampleLists> sampleListsByStudy = getSampleListsByStudy(studyIds);
+      IntBitmap filteredSampleInternalIds = null;
+
       // gene panel data is { profileId, sampleId, isProfiled   }
       // it tells us whether a particular sample is profiled by a given molecularprofile
       // we can use the gene panel to find out what genes were profiled
@@ -375,49 +405,51 @@ public class StudyViewFilterApplier {
                         molecularProfileSet.getOrDefault(profileValue, new ArrayList<>()).stream())
                 .collect(Collectors.toMap(MolecularProfile::getStableId, Function.identity()));
 
-        Set<SampleIdentifier> filteredSampleIdentifiers = new HashSet<>();
-
         // for each sample/profile combo, we need to find out whether
         // the profileMap contains that profile id
-        genePanelData.forEach(
-            datum -> {
-              if (datum.getProfiled() && profileMap.containsKey(datum.getMolecularProfileId())) {
-                SampleIdentifier sampleIdentifier =
-                    studyViewFilterUtil.buildSampleIdentifier(
-                        datum.getStudyId(), datum.getSampleId());
-                filteredSampleIdentifiers.add(sampleIdentifier);
-              }
-            });
-        sampleIdentifiers.retainAll(filteredSampleIdentifiers);
+        IntBitmap profiledSampleInternalIds =
+            IntBitmap.of(
+                genePanelData.stream()
+                    .filter(
+                        datum ->
+                            datum.getProfiled()
+                                && profileMap.containsKey(datum.getMolecularProfileId()))
+                    .map(
+                        datum ->
+                            getSampleInternalId(
+                                sampleListsByStudy, datum.getStudyId(), datum.getSampleId()))
+                    .filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue)
+                    .toArray());
+        filteredSampleInternalIds =
+            filteredSampleInternalIds == null
+                ? profiledSampleInternalIds
+                : filteredSampleInternalIds.and(profiledSampleInternalIds);
       }
+      sampleIdentifiers =
+          retainSamples(sampleIdentifiers, sampleListsByStudy, filteredSampleInternalIds);
     }
 
     if (!CollectionUtils.isEmpty(studyViewFilter.getCaseLists())) {
-      List<SampleList> sampleLists =
-          sampleListService.getAllSampleListsInStudies(studyIds, Projection.DETAILED.name());
-      Map<String, List<SampleList>> groupedSampleListByListType =
-          studyViewFilterUtil.categorizeSampleLists(sampleLists);
+      Map<String, StudySampleLists> sampleListsByStudy = getSampleListsByStudy(studyIds);
+      IntBitmap filteredSampleInternalIds = null;
 
+      // sample lists of the same group are combined with OR, the groups with AND
       for (List<String> sampleListTypes : studyViewFilter.getCaseLists()) {
-        List<SampleIdentifier> filteredSampleIdentifiers =
-            sampleListTypes.stream()
-                .flatMap(
-                    sampleListType ->
-                        groupedSampleListByListType
-                            .getOrDefault(sampleListType, new ArrayList<>())
-                            .stream()
-                            .flatMap(
-                                sampleList -> {
-                                  return sampleList.getSampleIds().stream()
-                                      .map(
-                                          sampleId ->
-                                              studyViewFilterUtil.buildSampleIdentifier(
-                                                  sampleList.getCancerStudyIdentifier(), sampleId));
-                                }))
-                .toList();
-
-        sampleIdentifiers.retainAll(filteredSampleIdentifiers);
+        IntBitmap sampleListMembers = IntBitmap.empty();
+        for (StudySampleLists studySampleLists : sampleListsByStudy.values()) {
+          for (String sampleListType : sampleListTypes) {
+            sampleListMembers =
+                sampleListMembers.or(studySampleLists.getSampleList(sampleListType));
+          }
+        }
+        filteredSampleInternalIds =
+            filteredSampleInternalIds == null
+                ? sampleListMembers
+                : filteredSampleInternalIds.and(sampleListMembers);
       }
+      sampleIdentifiers =
+          retainSamples(sampleIdentifiers, sampleListsByStudy, filteredSampleInternalIds);
     }
 
     List<MutationDataFilter> mutationOptionDataFilters = new ArrayList<>();
@@ -459,6 +491,44 @@ public class StudyViewFilterApplier {
     return chainSubFilters(studyViewFilter, sampleIdentifiers);
   }
 
+  /**
+   * @return the cached samples and sample lists of the studies, see {@link
+   *     SampleListMembershipCache}
+   */
+  public Map<String, StudySampleLists> getSampleListsByStudy(List<String> studyIds) {
+    return sampleListMembershipCache.getAll(
+        studyIds,
+        missingStudyIds ->
+            StudySampleLists.byStudy(
+                sampleService.getAllSamplesInStudies(
+                    missingStudyIds, Projection.ID.name(), null, null, null, null),
+                sampleListService.getAllSampleListsInStudies(
+                    missingStudyIds, Projection.DETAILED.name())));
+  }
+
+  private Integer getSampleInternalId(
+      Map<String, StudySampleLists> sampleListsByStudy, String studyId, String sampleId) {
+    StudySampleLists studySampleLists = sampleListsByStudy.get(studyId);
+    return studySampleLists == null ? null : studySampleLists.getSampleInternalId(sampleId);
+  }
+
+  private List<SampleIdentifier> retainSamples(
+      List<SampleIdentifier> sampleIdentifiers,
+      Map<String, StudySampleLists> sampleListsByStudy,
+      IntBitmap sampleInternalIds) {
+    return sampleIdentifiers.stream()
+        .filter(
+            sampleIdentifier -> {
+              Integer sampleInternalId =
+                  getSampleInternalId(
+                      sampleListsByStudy,
+                      sampleIdentifier.getStudyId(),
+                      sampleIdentifier.getSampleId());
+              return sampleInternalId != null && sampleInternalIds.contains(sampleInternalId);
+            })
+        .collect(Collectors.toList());
+  }
+
   private List<SampleIdentifier> chainSubFilters(
       StudyViewFilter studyViewFilter, List<SampleIdentifier> sampleIdentifiers) {
     for (StudyViewSubFilterApplier subFilterApplier : subFilterAppliers) {
@@ -947,7 +1017,8 @@ public class StudyViewFilterApplier {
                             unfilteredDataByAttributeId.getOrDefault(
                                 attributeId, Collections.emptyList()),
                             filteredUniqueSampleKeys,
-                            unFilteredUniqueSampleKeys)
+                            unFilteredUniqueSampleKeys,
+                            DataBinner.getUnfilteredStudyIds(filter))
                         .stream()
                         .map(dataBin -> (U) transform(dataBinFilter, dataBin));
                   })
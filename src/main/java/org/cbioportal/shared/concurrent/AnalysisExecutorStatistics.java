@@ -0,0 +1,16 @@
+package org.cbioportal.shared.concurrent;
+
+/**
+ * Point-in-time snapshot of a {@link BoundedAnalysisExecutor}.
+ *
+ * @param saturationCount number of tasks that found the queue full and ran on the submitting
+ *     thread
+ */
+public record AnalysisExecutorStatistics(
+    String name,
+    int poolSize,
+    int activeCount,
+    int queueDepth,
+    int queueCapacity,
+    long completedTaskCount,
+    long saturationCount) {}
@@ -0,0 +1,40 @@
+package org.cbioportal.shared.concurrent;
+
+import java.util.List;
+
+/**
+ * Shared execution resources for analysis endpoints (co-expression, enrichments, violin plots,
+ * custom data lookups). CPU-bound and I/O-bound work run on separate bounded pools so that one
+ * heavy request cannot starve the others, and each request gets its own concurrency budget through
+ * {@link #openScope()}.
+ */
+public class AnalysisExecutors {
+
+  private final BoundedAnalysisExecutor cpuExecutor;
+  private final BoundedAnalysisExecutor ioExecutor;
+  private final int maxConcurrencyPerRequest;
+
+  public AnalysisExecutors(
+      int cpuPoolSize,
+      int cpuQueueCapacity,
+      int ioPoolSize,
+      int ioQueueCapacity,
+      int maxConcurrencyPerRequest) {
+    this.cpuExecutor = new BoundedAnalysisExecutor("analysis-cpu", cpuPoolSize, cpuQueueCapacity);
+    this.ioExecutor = new BoundedAnalysisExecutor("analysis-io", ioPoolSize, ioQueueCapacity);
+    this.maxConcurrencyPerRequest = maxConcurrencyPerRequest;
+  }
+
+  public AnalysisTaskScope openScope() {
+    return new AnalysisTaskScope(cpuExecutor, ioExecutor, maxConcurrencyPerRequest);
+  }
+
+  public List<AnalysisExecutorStatistics> getStatistics() {
+    return List.of(cpuExecutor.getStatistics(), ioExecutor.getStatistics());
+  }
+
+  public void shutdown() {
+    cpuExecutor.shutdown();
+    ioExecutor.shutdown();
+  }
+}
@@ -0,0 +1,156 @@
+package org.cbioportal.shared.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Groups the parallel work of a single request. At most {@code maxConcurrency} tasks forked from
+ * one scope are running or queued at any time; further forks block the forking thread until a
+ * task has finished. All outstanding tasks are cancelled when one of them fails, when the forking
+ * thread is interrupted while forking or joining, or when the scope is closed before its tasks
+ * finished, e.g. because the request failed.
+ *
+ * <p>A client that disconnects does not cancel the tasks: servlet containers such as Tomcat do not
+ * interrupt the request thread in that case, so the request runs to completion and only fails
+ * when the response is written.
+ *
+ * <p>Tasks must not fork into the same scope themselves, since they could then wait on permits
+ * held by their own parent.
+ */
+public class AnalysisTaskScope implements AutoCloseable {
+
+  private final BoundedAnalysisExecutor cpuExecutor;
+  private final BoundedAnalysisExecutor ioExecutor;
+  private final Semaphore permits;
+  private final List<Future<?>> forkedTasks = new ArrayList<>();
+
+  AnalysisTaskScope(
+      BoundedAnalysisExecutor cpuExecutor, BoundedAnalysisExecutor ioExecutor, int maxConcurrency) {
+    this.cpuExecutor = cpuExecutor;
+    this.ioExecutor = ioExecutor;
+    this.permits = new Semaphore(maxConcurrency);
+  }
+
+  /** Fork a computation-heavy task (statistics, correlations, binning). */
+  public <T> Future<T> forkCpu(Callable<T> task) {
+    return fork(cpuExecutor, task);
+  }
+
+  /** Fork a task that mostly waits on the database or a remote service. */
+  public <T> Future<T> forkIo(Callable<T> task) {
+    return fork(ioExecutor, task);
+  }
+
+  public <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelAll();
+      throw new CancellationException("Request was interrupted, analysis tasks cancelled");
+    } catch (ExecutionException e) {
+      cancelAll();
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new RuntimeException("Unexpected exception during execution", cause);
+    }
+  }
+
+  public <T> List<T> joinAll(List<Future<T>> futures) {
+    List<T> results = new ArrayList<>(futures.size());
+    for (Future<T> future : futures) {
+      results.add(join(future));
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    cancelAll();
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private <T> Future<T> fork(BoundedAnalysisExecutor executor, Callable<T> task) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelAll();
+      throw new CancellationException("Request was interrupted, analysis tasks cancelled");
+    }
+    ScopedTask<T> future = new ScopedTask<>(task);
+    synchronized (forkedTasks) {
+      forkedTasks.add(future);
+    }
+    try {
+      executor.execute(future);
+    } catch (RejectedExecutionException e) {
+      future.reject(e);
+      throw e;
+    }
+    return future;
+  }
+
+  private void cancelAll() {
+    synchronized (forkedTasks) {
+      forkedTasks.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /**
+   * Holds one permit until the task has finished running. Cancelling a running task only
+   * interrupts it, so the permit is released by the task itself; only a task that is completed
+   * before it started releases the permit on completion.
+   */
+  private final class ScopedTask<T> extends FutureTask<T> {
+
+    // claimed by whichever comes first, the task starting or the task completing without running
+    private final AtomicBoolean claimed;
+
+    ScopedTask(Callable<T> task) {
+      this(task, new AtomicBoolean());
+    }
+
+    private ScopedTask(Callable<T> task, AtomicBoolean claimed) {
+      super(
+          () -> {
+            if (!claimed.compareAndSet(false, true)) {
+              return null;
+            }
+            try {
+              return task.call();
+            } finally {
+              permits.release();
+            }
+          });
+      this.claimed = claimed;
+    }
+
+    void reject(RejectedExecutionException e) {
+      setException(e);
+    }
+
+    @Override
+    protected void done() {
+      if (claimed.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+  }
+}
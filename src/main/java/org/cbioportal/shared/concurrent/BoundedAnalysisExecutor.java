@@ -0,0 +1,90 @@
+package org.cbioportal.shared.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size, named thread pool with a bounded work queue. When the queue is full the submitting
+ * thread runs the task itself, which throttles the producer instead of growing the queue without
+ * limit. Every such event is counted as a saturation. Once the pool has been shut down, tasks are
+ * rejected with a {@link RejectedExecutionException}.
+ */
+public class BoundedAnalysisExecutor implements Executor {
+
+  private final String name;
+  private final int queueCapacity;
+  private final ThreadPoolExecutor threadPoolExecutor;
+  private final AtomicLong saturationCount = new AtomicLong();
+
+  public BoundedAnalysisExecutor(String name, int poolSize, int queueCapacity) {
+    this.name = name;
+    this.queueCapacity = queueCapacity;
+    this.threadPoolExecutor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new NamedThreadFactory(name),
+            (task, executor) -> {
+              if (executor.isShutdown()) {
+                throw new RejectedExecutionException(name + " has been shut down");
+              }
+              saturationCount.incrementAndGet();
+              task.run();
+            });
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    threadPoolExecutor.execute(task);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public AnalysisExecutorStatistics getStatistics() {
+    return new AnalysisExecutorStatistics(
+        name,
+        threadPoolExecutor.getPoolSize(),
+        threadPoolExecutor.getActiveCount(),
+        threadPoolExecutor.getQueue().size(),
+        queueCapacity,
+        threadPoolExecutor.getCompletedTaskCount(),
+        saturationCount.get());
+  }
+
+  public void shutdown() {
+    // queued tasks never run, so complete them for the threads waiting on their results
+    for (Runnable task : threadPoolExecutor.shutdownNow()) {
+      if (task instanceof Future<?> future) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  private static class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    NamedThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, prefix + "-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
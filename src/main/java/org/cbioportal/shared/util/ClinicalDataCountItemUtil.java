@@ -14,7 +14,7 @@ public abstract class ClinicalDataCountItemUtil {
     return dataCounts.stream()
         .collect(Collectors.groupingBy(ClinicalDataCount::getAttributeId))
         .entrySet()
-        .parallelStream()
+        .stream()
         .map(
             e -> {
               ClinicalDataCountItem item = new ClinicalDataCountItem();
@@ -0,0 +1,40 @@
+package org.cbioportal.shared.util;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.util.List;
+
+/**
+ * SHA-256 digests of large inputs, like a cohort of sample ids, for cache keys that should not
+ * keep the inputs referenced. A collision of two digests is not a practical concern, so equal
+ * digests can be taken for equal inputs.
+ */
+public final class ContentDigest {
+
+  private ContentDigest() {}
+
+  /**
+   * @return digest of the values in the given order; the boundaries of the lists and of the values
+   *     are part of the digest, and null differs from "null"
+   */
+  @SafeVarargs
+  public static HashCode ofSequences(List<String>... sequences) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (List<String> sequence : sequences) {
+      hasher.putInt(sequence.size());
+      for (String value : sequence) {
+        putString(hasher, value);
+      }
+    }
+    return hasher.hash();
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    if (value == null) {
+      hasher.putInt(-1);
+    } else {
+      hasher.putInt(value.length()).putUnencodedChars(value);
+    }
+  }
+}
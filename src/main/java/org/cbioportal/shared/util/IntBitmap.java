@@ -0,0 +1,194 @@
+package org.cbioportal.shared.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of non-negative ints, laid out like a roaring bitmap. Values are split
+ * into chunks of 65536 by their upper 16 bits; sparse chunks keep their lower 16 bits as a sorted
+ * char array (2 bytes per value) and dense chunks as a plain bitmap (8 KB per chunk). Used to keep
+ * large sets of internal sample ids in memory, e.g. the members of the sample lists of a study.
+ */
+public final class IntBitmap implements Serializable {
+
+  // above this many values a bitmap container is smaller than a sorted array
+  private static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+  private static final int BITMAP_CONTAINER_WORDS = 1024;
+
+  private static final IntBitmap EMPTY = new IntBitmap(new char[0], new Object[0], 0);
+
+  private final char[] keys;
+  // char[] or long[] per key
+  private final Object[] containers;
+  private final int cardinality;
+
+  private IntBitmap(char[] keys, Object[] containers, int cardinality) {
+    this.keys = keys;
+    this.containers = containers;
+    this.cardinality = cardinality;
+  }
+
+  public static IntBitmap empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @param values values in any order, duplicates are ignored
+   */
+  public static IntBitmap of(int... values) {
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    int[] sorted = values.clone();
+    Arrays.sort(sorted);
+    if (sorted[0] < 0) {
+      throw new IllegalArgumentException("Negative value " + sorted[0]);
+    }
+
+    int size = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1]) {
+        sorted[size++] = sorted[i];
+      }
+    }
+    return fromSorted(sorted, size);
+  }
+
+  // the first size values must be distinct, non-negative and ascending
+  private static IntBitmap fromSorted(int[] sorted, int size) {
+    if (size == 0) {
+      return EMPTY;
+    }
+    char[] keys = new char[size];
+    Object[] containers = new Object[size];
+    int containerCount = 0;
+    int start = 0;
+    while (start < size) {
+      int key = sorted[start] >>> 16;
+      int end = start;
+      while (end < size && sorted[end] >>> 16 == key) {
+        end++;
+      }
+      keys[containerCount] = (char) key;
+      containers[containerCount] = createContainer(sorted, start, end);
+      containerCount++;
+      start = end;
+    }
+    return new IntBitmap(
+        Arrays.copyOf(keys, containerCount), Arrays.copyOf(containers, containerCount), size);
+  }
+
+  private static Object createContainer(int[] sorted, int start, int end) {
+    if (end - start <= MAX_ARRAY_CONTAINER_SIZE) {
+      char[] container = new char[end - start];
+      for (int i = start; i < end; i++) {
+        container[i - start] = (char) sorted[i];
+      }
+      return container;
+    }
+    long[] container = new long[BITMAP_CONTAINER_WORDS];
+    for (int i = start; i < end; i++) {
+      int low = sorted[i] & 0xFFFF;
+      container[low >>> 6] |= 1L << low;
+    }
+    return container;
+  }
+
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+    if (index < 0) {
+      return false;
+    }
+    int low = value & 0xFFFF;
+    Object container = containers[index];
+    if (container instanceof char[] array) {
+      return Arrays.binarySearch(array, (char) low) >= 0;
+    }
+    return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+  }
+
+  public int cardinality() {
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return cardinality == 0;
+  }
+
+  /** Values in ascending order. */
+  public int[] toArray() {
+    int[] result = new int[cardinality];
+    int size = 0;
+    for (int i = 0; i < keys.length; i++) {
+      int high = keys[i] << 16;
+      Object container = containers[i];
+      if (container instanceof char[] array) {
+        for (char low : array) {
+          result[size++] = high | low;
+        }
+      } else {
+        long[] words = (long[]) container;
+        for (int word = 0; word < words.length; word++) {
+          long bits = words[word];
+          while (bits != 0) {
+            result[size++] = high | (word << 6) | Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  public IntBitmap and(IntBitmap other) {
+    IntBitmap smaller = cardinality <= other.cardinality ? this : other;
+    IntBitmap larger = smaller == this ? other : this;
+    int[] values = smaller.toArray();
+    int size = 0;
+    for (int value : values) {
+      if (larger.contains(value)) {
+        values[size++] = value;
+      }
+    }
+    return fromSorted(values, size);
+  }
+
+  public IntBitmap or(IntBitmap other) {
+    if (other.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      return other;
+    }
+    int[] left = toArray();
+    int[] right = other.toArray();
+    int[] values = new int[left.length + right.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < left.length || j < right.length) {
+      if (j == right.length || (i < left.length && left[i] < right[j])) {
+        values[size++] = left[i++];
+      } else if (i == left.length || right[j] < left[i]) {
+        values[size++] = right[j++];
+      } else {
+        values[size++] = left[i++];
+        j++;
+      }
+    }
+    return fromSorted(values, size);
+  }
+
+  /** Approximate memory held by the containers, used to bound caches of bitmaps. */
+  public long sizeInBytes() {
+    long bytes = 2L * keys.length;
+    for (Object container : containers) {
+      bytes +=
+          container instanceof char[] array ? 2L * array.length : 8L * BITMAP_CONTAINER_WORDS;
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,106 @@
+package org.cbioportal.shared.util;
+
+import java.io.Serializable;
+
+/**
+ * Open-addressing hash map from int to int with linear probing. Used for large reverse indices
+ * (e.g. internal sample id to column position) where a {@code HashMap<Integer, Integer>} would box
+ * every key and value. Keys cannot be removed.
+ */
+public class IntIntHashMap implements Serializable {
+
+  private static final int FREE_KEY = 0;
+  private static final int PHI = 0x9E3779B9;
+
+  private int[] keys;
+  private int[] values;
+  private boolean hasFreeKey;
+  private int freeKeyValue;
+  private int size;
+  private int mask;
+
+  public IntIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+    allocate(capacity);
+  }
+
+  public int get(int key, int missingValue) {
+    if (key == FREE_KEY) {
+      return hasFreeKey ? freeKeyValue : missingValue;
+    }
+    int slot = slot(key);
+    while (keys[slot] != FREE_KEY) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return missingValue;
+  }
+
+  public boolean containsKey(int key) {
+    if (key == FREE_KEY) {
+      return hasFreeKey;
+    }
+    int slot = slot(key);
+    while (keys[slot] != FREE_KEY) {
+      if (keys[slot] == key) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public void put(int key, int value) {
+    if (key == FREE_KEY) {
+      if (!hasFreeKey) {
+        hasFreeKey = true;
+        size++;
+      }
+      freeKeyValue = value;
+      return;
+    }
+    int slot = slot(key);
+    while (keys[slot] != FREE_KEY) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    // keep the load factor at or below one half so that probe sequences stay short
+    if (++size * 2 > keys.length) {
+      rehash(keys.length * 2);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int slot(int key) {
+    int hash = key * PHI;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    size = hasFreeKey ? 1 : 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE_KEY) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+}
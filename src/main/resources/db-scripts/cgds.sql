@@ -762,4 +762,4 @@ CREATE TABLE `resource_study` (
 
 -- DB_SCHEMA_VERSION AND DERIVED_TABLE_SCHEMA_VERSION MUST BE KEPT IN SYNC WITH THE db.version AND derived_table.version PROPERTIES IN pom.xml
 INSERT INTO `info` (`DB_SCHEMA_VERSION`, `GENESET_VERSION`, `DERIVED_TABLE_SCHEMA_VERSION`)
-  VALUES ('2.14.2', NULL, '1.0.2');
+  VALUES ('2.14.4', NULL, '1.0.4');
@@ -1,4 +1,4 @@
--- version 1.0.2 of derived table schema and data definition
+-- version 1.0.4 of derived table schema and data definition
 -- when making updates:
 --     increment the version number here
 --     update pom.xml with the new version number
@@ -8,6 +8,7 @@ DROP TABLE IF EXISTS gene_panel_to_gene_derived;
 DROP TABLE IF EXISTS sample_derived;
 DROP TABLE IF EXISTS genomic_event_derived;
 DROP TABLE IF EXISTS clinical_data_derived;
+DROP TABLE IF EXISTS clinical_data_count_derived;
 DROP TABLE IF EXISTS clinical_event_derived;
 DROP TABLE IF EXISTS genetic_alteration_derived;
 DROP TABLE IF EXISTS generic_assay_data_derived;
@@ -53,16 +54,18 @@ FROM
 CREATE TABLE sample_to_gene_panel_derived
 (
     sample_unique_id String,
+    sample_internal_id Int,
     alteration_type LowCardinality(String),
     gene_panel_id LowCardinality(String),
     cancer_study_identifier LowCardinality(String),
     genetic_profile_id LowCardinality(String)
 ) ENGINE = MergeTree()
-ORDER BY (gene_panel_id, alteration_type, genetic_profile_id, sample_unique_id);
+ORDER BY (gene_panel_id, alteration_type, genetic_profile_id, sample_internal_id);
 
 INSERT INTO sample_to_gene_panel_derived
 SELECT
     concat(cs.cancer_study_identifier, '_', sample.stable_id) AS sample_unique_id,
+    sample.internal_id AS sample_internal_id,
     genetic_alteration_type AS alteration_type,
     -- If a mutation is found in a gene that is not in a gene panel we assume Whole Exome Sequencing WES
     ifnull(gene_panel.stable_id, 'WES') AS gene_panel_id,
@@ -110,7 +113,9 @@ CREATE TABLE sample_derived
     sample_type                 String,
     -- fields below are needed for the DETAILED projection
     sequenced                   Int,
-    copy_number_segment_present Int
+    copy_number_segment_present Int,
+    -- same name as the sample key of the other derived tables, so filters can be applied to all of them
+    sample_internal_id          Int ALIAS internal_id
 )
     ENGINE = MergeTree
         ORDER BY (cancer_study_identifier, sample_unique_id);
@@ -156,6 +161,7 @@ FROM sample
 CREATE TABLE IF NOT EXISTS genomic_event_derived
 (
     sample_unique_id          String,
+    sample_internal_id        Int,
     hugo_gene_symbol          String,
     entrez_gene_id            Int32,
     gene_panel_stable_id      LowCardinality(String),
@@ -171,13 +177,15 @@ CREATE TABLE IF NOT EXISTS genomic_event_derived
     cna_cytoband              String,
     sv_event_info             String,
     patient_unique_id         String,
+    patient_internal_id       Int,
     off_panel                 Boolean DEFAULT FALSE
 ) ENGINE = MergeTree
-      ORDER BY (variant_type, entrez_gene_id, hugo_gene_symbol, genetic_profile_stable_id, sample_unique_id);
+      ORDER BY (variant_type, entrez_gene_id, hugo_gene_symbol, genetic_profile_stable_id, sample_internal_id);
 
 INSERT INTO genomic_event_derived
 -- Insert Mutations
 SELECT concat(cs.cancer_study_identifier, '_', sample.stable_id) AS sample_unique_id,
+       sample.internal_id                                        AS sample_internal_id,
        gene.hugo_gene_symbol                                     AS hugo_gene_symbol,
        gene.entrez_gene_id                                       AS entrez_gene_id,
        ifNull(gp.stable_id, 'WES')                               AS gene_panel_stable_id,
@@ -193,6 +201,7 @@ SELECT concat(cs.cancer_study_identifier, '_', sample.stable_id) AS sample_uniqu
        ''                                                        AS cna_cytoband,
        ''                                                        AS sv_event_info,
        concat(cs.cancer_study_identifier, '_', patient.stable_id) AS patient_unique_id,
+       patient.internal_id                                       AS patient_internal_id,
        (gene_panel_stable_id, hugo_gene_symbol) NOT IN (
            SELECT gene_panel_id, gene
            FROM gene_panel_to_gene_derived
@@ -210,6 +219,7 @@ FROM mutation
 UNION ALL
 -- Insert CNA Genes
 SELECT concat(cs.cancer_study_identifier, '_', sample.stable_id) AS sample_unique_id,
+       sample.internal_id                                        AS sample_internal_id,
        gene.hugo_gene_symbol                                     AS hugo_gene_symbol,
        gene.entrez_gene_id                                       AS entrez_gene_id,
        ifNull(gp.stable_id, 'WES')                               AS gene_panel_stable_id,
@@ -225,6 +235,7 @@ SELECT concat(cs.cancer_study_identifier, '_', sample.stable_id) AS sample_uniqu
        rgg.cytoband                                              AS cna_cytoband,
        ''                                                        AS sv_event_info,
        concat(cs.cancer_study_identifier, '_', patient.stable_id) AS patient_unique_id,
+       patient.internal_id                                       AS patient_internal_id,
        (gene_panel_stable_id, hugo_gene_symbol) NOT IN (
            SELECT gene_panel_id, gene
            FROM gene_panel_to_gene_derived
@@ -242,6 +253,7 @@ FROM cna_event ce
 UNION ALL
 -- Insert Structural Variants Site1
 SELECT concat(cs.cancer_study_identifier, '_', s.stable_id) AS sample_unique_id,
+       s.internal_id                                        AS sample_internal_id,
        gene.hugo_gene_symbol                                AS hugo_gene_symbol,
        gene.entrez_gene_id                                  AS entrez_gene_id,
        ifNull(gene_panel.stable_id, 'WES')                  AS gene_panel_stable_id,
@@ -257,6 +269,7 @@ SELECT concat(cs.cancer_study_identifier, '_', s.stable_id) AS sample_unique_id,
        ''                                                   AS cna_cytoband,
        event_info                                           AS sv_event_info,
        concat(cs.cancer_study_identifier, '_', patient.stable_id) AS patient_unique_id,
+       patient.internal_id                                       AS patient_internal_id,
        (gene_panel_stable_id, hugo_gene_symbol) NOT IN (
            SELECT gene_panel_id, gene
            FROM gene_panel_to_gene_derived
@@ -272,6 +285,7 @@ FROM structural_variant sv
 UNION ALL
 -- Insert Structural Variants Site2
 SELECT concat(cs.cancer_study_identifier, '_', s.stable_id) AS sample_unique_id,
+       s.internal_id                                        AS sample_internal_id,
        gene.hugo_gene_symbol                                AS hugo_gene_symbol,
        gene.entrez_gene_id                                  AS entrez_gene_id,
        ifNull(gene_panel.stable_id, 'WES')                  AS gene_panel_stable_id,
@@ -287,6 +301,7 @@ SELECT concat(cs.cancer_study_identifier, '_', s.stable_id) AS sample_unique_id,
        ''                                                   AS cna_cytoband,
        event_info                                           AS sv_event_info,
        concat(cs.cancer_study_identifier, '_', patient.stable_id) AS patient_unique_id,
+       patient.internal_id                                       AS patient_internal_id,
        (gene_panel_stable_id, hugo_gene_symbol) NOT IN (
            SELECT gene_panel_id, gene
            FROM gene_panel_to_gene_derived
@@ -311,10 +326,13 @@ CREATE TABLE IF NOT EXISTS clinical_data_derived
     attribute_name LowCardinality(String),
     attribute_value String,
     cancer_study_identifier LowCardinality(String),
-    type LowCardinality(String)
+    type LowCardinality(String),
+    -- 0 for patient attributes
+    sample_internal_id Int,
+    patient_internal_id Int
 )
     ENGINE=MergeTree
-        ORDER BY (type, attribute_name, sample_unique_id);
+        ORDER BY (type, attribute_name, sample_internal_id, patient_internal_id);
 
 -- Insert sample attribute data
 INSERT INTO TABLE clinical_data_derived
@@ -324,7 +342,9 @@ SELECT sm.internal_id             AS internal_id,
        cam.attr_id                AS attribute_name,
        ifNull(csamp.attr_value, '')          AS attribute_value,
        cs.cancer_study_identifier AS cancer_study_identifier,
-       'sample'                   AS type
+       'sample'                   AS type,
+       sm.internal_id             AS sample_internal_id,
+       sm.patient_internal_id     AS patient_internal_id
 FROM sample_derived AS sm
          INNER JOIN cancer_study AS cs
                     ON sm.cancer_study_identifier = cs.cancer_study_identifier
@@ -342,7 +362,9 @@ SELECT p.internal_id                                        AS internal_id,
        cam.attr_id                                          AS attribute_name,
        ifNull(clinpat.attr_value, '')                       AS attribute_value,
        cs.cancer_study_identifier                           AS cancer_study_identifier,
-       'patient'                                            AS type
+       'patient'                                            AS type,
+       0                                                    AS sample_internal_id,
+       p.internal_id                                        AS patient_internal_id
 FROM patient AS p
          INNER JOIN cancer_study AS cs ON p.cancer_study_id = cs.cancer_study_id
          FULL OUTER JOIN clinical_attribute_meta AS cam
@@ -351,6 +373,61 @@ FROM patient AS p
                          ON (p.internal_id = clinpat.internal_id) AND (clinpat.attr_id = cam.attr_id)
 WHERE cam.patient_attribute = 1;
 
+-- Counts of the clinical attribute values of each study without any study view filter, so that
+-- the initial study view does not count clinical_data_derived; multi-study counts are the sum of
+-- the study counts. NA values are not stored, they are the number of samples (or patients) of
+-- the studies minus the sum of the counts. Only patients with samples are counted, like the
+-- study view does.
+CREATE TABLE clinical_data_count_derived
+(
+    cancer_study_identifier LowCardinality(String),
+    -- 'sample' and 'patient' count the attribute values of that type,
+    -- 'patient_sample' counts the values of either type once per sample of the patient
+    count_type LowCardinality(String),
+    attribute_name LowCardinality(String),
+    attribute_value String,
+    count Int
+)
+    ENGINE=MergeTree
+        ORDER BY (cancer_study_identifier, count_type, attribute_name);
+
+INSERT INTO TABLE clinical_data_count_derived
+SELECT cancer_study_identifier,
+       'sample' AS count_type,
+       attribute_name,
+       attribute_value,
+       count(*) AS count
+FROM clinical_data_derived
+WHERE type = 'sample'
+  AND attribute_value != ''
+  AND upperUTF8(attribute_value) NOT IN ('NA', 'NAN', 'N/A')
+GROUP BY cancer_study_identifier, attribute_name, attribute_value;
+
+INSERT INTO TABLE clinical_data_count_derived
+SELECT cancer_study_identifier,
+       'patient' AS count_type,
+       attribute_name,
+       attribute_value,
+       count(*) AS count
+FROM clinical_data_derived
+WHERE type = 'patient'
+  AND patient_internal_id IN (SELECT patient_internal_id FROM sample_derived)
+  AND attribute_value != ''
+  AND upperUTF8(attribute_value) NOT IN ('NA', 'NAN', 'N/A')
+GROUP BY cancer_study_identifier, attribute_name, attribute_value;
+
+INSERT INTO TABLE clinical_data_count_derived
+SELECT cdd.cancer_study_identifier AS cancer_study_identifier,
+       'patient_sample' AS count_type,
+       cdd.attribute_name AS attribute_name,
+       cdd.attribute_value AS attribute_value,
+       count(*) AS count
+FROM clinical_data_derived cdd
+         INNER JOIN sample_derived sd ON cdd.patient_internal_id = sd.patient_internal_id
+WHERE cdd.attribute_value != ''
+  AND upperUTF8(cdd.attribute_value) NOT IN ('NA', 'NAN', 'N/A')
+GROUP BY cdd.cancer_study_identifier, cdd.attribute_name, cdd.attribute_value;
+
 CREATE TABLE clinical_event_derived
 (
     patient_unique_id String,
@@ -359,10 +436,11 @@ CREATE TABLE clinical_event_derived
     start_date Int32,
     stop_date Int32 DEFAULT 0,
     event_type LowCardinality(String),
-    cancer_study_identifier LowCardinality(String)
+    cancer_study_identifier LowCardinality(String),
+    patient_internal_id Int
 )
 ENGINE = MergeTree
-    ORDER BY (event_type, patient_unique_id, cancer_study_identifier);
+    ORDER BY (event_type, patient_internal_id, cancer_study_identifier);
 
 INSERT INTO clinical_event_derived
 SELECT
@@ -372,7 +450,8 @@ SELECT
     ce.start_date AS start_date,
     ifNull(ce.stop_date, 0) AS stop_date,
     ce.event_type AS event_type,
-    cs.cancer_study_identifier
+    cs.cancer_study_identifier,
+    p.internal_id AS patient_internal_id
 FROM clinical_event ce
          LEFT JOIN clinical_event_data ced ON ce.clinical_event_id = ced.clinical_event_id
          INNER JOIN patient p ON ce.patient_id = p.internal_id
@@ -381,17 +460,19 @@ FROM clinical_event ce
 CREATE TABLE IF NOT EXISTS genetic_alteration_derived
 (
     sample_unique_id String,
+    sample_internal_id Int,
     cancer_study_identifier LowCardinality(String),
     hugo_gene_symbol String,
     profile_type LowCardinality(String),
     alteration_value Nullable(String)
     )
     ENGINE = MergeTree()
-    ORDER BY (cancer_study_identifier, hugo_gene_symbol, profile_type, sample_unique_id);
+    ORDER BY (cancer_study_identifier, hugo_gene_symbol, profile_type, sample_internal_id);
 
 INSERT INTO TABLE genetic_alteration_derived
 SELECT
     sample_unique_id,
+    sd.internal_id as sample_internal_id,
     cancer_study_identifier,
     hugo_gene_symbol,
     replaceOne(stable_id, concat(sd.cancer_study_identifier, '_'), '') as profile_type,
@@ -430,10 +511,12 @@ CREATE TABLE IF NOT EXISTS generic_assay_data_derived
     entity_stable_id String,
     datatype String,
     patient_level NUMERIC,
-    profile_type String
+    profile_type String,
+    sample_internal_id Int,
+    patient_internal_id Int
 )
     ENGINE = MergeTree()
-    ORDER BY (profile_type, entity_stable_id, patient_unique_id, sample_unique_id);
+    ORDER BY (profile_type, entity_stable_id, patient_internal_id, sample_internal_id);
 
 INSERT INTO TABLE generic_assay_data_derived
 SELECT
@@ -446,7 +529,9 @@ SELECT
     entity_stable_id,
     datatype,
     patient_level,
-    replaceOne(profile_stable_id, concat(cs.cancer_study_identifier, '_'), '') as profile_type
+    replaceOne(profile_stable_id, concat(cs.cancer_study_identifier, '_'), '') as profile_type,
+    sd.internal_id as sample_internal_id,
+    sd.patient_internal_id as patient_internal_id
 FROM
     (SELECT
          sample_id,
@@ -490,6 +575,7 @@ OPTIMIZE TABLE gene_panel_to_gene_derived;
 OPTIMIZE TABLE sample_derived;
 OPTIMIZE TABLE genomic_event_derived;
 OPTIMIZE TABLE clinical_data_derived;
+OPTIMIZE TABLE clinical_data_count_derived;
 OPTIMIZE TABLE clinical_event_derived;
 OPTIMIZE TABLE genetic_alteration_derived;
 OPTIMIZE TABLE generic_assay_data_derived;
@@ -1074,3 +1074,13 @@ UPDATE `info` SET `DB_SCHEMA_VERSION`="2.14.1";
 ALTER TABLE `resource_definition` ADD COLUMN `CUSTOM_METADATA` JSON;
 UPDATE `info` SET `DERIVED_TABLE_SCHEMA_VERSION`="1.0.2";
 UPDATE `info` SET `DB_SCHEMA_VERSION`="2.14.2";
+
+##version: 2.14.3
+-- the ClickHouse derived tables hold the sample and patient internal ids
+UPDATE `info` SET `DERIVED_TABLE_SCHEMA_VERSION`="1.0.3";
+UPDATE `info` SET `DB_SCHEMA_VERSION`="2.14.3";
+
+##version: 2.14.4
+-- the ClickHouse derived tables include clinical_data_count_derived
+UPDATE `info` SET `DERIVED_TABLE_SCHEMA_VERSION`="1.0.4";
+UPDATE `info` SET `DB_SCHEMA_VERSION`="2.14.4";
@@ -0,0 +1,147 @@
+package org.cbioportal.application.file.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SequencedMap;
+import org.cbioportal.application.file.export.services.ZipOutputStreamWriterService;
+import org.cbioportal.application.file.export.writers.TsvDataWriter;
+import org.cbioportal.application.file.model.MafRecord;
+import org.cbioportal.application.file.model.Table;
+import org.cbioportal.application.file.utils.CloseableIterator;
+
+/**
+ * Compares writing a MAF file from map rows and from positional rows. The records are created one
+ * at a time, as they are read from the database cursor, and the zipped output is discarded. Not a
+ * unit test, run it with the test classpath:
+ *
+ * <pre>
+ * java -Xmx256m -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *     org.cbioportal.application.file.export.MafExportBenchmark [records]
+ * </pre>
+ */
+public class MafExportBenchmark {
+
+  private static final int ITERATIONS = 3;
+
+  public static void main(String[] args) throws IOException {
+    int recordCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+    // warm up both paths
+    writeMapRows(recordCount / 10);
+    writePositionalRows(recordCount / 10);
+
+    for (int i = 0; i < ITERATIONS; i++) {
+      run("map rows", recordCount, () -> writeMapRows(recordCount));
+      run("positional rows", recordCount, () -> writePositionalRows(recordCount));
+    }
+  }
+
+  private static void writeMapRows(int recordCount) throws IOException {
+    Table table = new Table(new MafRecords(recordCount), MafRecord.getHeader());
+    // hides the table type, so that the rows are written as maps
+    Iterator<SequencedMap<String, String>> rows =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return table.hasNext();
+          }
+
+          @Override
+          public SequencedMap<String, String> next() {
+            return table.next();
+          }
+        };
+    write(rows);
+  }
+
+  private static void writePositionalRows(int recordCount) throws IOException {
+    write(new Table(new MafRecords(recordCount), MafRecord.getHeader()));
+  }
+
+  private static void write(Iterator<SequencedMap<String, String>> rows) throws IOException {
+    try (ZipOutputStreamWriterService zipOutputStreamWriterService =
+            new ZipOutputStreamWriterService(OutputStream.nullOutputStream());
+        Writer writer = zipOutputStreamWriterService.newWriter("data_mutations.txt")) {
+      new TsvDataWriter(writer).write(rows);
+    }
+  }
+
+  private static void run(String description, int recordCount, Export export)
+      throws IOException {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    System.gc();
+    long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    export.run();
+    long nanos = System.nanoTime() - start;
+    long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    System.out.printf(
+        "%-16s %,10d records  %,8.1f ms  %,6d bytes allocated per record%n",
+        description, recordCount, nanos / 1e6, allocated / recordCount);
+  }
+
+  private interface Export {
+    void run() throws IOException;
+  }
+
+  /** Creates the records lazily, like a database cursor. */
+  private static class MafRecords implements CloseableIterator<MafRecord> {
+
+    private final int count;
+    private int created;
+
+    MafRecords(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return created < count;
+    }
+
+    @Override
+    public MafRecord next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return createRecord(created++);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static MafRecord createRecord(int i) {
+    MafRecord mafRecord = new MafRecord();
+    mafRecord.setHugoSymbol("GENE" + (i % 500));
+    mafRecord.setEntrezGeneId(String.valueOf(i % 500));
+    mafRecord.setCenter("MSKCC");
+    mafRecord.setNcbiBuild("GRCh37");
+    mafRecord.setChromosome(String.valueOf(i % 22 + 1));
+    mafRecord.setStartPosition(7_577_120L + i);
+    mafRecord.setEndPosition(7_577_120L + i);
+    mafRecord.setStrand("+");
+    mafRecord.setVariantClassification("Missense_Mutation");
+    mafRecord.setVariantType("SNP");
+    mafRecord.setReferenceAllele("C");
+    mafRecord.setTumorSeqAllele1("C");
+    mafRecord.setTumorSeqAllele2("T");
+    mafRecord.setTumorSampleBarcode("P-" + String.format("%07d", i / 10) + "-T01-IM6");
+    mafRecord.setMatchedNormSampleBarcode("P-" + String.format("%07d", i / 10) + "-N01-IM6");
+    mafRecord.setValidationStatus("Unknown");
+    mafRecord.setMutationStatus("SOMATIC");
+    mafRecord.setSequencingPhase("");
+    mafRecord.setSequencer("Illumina HiSeq");
+    mafRecord.setHgvspShort("p.R" + (i % 400) + "H");
+    mafRecord.settAltCount(i % 100);
+    mafRecord.settRefCount(i % 300);
+    mafRecord.setnAltCount(0);
+    mafRecord.setnRefCount(i % 200);
+    return mafRecord;
+  }
+}
@@ -1,5 +1,6 @@
 package org.cbioportal.application.file.export;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -13,4 +14,14 @@ public class ToRowTests {
     assertNotNull(mafRecord.toRow());
     assertEquals(37, mafRecord.toRow().size());
   }
+
+  @Test
+  public void testMafRowToValues() {
+    var mafRecord = new MafRecord();
+    mafRecord.setHugoSymbol("TP53");
+    mafRecord.setStartPosition(7577120L);
+    mafRecord.settAltCount(12);
+    assertArrayEquals(
+        mafRecord.toRow().sequencedValues().toArray(String[]::new), mafRecord.toValues());
+  }
 }
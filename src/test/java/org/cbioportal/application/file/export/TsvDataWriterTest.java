@@ -4,9 +4,12 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.StringWriter;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.SequencedMap;
 import org.cbioportal.application.file.export.writers.TsvDataWriter;
+import org.cbioportal.application.file.model.PositionalTableRow;
+import org.cbioportal.application.file.model.Table;
 import org.junit.Test;
 
 public class TsvDataWriterTest {
@@ -29,4 +32,45 @@ public class TsvDataWriterTest {
 
     assertEquals("a\t\tc\n\\t\td\t\n", output.toString());
   }
+
+  @Test
+  public void testComposePositionalRows() {
+    StringWriter output = new StringWriter();
+
+    Table table =
+        new Table(
+            new SimpleCloseableIterator<>(
+                List.of(new TestRow("a", null, "c"), new TestRow("\t", "d", ""))),
+            new LinkedHashSet<>(List.of("1", "2", "3")));
+
+    new TsvDataWriter(output).write(table);
+
+    assertEquals("1\t2\t3\na\t\tc\n\\t\td\t\n", output.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPositionalRowsMustMatchHeader() {
+    Table table =
+        new Table(
+            new SimpleCloseableIterator<>(List.of(new TestRow("a", "b", "c"), new TestRow("d"))),
+            new LinkedHashSet<>(List.of("1", "2", "3")));
+
+    new TsvDataWriter(new StringWriter()).write(table);
+  }
+
+  private record TestRow(String... values) implements PositionalTableRow {
+    @Override
+    public String[] toValues() {
+      return values;
+    }
+
+    @Override
+    public SequencedMap<String, String> toRow() {
+      SequencedMap<String, String> row = new LinkedHashMap<>();
+      for (int i = 0; i < values.length; i++) {
+        row.put(String.valueOf(i + 1), values[i]);
+      }
+      return row;
+    }
+  }
 }
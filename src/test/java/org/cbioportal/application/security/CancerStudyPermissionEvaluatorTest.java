@@ -0,0 +1,149 @@
+package org.cbioportal.application.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.Patient;
+import org.cbioportal.legacy.model.TableTimestampPair;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
+import org.cbioportal.legacy.utils.security.AccessLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+class CancerStudyPermissionEvaluatorTest {
+
+  private CacheMapUtil cacheMapUtil;
+  private StaticDataTimeStampRepository staticDataTimeStampRepository;
+  private CancerStudyPermissionEvaluator cancerStudyPermissionEvaluator;
+  private Authentication authentication;
+
+  @BeforeEach
+  void setUp() {
+    cacheMapUtil = mock(CacheMapUtil.class);
+    when(cacheMapUtil.getCancerStudyMap())
+        .thenReturn(
+            createCancerStudyMap(
+                createCancerStudy("study_group_a", "GROUP_A;GROUP_B"),
+                createCancerStudy("study_public", "PUBLIC"),
+                createCancerStudy("study_private", "GROUP_C"),
+                createCancerStudy("study_by_id", "")));
+    staticDataTimeStampRepository = mock(StaticDataTimeStampRepository.class);
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("2024-01-01 00:00:00")));
+    // check the timestamp on every access
+    cancerStudyPermissionEvaluator =
+        new CancerStudyPermissionEvaluator(
+            "", "true", "PUBLIC", cacheMapUtil, staticDataTimeStampRepository, 0);
+    authentication =
+        new TestingAuthenticationToken(
+            "user", null, "public_portal:group_a", "public_portal:study_by_id");
+  }
+
+  @Test
+  void filtersLikePerElementEvaluation() {
+    List<Patient> patients =
+        Arrays.asList(
+            createPatient("study_group_a"),
+            createPatient("study_public"),
+            createPatient("study_private"),
+            createPatient("study_by_id"),
+            createPatient("study_group_a"));
+
+    List<Patient> result =
+        cancerStudyPermissionEvaluator.filterByCancerStudyPermission(
+            authentication, patients, Patient::getCancerStudyIdentifier, AccessLevel.READ);
+
+    assertEquals(
+        patients.stream()
+            .filter(
+                p ->
+                    cancerStudyPermissionEvaluator.hasPermission(
+                        authentication, p, AccessLevel.READ))
+            .collect(Collectors.toList()),
+        result);
+    assertEquals(
+        Arrays.asList("study_group_a", "study_public", "study_by_id", "study_group_a"),
+        result.stream().map(Patient::getCancerStudyIdentifier).collect(Collectors.toList()));
+  }
+
+  @Test
+  void listPermissionKeepsAllElements() {
+    List<Patient> patients = Arrays.asList(createPatient("study_private"));
+
+    assertEquals(
+        patients,
+        cancerStudyPermissionEvaluator.filterByCancerStudyPermission(
+            authentication, patients, Patient::getCancerStudyIdentifier, AccessLevel.LIST));
+  }
+
+  @Test
+  void recomputesAfterStudyImport() {
+    List<Patient> patients = Arrays.asList(createPatient("study_private"));
+    assertTrue(filterReadable(patients).isEmpty());
+
+    when(cacheMapUtil.getCancerStudyMap())
+        .thenReturn(createCancerStudyMap(createCancerStudy("study_private", "GROUP_A")));
+    // a new copy of the map alone does not drop the readable studies
+    assertTrue(filterReadable(patients).isEmpty());
+
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("2024-02-01 00:00:00")));
+    assertEquals(patients, filterReadable(patients));
+  }
+
+  @Test
+  void recomputesAfterInvalidation() {
+    List<Patient> patients = Arrays.asList(createPatient("study_private"));
+    assertTrue(filterReadable(patients).isEmpty());
+
+    // the groups of the study changed, but the study table timestamp did not
+    when(cacheMapUtil.getCancerStudyMap())
+        .thenReturn(createCancerStudyMap(createCancerStudy("study_private", "GROUP_A")));
+    cancerStudyPermissionEvaluator.invalidateReadableStudyIndex();
+    assertEquals(patients, filterReadable(patients));
+  }
+
+  private List<Patient> filterReadable(List<Patient> patients) {
+    return cancerStudyPermissionEvaluator.filterByCancerStudyPermission(
+        authentication, patients, Patient::getCancerStudyIdentifier, AccessLevel.READ);
+  }
+
+  private TableTimestampPair createTimestamp(String updateTime) {
+    TableTimestampPair pair = new TableTimestampPair();
+    pair.setTableName("cancer_study");
+    pair.setUpdateTime(updateTime);
+    return pair;
+  }
+
+  private Map<String, CancerStudy> createCancerStudyMap(CancerStudy... cancerStudies) {
+    Map<String, CancerStudy> cancerStudyMap = new HashMap<>();
+    for (CancerStudy cancerStudy : cancerStudies) {
+      cancerStudyMap.put(cancerStudy.getCancerStudyIdentifier(), cancerStudy);
+    }
+    return cancerStudyMap;
+  }
+
+  private CancerStudy createCancerStudy(String cancerStudyIdentifier, String groups) {
+    CancerStudy cancerStudy = new CancerStudy();
+    cancerStudy.setCancerStudyIdentifier(cancerStudyIdentifier);
+    cancerStudy.setGroups(groups);
+    return cancerStudy;
+  }
+
+  private Patient createPatient(String cancerStudyIdentifier) {
+    Patient patient = new Patient();
+    patient.setCancerStudyIdentifier(cancerStudyIdentifier);
+    return patient;
+  }
+}
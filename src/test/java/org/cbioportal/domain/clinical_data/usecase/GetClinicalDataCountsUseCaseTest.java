@@ -0,0 +1,121 @@
+package org.cbioportal.domain.clinical_data.usecase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.cbioportal.domain.clinical_attributes.usecase.GetClinicalAttributesForStudiesUseCase;
+import org.cbioportal.domain.patient.usecase.GetFilteredPatientCountUseCase;
+import org.cbioportal.domain.sample.usecase.GetFilteredSamplesCountUseCase;
+import org.cbioportal.domain.studyview.StudyViewFilterContext;
+import org.cbioportal.domain.studyview.StudyViewFilterFactory;
+import org.cbioportal.infrastructure.repository.clickhouse.AbstractTestcontainers;
+import org.cbioportal.infrastructure.repository.clickhouse.clinical_attributes.ClickhouseClinicalAttributesMapper;
+import org.cbioportal.infrastructure.repository.clickhouse.clinical_attributes.ClickhouseClinicalAttributesRepository;
+import org.cbioportal.infrastructure.repository.clickhouse.clinical_data.ClickhouseClinicalDataMapper;
+import org.cbioportal.infrastructure.repository.clickhouse.clinical_data.ClickhouseClinicalDataRepository;
+import org.cbioportal.infrastructure.repository.clickhouse.config.MyBatisConfig;
+import org.cbioportal.infrastructure.repository.clickhouse.patient.ClickhousePatientMapper;
+import org.cbioportal.infrastructure.repository.clickhouse.patient.ClickhousePatientRepository;
+import org.cbioportal.infrastructure.repository.clickhouse.sample.ClickhouseSampleMapper;
+import org.cbioportal.infrastructure.repository.clickhouse.sample.ClickhouseSampleRepository;
+import org.cbioportal.legacy.model.ClinicalAttribute;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.ClinicalDataCountItem;
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@Import(MyBatisConfig.class)
+@DataJpaTest
+@DirtiesContext
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = AbstractTestcontainers.Initializer.class)
+public class GetClinicalDataCountsUseCaseTest {
+  private static final String STUDY_ACC_TCGA = "acc_tcga";
+  private static final String STUDY_GENIE_PUB = "study_genie_pub";
+
+  private GetClinicalDataCountsUseCase getClinicalDataCountsUseCase;
+  private GetClinicalAttributesForStudiesUseCase getClinicalAttributesForStudiesUseCase;
+  private ClickhouseSampleMapper sampleMapper;
+
+  @Autowired
+  public void configure(
+      ClickhouseClinicalDataMapper clinicalDataMapper,
+      ClickhouseClinicalAttributesMapper clinicalAttributesMapper,
+      ClickhouseSampleMapper sampleMapper,
+      ClickhousePatientMapper patientMapper) {
+    this.getClinicalAttributesForStudiesUseCase =
+        new GetClinicalAttributesForStudiesUseCase(
+            new ClickhouseClinicalAttributesRepository(clinicalAttributesMapper));
+    this.getClinicalDataCountsUseCase =
+        new GetClinicalDataCountsUseCase(
+            new ClickhouseClinicalDataRepository(clinicalDataMapper),
+            getClinicalAttributesForStudiesUseCase,
+            new GetFilteredSamplesCountUseCase(new ClickhouseSampleRepository(sampleMapper)),
+            new GetFilteredPatientCountUseCase(new ClickhousePatientRepository(patientMapper)));
+    this.sampleMapper = sampleMapper;
+  }
+
+  @Test
+  public void unfilteredCountsEqualTheRegularQuery() {
+    // acc_tcga and study_genie_pub have sample, patient and conflicting attributes
+    List<String> studyIds = List.of(STUDY_ACC_TCGA, STUDY_GENIE_PUB);
+    List<String> attributeIds =
+        getClinicalAttributesForStudiesUseCase.execute(studyIds).stream()
+            .map(ClinicalAttribute::getAttrId)
+            .distinct()
+            .toList();
+
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(studyIds);
+    StudyViewFilterContext unfilteredContext =
+        StudyViewFilterFactory.make(studyViewFilter, null, studyIds, null);
+    assertTrue(unfilteredContext.isUnfiltered());
+    var unfilteredCounts = getClinicalDataCountsUseCase.execute(unfilteredContext, attributeIds);
+
+    // listing every sample of the studies selects the same samples through the regular query
+    studyViewFilter.setSampleIdentifiers(
+        sampleMapper.getFilteredSamples(unfilteredContext).stream()
+            .map(
+                sample -> {
+                  SampleIdentifier sampleIdentifier = new SampleIdentifier();
+                  sampleIdentifier.setStudyId(sample.cancerStudyIdentifier());
+                  sampleIdentifier.setSampleId(sample.stableId());
+                  return sampleIdentifier;
+                })
+            .toList());
+    StudyViewFilterContext filteredContext =
+        StudyViewFilterFactory.make(studyViewFilter, null, studyIds, null);
+    assertFalse(filteredContext.isUnfiltered());
+    var regularCounts = getClinicalDataCountsUseCase.execute(filteredContext, attributeIds);
+
+    assertFalse(regularCounts.isEmpty());
+    assertEquals(toCountsByAttribute(regularCounts), toCountsByAttribute(unfilteredCounts));
+  }
+
+  private Map<String, Map<String, Integer>> toCountsByAttribute(
+      List<ClinicalDataCountItem> clinicalDataCountItems) {
+    return clinicalDataCountItems.stream()
+        .collect(
+            Collectors.toMap(
+                ClinicalDataCountItem::getAttributeId,
+                item ->
+                    item.getCounts().stream()
+                        .collect(
+                            Collectors.toMap(
+                                ClinicalDataCount::getValue, ClinicalDataCount::getCount))));
+  }
+}
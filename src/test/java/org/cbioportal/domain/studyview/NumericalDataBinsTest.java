@@ -0,0 +1,73 @@
+package org.cbioportal.domain.studyview;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.cbioportal.domain.studyview.NumericalDataBins.Bin;
+import org.cbioportal.legacy.model.DataBin;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumericalDataBinsTest {
+
+  @Test
+  public void numericalBinsAreKept() {
+    NumericalDataBins numericalDataBins =
+        NumericalDataBins.of(
+                "AGE",
+                List.of(
+                    createDataBin("<=", null, "20"),
+                    createDataBin(null, "20", "40.00"),
+                    createDataBin(null, "40.50", "40.50"),
+                    createDataBin(">", "40.50", null),
+                    createDataBin("NA", null, null),
+                    createDataBin("unknown", null, null)))
+            .orElseThrow();
+
+    Assert.assertEquals("AGE", numericalDataBins.attributeId());
+    Assert.assertEquals(
+        List.of(
+            new Bin(null, false, "20", true),
+            new Bin("20", false, "40", true),
+            new Bin("40.5", true, "40.5", true),
+            new Bin("40.5", false, null, false)),
+        numericalDataBins.bins());
+  }
+
+  // (20, 40.5] and [40.5, 40.5] both contain 40.5
+  @Test
+  public void overlappingBinsAreNotMerged() {
+    Assert.assertTrue(
+        NumericalDataBins.of(
+                "AGE",
+                List.of(createDataBin(null, "20", "40.5"), createDataBin(">=", "40.5", "40.5")))
+            .isEmpty());
+  }
+
+  @Test
+  public void inexactBoundariesAreNotMerged() {
+    Assert.assertTrue(
+        NumericalDataBins.of("TMB", List.of(createDataBin(null, "0.1234567890123456", "1")))
+            .isEmpty());
+    Assert.assertTrue(
+        NumericalDataBins.of("TMB", List.of(createDataBin(null, "1E-16", "1"))).isEmpty());
+    Assert.assertTrue(
+        NumericalDataBins.of("TMB", List.of(createDataBin(">", "1E+30", null))).isEmpty());
+    Assert.assertTrue(
+        NumericalDataBins.of("TMB", List.of(createDataBin(null, "1.000000000000000000", "2")))
+            .isPresent());
+  }
+
+  @Test
+  public void noNumericalBins() {
+    Assert.assertTrue(
+        NumericalDataBins.of("SEX", List.of(createDataBin("Female", null, null))).isEmpty());
+  }
+
+  private DataBin createDataBin(String specialValue, String start, String end) {
+    DataBin dataBin = new DataBin();
+    dataBin.setSpecialValue(specialValue);
+    dataBin.setStart(start == null ? null : new BigDecimal(start));
+    dataBin.setEnd(end == null ? null : new BigDecimal(end));
+    return dataBin;
+  }
+}
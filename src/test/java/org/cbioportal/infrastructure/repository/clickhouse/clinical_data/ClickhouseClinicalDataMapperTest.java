@@ -5,6 +5,8 @@ import static org.junit.Assert.*;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.cbioportal.domain.studyview.StudyViewFilterFactory;
 import org.cbioportal.infrastructure.repository.clickhouse.AbstractTestcontainers;
 import org.cbioportal.infrastructure.repository.clickhouse.config.MyBatisConfig;
@@ -415,6 +417,45 @@ public class ClickhouseClinicalDataMapperTest {
         "Should have NA count with filtering", findClinicaDataCount(subtypeCounts, "NA") > 0);
   }
 
+  @Test
+  public void getUnfilteredClinicalDataCounts() {
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(List.of(STUDY_ACC_TCGA, STUDY_GENIE_PUB));
+
+    var clinicalDataCountItems =
+        mapper.getClinicalDataCounts(
+            StudyViewFilterFactory.make(studyViewFilter, null, studyViewFilter.getStudyIds(), null),
+            List.of("mutation_count"),
+            List.of("center"),
+            List.of("subtype"));
+    var unfilteredClinicalDataCounts =
+        mapper.getUnfilteredClinicalDataCounts(
+            studyViewFilter.getStudyIds(),
+            List.of("mutation_count"),
+            List.of("center"),
+            List.of("subtype"));
+
+    // the per study counts add up to the counts without NA
+    for (String attributeId : List.of("mutation_count", "center", "subtype")) {
+      var expectedCounts =
+          clinicalDataCountItems.stream()
+              .filter(c -> c.getAttributeId().equals(attributeId))
+              .findFirst()
+              .orElseThrow()
+              .getCounts()
+              .stream()
+              .filter(c -> !c.getValue().equals("NA"))
+              .collect(Collectors.toMap(ClinicalDataCount::getValue, ClinicalDataCount::getCount));
+      Map<String, Integer> unfilteredCounts =
+          unfilteredClinicalDataCounts.stream()
+              .filter(c -> c.getAttributeId().equals(attributeId))
+              .collect(
+                  Collectors.toMap(
+                      ClinicalDataCount::getValue, ClinicalDataCount::getCount, Integer::sum));
+      assertEquals(attributeId, expectedCounts, unfilteredCounts);
+    }
+  }
+
   private ClinicalDataFilter buildClinicalDataFilter(
       String attributeId, Integer start, Integer end) {
     DataFilterValue value = new DataFilterValue();
@@ -3,15 +3,18 @@ package org.cbioportal.infrastructure.repository.clickhouse.genomic_data;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.domain.studyview.StudyViewFilterFactory;
 import org.cbioportal.infrastructure.repository.clickhouse.AbstractTestcontainers;
 import org.cbioportal.infrastructure.repository.clickhouse.config.MyBatisConfig;
 import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.DataBin;
 import org.cbioportal.legacy.model.GenomicDataCount;
 import org.cbioportal.legacy.model.GenomicDataCountItem;
 import org.cbioportal.legacy.web.parameter.DataFilterValue;
@@ -147,7 +150,8 @@ public class ClickhouseGenomicDataMapperTest {
     List<ClinicalDataCount> actualRPPACounts1 =
         mapper.getGenomicDataBinCounts(
             StudyViewFilterFactory.make(studyViewFilter, null, studyViewFilter.getStudyIds(), null),
-            List.of(genomicDataBinFilterRPPA));
+            List.of(genomicDataBinFilterRPPA),
+            List.of());
 
     ClinicalDataCount expectedRPPACount1 = new ClinicalDataCount();
     expectedRPPACount1.setAttributeId("AKT1rppa");
@@ -185,7 +189,8 @@ public class ClickhouseGenomicDataMapperTest {
     List<ClinicalDataCount> actualRPPACounts2 =
         mapper.getGenomicDataBinCounts(
             StudyViewFilterFactory.make(studyViewFilter, null, studyViewFilter.getStudyIds(), null),
-            List.of(genomicDataBinFilterRPPA));
+            List.of(genomicDataBinFilterRPPA),
+            List.of());
 
     ClinicalDataCount expectedRPPACount = new ClinicalDataCount();
     expectedRPPACount.setAttributeId("AKT1rppa");
@@ -199,6 +204,40 @@ public class ClickhouseGenomicDataMapperTest {
         .isEqualTo(expectedRPPACounts2);
   }
 
+  @Test
+  public void getProteinExpressionCountsByNumericalBin() {
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(List.of(STUDY_TCGA_PUB, STUDY_ACC_TCGA));
+
+    GenomicDataBinFilter genomicDataBinFilterRPPA = new GenomicDataBinFilter();
+    genomicDataBinFilterRPPA.setHugoGeneSymbol("AKT1");
+    genomicDataBinFilterRPPA.setProfileType("rppa");
+
+    NumericalDataBins numericalDataBins =
+        NumericalDataBins.of(
+                "AKT1rppa",
+                List.of(createDataBin("<=", null, "-1"), createDataBin(null, "-1", "0")))
+            .orElseThrow();
+
+    List<ClinicalDataCount> actualRPPACounts =
+        mapper.getGenomicDataBinCounts(
+            StudyViewFilterFactory.make(studyViewFilter, null, studyViewFilter.getStudyIds(), null),
+            List.of(genomicDataBinFilterRPPA),
+            List.of(numericalDataBins));
+
+    // -0.8097 and -0.1260 are in the same bin, 0.7360 is not in any bin
+    Map<String, Integer> countsByValue = new HashMap<>();
+    actualRPPACounts.forEach(count -> countsByValue.put(count.getValue(), count.getCount()));
+    assertEquals(3, countsByValue.size());
+    assertEquals(Integer.valueOf(1), countsByValue.get("0.7360"));
+    assertEquals(Integer.valueOf(16), countsByValue.get("NA"));
+    assertEquals(
+        Integer.valueOf(2),
+        countsByValue.containsKey("-0.8097")
+            ? countsByValue.get("-0.8097")
+            : countsByValue.get("-0.1260"));
+  }
+
   @Test
   public void getMolecularProfileCounts() {
     StudyViewFilter studyViewFilter = new StudyViewFilter();
@@ -308,4 +347,12 @@ public class ClickhouseGenomicDataMapperTest {
             .intValue();
     assertEquals(10, sizeMutations);
   }
+
+  private DataBin createDataBin(String specialValue, String start, String end) {
+    DataBin dataBin = new DataBin();
+    dataBin.setSpecialValue(specialValue);
+    dataBin.setStart(start == null ? null : new BigDecimal(start));
+    dataBin.setEnd(end == null ? null : new BigDecimal(end));
+    return dataBin;
+  }
 }
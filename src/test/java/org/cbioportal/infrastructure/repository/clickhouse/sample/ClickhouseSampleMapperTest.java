@@ -13,7 +13,9 @@ import org.cbioportal.infrastructure.repository.clickhouse.AbstractTestcontainer
 import org.cbioportal.infrastructure.repository.clickhouse.config.MyBatisConfig;
 import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
 import org.cbioportal.legacy.web.parameter.CustomSampleIdentifier;
+import org.cbioportal.legacy.web.parameter.DataFilter;
 import org.cbioportal.legacy.web.parameter.DataFilterValue;
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -151,6 +153,36 @@ public class ClickhouseSampleMapperTest {
     assertEquals(8, filteredSamples6.size());
   }
 
+  @Test
+  public void getSamplesFilteredOnInternalIds() {
+    // patient tcga-a1-a0sb and sample tcga-a1-a0sb-01 exist in both studies, so the filters must
+    // match them on the internal ids of the derived tables
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(Arrays.asList(STUDY_TCGA_PUB, STUDY_ACC_TCGA));
+
+    // patient attribute of tcga-a1-a0sb in both studies, joined on patient_internal_id
+    studyViewFilter.setClinicalDataFilters(
+        List.of(
+            newClinicalDataFilter(
+                "retrospective_collection", List.of(newDataFilterValue(null, null, "no")))));
+    assertEquals(List.of(1, 18, 19), getFilteredSampleInternalIds(studyViewFilter));
+
+    // clinical event of tcga-a1-a0sb in study_tcga_pub only
+    studyViewFilter.setClinicalDataFilters(null);
+    DataFilter clinicalEventFilter = new DataFilter();
+    clinicalEventFilter.setValues(List.of(newDataFilterValue(null, null, "status")));
+    studyViewFilter.setClinicalEventFilters(List.of(clinicalEventFilter));
+    assertEquals(List.of(1, 18), getFilteredSampleInternalIds(studyViewFilter));
+
+    // sample tcga-a1-a0sb-01 of acc_tcga only
+    studyViewFilter.setClinicalEventFilters(null);
+    SampleIdentifier sampleIdentifier = new SampleIdentifier();
+    sampleIdentifier.setStudyId(STUDY_ACC_TCGA);
+    sampleIdentifier.setSampleId("tcga-a1-a0sb-01");
+    studyViewFilter.setSampleIdentifiers(List.of(sampleIdentifier));
+    assertEquals(List.of(19), getFilteredSampleInternalIds(studyViewFilter));
+  }
+
   @Test
   public void getMetaSamples() {
     var allAccSamplesMeta =
@@ -1045,6 +1077,17 @@ public class ClickhouseSampleMapperTest {
     assertTrue(sample3.sequenced());
   }
 
+  private List<Integer> getFilteredSampleInternalIds(StudyViewFilter studyViewFilter) {
+    return mapper
+        .getFilteredSamples(
+            StudyViewFilterFactory.make(
+                studyViewFilter, List.of(), studyViewFilter.getStudyIds(), null))
+        .stream()
+        .map(Sample::internalId)
+        .sorted()
+        .toList();
+  }
+
   private DataFilterValue newDataFilterValue(Double start, Double end, String value) {
     DataFilterValue dataFilterValue = new DataFilterValue();
 
@@ -7,6 +7,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.ClinicalDataCountSummary;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.PersistenceConstants;
 import org.cbioportal.legacy.persistence.mybatis.config.TestConfig;
@@ -23,7 +24,6 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 @SpringBootTest(
     classes = {
       ClinicalDataMyBatisRepository.class,
-      PatientMyBatisRepository.class,
       ClinicalAttributeMyBatisRepository.class,
       ClinicalAttributeMapper.class,
       PaginationCalculator.class,
@@ -602,23 +602,28 @@ public class ClinicalDataMyBatisRepositoryTest {
   }
 
   @Test
-  public void fetchClinicalDataCounts() {
+  public void fetchClinicalDataCountSummary() {
 
-    List<ClinicalDataCount> result =
-        clinicalDataMyBatisRepository.fetchClinicalDataCounts(
+    ClinicalDataCountSummary result =
+        clinicalDataMyBatisRepository.fetchClinicalDataCountSummary(
             Arrays.asList("acc_tcga", "acc_tcga"),
             Arrays.asList("TCGA-A1-B0SO-01", "TCGA-A1-A0SB-01"),
             Arrays.asList("OTHER_SAMPLE_ID", "DAYS_TO_COLLECTION"),
-            "SAMPLE",
-            "SUMMARY");
-
-    Assert.assertEquals(2, result.size());
-    ClinicalDataCount clinicalDataCount1 = result.get(0);
-    Assert.assertEquals("DAYS_TO_COLLECTION", clinicalDataCount1.getAttributeId());
+            new ArrayList<>(),
+            new ArrayList<>());
+
+    Assert.assertEquals((Integer) 2, result.getPatientCount());
+    List<ClinicalDataCount> counts = result.getCounts();
+    Assert.assertEquals(2, counts.size());
+    ClinicalDataCount clinicalDataCount1 =
+        counts.stream()
+            .filter(c -> c.getAttributeId().equals("DAYS_TO_COLLECTION"))
+            .findFirst()
+            .get();
     Assert.assertEquals("111", clinicalDataCount1.getValue());
     Assert.assertEquals((Integer) 2, clinicalDataCount1.getCount());
-    ClinicalDataCount clinicalDataCount2 = result.get(1);
-    Assert.assertEquals("OTHER_SAMPLE_ID", clinicalDataCount2.getAttributeId());
+    ClinicalDataCount clinicalDataCount2 =
+        counts.stream().filter(c -> c.getAttributeId().equals("OTHER_SAMPLE_ID")).findFirst().get();
     Assert.assertEquals("91E7F41C-17B3-4724-96EF-D3C207B964E1", clinicalDataCount2.getValue());
     Assert.assertEquals((Integer) 1, clinicalDataCount2.getCount());
   }
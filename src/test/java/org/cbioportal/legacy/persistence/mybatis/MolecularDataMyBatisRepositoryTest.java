@@ -7,22 +7,33 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.cbioportal.legacy.model.GeneMolecularAlteration;
 import org.cbioportal.legacy.model.GenesetMolecularAlteration;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.cbioportal.legacy.persistence.mybatis.config.TestConfig;
+import org.cbioportal.legacy.persistence.util.MolecularProfileSampleIndexCache;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 @RunWith(SpringJUnit4ClassRunner.class)
-@SpringBootTest(classes = {MolecularDataMyBatisRepository.class, TestConfig.class})
+@SpringBootTest(
+    classes = {
+      MolecularDataMyBatisRepository.class,
+      MolecularProfileSampleIndexCache.class,
+      TestConfig.class
+    })
 public class MolecularDataMyBatisRepositoryTest {
 
   @Autowired private MolecularDataMyBatisRepository molecularDataMyBatisRepository;
 
+  @MockBean private StaticDataTimeStampRepository staticDataTimeStampRepository;
+
   @Test
   public void getCommaSeparatedSampleIdsOfMolecularProfile() throws Exception {
 
@@ -47,6 +58,35 @@ public class MolecularDataMyBatisRepositoryTest {
         "2,3,6,8,9,10,12,13,", result.get("study_tcga_pub_mrna").getCommaSeparatedSampleIds());
   }
 
+  @Test
+  public void getMolecularProfileSampleIndex() throws Exception {
+
+    MolecularProfileSampleIndex result =
+        molecularDataMyBatisRepository.getMolecularProfileSampleIndex("study_tcga_pub_mrna");
+
+    Assert.assertEquals(8, result.size());
+    Assert.assertEquals(2, result.getInternalSampleId(0));
+    Assert.assertEquals(3, result.indexOf(8));
+    Assert.assertEquals(-1, result.indexOf(1));
+    Assert.assertSame(
+        result,
+        molecularDataMyBatisRepository.getMolecularProfileSampleIndex("study_tcga_pub_mrna"));
+    Assert.assertNull(molecularDataMyBatisRepository.getMolecularProfileSampleIndex("invalid"));
+  }
+
+  @Test
+  public void getMolecularProfileSampleIndices() throws Exception {
+
+    Map<String, MolecularProfileSampleIndex> result =
+        molecularDataMyBatisRepository.getMolecularProfileSampleIndices(
+            Stream.of("study_tcga_pub_mrna", "study_tcga_pub_m_na", "invalid")
+                .collect(Collectors.toSet()));
+
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(11, result.get("study_tcga_pub_m_na").size());
+    Assert.assertEquals(8, result.get("study_tcga_pub_mrna").size());
+  }
+
   @Test
   public void getGeneMolecularAlterations() throws Exception {
 
@@ -13,8 +13,11 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.redisson.api.RBatch;
 import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
 import org.redisson.api.RKeys;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
 import org.springframework.cache.Cache;
 
@@ -25,6 +28,8 @@ public class CustomRedisCacheTest {
 
   private RKeys mockKeys;
 
+  @Mock RTopic topic;
+
   @Before
   public void setUp() throws Exception {
 
@@ -96,6 +101,19 @@ public class CustomRedisCacheTest {
     assertEquals(defaultReturn, actual);
   }
 
+  @Test
+  public void shouldStoreLoadedObject() {
+    RBucket bucket = Mockito.mock(RBucket.class);
+    when(bucket.get()).thenReturn(null);
+    when(client.getBucket("subject:57_onions")).thenReturn(bucket);
+
+    CustomRedisCache subject = new CustomRedisCache("subject", client, 100);
+    Object actual = subject.get("57_onions", () -> "loaded");
+
+    assertEquals("loaded", actual);
+    verify(bucket, times(1)).setAsync(any(), eq(100L), eq(TimeUnit.MINUTES));
+  }
+
   @Test
   public void shouldGetObjectThatDoesExistForStaticCache() {
     String defaultReturn = "this gets returned if the object DNE in cache";
@@ -299,6 +317,107 @@ public class CustomRedisCacheTest {
     assertEquals(toRoundTrip, roundTripped);
   }
 
+  @Test
+  public void shouldLookupObjectFromNearCache() {
+    RBucket bucket = Mockito.mock(RBucket.class);
+    when(bucket.get()).thenReturn(toStoreValue("success"));
+    when(client.getBucket("subject:57_onions")).thenReturn(bucket);
+
+    CustomRedisCache subject = createNearCachedSubject("subject", 100);
+    subject.lookup("57_onions");
+    Object actual = subject.lookup("57_onions");
+
+    assertEquals("success", actual);
+    // the second lookup is served from the near cache
+    verify(bucket, times(1)).get();
+    // the expiry is refreshed in batches instead
+    verify(bucket, never()).expireAsync(anyLong(), any(TimeUnit.class));
+    RedisNearCache.Statistics statistics = subject.getNearCacheStatistics();
+    assertEquals(1, statistics.nearHits());
+    assertEquals(1, statistics.redisHits());
+    assertEquals(0, statistics.misses());
+  }
+
+  @Test
+  public void shouldRefreshTouchedKeysInOneBatch() {
+    RBucket bucket = Mockito.mock(RBucket.class);
+    when(bucket.get()).thenReturn(toStoreValue("success"));
+    when(client.getBucket("subject:57_onions")).thenReturn(bucket);
+    RBatch batch = mock(RBatch.class);
+    RBucketAsync batchBucket = mock(RBucketAsync.class);
+    when(client.createBatch()).thenReturn(batch);
+    when(batch.getBucket("subject:57_onions")).thenReturn(batchBucket);
+
+    CustomRedisCache subject = createNearCachedSubject("subject", 100);
+    subject.lookup("57_onions");
+    subject.lookup("57_onions");
+    subject.refreshTouchedKeys();
+    subject.refreshTouchedKeys();
+
+    verify(batchBucket, times(1)).expireAsync(100, TimeUnit.MINUTES);
+    verify(batch, times(1)).executeAsync();
+  }
+
+  @Test
+  public void shouldInvalidateNearCacheOnEvict() {
+    RBucket bucket = Mockito.mock(RBucket.class);
+    when(bucket.get()).thenReturn(toStoreValue("success"));
+    when(client.getBucket("subject_1:key_2")).thenReturn(bucket);
+
+    CustomRedisCache subject = createNearCachedSubject("subject_1", -1);
+    subject.lookup("key_2");
+    subject.evict(".*key_2.*");
+    subject.lookup("key_2");
+
+    // the key is read from Redis again
+    verify(bucket, times(2)).get();
+    verify(topic, times(1)).publish(".*key_2.*");
+  }
+
+  @Test
+  public void shouldPublishInvalidationOnClear() {
+    RKeys allKeys = mock(RKeys.class);
+    when(client.getKeys()).thenReturn(allKeys);
+
+    CustomRedisCache subject = createNearCachedSubject("subject_1", 100);
+    subject.clear();
+
+    verify(allKeys, times(1)).deleteByPattern("subject_1:*");
+    verify(topic, times(1)).publish(".*");
+  }
+
+  @Test
+  public void shouldNotKeepLargeValuesInNearCache() {
+    RBucket bucket = Mockito.mock(RBucket.class);
+    when(bucket.get()).thenReturn(toStoreValue("a value that is larger than ten bytes"));
+    when(client.getBucket("subject_1:57_onions")).thenReturn(bucket);
+    when(client.getTopic(anyString(), any())).thenReturn(topic);
+
+    CustomRedisCache subject =
+        new CustomRedisCache(
+            "subject_1",
+            client,
+            -1,
+            new GzipSerializationCodec(),
+            new RedisNearCache(new RedisNearCache.Settings(1000, 10, 60, 60)),
+            null);
+    subject.lookup("57_onions");
+    subject.lookup("57_onions");
+
+    verify(bucket, times(2)).get();
+  }
+
+  private CustomRedisCache createNearCachedSubject(String name, long ttlMinutes) {
+    when(client.getTopic(anyString(), any())).thenReturn(topic);
+    return new CustomRedisCache(
+        name,
+        client,
+        ttlMinutes,
+        new GzipSerializationCodec(),
+        new RedisNearCache(new RedisNearCache.Settings(1024 * 1024, 1024 * 1024, 60, 60)),
+        null);
+  }
+
   private Object toStoreValue(Object rawValue) {
     CustomRedisCache converter = new CustomRedisCache("", client, -1);
     return converter.toStoreValue(rawValue);
@@ -0,0 +1,61 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeflateSerializationCodecTest {
+
+  private final DeflateSerializationCodec codec = new DeflateSerializationCodec(1024, 1);
+
+  @Test
+  public void smallValueIsNotCompressed() throws Exception {
+    byte[] bytes = codec.encode("The quick brown fox jumped over the lazy dog");
+
+    Assert.assertEquals(DeflateSerializationCodec.FORMAT, bytes[0]);
+    Assert.assertEquals(DeflateSerializationCodec.UNCOMPRESSED, bytes[1]);
+    Assert.assertEquals("The quick brown fox jumped over the lazy dog", codec.decode(bytes));
+  }
+
+  @Test
+  public void largeValueIsCompressed() throws Exception {
+    List<ClinicalDataCount> counts = createCounts(1000);
+
+    byte[] bytes = codec.encode(counts);
+
+    Assert.assertEquals(DeflateSerializationCodec.DEFLATED, bytes[1]);
+    List<ClinicalDataCount> decoded = (List<ClinicalDataCount>) codec.decode(bytes);
+    Assert.assertEquals(1000, decoded.size());
+    Assert.assertEquals("value_999", decoded.get(999).getValue());
+    Assert.assertEquals(Integer.valueOf(999), decoded.get(999).getCount());
+  }
+
+  @Test
+  public void legacyValueIsRead() throws Exception {
+    byte[] bytes = new GzipSerializationCodec().encode(createCounts(10));
+
+    List<ClinicalDataCount> decoded = (List<ClinicalDataCount>) codec.decode(bytes);
+
+    Assert.assertEquals(10, decoded.size());
+    Assert.assertEquals("value_9", decoded.get(9).getValue());
+  }
+
+  @Test(expected = java.io.IOException.class)
+  public void unknownFormatIsRejected() throws Exception {
+    codec.decode(new byte[] {42, 0, 1, 2});
+  }
+
+  private List<ClinicalDataCount> createCounts(int size) {
+    List<ClinicalDataCount> counts = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      ClinicalDataCount count = new ClinicalDataCount();
+      count.setAttributeId("CANCER_TYPE_DETAILED");
+      count.setValue("value_" + i);
+      count.setCount(i);
+      counts.add(count);
+    }
+    return counts;
+  }
+}
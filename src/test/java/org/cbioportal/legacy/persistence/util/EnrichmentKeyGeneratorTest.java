@@ -0,0 +1,160 @@
+package org.cbioportal.legacy.persistence.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.ClinicalAttribute;
+import org.cbioportal.legacy.model.EnrichmentType;
+import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
+import org.cbioportal.legacy.persistence.StudyRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EnrichmentKeyGeneratorTest {
+
+  private static final String STUDY_ID = "test_study_1";
+  private static final String PROFILE_ID = STUDY_ID + "_mrna";
+
+  @InjectMocks private EnrichmentKeyGenerator enrichmentKeyGenerator;
+
+  @Mock private StudyRepository studyRepository;
+
+  @Mock private CacheEnabledConfig cacheEnabledConfig;
+
+  private Method method;
+
+  @Before
+  public void setUp() throws Exception {
+    when(cacheEnabledConfig.isEnabled()).thenReturn(true);
+    method = this.getClass().getMethod("setUp");
+  }
+
+  @Test
+  public void sameKeyForReorderedCases() {
+    Map<String, List<MolecularProfileCaseIdentifier>> groups = new LinkedHashMap<>();
+    groups.put("altered", createCases("sample_1", "sample_2"));
+    groups.put("unaltered", createCases("sample_3", "sample_4"));
+
+    Map<String, List<MolecularProfileCaseIdentifier>> reorderedCases = new LinkedHashMap<>();
+    reorderedCases.put("altered", createCases("sample_2", "sample_1"));
+    reorderedCases.put("unaltered", createCases("sample_4", "sample_3"));
+
+    Assert.assertEquals(
+        enrichmentKeyGenerator.generate(this, method, PROFILE_ID, groups, EnrichmentType.SAMPLE),
+        enrichmentKeyGenerator.generate(
+            this, method, PROFILE_ID, reorderedCases, EnrichmentType.SAMPLE));
+  }
+
+  // the order of the groups and attributes is the order of the results
+  @Test
+  public void differentKeyForReorderedGroupsAndAttributes() {
+    Map<String, List<MolecularProfileCaseIdentifier>> groups = new LinkedHashMap<>();
+    groups.put("altered", createCases("sample_1", "sample_2"));
+    groups.put("unaltered", createCases("sample_3", "sample_4"));
+
+    Map<String, List<MolecularProfileCaseIdentifier>> reorderedGroups = new LinkedHashMap<>();
+    reorderedGroups.put("unaltered", createCases("sample_3", "sample_4"));
+    reorderedGroups.put("altered", createCases("sample_1", "sample_2"));
+
+    Assert.assertNotEquals(
+        enrichmentKeyGenerator.generate(this, method, PROFILE_ID, groups, EnrichmentType.SAMPLE),
+        enrichmentKeyGenerator.generate(
+            this, method, PROFILE_ID, reorderedGroups, EnrichmentType.SAMPLE));
+    Assert.assertNotEquals(
+        enrichmentKeyGenerator.generate(
+            this,
+            method,
+            List.of(createAttribute("AGE"), createAttribute("SEX")),
+            List.of(createSamples("sample_1"), createSamples("sample_2"))),
+        enrichmentKeyGenerator.generate(
+            this,
+            method,
+            List.of(createAttribute("SEX"), createAttribute("AGE")),
+            List.of(createSamples("sample_1"), createSamples("sample_2"))));
+  }
+
+  @Test
+  public void differentKeyForDifferentGroups() {
+    Map<String, List<MolecularProfileCaseIdentifier>> groups = new LinkedHashMap<>();
+    groups.put("altered", createCases("sample_1", "sample_2"));
+    groups.put("unaltered", createCases("sample_3", "sample_4"));
+
+    // same cases, but assigned to other groups
+    Map<String, List<MolecularProfileCaseIdentifier>> otherGroups = new LinkedHashMap<>();
+    otherGroups.put("altered", createCases("sample_1", "sample_3"));
+    otherGroups.put("unaltered", createCases("sample_2", "sample_4"));
+
+    Assert.assertNotEquals(
+        enrichmentKeyGenerator.generate(this, method, PROFILE_ID, groups, EnrichmentType.SAMPLE),
+        enrichmentKeyGenerator.generate(
+            this, method, PROFILE_ID, otherGroups, EnrichmentType.SAMPLE));
+    Assert.assertNotEquals(
+        enrichmentKeyGenerator.generate(this, method, PROFILE_ID, groups, EnrichmentType.SAMPLE),
+        enrichmentKeyGenerator.generate(this, method, PROFILE_ID, groups, EnrichmentType.PATIENT));
+  }
+
+  // large groups are hashed, the study id has to stay in the key for study specific eviction
+  @Test
+  public void largeGroupsKeepStudyId() {
+    CancerStudy cancerStudy = mock(CancerStudy.class);
+    when(cancerStudy.getCancerStudyIdentifier()).thenReturn(STUDY_ID);
+    when(studyRepository.getAllStudies(any(), any(), any(), any(), any(), any()))
+        .thenReturn(Arrays.asList(cancerStudy));
+
+    List<String> sampleIds = new ArrayList<>();
+    for (int i = 0; i < CustomKeyGenerator.PARAM_LENGTH_HASH_LIMIT; i++) {
+      sampleIds.add("sample_" + i);
+    }
+    Map<String, List<MolecularProfileCaseIdentifier>> groups =
+        Map.of("altered", createCases(sampleIds.toArray(new String[0])));
+
+    String key = (String) enrichmentKeyGenerator.generate(this, method, groups);
+
+    Assert.assertTrue(key.startsWith("EnrichmentKeyGeneratorTest_setUp_" + STUDY_ID + "_"));
+    Assert.assertTrue(key.length() < CustomKeyGenerator.PARAM_LENGTH_HASH_LIMIT);
+  }
+
+  private ClinicalAttribute createAttribute(String attributeId) {
+    ClinicalAttribute clinicalAttribute = new ClinicalAttribute();
+    clinicalAttribute.setAttrId(attributeId);
+    return clinicalAttribute;
+  }
+
+  private List<Sample> createSamples(String... sampleIds) {
+    List<Sample> samples = new ArrayList<>();
+    for (String sampleId : sampleIds) {
+      Sample sample = new Sample();
+      sample.setCancerStudyIdentifier(STUDY_ID);
+      sample.setStableId(sampleId);
+      samples.add(sample);
+    }
+    return samples;
+  }
+
+  private List<MolecularProfileCaseIdentifier> createCases(String... caseIds) {
+    List<MolecularProfileCaseIdentifier> cases = new ArrayList<>();
+    for (String caseId : caseIds) {
+      MolecularProfileCaseIdentifier identifier = new MolecularProfileCaseIdentifier();
+      identifier.setMolecularProfileId(PROFILE_ID);
+      identifier.setCaseId(caseId);
+      cases.add(identifier);
+    }
+    return cases;
+  }
+}
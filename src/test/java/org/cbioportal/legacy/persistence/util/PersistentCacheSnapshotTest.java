@@ -0,0 +1,88 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentCacheSnapshotTest {
+
+  private static final Map<String, String> TIMESTAMPS =
+      Map.of("sample", "2024-01-01 00:00:00", "mutation", "2024-01-02 00:00:00");
+  private static final Map<String, String> IMPORT_DATES =
+      Map.of("study_1", "2024-01-01 00:00:00", "study_2", "2024-01-02 00:00:00");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = new File(temporaryFolder.getRoot(), "cache");
+    new PersistentCacheSnapshot(directory, "6.0.0", TIMESTAMPS, IMPORT_DATES).prepare();
+    Files.writeString(new File(directory, "entries").toPath(), "cached");
+  }
+
+  @Test
+  public void sameDataKeepsEntries() throws Exception {
+    new PersistentCacheSnapshot(directory, "6.0.0", Map.copyOf(TIMESTAMPS), IMPORT_DATES).prepare();
+
+    Assert.assertTrue(new File(directory, "entries").exists());
+  }
+
+  @Test
+  public void changedTimestampDiscardsEntries() throws Exception {
+    new PersistentCacheSnapshot(
+            directory,
+            "6.0.0",
+            Map.of("sample", "2024-01-01 00:00:00", "mutation", "2024-02-01 00:00:00"),
+            IMPORT_DATES)
+        .prepare();
+
+    Assert.assertFalse(new File(directory, "entries").exists());
+    Assert.assertTrue(new File(directory, PersistentCacheSnapshot.MARKER_FILE).exists());
+  }
+
+  @Test
+  public void changedPortalVersionDiscardsEntries() throws Exception {
+    new PersistentCacheSnapshot(directory, "6.1.0", TIMESTAMPS, IMPORT_DATES).prepare();
+
+    Assert.assertFalse(new File(directory, "entries").exists());
+  }
+
+  @Test
+  public void changedImportDateDiscardsEntries() throws Exception {
+    // the table timestamps of MySQL may be the same after it restarted
+    new PersistentCacheSnapshot(
+            directory,
+            "6.0.0",
+            TIMESTAMPS,
+            Map.of("study_1", "2024-01-01 00:00:00", "study_2", "2024-03-01 00:00:00"))
+        .prepare();
+
+    Assert.assertFalse(new File(directory, "entries").exists());
+  }
+
+  @Test
+  public void emptyTimestampsDiscardEntries() throws Exception {
+    // no timestamps are read without db.portal_db_name
+    new PersistentCacheSnapshot(directory, "6.0.0", Map.of(), IMPORT_DATES).prepare();
+    Files.writeString(new File(directory, "entries").toPath(), "cached");
+    new PersistentCacheSnapshot(directory, "6.0.0", Map.of(), IMPORT_DATES).prepare();
+
+    Assert.assertFalse(new File(directory, "entries").exists());
+  }
+
+  @Test
+  public void unknownTimestampsDiscardEntries() throws Exception {
+    new PersistentCacheSnapshot(directory, "6.0.0", null, IMPORT_DATES).prepare();
+
+    Assert.assertFalse(new File(directory, "entries").exists());
+    // without a marker the next start discards the entries as well
+    Assert.assertFalse(new File(directory, PersistentCacheSnapshot.MARKER_FILE).exists());
+  }
+}
@@ -0,0 +1,119 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.cbioportal.legacy.model.AlterationCountByGene;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.ClinicalDataCountItem;
+import org.cbioportal.legacy.model.Sample;
+
+/**
+ * Compares the size and the encoding and decoding time of the Redis cache codecs on synthetic study
+ * view results. Not a unit test, run it with the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *     org.cbioportal.legacy.persistence.util.RedisCacheCodecBenchmark [samples] [genes]
+ * </pre>
+ */
+public class RedisCacheCodecBenchmark {
+
+  private static final int ITERATIONS = 20;
+
+  public static void main(String[] args) throws Exception {
+    int sampleCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int geneCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+    List<Sample> samples = createSamples(sampleCount);
+    List<AlterationCountByGene> alterationCounts = createAlterationCounts(geneCount);
+    // a typical single chart
+    List<ClinicalDataCountItem> clinicalDataCounts = createClinicalDataCounts(1, 6);
+
+    for (RedisCacheCodec codec :
+        List.of(
+            new GzipSerializationCodec(),
+            new DeflateSerializationCodec(1024, 1),
+            new SmileSerializationCodec())) {
+      run(codec, sampleCount + " samples", samples);
+      run(codec, geneCount + " alteration counts", alterationCounts);
+      run(codec, "1 clinical data chart", clinicalDataCounts);
+    }
+  }
+
+  private static void run(RedisCacheCodec codec, String description, Object value)
+      throws Exception {
+    byte[] bytes = codec.encode(value);
+    codec.decode(bytes);
+
+    long encodeNanos = 0;
+    long decodeNanos = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      bytes = codec.encode(value);
+      long encoded = System.nanoTime();
+      codec.decode(bytes);
+      decodeNanos += System.nanoTime() - encoded;
+      encodeNanos += encoded - start;
+    }
+    System.out.printf(
+        "%-26s %-28s %,12d bytes  encode %,8.1f ms  decode %,8.1f ms%n",
+        codec.getClass().getSimpleName(),
+        description,
+        bytes.length,
+        encodeNanos / 1e6 / ITERATIONS,
+        decodeNanos / 1e6 / ITERATIONS);
+  }
+
+  private static List<Sample> createSamples(int count) {
+    List<Sample> samples = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Sample sample = new Sample();
+      sample.setInternalId(i);
+      sample.setStableId("P-" + String.format("%07d", i) + "-T01-IM6");
+      sample.setPatientId(i / 2);
+      sample.setPatientStableId("P-" + String.format("%07d", i / 2));
+      sample.setCancerStudyIdentifier("msk_impact_2017");
+      sample.setSampleType(Sample.SampleType.PRIMARY_SOLID_TUMOR);
+      sample.setSequenced(true);
+      sample.setCopyNumberSegmentPresent(false);
+      samples.add(sample);
+    }
+    return samples;
+  }
+
+  private static List<AlterationCountByGene> createAlterationCounts(int count) {
+    List<AlterationCountByGene> alterationCounts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      AlterationCountByGene alterationCount = new AlterationCountByGene();
+      alterationCount.setEntrezGeneId(i);
+      alterationCount.setHugoGeneSymbol("GENE" + i);
+      alterationCount.setNumberOfAlteredCases(i % 500);
+      alterationCount.setTotalCount(i % 700);
+      alterationCount.setNumberOfProfiledCases(10_000);
+      alterationCount.setMatchingGenePanelIds(Set.of("IMPACT468"));
+      alterationCounts.add(alterationCount);
+    }
+    return alterationCounts;
+  }
+
+  private static List<ClinicalDataCountItem> createClinicalDataCounts(
+      int attributeCount, int valueCount) {
+    List<ClinicalDataCountItem> items = new ArrayList<>(attributeCount);
+    for (int i = 0; i < attributeCount; i++) {
+      List<ClinicalDataCount> counts = new ArrayList<>(valueCount);
+      for (int j = 0; j < valueCount; j++) {
+        ClinicalDataCount count = new ClinicalDataCount();
+        count.setAttributeId("ATTRIBUTE_" + i);
+        count.setValue("Value " + j);
+        count.setCount(j * 10);
+        counts.add(count);
+      }
+      ClinicalDataCountItem item = new ClinicalDataCountItem();
+      item.setAttributeId("ATTRIBUTE_" + i);
+      item.setCounts(counts);
+      items.add(item);
+    }
+    return items;
+  }
+}
@@ -0,0 +1,114 @@
+package org.cbioportal.legacy.persistence.util;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RedisLoadingLeaseTest {
+
+  private static final String LEASE_KEY = RedisLoadingLease.KEY_PREFIX + "cache:key";
+
+  @Mock private RedissonClient client;
+  @Mock private RBucket<Object> lease;
+  @Mock private RScript script;
+
+  private RedisLoadingLease loadingLease;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    when(client.getBucket(LEASE_KEY, StringCodec.INSTANCE)).thenReturn(lease);
+    loadingLease = new RedisLoadingLease(client, new RedisLoadingLease.Settings(10, 1));
+  }
+
+  @Test
+  public void acquiredLeaseLoadsAndReleasesOwnToken() throws Exception {
+    when(lease.trySet(anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+    when(client.getScript(StringCodec.INSTANCE)).thenReturn(script);
+
+    Assert.assertEquals("value", load(() -> null));
+
+    ArgumentCaptor<Object> token = ArgumentCaptor.forClass(Object.class);
+    verify(lease).trySet(token.capture(), eq(10000L), eq(TimeUnit.MILLISECONDS));
+    verify(script)
+        .evalAsync(
+            RScript.Mode.READ_WRITE,
+            RedisLoadingLease.RELEASE_SCRIPT,
+            RScript.ReturnType.INTEGER,
+            List.of(LEASE_KEY),
+            token.getValue());
+    verify(lease, never()).delete();
+    verify(lease, never()).deleteAsync();
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(new RedisLoadingLease.Statistics(1, 0, 0), loadingLease.getStatistics());
+  }
+
+  @Test
+  public void leasesHaveDistinctTokens() throws Exception {
+    when(lease.trySet(anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+    when(client.getScript(StringCodec.INSTANCE)).thenReturn(script);
+
+    load(() -> null);
+    load(() -> null);
+
+    ArgumentCaptor<Object> tokens = ArgumentCaptor.forClass(Object.class);
+    verify(lease, times(2)).trySet(tokens.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    Assert.assertNotEquals(tokens.getAllValues().get(0), tokens.getAllValues().get(1));
+  }
+
+  @Test
+  public void waitingInstanceReceivesStoredValue() throws Exception {
+    when(lease.trySet(anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+    when(lease.isExists()).thenReturn(true);
+    AtomicInteger lookups = new AtomicInteger();
+
+    // the value is stored by the other instance after the third poll
+    String value = load(() -> lookups.incrementAndGet() < 3 ? null : "stored value");
+
+    Assert.assertEquals("stored value", value);
+    Assert.assertEquals(0, loads.get());
+    verify(client, never()).getScript(StringCodec.INSTANCE);
+    Assert.assertEquals(new RedisLoadingLease.Statistics(0, 1, 0), loadingLease.getStatistics());
+  }
+
+  @Test
+  public void releasedLeaseWithoutValueLoads() throws Exception {
+    when(lease.trySet(anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+    when(lease.isExists()).thenReturn(true, false);
+
+    Assert.assertEquals("value", load(() -> null));
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(new RedisLoadingLease.Statistics(0, 0, 0), loadingLease.getStatistics());
+  }
+
+  private String load(Supplier<String> lookup) throws Exception {
+    return loadingLease.load(
+        "cache:key",
+        lookup,
+        () -> {
+          loads.incrementAndGet();
+          return "value";
+        });
+  }
+}
@@ -0,0 +1,164 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+public class SingleFlightCacheTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentMissesLoadOnce() throws Exception {
+    SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("test"), 10000);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> first =
+        executor.submit(
+            () ->
+                cache.get(
+                    "key",
+                    () -> {
+                      loads.incrementAndGet();
+                      loading.countDown();
+                      release.await();
+                      return "value";
+                    }));
+    loading.await();
+    Future<String> second =
+        executor.submit(
+            () ->
+                cache.get(
+                    "key",
+                    () -> {
+                      loads.incrementAndGet();
+                      return "other value";
+                    }));
+    awaitWaitingRequest(cache);
+    release.countDown();
+
+    Assert.assertEquals("value", first.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals("value", second.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals("value", cache.get("key").get());
+    Assert.assertEquals(new SingleFlightCache.Statistics(1, 1, 0), cache.getStatistics());
+  }
+
+  @Test
+  public void waitingRequestsFailWithTheLoader() throws Exception {
+    SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("test"), 10000);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> first =
+        executor.submit(
+            () ->
+                cache.get(
+                    "key",
+                    () -> {
+                      loading.countDown();
+                      release.await();
+                      throw new IllegalStateException("failed");
+                    }));
+    loading.await();
+    Future<String> second = executor.submit(() -> cache.get("key", () -> "value"));
+    awaitWaitingRequest(cache);
+    release.countDown();
+
+    assertFailsWithLoaderException(first);
+    assertFailsWithLoaderException(second);
+    Assert.assertNull(cache.get("key"));
+  }
+
+  @Test
+  public void waitingRequestLoadsAfterTimeout() throws Exception {
+    SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("test"), 50);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> first =
+        executor.submit(
+            () ->
+                cache.get(
+                    "key",
+                    () -> {
+                      loading.countDown();
+                      release.await();
+                      return "value";
+                    }));
+    loading.await();
+    String second = cache.get("key", () -> "other value");
+    release.countDown();
+
+    Assert.assertEquals("other value", second);
+    Assert.assertEquals("value", first.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, cache.getStatistics().timeouts());
+  }
+
+  @Test
+  public void cachedValueIsNotLoaded() {
+    Cache delegate = new ConcurrentMapCache("test");
+    delegate.put("key", "value");
+    SingleFlightCache cache = new SingleFlightCache(delegate, 10000);
+
+    Assert.assertEquals("value", cache.get("key", () -> "other value"));
+    Assert.assertEquals(0, cache.getStatistics().loads());
+  }
+
+  @Test
+  public void valueStoredAfterLookupIsNotLoaded() {
+    // the first lookup misses the value stored by a load that finished right after it
+    Cache delegate =
+        new ConcurrentMapCache("test") {
+          private boolean missed;
+
+          @Override
+          public ValueWrapper get(Object key) {
+            if (!missed) {
+              missed = true;
+              return null;
+            }
+            return super.get(key);
+          }
+        };
+    delegate.put("key", "value");
+    SingleFlightCache cache = new SingleFlightCache(delegate, 10000);
+
+    Assert.assertEquals("value", cache.get("key", () -> "other value"));
+    Assert.assertEquals(0, cache.getStatistics().loads());
+  }
+
+  private void awaitWaitingRequest(SingleFlightCache cache) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (cache.getWaitingCount() == 0) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(1);
+    }
+  }
+
+  private void assertFailsWithLoaderException(Future<String> future) throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof Cache.ValueRetrievalException);
+      Assert.assertEquals("failed", e.getCause().getCause().getMessage());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.cbioportal.legacy.model.Sample;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SmileSerializationCodecTest {
+
+  private final SmileSerializationCodec codec = new SmileSerializationCodec();
+
+  @Test
+  public void valueIsReadWithItsClasses() throws Exception {
+    List<Object> values = new ArrayList<>(createCounts(100));
+    values.add(42L);
+    values.add(Sample.SampleType.METASTATIC);
+
+    byte[] bytes = codec.encode(values);
+
+    Assert.assertEquals(SmileSerializationCodec.FORMAT, bytes[0]);
+    List<Object> decoded = (List<Object>) codec.decode(bytes);
+    Assert.assertEquals(102, decoded.size());
+    ClinicalDataCount count = (ClinicalDataCount) decoded.get(99);
+    Assert.assertEquals("value_99", count.getValue());
+    Assert.assertEquals(Integer.valueOf(99), count.getCount());
+    Assert.assertEquals(42L, decoded.get(100));
+    Assert.assertEquals(Sample.SampleType.METASTATIC, decoded.get(101));
+  }
+
+  @Test
+  public void mapWithNonStringKeysIsWrittenAsGzip() throws Exception {
+    Map<Integer, String> values = new HashMap<>();
+    values.put(1, "one");
+
+    byte[] bytes = codec.encode(values);
+
+    Assert.assertTrue(GzipSerializationCodec.isGzip(bytes));
+    Assert.assertEquals(values, codec.decode(bytes));
+  }
+
+  @Test
+  public void legacyValueIsRead() throws Exception {
+    byte[] bytes = new GzipSerializationCodec().encode(createCounts(10));
+
+    List<ClinicalDataCount> decoded = (List<ClinicalDataCount>) codec.decode(bytes);
+
+    Assert.assertEquals(10, decoded.size());
+    Assert.assertEquals("value_9", decoded.get(9).getValue());
+  }
+
+  @Test(expected = java.io.IOException.class)
+  public void unknownFormatIsRejected() throws Exception {
+    codec.decode(new byte[] {42, 0, 1, 2});
+  }
+
+  private List<ClinicalDataCount> createCounts(int size) {
+    List<ClinicalDataCount> counts = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      ClinicalDataCount count = new ClinicalDataCount();
+      count.setAttributeId("CANCER_TYPE_DETAILED");
+      count.setValue("value_" + i);
+      count.setCount(i);
+      counts.add(count);
+    }
+    return counts;
+  }
+}
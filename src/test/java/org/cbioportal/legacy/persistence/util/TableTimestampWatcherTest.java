@@ -0,0 +1,85 @@
+package org.cbioportal.legacy.persistence.util;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.TableTimestampPair;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TableTimestampWatcherTest {
+
+  private static final List<String> TABLES = List.of("mut_sig");
+
+  @Mock private StaticDataTimeStampRepository staticDataTimeStampRepository;
+
+  @Test
+  public void changedTimestampIsReported() {
+    TableTimestampWatcher watcher =
+        new TableTimestampWatcher(staticDataTimeStampRepository, TABLES, 0);
+    when(staticDataTimeStampRepository.getTimestamps(TABLES))
+        .thenReturn(List.of(createTimestamp("2024-01-01 00:00:00")));
+
+    Assert.assertFalse(watcher.hasChanged());
+    Assert.assertFalse(watcher.hasChanged());
+
+    when(staticDataTimeStampRepository.getTimestamps(TABLES))
+        .thenReturn(List.of(createTimestamp("2024-02-01 00:00:00")));
+    Assert.assertTrue(watcher.hasChanged());
+    Assert.assertFalse(watcher.hasChanged());
+  }
+
+  @Test
+  public void missingTimestampsFallBackToImportDates() {
+    TableTimestampWatcher watcher =
+        new TableTimestampWatcher(staticDataTimeStampRepository, TABLES, 0);
+    when(staticDataTimeStampRepository.getTimestamps(TABLES)).thenReturn(Collections.emptyList());
+    when(staticDataTimeStampRepository.getStudyImportDates())
+        .thenReturn(List.of(createStudy("study_1", new Date(1000))));
+
+    Assert.assertFalse(watcher.hasChanged());
+    Assert.assertFalse(watcher.hasChanged());
+
+    when(staticDataTimeStampRepository.getStudyImportDates())
+        .thenReturn(List.of(createStudy("study_1", new Date(2000))));
+    Assert.assertTrue(watcher.hasChanged());
+    Assert.assertFalse(watcher.hasChanged());
+  }
+
+  @Test
+  public void timestampsAreCheckedOncePerInterval() {
+    TableTimestampWatcher watcher =
+        new TableTimestampWatcher(staticDataTimeStampRepository, TABLES, 60);
+    when(staticDataTimeStampRepository.getTimestamps(TABLES))
+        .thenReturn(List.of(createTimestamp("2024-01-01 00:00:00")));
+
+    watcher.hasChanged();
+    watcher.hasChanged();
+
+    verify(staticDataTimeStampRepository, times(1)).getTimestamps(TABLES);
+  }
+
+  private CancerStudy createStudy(String cancerStudyIdentifier, Date importDate) {
+    CancerStudy cancerStudy = new CancerStudy();
+    cancerStudy.setCancerStudyIdentifier(cancerStudyIdentifier);
+    cancerStudy.setImportDate(importDate);
+    return cancerStudy;
+  }
+
+  private TableTimestampPair createTimestamp(String updateTime) {
+    TableTimestampPair pair = new TableTimestampPair();
+    pair.setTableName("mut_sig");
+    pair.setUpdateTime(updateTime);
+    return pair;
+  }
+}
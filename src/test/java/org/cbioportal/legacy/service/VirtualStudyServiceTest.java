@@ -6,8 +6,11 @@ import static org.junit.Assert.assertNotNull;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.service.impl.BaseServiceImplTest;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache.StudySampleLists;
 import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
+import org.cbioportal.legacy.service.util.VirtualStudySampleCache;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.VirtualStudy;
 import org.cbioportal.legacy.web.parameter.VirtualStudyData;
@@ -18,7 +21,9 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class VirtualStudyServiceTest extends BaseServiceImplTest {
@@ -27,17 +32,20 @@ public class VirtualStudyServiceTest extends BaseServiceImplTest {
 
   @Mock SessionServiceRequestHandler sessionServiceRequestHandler;
   @Mock StudyViewFilterApplier studyViewFilterApplier;
+  @Spy VirtualStudySampleCache virtualStudySampleCache = new VirtualStudySampleCache(100000, 60);
 
   SampleIdentifier sampleIdentifier1 = new SampleIdentifier();
 
   {
     sampleIdentifier1.setStudyId("STUDY_1");
+    sampleIdentifier1.setSampleId("S1");
   }
 
   SampleIdentifier sampleIdentifier2 = new SampleIdentifier();
 
   {
     sampleIdentifier2.setStudyId("STUDY_2");
+    sampleIdentifier2.setSampleId("S2");
   }
 
   @Test
@@ -72,6 +80,10 @@ public class VirtualStudyServiceTest extends BaseServiceImplTest {
 
     Mockito.when(studyViewFilterApplier.apply(Mockito.any()))
         .thenReturn(List.of(sampleIdentifier1, sampleIdentifier2));
+    Mockito.when(studyViewFilterApplier.getSampleListsByStudy(Mockito.any()))
+        .thenReturn(
+            StudySampleLists.byStudy(
+                List.of(sample("STUDY_1", "S1", 1), sample("STUDY_2", "S2", 2)), List.of()));
 
     VirtualStudy virtualStudy = virtualStudyService.getVirtualStudy("123");
     assertNotNull(virtualStudy.getData());
@@ -83,4 +95,43 @@ public class VirtualStudyServiceTest extends BaseServiceImplTest {
             .map(VirtualStudySamples::getId)
             .collect(Collectors.toSet()));
   }
+
+  @Test
+  public void testDynamicVirtualStudyIsResolvedOnce() throws Exception {
+    VirtualStudy response = new VirtualStudy();
+    ReflectionTestUtils.setField(response, "id", "123");
+    VirtualStudyData virtualStudyData = new VirtualStudyData();
+    virtualStudyData.setDynamic(true);
+    virtualStudyData.setName("Test");
+    virtualStudyData.setStudies(Set.of());
+    response.setData(virtualStudyData);
+    Mockito.when(sessionServiceRequestHandler.getVirtualStudyById("123")).thenReturn(response);
+
+    Mockito.when(studyViewFilterApplier.apply(Mockito.any()))
+        .thenReturn(List.of(sampleIdentifier1, sampleIdentifier2));
+    Mockito.when(studyViewFilterApplier.getSampleListsByStudy(Mockito.any()))
+        .thenReturn(
+            StudySampleLists.byStudy(
+                List.of(sample("STUDY_1", "S1", 1), sample("STUDY_2", "S2", 2)), List.of()));
+
+    virtualStudyService.getVirtualStudy("123");
+    VirtualStudy virtualStudy = virtualStudyService.getVirtualStudy("123");
+
+    Mockito.verify(studyViewFilterApplier, Mockito.times(1)).apply(Mockito.any());
+    // once to resolve the internal ids, then once per read to map them back to sample ids
+    Mockito.verify(studyViewFilterApplier, Mockito.times(3)).getSampleListsByStudy(Mockito.any());
+    assertEquals(
+        Set.of("STUDY_1:S1", "STUDY_2:S2"),
+        virtualStudy.getData().getStudies().stream()
+            .flatMap(vss -> vss.getSamples().stream().map(sampleId -> vss.getId() + ":" + sampleId))
+            .collect(Collectors.toSet()));
+  }
+
+  private Sample sample(String studyId, String sampleId, int internalId) {
+    Sample sample = new Sample();
+    sample.setCancerStudyIdentifier(studyId);
+    sample.setStableId(sampleId);
+    sample.setInternalId(internalId);
+    return sample;
+  }
 }
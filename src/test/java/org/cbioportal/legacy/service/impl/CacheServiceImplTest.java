@@ -4,11 +4,17 @@ import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
+import org.cbioportal.application.security.CancerStudyPermissionEvaluator;
 import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
 import org.cbioportal.legacy.persistence.util.CacheUtils;
+import org.cbioportal.legacy.persistence.util.MolecularProfileSampleIndexCache;
 import org.cbioportal.legacy.service.exception.CacheOperationException;
+import org.cbioportal.legacy.service.util.ClinicalTableSortOrderCache;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache;
+import org.cbioportal.legacy.service.util.VirtualStudySampleCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -35,6 +41,14 @@ public class CacheServiceImplTest {
 
   @Mock private StudyRepository studyRepository;
 
+  @Mock private MolecularProfileSampleIndexCache molecularProfileSampleIndexCache;
+
+  @Mock private ClinicalTableSortOrderCache clinicalTableSortOrderCache;
+  @Mock private VirtualStudySampleCache virtualStudySampleCache;
+  @Mock private SampleListMembershipCache sampleListMembershipCache;
+  @Mock private SignificantGeneQValueCache significantGeneQValueCache;
+  @Mock private CancerStudyPermissionEvaluator cancerStudyPermissionEvaluator;
+
   @Before
   public void init() {
     when(cacheManager.getCacheNames()).thenReturn(Arrays.asList("name_1", "name_2"));
@@ -58,6 +72,12 @@ public class CacheServiceImplTest {
     cachingService.clearCaches(true);
     verify(cacheUtils, times(2)).evictByPattern(anyString(), eq(clearAllKeysRegex));
     verify(cacheMapUtil, times(1)).initializeCacheMemory();
+    verify(molecularProfileSampleIndexCache, times(1)).invalidateAll();
+    verify(clinicalTableSortOrderCache, times(1)).invalidateAll();
+    verify(virtualStudySampleCache, times(1)).invalidateAll();
+    verify(sampleListMembershipCache, times(1)).invalidateAll();
+    verify(significantGeneQValueCache, times(1)).invalidateAll();
+    verify(cancerStudyPermissionEvaluator, times(1)).invalidateReadableStudyIndex();
   }
 
   @Test
@@ -89,6 +109,11 @@ public class CacheServiceImplTest {
     verify(cacheUtils, times(2))
         .evictByPattern(anyString(), eq("^(?=.*study3).*|^(?!.*study3)(?!.*study1)(?!.*study2).*"));
     verify(cacheMapUtil, times(1)).initializeCacheMemory();
+    verify(sampleListMembershipCache, times(1)).invalidate("study3");
+    verify(sampleListMembershipCache, never()).invalidateAll();
+    verify(significantGeneQValueCache, times(1)).invalidate("study3");
+    verify(significantGeneQValueCache, never()).invalidateAll();
+    verify(cancerStudyPermissionEvaluator, times(1)).invalidateReadableStudyIndex();
   }
 
   @Test
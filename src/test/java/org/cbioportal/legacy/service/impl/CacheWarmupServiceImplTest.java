@@ -0,0 +1,93 @@
+package org.cbioportal.legacy.service.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.ReferenceGenomeGene;
+import org.cbioportal.legacy.persistence.StudyRepository;
+import org.cbioportal.legacy.service.GeneMemoizerService;
+import org.cbioportal.legacy.service.ReferenceGenomeGeneService;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus;
+import org.cbioportal.legacy.service.util.CacheWarmupTask;
+import org.cbioportal.legacy.service.util.StudyCacheWarmupTask;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheWarmupServiceImplTest extends BaseServiceImplTest {
+
+  @InjectMocks private CacheWarmupServiceImpl cacheWarmupService;
+
+  @Mock private StudyRepository studyRepository;
+  @Mock private GeneMemoizerService geneMemoizerService;
+  @Mock private ReferenceGenomeGeneService referenceGenomeGeneService;
+  @Mock private CacheWarmupTask geneTask;
+  @Mock private CacheWarmupTask failingTask;
+  @Mock private StudyCacheWarmupTask studyTask;
+
+  @Test
+  public void warmUpRunsAllTasks() throws Exception {
+    ReflectionTestUtils.setField(cacheWarmupService, "enabled", true);
+    ReflectionTestUtils.setField(cacheWarmupService, "threads", 2);
+    ReflectionTestUtils.setField(cacheWarmupService, "topStudies", 1);
+    ReflectionTestUtils.setField(
+        cacheWarmupService, "cacheWarmupTasks", Arrays.asList(geneTask, failingTask));
+    ReflectionTestUtils.setField(
+        cacheWarmupService, "studyCacheWarmupTasks", Collections.singletonList(studyTask));
+
+    Mockito.when(geneTask.getName()).thenReturn("genes");
+    Mockito.when(failingTask.getName()).thenReturn("failing");
+    Mockito.doThrow(new IllegalStateException("database down")).when(failingTask).warmUp();
+    Mockito.when(studyTask.getName()).thenReturn("studyView");
+    Mockito.when(studyRepository.getAllStudies(null, "SUMMARY", null, null, null, null))
+        .thenReturn(
+            Arrays.asList(
+                createStudy("small_study", "hg19", 10), createStudy("large_study", "hg19", 100)));
+    List<ReferenceGenomeGene> genes = Collections.singletonList(new ReferenceGenomeGene());
+    Mockito.when(referenceGenomeGeneService.fetchAllReferenceGenomeGenes("hg19"))
+        .thenReturn(genes);
+
+    Assert.assertFalse(cacheWarmupService.getStatus().ready());
+
+    cacheWarmupService.warmUp();
+
+    CacheWarmupStatus status = cacheWarmupService.getStatus();
+    Assert.assertTrue(status.ready());
+    Assert.assertEquals(
+        Arrays.asList(
+            "genes:DONE",
+            "failing:FAILED",
+            "referenceGenomeGenes[hg19]:DONE",
+            "studyView[large_study]:DONE"),
+        status.tasks().stream()
+            .map(task -> task.name() + ":" + task.state())
+            .collect(Collectors.toList()));
+    Assert.assertEquals("database down", status.tasks().get(1).error());
+    Mockito.verify(geneTask).warmUp();
+    Mockito.verify(studyTask).warmUp("large_study");
+    Mockito.verify(studyTask, Mockito.never()).warmUp("small_study");
+    Mockito.verify(geneMemoizerService).cacheGenes(genes, "hg19");
+  }
+
+  @Test
+  public void readyWhenDisabled() {
+    Assert.assertTrue(cacheWarmupService.getStatus().ready());
+    Assert.assertTrue(cacheWarmupService.getStatus().tasks().isEmpty());
+  }
+
+  private CancerStudy createStudy(String studyId, String referenceGenome, int sampleCount) {
+    CancerStudy study = new CancerStudy();
+    study.setCancerStudyIdentifier(studyId);
+    study.setReferenceGenome(referenceGenome);
+    study.setAllSampleCount(sampleCount);
+    return study;
+  }
+}
@@ -10,6 +10,7 @@ import org.cbioportal.legacy.persistence.ClinicalAttributeRepository;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.ClinicalAttributeNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +18,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -27,10 +29,11 @@ public class ClinicalAttributeServiceImplTest extends BaseServiceImplTest {
 
   @Mock private ClinicalAttributeRepository clinicalAttributeRepository;
   @Mock private StudyService studyService;
+  @Spy private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Before
   public void setup() {
-    ReflectionTestUtils.setField(clinicalAttributeService, "AUTHENTICATE", "false");
+    ReflectionTestUtils.setField(cancerStudyPermissionFilter, "AUTHENTICATE", "false");
   }
 
   @Test
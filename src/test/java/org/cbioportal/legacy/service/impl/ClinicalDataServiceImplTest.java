@@ -1,5 +1,8 @@
 package org.cbioportal.legacy.service.impl;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.*;
@@ -8,10 +11,12 @@ import org.cbioportal.legacy.model.ClinicalAttribute;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.ClinicalDataCountItem;
+import org.cbioportal.legacy.model.ClinicalDataCountSummary;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.SampleClinicalDataCollection;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalDataRepository;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
 import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.PatientService;
 import org.cbioportal.legacy.service.SampleService;
@@ -20,6 +25,7 @@ import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.SampleNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
+import org.cbioportal.legacy.service.util.ClinicalTableSortOrderCache;
 import org.cbioportal.legacy.utils.Encoder;
 import org.junit.Assert;
 import org.junit.Before;
@@ -42,6 +48,10 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
   @Mock private ClinicalAttributeService clinicalAttributeService;
   @Spy private ClinicalAttributeUtil clinicalAttributeUtil = new ClinicalAttributeUtil();
 
+  @Spy
+  private ClinicalTableSortOrderCache clinicalTableSortOrderCache =
+      new ClinicalTableSortOrderCache(mock(StaticDataTimeStampRepository.class), 1000, 10, 60);
+
   ClinicalData datum1 = new ClinicalData();
   ClinicalData datum2 = new ClinicalData();
   String uniqueKeySample1;
@@ -363,27 +373,11 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
             Arrays.asList(
                 clinicalAttribute1, clinicalAttribute2, clinicalAttribute3, clinicalAttribute4));
 
-    ClinicalDataCount clinicalDataCount2 = new ClinicalDataCount();
-    clinicalDataCount2.setAttributeId(CLINICAL_ATTRIBUTE_ID_1);
-    clinicalDataCount2.setValue("NA");
-    clinicalDataCount2.setCount(1);
-    ClinicalDataCount clinicalDataCount5 = new ClinicalDataCount();
-    clinicalDataCount5.setAttributeId(CLINICAL_ATTRIBUTE_ID_3);
-    clinicalDataCount5.setValue("N/A");
-    clinicalDataCount5.setCount(3);
+    // NA values are dropped by the repository
     ClinicalDataCount clinicalDataCount6 = new ClinicalDataCount();
     clinicalDataCount6.setAttributeId(CLINICAL_ATTRIBUTE_ID_1);
     clinicalDataCount6.setValue("value1");
     clinicalDataCount6.setCount(2);
-
-    when(clinicalDataRepository.fetchClinicalDataCounts(
-            Arrays.asList(STUDY_ID, STUDY_ID, STUDY_ID),
-            Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3),
-            Arrays.asList(CLINICAL_ATTRIBUTE_ID_3, CLINICAL_ATTRIBUTE_ID_1),
-            "SAMPLE",
-            "SUMMARY"))
-        .thenReturn(Arrays.asList(clinicalDataCount2, clinicalDataCount5, clinicalDataCount6));
-
     ClinicalDataCount clinicalDataCount3 = new ClinicalDataCount();
     clinicalDataCount3.setAttributeId(CLINICAL_ATTRIBUTE_ID_2);
     clinicalDataCount3.setValue("value2");
@@ -392,46 +386,24 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
     clinicalDataCount4.setAttributeId(CLINICAL_ATTRIBUTE_ID_2);
     clinicalDataCount4.setValue("value3");
     clinicalDataCount4.setCount(1);
-
-    when(clinicalDataRepository.fetchClinicalDataCounts(
-            Arrays.asList(STUDY_ID, STUDY_ID, STUDY_ID),
-            Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3),
-            Arrays.asList(CLINICAL_ATTRIBUTE_ID_2),
-            "PATIENT",
-            "SUMMARY"))
-        .thenReturn(Arrays.asList(clinicalDataCount3, clinicalDataCount4));
-
     ClinicalDataCount clinicalDataCount1 = new ClinicalDataCount();
     clinicalDataCount1.setAttributeId(CLINICAL_ATTRIBUTE_ID_1);
     clinicalDataCount1.setValue("value1");
     clinicalDataCount1.setCount(2);
 
-    when(clinicalDataRepository.fetchClinicalDataCounts(
+    ClinicalDataCountSummary clinicalDataCountSummary = new ClinicalDataCountSummary();
+    clinicalDataCountSummary.setCounts(
+        Arrays.asList(
+            clinicalDataCount6, clinicalDataCount3, clinicalDataCount4, clinicalDataCount1));
+    clinicalDataCountSummary.setPatientCount(3);
+
+    when(clinicalDataRepository.fetchClinicalDataCountSummary(
             Arrays.asList(STUDY_ID, STUDY_ID, STUDY_ID),
             Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3),
-            Arrays.asList(CLINICAL_ATTRIBUTE_ID_1),
-            "PATIENT",
-            "DETAILED"))
-        .thenReturn(Arrays.asList(clinicalDataCount1));
-
-    List<Patient> patients = new ArrayList<>();
-    Patient patient1 = new Patient();
-    patient1.setStableId(PATIENT_ID_1);
-    patient1.setCancerStudyIdentifier(STUDY_ID);
-    patients.add(patient1);
-    Patient patient2 = new Patient();
-    patient2.setStableId(PATIENT_ID_2);
-    patient2.setCancerStudyIdentifier(STUDY_ID);
-    patients.add(patient2);
-    Patient patient3 = new Patient();
-    patient3.setStableId(PATIENT_ID_3);
-    patient3.setCancerStudyIdentifier(STUDY_ID);
-    patients.add(patient3);
-
-    when(patientService.getPatientsOfSamples(
-            Arrays.asList(STUDY_ID, STUDY_ID, STUDY_ID),
-            Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3)))
-        .thenReturn(patients);
+            Arrays.asList(CLINICAL_ATTRIBUTE_ID_3, CLINICAL_ATTRIBUTE_ID_1),
+            Arrays.asList(CLINICAL_ATTRIBUTE_ID_2),
+            Arrays.asList(CLINICAL_ATTRIBUTE_ID_1)))
+        .thenReturn(clinicalDataCountSummary);
 
     List<ClinicalDataCountItem> result =
         clinicalDataService.fetchClinicalDataCounts(
@@ -514,6 +486,31 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
         clinicalDataCollection.getByUniqueSampleKey().get(uniqueKeySample2).get(0).getStudyId());
   }
 
+  @Test
+  public void fetchSampleClinicalTableSortsOncePerTable() {
+
+    when(clinicalDataRepository.getVisibleSampleInternalIdsForClinicalTable(
+            sampleStudyIds, sampleIds, null, null, searchTerm, sortBy, direction))
+        .thenReturn(sampleInternalIdsAll);
+    when(clinicalDataRepository.getSampleClinicalDataBySampleInternalIds(Arrays.asList(2, 3)))
+        .thenReturn(List.of(datum1));
+    when(clinicalDataRepository.getPatientClinicalDataBySampleInternalIds(Arrays.asList(2, 3)))
+        .thenReturn(List.of());
+
+    clinicalDataService.fetchSampleClinicalTable(
+        sampleStudyIds, sampleIds, pageSize, 0, searchTerm, sortBy, direction);
+    ImmutablePair<SampleClinicalDataCollection, Integer> result =
+        clinicalDataService.fetchSampleClinicalTable(
+            sampleStudyIds, sampleIds, pageSize, 1, searchTerm, sortBy, direction);
+
+    Assert.assertEquals(4, (int) result.getRight());
+    Assert.assertEquals(1, result.getLeft().getByUniqueSampleKey().size());
+    Assert.assertTrue(result.getLeft().getByUniqueSampleKey().containsKey(uniqueKeySample1));
+    verify(clinicalDataRepository, times(1))
+        .getVisibleSampleInternalIdsForClinicalTable(
+            sampleStudyIds, sampleIds, null, null, searchTerm, sortBy, direction);
+  }
+
   @Test
   public void fetchSampleClinicalTableEmptyIdLists() {
     Assert.assertEquals(
@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import org.cbioportal.legacy.model.CoExpression;
 import org.cbioportal.legacy.model.EntityType;
 import org.cbioportal.legacy.model.Gene;
@@ -19,17 +18,26 @@ import org.cbioportal.legacy.service.GenesetService;
 import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.util.CoExpressionAsyncMethods;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisExecutorsResource;
 import org.junit.Assert;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class CoExpressionServiceImplTest extends BaseServiceImplTest {
 
+  @ClassRule
+  public static final AnalysisExecutorsResource ANALYSIS_EXECUTORS =
+      new AnalysisExecutorsResource();
+
   private static final double THRESHOLD = 0.3;
 
   @InjectMocks private CoExpressionServiceImpl coExpressionService;
@@ -41,6 +49,8 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
   @Mock private GenesetService genesetService;
   @Mock private MolecularProfileService molecularProfileService;
   @Mock private SampleListRepository sampleListRepository;
+  @Spy @InjectMocks private MolecularProfileResolutionContext molecularProfileResolutionContext;
+  @Spy private AnalysisExecutors analysisExecutors = ANALYSIS_EXECUTORS.get();
 
   @Test
   public void getGeneCorrelationForQueriedGene() throws Exception {
@@ -72,14 +82,14 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
 
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
-    List<CompletableFuture<CoExpression>> coExpressions = createCoExpressions();
+    List<CoExpression> coExpressions = createCoExpressions();
 
     Mockito.when(asyncMethods.computeCoExpression("2", allValuesA.get(0), valuesB, THRESHOLD))
         .thenReturn(coExpressions.get(0));
     Mockito.when(asyncMethods.computeCoExpression("3", allValuesA.get(1), valuesB, THRESHOLD))
         .thenReturn(coExpressions.get(1));
     Mockito.when(asyncMethods.computeCoExpression("4", allValuesA.get(2), valuesB, THRESHOLD))
-        .thenReturn(CompletableFuture.supplyAsync(() -> null));
+        .thenReturn(null);
 
     List<CoExpression> result =
         coExpressionService.getCoExpressions(
@@ -132,14 +142,14 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
 
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
-    List<CompletableFuture<CoExpression>> coExpressions = createCoExpressions();
+    List<CoExpression> coExpressions = createCoExpressions();
 
     Mockito.when(asyncMethods.computeCoExpression("2", allValuesA.get(0), valuesB, THRESHOLD))
         .thenReturn(coExpressions.get(0));
     Mockito.when(asyncMethods.computeCoExpression("3", allValuesA.get(1), valuesB, THRESHOLD))
         .thenReturn(coExpressions.get(1));
     Mockito.when(asyncMethods.computeCoExpression("4", allValuesA.get(2), valuesB, THRESHOLD))
-        .thenReturn(CompletableFuture.supplyAsync(() -> null));
+        .thenReturn(null);
 
     List<CoExpression> result =
         coExpressionService.fetchCoExpressions(
@@ -191,7 +201,7 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
 
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
-    List<CompletableFuture<CoExpression>> coExpressions = createCoExpressions();
+    List<CoExpression> coExpressions = createCoExpressions();
 
     Mockito.when(
             asyncMethods.computeCoExpression(
@@ -207,7 +217,7 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
                 allValuesA.get(2),
                 valuesB,
                 THRESHOLD))
-        .thenReturn(CompletableFuture.supplyAsync(() -> null));
+        .thenReturn(null);
 
     List<CoExpression> result =
         coExpressionService.getCoExpressions(
@@ -265,7 +275,7 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
 
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
-    List<CompletableFuture<CoExpression>> coExpressions = createCoExpressions();
+    List<CoExpression> coExpressions = createCoExpressions();
 
     Mockito.when(
             asyncMethods.computeCoExpression(
@@ -281,7 +291,7 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
                 allValuesA.get(2),
                 valuesB,
                 THRESHOLD))
-        .thenReturn(CompletableFuture.supplyAsync(() -> null));
+        .thenReturn(null);
 
     List<CoExpression> result =
         coExpressionService.fetchCoExpressions(
@@ -495,28 +505,28 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
     return new ArrayList<>(Arrays.asList("2.1", "3", "3"));
   }
 
-  private List<CompletableFuture<CoExpression>> createCoExpressions() {
-    List<CompletableFuture<CoExpression>> coExpressions = new ArrayList<>();
+  private List<CoExpression> createCoExpressions() {
+    List<CoExpression> coExpressions = new ArrayList<>();
     CoExpression coExpression1 = new CoExpression();
     coExpression1.setGeneticEntityId("2");
     coExpression1.setSpearmansCorrelation(new BigDecimal("0.5"));
     coExpression1.setpValue(new BigDecimal("0.6666666666666667"));
-    coExpressions.add(CompletableFuture.supplyAsync(() -> coExpression1));
+    coExpressions.add(coExpression1);
     CoExpression coExpression2 = new CoExpression();
     coExpression2.setGeneticEntityId("3");
     coExpression2.setSpearmansCorrelation(new BigDecimal("0.8660254037844386"));
     coExpression2.setpValue(new BigDecimal("0.3333333333333333"));
-    coExpressions.add(CompletableFuture.supplyAsync(() -> coExpression2));
+    coExpressions.add(coExpression2);
     CoExpression coExpression3 = new CoExpression();
     coExpression3.setGeneticEntityId("BIOCARTA_ASBCELL_PATHWAY");
     coExpression3.setSpearmansCorrelation(new BigDecimal("0.5"));
     coExpression3.setpValue(new BigDecimal("0.6666666666666667"));
-    coExpressions.add(CompletableFuture.supplyAsync(() -> coExpression3));
+    coExpressions.add(coExpression3);
     CoExpression coExpression4 = new CoExpression();
     coExpression4.setGeneticEntityId("KEGG_DNA_REPLICATION");
     coExpression4.setSpearmansCorrelation(new BigDecimal("0.8660254037844386"));
     coExpression4.setpValue(new BigDecimal("0.3333333333333333"));
-    coExpressions.add(CompletableFuture.supplyAsync(() -> coExpression4));
+    coExpressions.add(coExpression4);
     return coExpressions;
   }
 
@@ -8,6 +8,7 @@ import org.cbioportal.legacy.model.GenericAssayData;
 import org.cbioportal.legacy.model.GenericAssayMolecularAlteration;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MolecularProfile.MolecularAlterationType;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.meta.GenericAssayMeta;
@@ -78,28 +79,26 @@ public class GenericAssayServiceImpTest extends BaseServiceImplTest {
     molecularProfileSamples2.setMolecularProfileId(MOLECULAR_PROFILE_ID_2);
     molecularProfileSamples2.setCommaSeparatedSampleIds("1,2,");
 
-    Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap1 =
-        new HashMap<>();
-    commaSeparatedSampleIdsOfMolecularProfilesMap1.put(
-        MOLECULAR_PROFILE_ID_1, molecularProfileSamples1);
+    Map<String, MolecularProfileSampleIndex> sampleIndexMap1 = new HashMap<>();
+    sampleIndexMap1.put(
+        MOLECULAR_PROFILE_ID_1, MolecularProfileSampleIndex.of(molecularProfileSamples1));
 
-    Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap2 =
-        new HashMap<>();
-    commaSeparatedSampleIdsOfMolecularProfilesMap2.put(
-        MOLECULAR_PROFILE_ID_1, molecularProfileSamples1);
-    commaSeparatedSampleIdsOfMolecularProfilesMap2.put(
-        MOLECULAR_PROFILE_ID_2, molecularProfileSamples2);
+    Map<String, MolecularProfileSampleIndex> sampleIndexMap2 = new HashMap<>();
+    sampleIndexMap2.put(
+        MOLECULAR_PROFILE_ID_1, MolecularProfileSampleIndex.of(molecularProfileSamples1));
+    sampleIndexMap2.put(
+        MOLECULAR_PROFILE_ID_2, MolecularProfileSampleIndex.of(molecularProfileSamples2));
 
     // stub for samples
     Mockito.when(
-            geneticDataRepository.commaSeparatedSampleIdsOfMolecularProfilesMap(
+            geneticDataRepository.getMolecularProfileSampleIndices(
                 Collections.singleton(MOLECULAR_PROFILE_ID_1)))
-        .thenReturn(commaSeparatedSampleIdsOfMolecularProfilesMap1);
+        .thenReturn(sampleIndexMap1);
     Mockito.when(
-            geneticDataRepository.commaSeparatedSampleIdsOfMolecularProfilesMap(
+            geneticDataRepository.getMolecularProfileSampleIndices(
                 Stream.of(MOLECULAR_PROFILE_ID_1, MOLECULAR_PROFILE_ID_2)
                     .collect(Collectors.toSet())))
-        .thenReturn(commaSeparatedSampleIdsOfMolecularProfilesMap2);
+        .thenReturn(sampleIndexMap2);
 
     List<Sample> sampleList1 = new ArrayList<>();
     Sample sample = new Sample();
@@ -6,6 +6,7 @@ import java.util.List;
 import org.cbioportal.legacy.model.GenesetMolecularAlteration;
 import org.cbioportal.legacy.model.GenesetMolecularData;
 import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.persistence.MolecularDataRepository;
@@ -44,9 +45,8 @@ public class GenesetDataServiceImplTest extends BaseServiceImplTest {
 
     // stub for samples
     Mockito.when(
-            geneticDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(
-                MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+            geneticDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     List<Sample> sampleList1 = new ArrayList<>();
     Sample sample = new Sample();
@@ -11,6 +11,7 @@ import org.cbioportal.legacy.model.DiscreteCopyNumberData;
 import org.cbioportal.legacy.model.GeneMolecularAlteration;
 import org.cbioportal.legacy.model.GeneMolecularData;
 import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.meta.BaseMeta;
@@ -19,11 +20,13 @@ import org.cbioportal.legacy.persistence.MolecularDataRepository;
 import org.cbioportal.legacy.persistence.SampleListRepository;
 import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.SampleService;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -36,6 +39,7 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
   @Mock private SampleService sampleService;
   @Mock private MolecularProfileService molecularProfileService;
   @Mock private SampleListRepository sampleListRepository;
+  @Spy @InjectMocks private MolecularProfileResolutionContext molecularProfileResolutionContext;
 
   @Test
   public void getMolecularData() throws Exception {
@@ -47,8 +51,8 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
     molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
     molecularProfileSamples.setCommaSeparatedSampleIds("1,2,");
 
-    when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     MolecularProfile molecularProfile = new MolecularProfile();
     molecularProfile.setCancerStudyIdentifier(STUDY_ID);
@@ -99,8 +103,8 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
     molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
     molecularProfileSamples.setCommaSeparatedSampleIds("1,2,");
 
-    when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     MolecularProfile molecularProfile = new MolecularProfile();
     molecularProfile.setCancerStudyIdentifier(STUDY_ID);
@@ -149,8 +153,8 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
     molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
     molecularProfileSamples.setCommaSeparatedSampleIds("1,2,");
 
-    when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     List<GeneMolecularAlteration> molecularAlterationList = new ArrayList<>();
     GeneMolecularAlteration molecularAlteration = new GeneMolecularAlteration();
@@ -209,8 +213,8 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
     molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
     molecularProfileSamples.setCommaSeparatedSampleIds("1,2,");
 
-    when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     List<GeneMolecularAlteration> molecularAlterationList = new ArrayList<>();
     GeneMolecularAlteration molecularAlteration = new GeneMolecularAlteration();
@@ -252,8 +256,8 @@ public class MolecularDataServiceImplTest extends BaseServiceImplTest {
     molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
     molecularProfileSamples.setCommaSeparatedSampleIds("1,2,");
 
-    when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
-        .thenReturn(molecularProfileSamples);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(molecularProfileSamples));
 
     Integer result =
         molecularDataService.getNumberOfSamplesInMolecularProfile(MOLECULAR_PROFILE_ID);
@@ -10,6 +10,7 @@ import org.cbioportal.legacy.persistence.MolecularProfileRepository;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
 import org.junit.Assert;
 import org.junit.Before;
@@ -18,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -28,11 +30,12 @@ public class MolecularProfileServiceImplTest extends BaseServiceImplTest {
 
   @Mock private MolecularProfileRepository molecularProfileRepository;
   @Mock private StudyService studyService;
+  @Spy private CancerStudyPermissionFilter cancerStudyPermissionFilter;
   @Mock private MolecularProfileUtil molecularProfileUtil;
 
   @Before
   public void setup() {
-    ReflectionTestUtils.setField(molecularProfileService, "AUTHENTICATE", "false");
+    ReflectionTestUtils.setField(cancerStudyPermissionFilter, "AUTHENTICATE", "false");
   }
 
   @Test
@@ -8,12 +8,14 @@ import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.MrnaPercentile;
 import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.service.MolecularProfileService;
+import org.cbioportal.legacy.service.util.MolecularProfileResolutionContext;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -23,6 +25,7 @@ public class MrnaPercentileServiceImplTest extends BaseServiceImplTest {
 
   @Mock private MolecularDataService molecularDataService;
   @Mock private MolecularProfileService molecularProfileService;
+  @Spy @InjectMocks private MolecularProfileResolutionContext molecularProfileResolutionContext;
 
   @Test
   public void fetchMrnaPercentile() throws Exception {
@@ -9,6 +9,7 @@ import org.cbioportal.legacy.persistence.PatientRepository;
 import org.cbioportal.legacy.service.StudyService;
 import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +17,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -26,10 +28,11 @@ public class PatientServiceImplTest extends BaseServiceImplTest {
 
   @Mock private PatientRepository patientRepository;
   @Mock private StudyService studyService;
+  @Spy private CancerStudyPermissionFilter cancerStudyPermissionFilter;
 
   @Before
   public void setup() {
-    ReflectionTestUtils.setField(patientService, "AUTHENTICATE", "false");
+    ReflectionTestUtils.setField(cancerStudyPermissionFilter, "AUTHENTICATE", "false");
   }
 
   @Test
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import org.cbioportal.legacy.model.TypeOfCancer;
 import org.cbioportal.legacy.persistence.CancerTypeRepository;
+import org.cbioportal.legacy.service.CacheWarmupService;
+import org.cbioportal.legacy.service.util.CacheWarmupStatus;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -18,6 +20,7 @@ public class ServerStatusServiceImplTest extends BaseServiceImplTest {
   @InjectMocks private ServerStatusServiceImpl serverStatusService;
 
   @Mock private CancerTypeRepository cancerTypeRepository;
+  @Mock private CacheWarmupService cacheWarmupService;
 
   @Test
   public void getServerStatusSuccess() throws Exception {
@@ -44,4 +47,31 @@ public class ServerStatusServiceImplTest extends BaseServiceImplTest {
     Assert.assertEquals(
         ServerStatusServiceImpl.MESSAGE_DOWN, serverStatusService.getServerStatus().status);
   }
+
+  @Test
+  public void getReadinessWhileWarmingUp() throws Exception {
+
+    Mockito.when(cacheWarmupService.getStatus())
+        .thenReturn(
+            new CacheWarmupStatus(
+                false,
+                List.of(
+                    new CacheWarmupStatus.TaskStatus(
+                        "studyView[study_es_0]",
+                        CacheWarmupStatus.State.FAILED,
+                        10,
+                        "connection refused"))));
+
+    Assert.assertEquals(
+        ServerStatusServiceImpl.MESSAGE_WARMING_UP, serverStatusService.getReadiness().status);
+  }
+
+  @Test
+  public void getReadinessWhenReady() throws Exception {
+
+    Mockito.when(cacheWarmupService.getStatus()).thenReturn(new CacheWarmupStatus(true, List.of()));
+
+    Assert.assertEquals(
+        ServerStatusServiceImpl.MESSAGE_RUNNING, serverStatusService.getReadiness().status);
+  }
 }
@@ -12,13 +12,17 @@ import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.service.CancerTypeService;
 import org.cbioportal.legacy.service.ReadPermissionService;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.CancerStudyPermissionFilter;
 import org.cbioportal.legacy.utils.security.AccessLevel;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class StudyServiceImplTest extends BaseServiceImplTest {
@@ -29,6 +33,12 @@ public class StudyServiceImplTest extends BaseServiceImplTest {
 
   @Mock private StudyRepository studyRepository;
   @Mock private CancerTypeService cancerTypeService;
+  @Spy private CancerStudyPermissionFilter cancerStudyPermissionFilter;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(cancerStudyPermissionFilter, "AUTHENTICATE", "false");
+  }
 
   @Test
   public void getAllStudies() throws Exception {
@@ -8,14 +8,23 @@ import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalViolinPlotData;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisExecutorsResource;
 import org.junit.Assert;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class ViolinPlotServiceImplTest {
+
+  @ClassRule
+  public static final AnalysisExecutorsResource ANALYSIS_EXECUTORS =
+      new AnalysisExecutorsResource();
+
   private static final String[][] FGA_VALUES =
       new String[][] {
         new String[] {"0.1", "0.5", "0.2", "0.351", "0.44", "0.87", "0.75", "0.9", "0.2", "0.25"},
@@ -35,6 +44,7 @@ public class ViolinPlotServiceImplTest {
   private static final String[] EXPECTED_ROW_CATEGORIES = new String[] {};
 
   @InjectMocks private ViolinPlotServiceImpl violinPlotService;
+  @Spy private AnalysisExecutors analysisExecutors = ANALYSIS_EXECUTORS.get();
 
   @Test
   public void getClinicalViolinPlotData() throws Exception {
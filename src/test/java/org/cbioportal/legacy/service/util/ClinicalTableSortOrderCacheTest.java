@@ -0,0 +1,76 @@
+package org.cbioportal.legacy.service.util;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cbioportal.legacy.model.TableTimestampPair;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClinicalTableSortOrderCacheTest {
+
+  @Mock private StaticDataTimeStampRepository staticDataTimeStampRepository;
+
+  private ClinicalTableSortOrderCache clinicalTableSortOrderCache;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    // check the timestamps on every access
+    clinicalTableSortOrderCache =
+        new ClinicalTableSortOrderCache(staticDataTimeStampRepository, 1000, 10, 0);
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("2024-01-01 00:00:00")));
+  }
+
+  @Test
+  public void sortOrderIsLoadedOncePerCohort() {
+    int[] first = get(List.of("study_1", "study_1"), List.of("s1", "s2"), List.of(2, 1));
+    int[] second = get(List.of("study_1", "study_1"), List.of("s1", "s2"), List.of(3));
+    int[] otherStudy = get(List.of("study_2", "study_2"), List.of("s1", "s2"), List.of(4, 5));
+
+    Assert.assertArrayEquals(new int[] {2, 1}, first);
+    Assert.assertArrayEquals(new int[] {2, 1}, second);
+    Assert.assertArrayEquals(new int[] {4, 5}, otherStudy);
+    Assert.assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void changedTimestampReloads() {
+    get(List.of("study_1"), List.of("s1"), List.of(1));
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("2024-02-01 00:00:00")));
+    int[] reloaded = get(List.of("study_1"), List.of("s1"), List.of(2));
+
+    Assert.assertArrayEquals(new int[] {2}, reloaded);
+    Assert.assertEquals(2, loads.get());
+  }
+
+  private int[] get(List<String> studyIds, List<String> sampleIds, List<Integer> order) {
+    return clinicalTableSortOrderCache.get(
+        studyIds,
+        sampleIds,
+        null,
+        "AGE",
+        "ASC",
+        () -> {
+          loads.incrementAndGet();
+          return order;
+        });
+  }
+
+  private TableTimestampPair createTimestamp(String updateTime) {
+    TableTimestampPair pair = new TableTimestampPair();
+    pair.setTableName("clinical_sample");
+    pair.setUpdateTime(updateTime);
+    return pair;
+  }
+}
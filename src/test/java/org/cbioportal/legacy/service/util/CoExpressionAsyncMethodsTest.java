@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.cbioportal.legacy.model.CoExpression;
 import org.junit.Assert;
@@ -24,25 +23,22 @@ public class CoExpressionAsyncMethodsTest {
   @Test
   public void computeGeneCoExpressions() throws Exception {
 
-    List<CompletableFuture<CoExpression>> futures = new ArrayList<>();
+    List<CoExpression> coExpressions = new ArrayList<>();
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
 
-    CompletableFuture<CoExpression> future1 =
+    CoExpression computed1 =
         asyncMethods.computeCoExpression("2", allValuesA.get(0), valuesB, THRESHOLD);
-    CompletableFuture<CoExpression> future2 =
+    CoExpression computed2 =
         asyncMethods.computeCoExpression("3", allValuesA.get(1), valuesB, THRESHOLD);
-    CompletableFuture<CoExpression> future3 =
+    CoExpression computed3 =
         asyncMethods.computeCoExpression("4", allValuesA.get(2), valuesB, THRESHOLD);
 
-    futures.add(future1);
-    futures.add(future2);
-    futures.add(future3);
+    coExpressions.add(computed1);
+    coExpressions.add(computed2);
+    coExpressions.add(computed3);
     List<CoExpression> result =
-        futures.stream()
-            .filter(Objects::nonNull)
-            .map(CompletableFuture::join)
-            .collect(Collectors.toList());
+        coExpressions.stream().filter(Objects::nonNull).collect(Collectors.toList());
 
     Assert.assertEquals(2, result.size());
     CoExpression coExpression1 = result.get(0);
@@ -59,28 +55,25 @@ public class CoExpressionAsyncMethodsTest {
   @Test
   public void computeGenesetCoExpressions() throws Exception {
 
-    List<CompletableFuture<CoExpression>> futures = new ArrayList<>();
+    List<CoExpression> coExpressions = new ArrayList<>();
     List<List<String>> allValuesA = createAllValuesA();
     List<String> valuesB = createValuesB();
 
-    CompletableFuture<CoExpression> future1 =
+    CoExpression computed1 =
         asyncMethods.computeCoExpression(
             "KEGG_DNA_REPLICATION", allValuesA.get(1), valuesB, THRESHOLD);
-    CompletableFuture<CoExpression> future2 =
+    CoExpression computed2 =
         asyncMethods.computeCoExpression(
             "BIOCARTA_ASBCELL_PATHWAY", allValuesA.get(0), valuesB, THRESHOLD);
-    CompletableFuture<CoExpression> future3 =
+    CoExpression computed3 =
         asyncMethods.computeCoExpression(
             "REACTOME_DIGESTION_OF_DIETARY_CARBOHYDRATE", allValuesA.get(2), valuesB, THRESHOLD);
 
-    futures.add(future1);
-    futures.add(future2);
-    futures.add(future3);
+    coExpressions.add(computed1);
+    coExpressions.add(computed2);
+    coExpressions.add(computed3);
     List<CoExpression> result =
-        futures.stream()
-            .filter(Objects::nonNull)
-            .map(CompletableFuture::join)
-            .collect(Collectors.toList());
+        coExpressions.stream().filter(Objects::nonNull).collect(Collectors.toList());
 
     Assert.assertEquals(2, result.size());
     CoExpression coExpression1 = result.get(0);
@@ -0,0 +1,102 @@
+package org.cbioportal.legacy.service.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpressionEnrichmentUtilTest {
+
+  private static final String[] NUMERIC_VALUES = {"1.5", "-2", "0", "NA", "", "3e2", "NaN", "7"};
+  private static final String[] BINARY_VALUES = {"true", "yes", "false", "no", "", "1", "0"};
+
+  @Test
+  public void numericValuesEqualPreviousImplementation() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      String[] splitValues = randomValues(random, NUMERIC_VALUES);
+      int[] positions = randomPositions(random, splitValues.length);
+      for (boolean rnaSeq : new boolean[] {false, true}) {
+        Assert.assertArrayEquals(
+            getPreviousNumericValues(splitValues, positions, rnaSeq),
+            ExpressionEnrichmentUtil.getNumericValues(splitValues, positions, rnaSeq),
+            0);
+      }
+    }
+  }
+
+  @Test
+  public void binaryValuesEqualPreviousImplementation() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      String[] splitValues = randomValues(random, BINARY_VALUES);
+      int[] positions = randomPositions(random, splitValues.length);
+      for (boolean rnaSeq : new boolean[] {false, true}) {
+        Assert.assertArrayEquals(
+            getPreviousBinaryValues(splitValues, positions, rnaSeq),
+            ExpressionEnrichmentUtil.getBinaryValues(splitValues, positions, rnaSeq),
+            0);
+      }
+    }
+  }
+
+  private String[] randomValues(Random random, String[] candidates) {
+    String[] values = new String[1 + random.nextInt(50)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = candidates[random.nextInt(candidates.length)];
+    }
+    return values;
+  }
+
+  // positions of a group, in any order and possibly shared with other groups
+  private int[] randomPositions(Random random, int size) {
+    return random.ints(random.nextInt(2 * size), 0, size).toArray();
+  }
+
+  // values of a group as they were collected before the groups were resolved to position arrays
+  private double[] getPreviousNumericValues(String[] splitValues, int[] positions, boolean rnaSeq) {
+    List<String> molecularDataValues =
+        Arrays.stream(positions)
+            .mapToObj(position -> splitValues[position])
+            .filter(a -> NumberUtils.isNumber(a))
+            .collect(Collectors.toList());
+    return getPreviousAlterationValues(molecularDataValues, rnaSeq);
+  }
+
+  private double[] getPreviousBinaryValues(String[] splitValues, int[] positions, boolean rnaSeq) {
+    List<String> molecularDataValues =
+        Arrays.stream(positions)
+            .mapToObj(position -> splitValues[position])
+            .filter(StringUtils::isNotEmpty)
+            .map(
+                a -> {
+                  if (a.equals("true") || a.equals("yes")) {
+                    return "1";
+                  } else if (a.equals("false") || a.equals("no")) {
+                    return "0";
+                  } else {
+                    return a;
+                  }
+                })
+            .collect(Collectors.toList());
+    return getPreviousAlterationValues(molecularDataValues, rnaSeq);
+  }
+
+  private double[] getPreviousAlterationValues(List<String> molecularDataValues, boolean rnaSeq) {
+    if (rnaSeq) {
+      return molecularDataValues.stream()
+          .mapToDouble(
+              d -> {
+                double datum = Double.parseDouble(d);
+                return Math.log1p(datum < 0 ? 0 : datum) / Math.log(2);
+              })
+          .toArray();
+    } else {
+      return molecularDataValues.stream().mapToDouble(g -> Double.parseDouble(g)).toArray();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.cbioportal.legacy.service.util;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.model.MolecularProfileSampleIndex;
+import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.persistence.MolecularDataRepository;
+import org.cbioportal.legacy.service.MolecularProfileService;
+import org.cbioportal.legacy.service.SampleService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MolecularProfileResolutionContextTest {
+
+  private static final String MOLECULAR_PROFILE_ID = "study_mrna";
+  private static final String STUDY_ID = "study";
+
+  @InjectMocks private MolecularProfileResolutionContext molecularProfileResolutionContext;
+
+  @Mock private MolecularProfileService molecularProfileService;
+  @Mock private SampleService sampleService;
+  @Mock private MolecularDataRepository molecularDataRepository;
+
+  @After
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void resolvesOncePerRequest() throws Exception {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+
+    MolecularProfile molecularProfile = new MolecularProfile();
+    molecularProfile.setStableId(MOLECULAR_PROFILE_ID);
+    when(molecularProfileService.getMolecularProfile(MOLECULAR_PROFILE_ID))
+        .thenReturn(molecularProfile);
+    when(molecularDataRepository.getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID))
+        .thenReturn(MolecularProfileSampleIndex.of(createMolecularProfileSamples("3,1,2")));
+    List<String> studyIds = Arrays.asList(STUDY_ID, STUDY_ID);
+    List<String> sampleIds = Arrays.asList("sample_1", "sample_2");
+    Sample sample = new Sample();
+    sample.setStableId("sample_1");
+    when(sampleService.fetchSamples(studyIds, sampleIds, "ID"))
+        .thenReturn(Collections.singletonList(sample));
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertSame(
+          molecularProfile,
+          molecularProfileResolutionContext.getMolecularProfile(MOLECULAR_PROFILE_ID));
+      MolecularProfileSampleIndex sampleIndex =
+          molecularProfileResolutionContext.getSampleIndex(MOLECULAR_PROFILE_ID);
+      Assert.assertEquals(3, sampleIndex.size());
+      Assert.assertEquals(0, sampleIndex.indexOf(3));
+      Assert.assertEquals(2, sampleIndex.indexOf(2));
+      Assert.assertEquals(-1, sampleIndex.indexOf(4));
+      Assert.assertEquals(
+          1, molecularProfileResolutionContext.fetchSamples(studyIds, sampleIds, "ID").size());
+    }
+
+    verify(molecularProfileService, times(1)).getMolecularProfile(MOLECULAR_PROFILE_ID);
+    verify(molecularDataRepository, times(1))
+        .getMolecularProfileSampleIndex(MOLECULAR_PROFILE_ID);
+    verify(sampleService, times(1)).fetchSamples(studyIds, sampleIds, "ID");
+  }
+
+  @Test
+  public void delegatesOutsideOfRequest() throws Exception {
+    MolecularProfile molecularProfile = new MolecularProfile();
+    when(molecularProfileService.getMolecularProfile(MOLECULAR_PROFILE_ID))
+        .thenReturn(molecularProfile);
+
+    molecularProfileResolutionContext.getMolecularProfile(MOLECULAR_PROFILE_ID);
+    molecularProfileResolutionContext.getMolecularProfile(MOLECULAR_PROFILE_ID);
+
+    verify(molecularProfileService, times(2)).getMolecularProfile(MOLECULAR_PROFILE_ID);
+  }
+
+  private MolecularProfileSamples createMolecularProfileSamples(String commaSeparatedSampleIds) {
+    MolecularProfileSamples molecularProfileSamples = new MolecularProfileSamples();
+    molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
+    molecularProfileSamples.setCommaSeparatedSampleIds(commaSeparatedSampleIds);
+    return molecularProfileSamples;
+  }
+}
@@ -0,0 +1,111 @@
+package org.cbioportal.legacy.service.util;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.web.parameter.VirtualStudy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class SessionServiceRequestHandlerTest {
+
+  private static final String SESSION_SERVICE_URL = "http://localhost/session_service";
+
+  private SessionServiceRequestHandler sessionServiceRequestHandler;
+  private MockRestServiceServer server;
+
+  @Before
+  public void setUp() {
+    sessionServiceRequestHandler = new SessionServiceRequestHandler();
+    ReflectionTestUtils.setField(
+        sessionServiceRequestHandler, "sessionServiceURL", SESSION_SERVICE_URL);
+    ReflectionTestUtils.setField(
+        sessionServiceRequestHandler, "virtualStudyCacheExpireAfterWriteSeconds", 60L);
+    ReflectionTestUtils.setField(sessionServiceRequestHandler, "virtualStudyCacheMaxSize", 100L);
+    sessionServiceRequestHandler.init();
+
+    server =
+        MockRestServiceServer.bindTo(
+                (RestTemplate)
+                    ReflectionTestUtils.getField(sessionServiceRequestHandler, "restTemplate"))
+            .build();
+  }
+
+  @Test
+  public void getVirtualStudyByIdIsCached() {
+    expectGet("vs1");
+
+    VirtualStudy virtualStudy = sessionServiceRequestHandler.getVirtualStudyById("vs1");
+    virtualStudy.getData().setName("changed by caller");
+
+    Assert.assertEquals(
+        "study vs1", sessionServiceRequestHandler.getVirtualStudyById("vs1").getData().getName());
+    Assert.assertTrue(sessionServiceRequestHandler.getVirtualStudyByIdIfExists("vs1").isPresent());
+    server.verify();
+  }
+
+  @Test
+  public void updateVirtualStudyEvictsCachedStudy() {
+    expectGet("vs1");
+    server
+        .expect(requestTo(SESSION_SERVICE_URL + "/virtual_study/vs1"))
+        .andExpect(method(HttpMethod.PUT))
+        .andRespond(withSuccess());
+    expectGet("vs1");
+
+    VirtualStudy virtualStudy = sessionServiceRequestHandler.getVirtualStudyById("vs1");
+    sessionServiceRequestHandler.updateVirtualStudy(virtualStudy);
+    sessionServiceRequestHandler.getVirtualStudyById("vs1");
+    server.verify();
+  }
+
+  @Test
+  public void getVirtualStudiesByIdsFetchesMissingStudiesInOneRequest() {
+    expectGet("vs1");
+    // vs3 does not exist, the query does not return it
+    server
+        .expect(requestTo(SESSION_SERVICE_URL + "/virtual_study/query/fetch"))
+        .andExpect(method(HttpMethod.POST))
+        .andRespond(withSuccess("[" + virtualStudyJson("vs2") + "]", MediaType.APPLICATION_JSON));
+
+    sessionServiceRequestHandler.getVirtualStudyById("vs1");
+    List<VirtualStudy> result =
+        sessionServiceRequestHandler.getVirtualStudiesByIds(Arrays.asList("vs1", "vs2", "vs3"));
+
+    Assert.assertEquals(
+        Arrays.asList("vs1", "vs2"),
+        result.stream().map(VirtualStudy::getId).collect(Collectors.toList()));
+    // missing ids are remembered as well
+    Assert.assertTrue(sessionServiceRequestHandler.getVirtualStudyByIdIfExists("vs3").isEmpty());
+    server.verify();
+
+    SessionServiceStatistics statistics = sessionServiceRequestHandler.getStatistics();
+    Assert.assertEquals(
+        Arrays.asList("getVirtualStudiesByIds", "getVirtualStudyById"),
+        statistics.operations().stream()
+            .map(SessionServiceStatistics.OperationStatistics::operation)
+            .collect(Collectors.toList()));
+    Assert.assertEquals(2, statistics.virtualStudyCacheHitCount());
+  }
+
+  private void expectGet(String id) {
+    server
+        .expect(requestTo(SESSION_SERVICE_URL + "/virtual_study/" + id))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(withSuccess(virtualStudyJson(id), MediaType.APPLICATION_JSON));
+  }
+
+  private String virtualStudyJson(String id) {
+    return "{\"id\":\"" + id + "\",\"data\":{\"name\":\"study " + id + "\",\"users\":[\"user\"]}}";
+  }
+}
@@ -0,0 +1,156 @@
+package org.cbioportal.legacy.service.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.legacy.model.Gistic;
+import org.cbioportal.legacy.model.GisticToGene;
+import org.cbioportal.legacy.model.MutSig;
+import org.cbioportal.legacy.model.TableTimestampPair;
+import org.cbioportal.legacy.persistence.StaticDataTimeStampRepository;
+import org.cbioportal.legacy.service.SignificantCopyNumberRegionService;
+import org.cbioportal.legacy.service.SignificantlyMutatedGeneService;
+import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.SignificantGeneQValueCache.GisticQValues;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SignificantGeneQValueCacheTest {
+
+  private static final String STUDY_ID = "test_study_1";
+
+  @Mock private SignificantlyMutatedGeneService significantlyMutatedGeneService;
+  @Mock private SignificantCopyNumberRegionService significantCopyNumberRegionService;
+  @Mock private StaticDataTimeStampRepository staticDataTimeStampRepository;
+
+  private SignificantGeneQValueCache significantGeneQValueCache;
+
+  @Before
+  public void setUp() throws Exception {
+    // check the timestamps on every access
+    significantGeneQValueCache =
+        new SignificantGeneQValueCache(
+            significantlyMutatedGeneService,
+            significantCopyNumberRegionService,
+            staticDataTimeStampRepository,
+            1000,
+            1440,
+            0);
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("mut_sig", "2024-01-01 00:00:00")));
+  }
+
+  @Test
+  public void mutSigQValuesAreLoadedOnce() throws Exception {
+    when(significantlyMutatedGeneService.getSignificantlyMutatedGenes(
+            eq(STUDY_ID), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(createMutSig("TP53", "0.001"), createMutSig("KRAS", "0.05")));
+
+    Map<String, BigDecimal> qValues = significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+    significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+
+    Assert.assertEquals(
+        Map.of("TP53", new BigDecimal("0.001"), "KRAS", new BigDecimal("0.05")), qValues);
+    verify(significantlyMutatedGeneService, times(1))
+        .getSignificantlyMutatedGenes(eq(STUDY_ID), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void gisticQValuesUseLowestQValuePerGeneAndAlteration() throws Exception {
+    when(significantCopyNumberRegionService.getSignificantCopyNumberRegions(
+            eq(STUDY_ID), any(), any(), any(), any(), any()))
+        .thenReturn(
+            List.of(
+                createGistic(true, "0.01", "MYC", "PVT1"),
+                createGistic(true, "0.001", "MYC"),
+                createGistic(false, "0.02", "CDKN2A")));
+
+    GisticQValues qValues = significantGeneQValueCache.getGisticQValues(STUDY_ID);
+
+    Assert.assertEquals(new BigDecimal("0.001"), qValues.get("MYC", 2));
+    Assert.assertEquals(new BigDecimal("0.01"), qValues.get("PVT1", 2));
+    Assert.assertEquals(new BigDecimal("0.02"), qValues.get("CDKN2A", -2));
+    Assert.assertNull(qValues.get("CDKN2A", 2));
+    Assert.assertNull(qValues.get("MYC", -2));
+    Assert.assertNull(qValues.get("MYC", 1));
+  }
+
+  @Test
+  public void invalidatedStudyIsReloaded() throws Exception {
+    when(significantlyMutatedGeneService.getSignificantlyMutatedGenes(
+            eq(STUDY_ID), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(createMutSig("TP53", "0.001"), createMutSig("KRAS", "0.05")));
+
+    significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+    significantGeneQValueCache.invalidate(STUDY_ID);
+    significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+
+    verify(significantlyMutatedGeneService, times(2))
+        .getSignificantlyMutatedGenes(eq(STUDY_ID), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void changedTimestampReloads() throws Exception {
+    when(significantlyMutatedGeneService.getSignificantlyMutatedGenes(
+            eq(STUDY_ID), any(), any(), any(), any(), any()))
+        .thenReturn(List.of(createMutSig("TP53", "0.001"), createMutSig("KRAS", "0.05")));
+
+    significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+    when(staticDataTimeStampRepository.getTimestamps(anyList()))
+        .thenReturn(List.of(createTimestamp("mut_sig", "2024-02-01 00:00:00")));
+    significantGeneQValueCache.getMutSigQValues(STUDY_ID);
+
+    verify(significantlyMutatedGeneService, times(2))
+        .getSignificantlyMutatedGenes(eq(STUDY_ID), any(), any(), any(), any(), any());
+  }
+
+  @Test(expected = StudyNotFoundException.class)
+  public void studyNotFound() throws Exception {
+    when(significantlyMutatedGeneService.getSignificantlyMutatedGenes(
+            eq("unknown_study"), any(), any(), any(), any(), any()))
+        .thenThrow(new StudyNotFoundException("unknown_study"));
+
+    significantGeneQValueCache.getMutSigQValues("unknown_study");
+  }
+
+  private MutSig createMutSig(String hugoGeneSymbol, String qValue) {
+    MutSig mutSig = new MutSig();
+    mutSig.setHugoGeneSymbol(hugoGeneSymbol);
+    mutSig.setqValue(new BigDecimal(qValue));
+    return mutSig;
+  }
+
+  private Gistic createGistic(boolean amp, String qValue, String... hugoGeneSymbols) {
+    Gistic gistic = new Gistic();
+    gistic.setAmp(amp);
+    gistic.setqValue(new BigDecimal(qValue));
+    List<GisticToGene> genes = new ArrayList<>();
+    for (String hugoGeneSymbol : hugoGeneSymbols) {
+      GisticToGene gene = new GisticToGene();
+      gene.setHugoGeneSymbol(hugoGeneSymbol);
+      genes.add(gene);
+    }
+    gistic.setGenes(genes);
+    return gistic;
+  }
+
+  private TableTimestampPair createTimestamp(String tableName, String updateTime) {
+    TableTimestampPair pair = new TableTimestampPair();
+    pair.setTableName(tableName);
+    pair.setUpdateTime(updateTime);
+    return pair;
+  }
+}
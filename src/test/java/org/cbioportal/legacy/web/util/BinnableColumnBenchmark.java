@@ -0,0 +1,189 @@
+package org.cbioportal.legacy.web.util;
+
+import com.google.common.collect.Range;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.DataBin;
+
+/**
+ * Compares counting the filtered data of a chart into its bins with the previous BigDecimal lists
+ * and with a {@link BinnableColumn}. The values are read from the clinical data on every run, as in
+ * a study view request, and the bin layout is the same for both. Not a unit test, run it with the
+ * test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *     org.cbioportal.legacy.web.util.BinnableColumnBenchmark [samples]
+ * </pre>
+ */
+public class BinnableColumnBenchmark {
+
+  private static final int ITERATIONS = 20;
+
+  public static void main(String[] args) {
+    int sampleCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+    List<Binnable> clinicalData = createClinicalData(sampleCount);
+    List<DataBin> dataBins = createDataBins();
+    DataBinner dataBinner = new DataBinner();
+
+    List<DataBin> previousCounts = recalcPreviousBinCount(createDataBins(), clinicalData);
+    List<DataBin> columnCounts = recalcColumnBinCount(dataBinner, createDataBins(), clinicalData);
+    for (int i = 0; i < previousCounts.size(); i++) {
+      if (!previousCounts.get(i).getCount().equals(columnCounts.get(i).getCount())) {
+        throw new IllegalStateException("Counts of bin " + i + " differ");
+      }
+    }
+
+    for (int i = 0; i < 3; i++) {
+      run("BigDecimal lists", sampleCount, () -> recalcPreviousBinCount(dataBins, clinicalData));
+      run(
+          "BinnableColumn",
+          sampleCount,
+          () -> recalcColumnBinCount(dataBinner, dataBins, clinicalData));
+    }
+  }
+
+  private static void run(String description, int sampleCount, Runnable recount) {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // warm up
+    recount.run();
+    System.gc();
+    long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      recount.run();
+    }
+    long nanos = System.nanoTime() - start;
+    long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    System.out.printf(
+        "%-18s %,10d samples  %,8.2f ms per chart  %,6d bytes allocated per sample%n",
+        description,
+        sampleCount,
+        nanos / 1e6 / ITERATIONS,
+        allocated / ITERATIONS / sampleCount);
+  }
+
+  private static List<DataBin> recalcColumnBinCount(
+      DataBinner dataBinner, List<DataBin> dataBins, List<Binnable> clinicalData) {
+    BinnableColumn column = BinnableColumn.of(clinicalData);
+    return dataBinner.recalcBinCount(dataBins, column, column.countNAs());
+  }
+
+  // the recount as it was done before the values were classified into a column
+  private static List<DataBin> recalcPreviousBinCount(
+      List<DataBin> dataBins, List<Binnable> clinicalData) {
+    List<BigDecimal> numericalValues =
+        clinicalData.stream()
+            .filter(c -> NumberUtils.isCreatable(c.getAttrValue()))
+            .map(c -> new BigDecimal(c.getAttrValue()))
+            .collect(Collectors.toList());
+    List<String> nonNumericalValues =
+        clinicalData.stream()
+            .map(Binnable::getAttrValue)
+            .filter(
+                s ->
+                    !NumberUtils.isCreatable(DataBinHelper.stripOperator(s))
+                        && !DataBinHelper.isNA(s))
+            .collect(Collectors.toList());
+    List<Range<BigDecimal>> ranges =
+        clinicalData.stream()
+            .map(Binnable::getAttrValue)
+            .filter(
+                s ->
+                    (s.contains(">") || s.contains("<"))
+                        && NumberUtils.isCreatable(DataBinHelper.stripOperator(s)))
+            .map(
+                v ->
+                    DataBinHelper.calcRange(
+                        DataBinHelper.extractOperator(v).substring(0, 1),
+                        new BigDecimal(DataBinHelper.stripOperator(v))))
+            .collect(Collectors.toList());
+    long naCount = clinicalData.stream().filter(c -> DataBinHelper.isNA(c.getAttrValue())).count();
+
+    for (DataBin dataBin : dataBins) {
+      dataBin.setCount(0);
+      Range<BigDecimal> range = DataBinHelper.calcRange(dataBin);
+      if (range != null) {
+        for (BigDecimal value : numericalValues) {
+          if (range.contains(value)) {
+            dataBin.setCount(dataBin.getCount() + 1);
+          }
+        }
+        for (Range<BigDecimal> r : ranges) {
+          if (range.encloses(r)) {
+            dataBin.setCount(dataBin.getCount() + 1);
+          }
+        }
+      } else {
+        for (String value : nonNumericalValues) {
+          if (value.equalsIgnoreCase(dataBin.getSpecialValue())) {
+            dataBin.setCount(dataBin.getCount() + 1);
+          }
+        }
+      }
+      if ("NA".equalsIgnoreCase(dataBin.getSpecialValue())) {
+        dataBin.setCount((int) naCount);
+      }
+    }
+    return dataBins;
+  }
+
+  // ages with a few special, non-numerical and NA values
+  private static List<Binnable> createClinicalData(int sampleCount) {
+    Random random = new Random(42);
+    List<Binnable> clinicalData = new ArrayList<>(sampleCount);
+    for (int i = 0; i < sampleCount; i++) {
+      int kind = random.nextInt(100);
+      String value;
+      if (kind == 0) {
+        value = ">89";
+      } else if (kind == 1) {
+        value = "<18";
+      } else if (kind < 4) {
+        value = "NA";
+      } else if (kind == 4) {
+        value = "Unknown";
+      } else {
+        value = String.valueOf(18 + random.nextInt(72)) + (random.nextBoolean() ? ".5" : "");
+      }
+      ClinicalData datum = new ClinicalData();
+      datum.setStudyId("study");
+      datum.setSampleId("S" + i);
+      datum.setPatientId("P" + i);
+      datum.setAttrId("AGE");
+      datum.setAttrValue(value);
+      clinicalData.add(datum);
+    }
+    return clinicalData;
+  }
+
+  // the bins of an age chart: outliers, bins of five years, a non-numerical and the NA bin
+  private static List<DataBin> createDataBins() {
+    List<DataBin> dataBins = new ArrayList<>();
+    dataBins.add(createDataBin("<=", null, new BigDecimal(20)));
+    for (int start = 20; start < 85; start += 5) {
+      dataBins.add(createDataBin(null, new BigDecimal(start), new BigDecimal(start + 5)));
+    }
+    dataBins.add(createDataBin(">", new BigDecimal(85), null));
+    dataBins.add(createDataBin("Unknown", null, null));
+    dataBins.add(createDataBin("NA", null, null));
+    return dataBins;
+  }
+
+  private static DataBin createDataBin(String specialValue, BigDecimal start, BigDecimal end) {
+    DataBin dataBin = new DataBin();
+    dataBin.setSpecialValue(specialValue);
+    dataBin.setStart(start);
+    dataBin.setEnd(end);
+    return dataBin;
+  }
+}
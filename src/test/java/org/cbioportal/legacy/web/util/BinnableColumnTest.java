@@ -0,0 +1,106 @@
+package org.cbioportal.legacy.web.util;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.ClinicalDataCount;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinnableColumnTest {
+
+  @Test
+  public void classifiesValues() {
+    BinnableColumn column =
+        BinnableColumn.of(
+            createData("3", "1.5", ">80", ">=90", "<18", "<=10", "NA", "N/A", "Unknown", "<10PY"));
+
+    Assert.assertEquals(10, column.size());
+    Assert.assertEquals(
+        Arrays.asList(new BigDecimal("3"), new BigDecimal("1.5")), column.getNumericalValues());
+    Assert.assertArrayEquals(new double[] {1.5, 3}, column.getSortedNumericalValues(), 0);
+    Assert.assertEquals(Arrays.asList(new BigDecimal("80")), column.getSpecialValues(">"));
+    Assert.assertEquals(Arrays.asList(new BigDecimal("90")), column.getSpecialValues(">="));
+    Assert.assertEquals(Arrays.asList(new BigDecimal("18")), column.getSpecialValues("<"));
+    Assert.assertEquals(Arrays.asList(new BigDecimal("10")), column.getSpecialValues("<="));
+    Assert.assertEquals(4, column.getSpecialRanges().size());
+    Assert.assertEquals(Arrays.asList("Unknown", "<10PY"), column.getNonNumericalValues());
+    Assert.assertEquals(2, column.countNAs());
+  }
+
+  @Test
+  public void filtersNumericalValuesWithinBounds() {
+    BinnableColumn column = BinnableColumn.of(createData("5", "10", "15", "20", ">20", "NA", "x"));
+
+    BinnableColumn filtered = column.filterNumerical(new BigDecimal("10"), new BigDecimal("15"));
+
+    Assert.assertEquals(2, filtered.size());
+    Assert.assertEquals(
+        Arrays.asList(new BigDecimal("10"), new BigDecimal("15")), filtered.getNumericalValues());
+    Assert.assertTrue(filtered.getSpecialRanges().isEmpty());
+    Assert.assertTrue(filtered.getNonNumericalValues().isEmpty());
+    Assert.assertEquals(0, filtered.countNAs());
+
+    Assert.assertEquals(
+        4, column.filterNumerical(null, new BigDecimal("100")).getNumericalValues().size());
+  }
+
+  @Test
+  public void weightsValuesByCount() {
+    BinnableColumn column =
+        BinnableColumn.ofCounts(
+            Arrays.asList(
+                createCount("3", 2),
+                createCount("1.5", 3),
+                createCount(">80", 2),
+                createCount("NA", 4),
+                createCount("Unknown", 2),
+                createCount("2", 0)));
+
+    Assert.assertEquals(13, column.size());
+    Assert.assertEquals(
+        Arrays.asList(
+            new BigDecimal("1.5"),
+            new BigDecimal("1.5"),
+            new BigDecimal("1.5"),
+            new BigDecimal("3"),
+            new BigDecimal("3")),
+        column.getNumericalValues());
+    Assert.assertArrayEquals(
+        new double[] {1.5, 1.5, 1.5, 3, 3}, column.getSortedNumericalValues(), 0);
+    Assert.assertEquals(
+        3, column.countNumericalInRange(DataBinHelper.calcRange("<=", new BigDecimal("2"))));
+    Assert.assertEquals(
+        Arrays.asList(new BigDecimal("80"), new BigDecimal("80")), column.getSpecialValues(">"));
+    Assert.assertEquals(
+        2, column.countSpecialRangesWithin(DataBinHelper.calcRange(">", new BigDecimal("50"))));
+    Assert.assertEquals(Arrays.asList("Unknown", "Unknown"), column.getNonNumericalValues());
+    Assert.assertEquals(4, column.countNAs());
+
+    BinnableColumn filtered = column.filterNumerical(new BigDecimal("2"), null);
+    Assert.assertEquals(2, filtered.size());
+    Assert.assertEquals(
+        Arrays.asList(new BigDecimal("3"), new BigDecimal("3")), filtered.getNumericalValues());
+  }
+
+  private ClinicalDataCount createCount(String value, int count) {
+    ClinicalDataCount clinicalDataCount = new ClinicalDataCount();
+    clinicalDataCount.setValue(value);
+    clinicalDataCount.setCount(count);
+    return clinicalDataCount;
+  }
+
+  private List<Binnable> createData(String... values) {
+    return Arrays.stream(values)
+        .map(
+            value -> {
+              ClinicalData clinicalData = new ClinicalData();
+              clinicalData.setAttrValue(value);
+              return (Binnable) clinicalData;
+            })
+        .collect(Collectors.toList());
+  }
+}
@@ -31,7 +31,10 @@ import org.cbioportal.legacy.web.parameter.DataBinMethod;
 import org.cbioportal.legacy.web.parameter.DataFilterValue;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisExecutorsResource;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatcher;
@@ -46,6 +49,11 @@ import org.springframework.util.ResourceUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ClinicalDataBinUtilTest {
+
+  @ClassRule
+  public static final AnalysisExecutorsResource ANALYSIS_EXECUTORS =
+      new AnalysisExecutorsResource();
+
   private static String STUDY_ID = "genie_bpc_test";
   private static Integer STUDY_ID_INT = 205;
 
@@ -56,6 +64,7 @@ public class ClinicalDataBinUtilTest {
   @Mock private PatientService patientService;
   @Mock private SessionServiceRequestHandler sessionServiceRequestHandler;
   @Spy private ObjectMapper sessionServiceObjectMapper = new ObjectMapper();
+  @Spy private AnalysisExecutors analysisExecutors = ANALYSIS_EXECUTORS.get();
   @Spy @InjectMocks private CustomDataServiceImpl customDataService;
   @Spy private StudyViewFilterUtil studyViewFilterUtil;
   @Spy private ClinicalAttributeUtil clinicalAttributeUtil;
@@ -177,7 +186,7 @@ public class ClinicalDataBinUtilTest {
 
     // should call the correct bin calculate method only once for the given binning method
     verify(clinicalDataBinUtil, times(1))
-        .calculateStaticDataBins(any(), any(), any(), any(), any(), any(), any(), any());
+        .calculateStaticDataBins(any(), any(), any(), any(), any(), any(), any(), any(), any());
     verify(clinicalDataBinUtil, never())
         .calculateDynamicDataBins(any(), any(), any(), any(), any());
   }
@@ -280,7 +289,7 @@ public class ClinicalDataBinUtilTest {
 
     // should call the correct bin calculate method only once for the given binning method
     verify(clinicalDataBinUtil, times(1))
-        .calculateStaticDataBins(any(), any(), any(), any(), any(), any(), any(), any());
+        .calculateStaticDataBins(any(), any(), any(), any(), any(), any(), any(), any(), any());
     verify(clinicalDataBinUtil, never())
         .calculateDynamicDataBins(any(), any(), any(), any(), any());
   }
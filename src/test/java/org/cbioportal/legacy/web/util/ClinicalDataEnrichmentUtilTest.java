@@ -16,7 +16,10 @@ import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.ClinicalDataService;
 import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisExecutorsResource;
 import org.junit.Assert;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -27,6 +30,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class ClinicalDataEnrichmentUtilTest {
 
+  @ClassRule
+  public static final AnalysisExecutorsResource ANALYSIS_EXECUTORS =
+      new AnalysisExecutorsResource();
+
   public static final String STUDY_ID1 = "study_id_1";
   public static final String STUDY_ID2 = "study_id_2";
   public static final String SAMPLE_ID1 = "sample_id1";
@@ -55,6 +62,8 @@ public class ClinicalDataEnrichmentUtilTest {
 
   @Spy private ClinicalAttributeUtil clinicalAttributeUtil = new ClinicalAttributeUtil();
 
+  @Spy private AnalysisExecutors analysisExecutors = ANALYSIS_EXECUTORS.get();
+
   @Test
   public void fetchClinicalDataEnrichemnts() {
 
@@ -392,9 +401,9 @@ public class ClinicalDataEnrichmentUtilTest {
     // when there is data for more than one group
     Assert.assertEquals(2, actualClinicalDataEnrichments.size());
     Assert.assertEquals(
-        "0.7670968826920188", actualClinicalDataEnrichments.get(0).getpValue().toString());
+        0.7670968826920188, actualClinicalDataEnrichments.get(0).getpValue().doubleValue(), 1e-12);
     Assert.assertEquals(
-        "0.08771942638231253", actualClinicalDataEnrichments.get(0).getScore().toString());
+        0.08771942638231253, actualClinicalDataEnrichments.get(0).getScore().doubleValue(), 1e-12);
     Assert.assertEquals("Wilcoxon Test", actualClinicalDataEnrichments.get(0).getMethod());
   }
 }
@@ -0,0 +1,82 @@
+package org.cbioportal.legacy.web.util;
+
+import com.datumbox.framework.common.dataobjects.AssociativeArray;
+import com.datumbox.framework.common.dataobjects.DataTable2D;
+import com.datumbox.framework.common.dataobjects.FlatDataCollection;
+import com.datumbox.framework.common.dataobjects.TransposeDataCollection;
+import com.datumbox.framework.core.statistics.nonparametrics.independentsamples.Chisquare;
+import com.datumbox.framework.core.statistics.nonparametrics.independentsamples.KruskalWallis;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContingencyTableStatisticsTest {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void chiSquareMatchesDatumbox() {
+    Random random = new Random(42);
+    for (int run = 0; run < 100; run++) {
+      int[][] counts = new int[2 + random.nextInt(4)][2 + random.nextInt(5)];
+      DataTable2D table = new DataTable2D();
+      for (int row = 0; row < counts.length; row++) {
+        AssociativeArray rowCounts = new AssociativeArray();
+        for (int column = 0; column < counts[row].length; column++) {
+          // some empty cells, but no empty groups or categories
+          boolean empty = (row + column) % 2 == 1 && random.nextInt(4) == 0;
+          counts[row][column] = empty ? 0 : 1 + random.nextInt(50);
+          rowCounts.put(column, counts[row][column]);
+        }
+        table.put(row, rowCounts);
+      }
+      double score = ContingencyTableStatistics.chiSquareScore(counts);
+      int degreesOfFreedom = (counts.length - 1) * (counts[0].length - 1);
+      Assert.assertEquals((Double) Chisquare.getScoreValue(table), score, DELTA);
+      Assert.assertEquals(
+          Chisquare.getPvalue(table),
+          ContingencyTableStatistics.pValue(score, degreesOfFreedom),
+          DELTA);
+    }
+  }
+
+  @Test
+  public void kruskalWallisMatchesDatumbox() {
+    Random random = new Random(42);
+    for (int run = 0; run < 100; run++) {
+      double[][] valuesByGroup = new double[2 + random.nextInt(4)][];
+      TransposeDataCollection groups = new TransposeDataCollection();
+      for (int group = 0; group < valuesByGroup.length; group++) {
+        valuesByGroup[group] = new double[1 + random.nextInt(20)];
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < valuesByGroup[group].length; i++) {
+          // few distinct values to get ties
+          valuesByGroup[group][i] = random.nextInt(10) / 2.0;
+          values.add(valuesByGroup[group][i]);
+        }
+        groups.put(group, new FlatDataCollection(values));
+      }
+      if (Arrays.stream(valuesByGroup).flatMapToDouble(Arrays::stream).distinct().count() < 2) {
+        continue;
+      }
+
+      double score = ContingencyTableStatistics.kruskalWallisScore(valuesByGroup);
+      Assert.assertEquals(
+          KruskalWallis.getPvalue(groups),
+          ContingencyTableStatistics.pValue(score, valuesByGroup.length - 1),
+          DELTA);
+    }
+  }
+
+  @Test
+  public void kruskalWallisScore() {
+    // no ties: ranks 1, 2, 3 and 4, 5, 6 give H = 12 / 42 * (36 / 3 + 225 / 3) - 21
+    Assert.assertEquals(
+        3.857142857142857,
+        ContingencyTableStatistics.kruskalWallisScore(new double[][] {{1, 2, 3}, {4, 5, 6}}),
+        1e-12);
+  }
+}
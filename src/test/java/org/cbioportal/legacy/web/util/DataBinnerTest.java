@@ -2,18 +2,24 @@ package org.cbioportal.legacy.web.util;
 
 import static org.cbioportal.legacy.web.parameter.DataBinFilter.*;
 
+import com.google.common.collect.Range;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.cbioportal.domain.studyview.NumericalDataBins;
 import org.cbioportal.legacy.model.Binnable;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.ClinicalDataCount;
 import org.cbioportal.legacy.model.DataBin;
 import org.cbioportal.legacy.service.GeneService;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
@@ -382,6 +388,70 @@ public class DataBinnerTest {
     Assert.assertEquals(13, unfilteredDataBins.get(10).getCount().intValue());
   }
 
+  @Test
+  public void testStaticDataBinnerFilterReusesUnfilteredLayout() {
+    String studyId = "blca_tcga";
+    String attributeId = "AGE";
+    String[] values = mockData.get("blca_tcga_AGE");
+
+    ClinicalDataBinFilter clinicalDataBinFilter = new ClinicalDataBinFilter();
+    clinicalDataBinFilter.setAttributeId(attributeId);
+
+    List<Binnable> unfilteredClinicalData = mockClinicalData(attributeId, studyId, values);
+    BinnableColumn unfilteredColumn = BinnableColumn.of(unfilteredClinicalData);
+
+    List<DataBin> firstDataBins =
+        dataBinner.calculateClinicalDataBins(
+            clinicalDataBinFilter,
+            BinnableColumn.of(unfilteredClinicalData.subList(0, 108)),
+            unfilteredColumn,
+            List.of(studyId));
+    List<DataBin> secondDataBins =
+        dataBinner.calculateClinicalDataBins(
+            clinicalDataBinFilter, unfilteredColumn, unfilteredColumn, List.of(studyId));
+
+    // same layout, but counts of the first call must not leak into the second one
+    Assert.assertEquals(11, firstDataBins.size());
+    Assert.assertEquals(11, secondDataBins.size());
+    Assert.assertNotSame(firstDataBins.get(5), secondDataBins.get(5));
+    Assert.assertEquals(firstDataBins.get(5).getStart(), secondDataBins.get(5).getStart());
+    Assert.assertEquals(0, firstDataBins.get(5).getCount().intValue());
+    Assert.assertEquals(53, secondDataBins.get(5).getCount().intValue());
+    Assert.assertEquals(59, firstDataBins.get(4).getCount().intValue());
+    Assert.assertEquals(59, secondDataBins.get(4).getCount().intValue());
+  }
+
+  @Test
+  public void testStaticDataBinnerCachesUnfilteredLayoutByStudies() {
+    String attributeId = "AGE";
+    ClinicalDataBinFilter clinicalDataBinFilter = new ClinicalDataBinFilter();
+    clinicalDataBinFilter.setAttributeId(attributeId);
+
+    BinnableColumn ages =
+        BinnableColumn.of(
+            mockClinicalData(attributeId, "blca_tcga", mockData.get("blca_tcga_AGE")));
+    BinnableColumn fewAges =
+        BinnableColumn.of(mockClinicalData(attributeId, "blca_tcga", new String[] {"1", "2"}));
+
+    List<DataBin> dataBins =
+        dataBinner.calculateClinicalDataBins(
+            clinicalDataBinFilter, ages, ages, List.of("acc_tcga", "blca_tcga"));
+    // the unfiltered data of the same studies is not looked at again
+    List<DataBin> sameStudiesDataBins =
+        dataBinner.calculateClinicalDataBins(
+            clinicalDataBinFilter, fewAges, fewAges, List.of("blca_tcga", "acc_tcga"));
+    List<DataBin> otherStudyDataBins =
+        dataBinner.calculateClinicalDataBins(
+            clinicalDataBinFilter, fewAges, fewAges, List.of("brca_tcga"));
+    List<DataBin> uncachedDataBins =
+        dataBinner.calculateClinicalDataBins(clinicalDataBinFilter, fewAges, fewAges, null);
+
+    Assert.assertEquals(11, dataBins.size());
+    Assert.assertEquals(11, sameStudiesDataBins.size());
+    Assert.assertNotEquals(11, otherStudyDataBins.size());
+    Assert.assertNotEquals(11, uncachedDataBins.size());
+  }
+
   @Test
   public void testLinearDataBinnerWithNumberOfPetOrPetCtScans() {
     String studyId = "genie";
@@ -1342,6 +1412,159 @@ public class DataBinnerTest {
     Assert.assertEquals(">", dataBins.get(13).getSpecialValue());
   }
 
+  @Test
+  public void testValueCountsGiveSameBinsAsExpandedValues() {
+    for (Map.Entry<String, String[]> entry : mockData.entrySet()) {
+      // value counts as returned by ClickHouse, and the filtered counts of about half the samples
+      Map<String, Integer> valueCounts = new LinkedHashMap<>();
+      for (String value : entry.getValue()) {
+        valueCounts.merge(value, 1, Integer::sum);
+      }
+      List<ClinicalDataCount> unfilteredCounts = new ArrayList<>();
+      List<ClinicalDataCount> filteredCounts = new ArrayList<>();
+      List<Binnable> unfilteredClinicalData = new ArrayList<>();
+      List<Binnable> filteredClinicalData = new ArrayList<>();
+      valueCounts.forEach(
+          (value, count) -> {
+            unfilteredCounts.add(mockClinicalDataCount(value, count));
+            filteredCounts.add(mockClinicalDataCount(value, (count + 1) / 2));
+            unfilteredClinicalData.addAll(
+                mockClinicalData(entry.getKey(), "study", Collections.nCopies(count, value)));
+            filteredClinicalData.addAll(
+                mockClinicalData(
+                    entry.getKey(), "study", Collections.nCopies((count + 1) / 2, value)));
+          });
+
+      for (BinMethod binMethod : Arrays.asList(null, BinMethod.QUARTILE, BinMethod.MEDIAN)) {
+        for (boolean withRange : new boolean[] {false, true}) {
+          ClinicalDataBinFilter clinicalDataBinFilter = new ClinicalDataBinFilter();
+          clinicalDataBinFilter.setAttributeId(entry.getKey());
+          clinicalDataBinFilter.setBinMethod(binMethod);
+          if (withRange) {
+            clinicalDataBinFilter.setStart(new BigDecimal("1"));
+            clinicalDataBinFilter.setEnd(new BigDecimal("1000"));
+          }
+
+          testBinsIdentical(
+              dataBinner.calculateDataBins(clinicalDataBinFilter, unfilteredClinicalData),
+              dataBinner.calculateDataBins(
+                  clinicalDataBinFilter, BinnableColumn.ofCounts(unfilteredCounts)));
+          testBinsIdentical(
+              dataBinner.calculateClinicalDataBins(
+                  clinicalDataBinFilter, filteredClinicalData, unfilteredClinicalData),
+              dataBinner.calculateClinicalDataBins(
+                  clinicalDataBinFilter,
+                  BinnableColumn.ofCounts(filteredCounts),
+                  BinnableColumn.ofCounts(unfilteredCounts)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testValueCountsMergedByNumericalBinGiveSameBins() {
+    Map<String, String[]> data = new LinkedHashMap<>(mockData);
+    // values the database does not merge: not plain decimals, or more than 15 digits
+    data.put(
+        "MIXED",
+        new String[] {
+          "1", "1.0", "2", "2.50", "007", "+3", "1e1", "10", "10", ">10", "<1", "NA", "abc",
+          "3.000000000000001", "12345678901234567", "-0", "0.5", "4", "4", "5", "6", "7", "8"
+        });
+    int mergedCount = 0;
+
+    for (Map.Entry<String, String[]> entry : data.entrySet()) {
+      Map<String, Integer> valueCounts = new LinkedHashMap<>();
+      for (String value : entry.getValue()) {
+        valueCounts.merge(value, 1, Integer::sum);
+      }
+      List<ClinicalDataCount> unfilteredCounts = new ArrayList<>();
+      List<ClinicalDataCount> filteredCounts = new ArrayList<>();
+      valueCounts.forEach(
+          (value, count) -> {
+            unfilteredCounts.add(mockClinicalDataCount(value, count));
+            filteredCounts.add(mockClinicalDataCount(value, (count + 1) / 2));
+          });
+
+      for (BinMethod binMethod : Arrays.asList(null, BinMethod.QUARTILE, BinMethod.MEDIAN)) {
+        for (boolean withRange : new boolean[] {false, true}) {
+          ClinicalDataBinFilter clinicalDataBinFilter = new ClinicalDataBinFilter();
+          clinicalDataBinFilter.setAttributeId(entry.getKey());
+          clinicalDataBinFilter.setBinMethod(binMethod);
+          if (withRange) {
+            clinicalDataBinFilter.setStart(new BigDecimal("1"));
+            clinicalDataBinFilter.setEnd(new BigDecimal("1000"));
+          }
+          BinnableColumn unfilteredColumn = BinnableColumn.ofCounts(unfilteredCounts);
+
+          Optional<NumericalDataBins> numericalDataBins =
+              NumericalDataBins.of(
+                  entry.getKey(),
+                  dataBinner.calculateUnfilteredDataBins(
+                      clinicalDataBinFilter, unfilteredColumn, null));
+          if (numericalDataBins.isEmpty()) {
+            continue;
+          }
+          List<ClinicalDataCount> mergedCounts =
+              mergeByNumericalBin(filteredCounts, numericalDataBins.get());
+          if (mergedCounts.size() < filteredCounts.size()) {
+            mergedCount++;
+          }
+
+          testBinsIdentical(
+              dataBinner.calculateClinicalDataBins(
+                  clinicalDataBinFilter, BinnableColumn.ofCounts(filteredCounts), unfilteredColumn),
+              dataBinner.calculateClinicalDataBins(
+                  clinicalDataBinFilter, BinnableColumn.ofCounts(mergedCounts), unfilteredColumn));
+        }
+      }
+    }
+
+    Assert.assertTrue(mergedCount > 0);
+  }
+
+  // merges the counts of the values in the same numerical bin, like the ClickHouse query does
+  private List<ClinicalDataCount> mergeByNumericalBin(
+      List<ClinicalDataCount> dataCounts, NumericalDataBins numericalDataBins) {
+    Map<String, ClinicalDataCount> mergedCounts = new LinkedHashMap<>();
+    for (ClinicalDataCount dataCount : dataCounts) {
+      String key = "value " + dataCount.getValue();
+      if (dataCount.getValue().matches("-?(0|[1-9][0-9]*)([.][0-9]+)?")
+          && dataCount.getValue().replaceAll("[^0-9]", "").length()
+              <= NumericalDataBins.MAX_DIGITS) {
+        BigDecimal value = new BigDecimal(dataCount.getValue());
+        for (int i = 0; i < numericalDataBins.bins().size(); i++) {
+          NumericalDataBins.Bin bin = numericalDataBins.bins().get(i);
+          Range<BigDecimal> range =
+              DataBinHelper.calcRange(
+                  bin.start() == null ? null : new BigDecimal(bin.start()),
+                  bin.startInclusive(),
+                  bin.end() == null ? null : new BigDecimal(bin.end()),
+                  bin.endInclusive());
+          if (range.contains(value)) {
+            key = "bin " + i;
+            break;
+          }
+        }
+      }
+      ClinicalDataCount mergedCount =
+          mergedCounts.computeIfAbsent(key, k -> mockClinicalDataCount(dataCount.getValue(), 0));
+      mergedCount.setCount(mergedCount.getCount() + dataCount.getCount());
+    }
+    return new ArrayList<>(mergedCounts.values());
+  }
+
+  private ClinicalDataCount mockClinicalDataCount(String value, int count) {
+    ClinicalDataCount clinicalDataCount = new ClinicalDataCount();
+    clinicalDataCount.setValue(value);
+    clinicalDataCount.setCount(count);
+    return clinicalDataCount;
+  }
+
+  private List<Binnable> mockClinicalData(String attributeId, String studyId, List<String> values) {
+    return mockClinicalData(attributeId, studyId, values.toArray(new String[0]));
+  }
+
   private List<Binnable> mockClinicalData(String attributeId, String studyId, String[] values) {
     List<Binnable> clinicalDataList = new ArrayList<>();
 
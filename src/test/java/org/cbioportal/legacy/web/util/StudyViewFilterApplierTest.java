@@ -7,6 +7,8 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,6 +34,7 @@ import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.model.Mutation;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.model.SampleList;
 import org.cbioportal.legacy.model.util.Select;
 import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.ClinicalDataService;
@@ -48,6 +51,7 @@ import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.StructuralVariantService;
 import org.cbioportal.legacy.service.impl.CustomDataServiceImpl;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
+import org.cbioportal.legacy.service.util.SampleListMembershipCache;
 import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
 import org.cbioportal.legacy.web.config.TestConfig;
 import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
@@ -59,8 +63,11 @@ import org.cbioportal.legacy.web.parameter.MutationOption;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.shared.concurrent.AnalysisExecutors;
+import org.cbioportal.shared.concurrent.AnalysisExecutorsResource;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -76,6 +83,10 @@ import org.springframework.util.ResourceUtils;
 @ContextConfiguration(classes = TestConfig.class)
 public class StudyViewFilterApplierTest {
 
+  @ClassRule
+  public static final AnalysisExecutorsResource ANALYSIS_EXECUTORS =
+      new AnalysisExecutorsResource();
+
   public static final String STUDY_ID = "study_id";
   public static final String SAMPLE_ID1 = "sample_id1";
   public static final String SAMPLE_ID2 = "sample_id2";
@@ -126,6 +137,11 @@ public class StudyViewFilterApplierTest {
 
   @Mock private SessionServiceRequestHandler sessionServiceRequestHandler;
   @Spy private ObjectMapper sessionServiceObjectMapper = new ObjectMapper();
+  @Spy private AnalysisExecutors analysisExecutors = ANALYSIS_EXECUTORS.get();
+
+  @Spy
+  private SampleListMembershipCache sampleListMembershipCache =
+      new SampleListMembershipCache(1000, 60);
 
   @Spy @InjectMocks private CustomDataServiceImpl customDataService;
 
@@ -1089,6 +1105,54 @@ public class StudyViewFilterApplierTest {
     Assert.assertEquals(2, result2.size());
   }
 
+  @Test
+  public void applyCaseListFilter() throws Exception {
+
+    List<String> studyIds = Collections.singletonList(STUDY_ID);
+    StudyViewFilter studyViewFilter = new StudyViewFilter();
+    studyViewFilter.setStudyIds(studyIds);
+
+    List<Sample> samples = new ArrayList<>();
+    for (String sampleId : Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3, SAMPLE_ID4)) {
+      Sample sample = createSample(sampleId);
+      sample.setInternalId(samples.size() + 1);
+      samples.add(sample);
+    }
+    when(sampleService.getAllSamplesInStudies(
+            studyIds, Projection.ID.name(), null, null, null, null))
+        .thenReturn(samples);
+    when(sampleListService.getAllSampleListsInStudies(studyIds, Projection.DETAILED.name()))
+        .thenReturn(
+            Arrays.asList(
+                createSampleList("cnaseq", SAMPLE_ID1, SAMPLE_ID2),
+                createSampleList("cna", SAMPLE_ID3, SAMPLE_ID4),
+                createSampleList("sequenced", SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3)));
+
+    // (cnaseq OR cna) AND sequenced
+    studyViewFilter.setCaseLists(
+        Arrays.asList(Arrays.asList("cnaseq", "cna"), Collections.singletonList("sequenced")));
+    List<SampleIdentifier> result1 = studyViewFilterApplier.apply(studyViewFilter);
+    Assert.assertEquals(
+        Arrays.asList(SAMPLE_ID1, SAMPLE_ID2, SAMPLE_ID3),
+        result1.stream().map(SampleIdentifier::getSampleId).collect(toList()));
+
+    studyViewFilter.setCaseLists(Collections.singletonList(Collections.singletonList("unknown")));
+    List<SampleIdentifier> result2 = studyViewFilterApplier.apply(studyViewFilter);
+    Assert.assertEquals(0, result2.size());
+
+    // the sample lists of the study are loaded once
+    verify(sampleListService, times(1))
+        .getAllSampleListsInStudies(studyIds, Projection.DETAILED.name());
+  }
+
+  private SampleList createSampleList(String sampleListType, String... sampleIds) {
+    SampleList sampleList = new SampleList();
+    sampleList.setStableId(STUDY_ID + "_" + sampleListType);
+    sampleList.setCancerStudyIdentifier(STUDY_ID);
+    sampleList.setSampleIds(Arrays.asList(sampleIds));
+    return sampleList;
+  }
+
   private DataFilterValue createDataFilterValue(String value) {
     DataFilterValue equalityFilter = new DataFilterValue();
     equalityFilter.setValue(value);
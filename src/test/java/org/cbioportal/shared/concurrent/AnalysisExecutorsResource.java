@@ -0,0 +1,26 @@
+package org.cbioportal.shared.concurrent;
+
+import org.junit.rules.ExternalResource;
+
+/**
+ * Small {@link AnalysisExecutors} for tests of services that fork analysis tasks. Use it as a
+ * {@code @ClassRule}, so that the pools are shut down after the tests of the class.
+ */
+public class AnalysisExecutorsResource extends ExternalResource {
+
+  private AnalysisExecutors analysisExecutors;
+
+  @Override
+  protected void before() {
+    analysisExecutors = new AnalysisExecutors(2, 100, 2, 100, 2);
+  }
+
+  @Override
+  protected void after() {
+    analysisExecutors.shutdown();
+  }
+
+  public AnalysisExecutors get() {
+    return analysisExecutors;
+  }
+}
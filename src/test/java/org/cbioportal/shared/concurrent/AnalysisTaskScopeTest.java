@@ -0,0 +1,147 @@
+package org.cbioportal.shared.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class AnalysisTaskScopeTest {
+
+  private final AnalysisExecutors analysisExecutors = new AnalysisExecutors(4, 100, 4, 100, 2);
+
+  @After
+  public void tearDown() {
+    analysisExecutors.shutdown();
+  }
+
+  @Test
+  public void joinAllReturnsResultsInForkOrder() {
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        int value = i;
+        futures.add(scope.forkCpu(() -> value * value));
+      }
+      List<Integer> results = scope.joinAll(futures);
+      for (int i = 0; i < 10; i++) {
+        assertEquals(Integer.valueOf(i * i), results.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void forkedTasksRespectPerRequestBudget() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        futures.add(
+            scope.forkIo(
+                () -> {
+                  maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                  Thread.sleep(5);
+                  running.decrementAndGet();
+                  return 1;
+                }));
+      }
+      assertEquals(20, scope.joinAll(futures).stream().mapToInt(Integer::intValue).sum());
+    }
+    assertTrue(maxRunning.get() <= 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void joinRethrowsRuntimeExceptionOfTask() {
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      Future<Integer> future =
+          scope.forkCpu(
+              () -> {
+                throw new IllegalStateException("failed");
+              });
+      scope.join(future);
+    }
+  }
+
+  @Test
+  public void closeCancelsOutstandingTasks() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    Future<Integer> future;
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      future =
+          scope.forkIo(
+              () -> {
+                started.countDown();
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return 1;
+              });
+      started.await();
+    }
+    assertTrue(future.isCancelled());
+  }
+
+  @Test
+  public void cancelledTaskKeepsItsPermitUntilItStops() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      Future<Integer> future =
+          scope.forkCpu(
+              () -> {
+                started.countDown();
+                // ignores the interrupt of the cancellation
+                while (release.getCount() > 0) {
+                  Thread.onSpinWait();
+                }
+                return 1;
+              });
+      started.await();
+      future.cancel(true);
+      assertEquals(1, scope.availablePermits());
+
+      release.countDown();
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+      while (scope.availablePermits() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1);
+      }
+      assertEquals(2, scope.availablePermits());
+    }
+  }
+
+  @Test
+  public void queuedTasksAreCancelledOnShutdown() throws Exception {
+    AnalysisExecutors singleThreadExecutors = new AnalysisExecutors(1, 10, 1, 10, 2);
+    CountDownLatch started = new CountDownLatch(1);
+    try (AnalysisTaskScope scope = singleThreadExecutors.openScope()) {
+      scope.forkCpu(
+          () -> {
+            started.countDown();
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return 1;
+          });
+      Future<Integer> queued = scope.forkCpu(() -> 2);
+      started.await();
+      singleThreadExecutors.shutdown();
+
+      assertThrows(CancellationException.class, () -> scope.join(queued));
+    }
+  }
+
+  @Test
+  public void forkAfterShutdownIsRejected() {
+    analysisExecutors.shutdown();
+    try (AnalysisTaskScope scope = analysisExecutors.openScope()) {
+      assertThrows(RejectedExecutionException.class, () -> scope.forkCpu(() -> 1));
+      assertEquals(2, scope.availablePermits());
+    }
+  }
+}
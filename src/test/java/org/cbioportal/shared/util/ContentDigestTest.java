@@ -0,0 +1,29 @@
+package org.cbioportal.shared.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ContentDigestTest {
+
+  @Test
+  public void sequencesAreDelimited() {
+    assertEquals(
+        ContentDigest.ofSequences(List.of("study"), List.of("a", "b")),
+        ContentDigest.ofSequences(List.of("study"), List.of("a", "b")));
+    assertNotEquals(
+        ContentDigest.ofSequences(List.of("ab"), List.of("c")),
+        ContentDigest.ofSequences(List.of("a"), List.of("bc")));
+    assertNotEquals(
+        ContentDigest.ofSequences(List.of("a", "b"), List.of()),
+        ContentDigest.ofSequences(List.of("a"), List.of("b")));
+    assertNotEquals(
+        ContentDigest.ofSequences(Arrays.asList("a", null)),
+        ContentDigest.ofSequences(List.of("a", "null")));
+    assertNotEquals(
+        ContentDigest.ofSequences(List.of("a", "b")), ContentDigest.ofSequences(List.of("b", "a")));
+  }
+}
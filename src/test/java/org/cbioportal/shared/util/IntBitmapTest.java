@@ -0,0 +1,56 @@
+package org.cbioportal.shared.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class IntBitmapTest {
+
+  @Test
+  public void matchesTreeSetForSparseAndDenseChunks() {
+    Random random = new Random(42);
+    for (int range : new int[] {70000, 300000, 5000000}) {
+      int[] values = new int[20000];
+      TreeSet<Integer> expected = new TreeSet<>();
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextInt(range);
+        expected.add(values[i]);
+      }
+
+      IntBitmap bitmap = IntBitmap.of(values);
+
+      assertEquals(expected.size(), bitmap.cardinality());
+      assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+      for (int i = 0; i < 10000; i++) {
+        int value = random.nextInt(range + 10) - 5;
+        assertEquals(expected.contains(value), bitmap.contains(value));
+      }
+    }
+  }
+
+  @Test
+  public void intersects() {
+    IntBitmap bitmap = IntBitmap.of(1, 5, 70000, 70001, 1 << 20);
+
+    assertArrayEquals(
+        new int[] {5, 70001}, bitmap.and(IntBitmap.of(70001, 5, 6, 70002)).toArray());
+    assertTrue(bitmap.and(IntBitmap.empty()).isEmpty());
+    assertFalse(bitmap.contains(-1));
+  }
+
+  @Test
+  public void unites() {
+    IntBitmap bitmap = IntBitmap.of(1, 5, 70000);
+
+    assertArrayEquals(
+        new int[] {1, 2, 5, 70000, 1 << 20},
+        bitmap.or(IntBitmap.of(1 << 20, 5, 2)).toArray());
+    assertEquals(3, bitmap.or(IntBitmap.empty()).cardinality());
+    assertEquals(3, IntBitmap.empty().or(bitmap).cardinality());
+  }
+}
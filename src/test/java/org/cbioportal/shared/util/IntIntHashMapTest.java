@@ -0,0 +1,44 @@
+package org.cbioportal.shared.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class IntIntHashMapTest {
+
+  @Test
+  public void matchesHashMapAcrossRehashes() {
+    IntIntHashMap map = new IntIntHashMap(4);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      int key = random.nextInt(20000) - 10000;
+      map.put(key, i);
+      expected.put(key, i);
+    }
+
+    assertEquals(expected.size(), map.size());
+    for (int key = -10000; key < 10000; key++) {
+      assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+    }
+  }
+
+  @Test
+  public void handlesZeroKey() {
+    IntIntHashMap map = new IntIntHashMap(2);
+    assertFalse(map.containsKey(0));
+    assertEquals(-1, map.get(0, -1));
+
+    map.put(0, 7);
+    map.put(0, 8);
+
+    assertTrue(map.containsKey(0));
+    assertEquals(8, map.get(0, -1));
+    assertEquals(1, map.size());
+  }
+}